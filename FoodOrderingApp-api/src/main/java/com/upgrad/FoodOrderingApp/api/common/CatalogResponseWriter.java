@@ -0,0 +1,86 @@
+package com.upgrad.FoodOrderingApp.api.common;
+
+import java.util.function.Supplier;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResource;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResponseCache;
+import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
+import com.upgrad.FoodOrderingApp.service.datasource.ReadRouting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes catalog listings from the {@link CatalogResponseCache}. The cached bytes are handed to the
+ * byte array message converter as they are, so a listing is serialized once per change instead of
+ * once per request, and a client already holding the current ETag gets a 304 without a body. A
+ * listing to be cached is read from the primary, never from a replica still behind the write that
+ * invalidated it.
+ */
+@Component
+public class CatalogResponseWriter {
+
+    @Autowired private CatalogResponseCache catalogResponseCache;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    @Autowired private ReadRouting readRouting;
+
+    /**
+     * This method gets the response of a catalog listing.
+     *
+     * @param resource Catalog listing to be returned.
+     * @param ifNoneMatch Value of the If-None-Match request header, null if absent.
+     * @param responseBuilder Builds the response model of the listing on a cache miss.
+     * @return ResponseEntity with the serialized listing and HttpStatus as OK, or HttpStatus as
+     *     NOT_MODIFIED if the ETag matches.
+     */
+    public ResponseEntity<byte[]> write(
+            final CatalogResource resource,
+            final String ifNoneMatch,
+            final Supplier<Object> responseBuilder) {
+        CatalogResponseCache.CachedResponse response =
+                catalogResponseCache.get(
+                        resource,
+                        () -> readRouting.readFromPrimary(() -> serialize(responseBuilder.get())));
+
+        if (matches(ifNoneMatch, response.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.getETag()).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(response.getETag())
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .contentLength(response.getBody().length)
+                .body(response.getBody());
+    }
+
+    private byte[] serialize(final Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+    }
+
+    /* If-None-Match uses the weak comparison, so a W/ prefix sent back by a client still matches */
+
+    private boolean matches(final String ifNoneMatch, final String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,49 @@
+package com.upgrad.FoodOrderingApp.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Sizes the connection pool from the number of cores when datasource.pool.connections-per-core is
+ * set: cores * connections-per-core + spindles connections, all kept open. More connections than
+ * that only queue up in the database. The cores are those of the database server,
+ * datasource.pool.cores, or of this machine when not set. A pool size set in
+ * spring.datasource.hikari.maximum-pool-size is left as it is.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.pool.connections-per-core")
+public class DataSourcePoolConfiguration {
+
+    @Bean
+    public static BeanPostProcessor dataSourcePoolSizing(final Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (bean instanceof HikariDataSource
+                        && !environment.containsProperty(
+                                "spring.datasource.hikari.maximum-pool-size")) {
+                    int poolSize = getPoolSize(environment);
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    dataSource.setMaximumPoolSize(poolSize);
+                    dataSource.setMinimumIdle(poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int getPoolSize(final Environment environment) {
+        int cores = environment.getProperty("datasource.pool.cores", Integer.class, 0);
+        if (cores <= 0) {
+            cores = Runtime.getRuntime().availableProcessors();
+        }
+        int connectionsPerCore =
+                environment.getProperty("datasource.pool.connections-per-core", Integer.class);
+        int spindles = environment.getProperty("datasource.pool.spindles", Integer.class, 1);
+        return Math.max(1, cores * connectionsPerCore + spindles);
+    }
+}
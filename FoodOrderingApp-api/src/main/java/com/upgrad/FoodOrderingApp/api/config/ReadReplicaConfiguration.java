@@ -0,0 +1,117 @@
+package com.upgrad.FoodOrderingApp.api.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import com.upgrad.FoodOrderingApp.service.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+/**
+ * Sends read-only transactions to the read replicas in datasource.replicas.urls, see {@link
+ * ReplicaRoutingDataSource}. The primary is spring.datasource.url; every pool connects with the
+ * username and password of the primary and is configured by spring.datasource.hikari and sized as
+ * in {@link DataSourcePoolConfiguration}. A replica pool waits for a connection no longer than
+ * datasource.replicas.connection-timeout instead of the connectionTimeout of the primary, so a
+ * read sent to a replica that went down since its lag was checked fails fast.
+ *
+ * <p>To try it locally, list the primary itself as a replica with a different ApplicationName: it
+ * reports no lag, and pg_stat_activity shows which pool a query came from.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replicas.urls")
+public class ReadReplicaConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            final DataSourceProperties properties,
+            final Environment environment,
+            final ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary =
+                createPool(properties, properties.determineUrl(), "primary", environment);
+        meterRegistry.ifAvailable(primary::setMetricRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        String[] urls = environment.getProperty("datasource.replicas.urls", String[].class);
+        for (int i = 0; i < urls.length; i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource replica = createPool(properties, urls[i].trim(), name, environment);
+            // a replica that is down is skipped until it is back instead of failing the startup
+            replica.setInitializationFailTimeout(-1);
+            replica.setConnectionTimeout(
+                    environment.getProperty(
+                            "datasource.replicas.connection-timeout", Long.class, 1000L));
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.put(name, replica);
+        }
+        long maxLagMillis =
+                environment.getProperty("datasource.replicas.max-lag", Long.class, 1000L);
+        long lagCheckTimeoutMillis =
+                environment.getProperty("datasource.replicas.lag-check-timeout", Long.class, 250L);
+        return new ReplicaRoutingDataSource(
+                primary, replicas, maxLagMillis, lagCheckTimeoutMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /*
+     * Hibernate holds on to a connection until the entity manager is closed, which with open
+     * session in view is the end of the request. A write after a read-only transaction would then
+     * run on the replica connection, so each transaction takes its own connection instead.
+     */
+    @Bean
+    public static BeanPostProcessor connectionPerTransaction() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(
+                    final Object bean, final String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean) {
+                    ((LocalContainerEntityManagerFactoryBean) bean)
+                            .getJpaPropertyMap()
+                            .put(
+                                    "hibernate.connection.handling_mode",
+                                    "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static HikariDataSource createPool(
+            final DataSourceProperties properties,
+            final String url,
+            final String name,
+            final Environment environment) {
+        HikariDataSource dataSource =
+                properties
+                        .initializeDataSourceBuilder()
+                        .type(HikariDataSource.class)
+                        .url(url)
+                        .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        if (environment.containsProperty("datasource.pool.connections-per-core")
+                && !environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+            int poolSize = DataSourcePoolConfiguration.getPoolSize(environment);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setMinimumIdle(poolSize);
+        }
+        return dataSource;
+    }
+}
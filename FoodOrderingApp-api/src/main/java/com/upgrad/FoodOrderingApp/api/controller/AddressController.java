@@ -1,9 +1,11 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import com.upgrad.FoodOrderingApp.api.common.CatalogResponseWriter;
 import com.upgrad.FoodOrderingApp.api.common.Utility;
 import com.upgrad.FoodOrderingApp.api.model.*;
 import com.upgrad.FoodOrderingApp.service.businness.AddressService;
 import com.upgrad.FoodOrderingApp.service.businness.CustomerService;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResource;
 import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
@@ -11,6 +13,7 @@ import com.upgrad.FoodOrderingApp.service.exception.AddressNotFoundException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.SaveAddressException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +31,8 @@ public class AddressController {
 
     @Autowired private AddressService addressService;
 
+    @Autowired private CatalogResponseWriter catalogResponseWriter;
+
     /**
      * This api endpoint is used to save address of a customer in the database.
      *
@@ -146,17 +151,25 @@ public class AddressController {
     /**
      * This api endpoint is used retrieve all the states from the database.
      *
-     * @return ResponseEntity<StatesListResponse> type object along with HttpStatus as OK.
+     * @param ifNoneMatch ETag of the states already held by the client, if any.
+     * @return ResponseEntity with StatesListResponse serialized as JSON along with HttpStatus as OK,
+     *     or HttpStatus as NOT_MODIFIED if the ETag matches.
      */
     @CrossOrigin
     @RequestMapping(
             method = RequestMethod.GET,
             produces = MediaType.APPLICATION_JSON_VALUE,
             path = "/states")
-    public ResponseEntity<StatesListResponse> getAllStates() {
-        final StateEntity stateEntity = new StateEntity();
-        stateEntity.setUuid(UUID.randomUUID().toString());
+    public ResponseEntity<byte[]> getAllStates(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            final String ifNoneMatch) {
+        return catalogResponseWriter.write(
+                CatalogResource.STATES, ifNoneMatch, this::getStatesListResponse);
+    }
+
+    /* Builds StatesListResponse of all the states */
 
+    private StatesListResponse getStatesListResponse() {
         final List<StateEntity> statesLists = addressService.getAllStates();
 
         final StatesListResponse statesListResponse = new StatesListResponse();
@@ -167,6 +180,6 @@ public class AddressController {
                             .stateName(statesEntity.getStateName());
             statesListResponse.addStatesItem(states);
         }
-        return new ResponseEntity<StatesListResponse>(statesListResponse, HttpStatus.OK);
+        return statesListResponse;
     }
 }
\ No newline at end of file
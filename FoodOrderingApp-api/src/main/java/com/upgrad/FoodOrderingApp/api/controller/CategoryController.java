@@ -1,14 +1,17 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import com.upgrad.FoodOrderingApp.api.common.CatalogResponseWriter;
 import com.upgrad.FoodOrderingApp.api.model.CategoriesListResponse;
 import com.upgrad.FoodOrderingApp.api.model.CategoryDetailsResponse;
 import com.upgrad.FoodOrderingApp.api.model.CategoryListResponse;
 import com.upgrad.FoodOrderingApp.api.model.ItemList;
 import com.upgrad.FoodOrderingApp.service.businness.CategoryService;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResource;
 import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
 import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,35 +28,25 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogResponseWriter catalogResponseWriter;
+
     /**
      * This API endpoint gets list of all categories
      *
-     * @return CategoriesListResponse
+     * @param ifNoneMatch ETag of the list already held by the client, if any.
+     * @return CategoriesListResponse serialized as JSON, or no content if the ETag matches.
      */
     @CrossOrigin
     @RequestMapping(
             method = RequestMethod.GET,
             path = "/category",
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<CategoriesListResponse> getCategories() {
-
-        List<CategoryEntity> allcategories = categoryService.getAllCategoriesOrderedByName();
-        List<CategoryListResponse> categoryListResponses = null;
-        if (allcategories.size() > 0) {
-            categoryListResponses = new ArrayList<>();
-
-            for (CategoryEntity categoryEntity : allcategories) {
-                CategoryListResponse categoryListResponse = new CategoryListResponse();
-                categoryListResponse.setId(UUID.fromString(categoryEntity.getUuid()));
-                categoryListResponse.setCategoryName(categoryEntity.getCategoryName());
-                categoryListResponses.add(categoryListResponse);
-            }
-        }
-        CategoriesListResponse categoriesListResponse = new CategoriesListResponse();
-
-        categoriesListResponse.setCategories(categoryListResponses);
-
-        return new ResponseEntity<>(categoriesListResponse, HttpStatus.OK);
+    public ResponseEntity<byte[]> getCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            final String ifNoneMatch) {
+        return catalogResponseWriter.write(
+                CatalogResource.CATEGORIES, ifNoneMatch, this::getCategoriesListResponse);
     }
 
     /**
@@ -98,4 +91,26 @@ public class CategoryController {
 
         return new ResponseEntity<CategoryDetailsResponse>(categoryDetailsResponse, HttpStatus.OK);
     }
-}
+
+    /* Builds CategoriesListResponse of all categories ordered by name */
+
+    private CategoriesListResponse getCategoriesListResponse() {
+        List<CategoryEntity> allcategories = categoryService.getAllCategoriesOrderedByName();
+        List<CategoryListResponse> categoryListResponses = null;
+        if (allcategories.size() > 0) {
+            categoryListResponses = new ArrayList<>();
+
+            for (CategoryEntity categoryEntity : allcategories) {
+                CategoryListResponse categoryListResponse = new CategoryListResponse();
+                categoryListResponse.setId(UUID.fromString(categoryEntity.getUuid()));
+                categoryListResponse.setCategoryName(categoryEntity.getCategoryName());
+                categoryListResponses.add(categoryListResponse);
+            }
+        }
+        CategoriesListResponse categoriesListResponse = new CategoriesListResponse();
+
+        categoriesListResponse.setCategories(categoryListResponses);
+
+        return categoriesListResponse;
+    }
+}
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AuthenticationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceUnavailableException;
 import com.upgrad.FoodOrderingApp.service.exception.SignUpRestrictedException;
 import com.upgrad.FoodOrderingApp.service.exception.UpdateCustomerException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +34,7 @@ public class CustomerController {
      *     new customer in the database.
      * @return ResponseEntity<SignupCustomerResponse> type object along with HttpStatus CREATED.
      * @throws SignUpRestrictedException if customer entered details not meet the requirements.
+     * @throws ServiceUnavailableException if the password hashing pool is saturated.
      */
     @CrossOrigin
     @RequestMapping(
@@ -42,7 +44,7 @@ public class CustomerController {
             consumes = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<SignupCustomerResponse> signup(
             @RequestBody(required = true) final SignupCustomerRequest signupCustomerRequest)
-            throws SignUpRestrictedException {
+            throws SignUpRestrictedException, ServiceUnavailableException {
         CustomerEntity customerEntity = new CustomerEntity();
         customerEntity.setFirstName(signupCustomerRequest.getFirstName());
         customerEntity.setLastName(signupCustomerRequest.getLastName());
@@ -66,6 +68,7 @@ public class CustomerController {
      *     Base64<contactNumber:password>' format.
      * @return ResponseEntity<LoginResponse> type object with HttpStatus as OK.
      * @throws AuthenticationFailedException if customer contactNumber or password is wrong.
+     * @throws ServiceUnavailableException if the password hashing pool is saturated.
      */
     @CrossOrigin
     @RequestMapping(
@@ -75,7 +78,7 @@ public class CustomerController {
             consumes = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<LoginResponse> login(
             @RequestHeader("authorization") final String authorization)
-            throws AuthenticationFailedException {
+            throws AuthenticationFailedException, ServiceUnavailableException {
         byte[] decode;
         String contactNumber;
         String password;
@@ -186,6 +189,7 @@ public class CustomerController {
      * @return ResponseEntity<UpdatePasswordResponse> type object along with HttpStatus as OK.
      * @throws AuthorizationFailedException if any of the validation on customer access token fails.
      * @throws UpdateCustomerException if old or new password fields are empty.
+     * @throws ServiceUnavailableException if the password hashing pool is saturated.
      */
     @CrossOrigin
     @RequestMapping(
@@ -196,7 +200,8 @@ public class CustomerController {
     public ResponseEntity<UpdatePasswordResponse> changePassword(
             @RequestHeader("authorization") final String authorization,
             @RequestBody(required = true) final UpdatePasswordRequest updatePasswordRequest)
-            throws UpdateCustomerException, AuthorizationFailedException {
+            throws UpdateCustomerException, AuthorizationFailedException,
+                    ServiceUnavailableException {
 
         String oldPassword = updatePasswordRequest.getOldPassword();
         String newPassword = updatePasswordRequest.getNewPassword();
@@ -6,6 +6,7 @@ import com.upgrad.FoodOrderingApp.service.businness.ItemService;
 import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidTrendWindowException;
 import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -28,11 +30,15 @@ public class ItemController {
     @Autowired private RestaurantService restaurantService;
 
     /**
-     * This method gets top five popular items of a restaurant based on number of times it is ordered.
+     * This method gets top five popular items of a restaurant based on number of times it is ordered,
+     * either ever or, with a trending window, within the last hour, day or week.
      *
      * @param restaurantId UUID for the restaurant
+     * @param trending     "1h", "24h" or "7d" for the items trending in that window, absent for
+     *                     all time.
      * @return ItemListResponse
-     * @throws RestaurantNotFoundException If restaurant with UUID doesn't exist in the database
+     * @throws RestaurantNotFoundException  If restaurant with UUID doesn't exist in the database
+     * @throws InvalidTrendWindowException If the trending window is not one of the above.
      */
     @CrossOrigin
     @RequestMapping(
@@ -40,9 +46,14 @@ public class ItemController {
             path = "/item/restaurant/{restaurant_id}",
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<ItemListResponse> getTopFiveItemsForRestaurant(
-            @PathVariable("restaurant_id") final String restaurantId) throws RestaurantNotFoundException {
+            @PathVariable("restaurant_id") final String restaurantId,
+            @RequestParam(value = "trending", required = false) final String trending)
+            throws RestaurantNotFoundException, InvalidTrendWindowException {
         RestaurantEntity restaurant = restaurantService.restaurantByUUID(restaurantId);
-        List<ItemEntity> topFiveItems = itemService.getItemsByPopularity(restaurant);
+        List<ItemEntity> topFiveItems =
+                trending == null
+                        ? itemService.getItemsByPopularity(restaurant)
+                        : itemService.getTrendingItems(restaurant, trending);
         ItemListResponse itemListResponse = new ItemListResponse();
         for (ItemEntity entity : topFiveItems) {
             ItemList itemList = new ItemList();
@@ -1,5 +1,7 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.upgrad.FoodOrderingApp.api.common.Utility;
 import com.upgrad.FoodOrderingApp.api.model.*;
 import com.upgrad.FoodOrderingApp.service.businness.*;
@@ -11,11 +13,15 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -40,6 +46,9 @@ public class OrderController {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * This API endpoint gets coupon details by coupon name
      *
@@ -74,11 +83,14 @@ public class OrderController {
     }
 
     /**
-     * Fetch the orders of the customer.
+     * Fetch a page of the orders of the customer, latest order first.
      *
      * @param authorization Bearer <access-token>
+     * @param cursor        next_cursor of the previous page, absent for the first page.
+     * @param limit         Maximum number of orders on the page.
      * @return CustomerOrderResponse
      * @throws AuthorizationFailedException If authorization is not valid.
+     * @throws InvalidPageException         If the cursor or the limit is not valid.
      */
     @CrossOrigin
     @RequestMapping(
@@ -86,39 +98,79 @@ public class OrderController {
             path = "/order",
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<CustomerOrderResponse> getOrdersByCustomer(
-            @RequestHeader("authorization") final String authorization)
-            throws AuthorizationFailedException {
+            @RequestHeader("authorization") final String authorization,
+            @RequestParam(value = "cursor", required = false) final String cursor,
+            @RequestParam(value = "limit", required = false) final Integer limit)
+            throws AuthorizationFailedException, InvalidPageException {
 
         String accessToken = Utility.getTokenFromAuthorization(authorization);
 
         // Identify customer from the access token.
         CustomerEntity customerEntity = customerService.getCustomer(accessToken);
 
-        // Get all the orders of the customer.
-        List<OrderEntity> ordersOfCustomer =
-                orderService.getOrdersByCustomers(customerEntity.getUuid());
+        // Get a page of the orders of the customer.
+        OrderPage orderPage =
+                orderService.getOrdersByCustomer(customerEntity.getUuid(), cursor, limit);
+        List<OrderEntity> ordersOfCustomer = orderPage.getOrders();
 
         List<OrderList> orders = new ArrayList<>();
         for (OrderEntity orderEntity : ordersOfCustomer) {
-            OrderList order = new OrderList();
-            order.setId(UUID.fromString(orderEntity.getUuid()));
-            order.setDate(orderEntity.getDate().toString());
-            order.setBill(new BigDecimal(orderEntity.getBill()));
-            order.setDiscount(new BigDecimal(orderEntity.getDiscount()));
-            order.setCustomer(getOrderListCustomer(orderEntity.getCustomer()));
-            order.setCoupon(getOrderListCoupon(orderEntity.getCoupon()));
-            order.setAddress(getOrderListAddress(orderEntity.getAddress()));
-            order.setPayment(getOrderListPayment(orderEntity.getPayment()));
-            List<OrderItemEntity> orderItems = orderEntity.getOrderItems();
-            order.setItemQuantities(getItemQuantityResponseList(orderItems));
-            orders.add(order);
+            orders.add(getOrderList(orderEntity));
         }
 
         CustomerOrderResponse customerOrderResponse = new CustomerOrderResponse();
         customerOrderResponse.setOrders(orders);
+        customerOrderResponse.setNextCursor(orderPage.getNextCursor());
         return new ResponseEntity<CustomerOrderResponse>(customerOrderResponse, HttpStatus.OK);
     }
 
+    /**
+     * Export the complete order history of the customer, latest order first, in the same format as
+     * a page of GET /order. The orders are read through a database cursor and written to the
+     * response one at a time, so the history is never held in memory as a whole.
+     *
+     * @param authorization Bearer <access-token>
+     * @param response      Response the orders are written to.
+     * @throws AuthorizationFailedException If authorization is not valid.
+     * @throws IOException                  If the response could not be written.
+     */
+    @CrossOrigin
+    @RequestMapping(
+            method = RequestMethod.GET,
+            path = "/order/export",
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public void exportOrdersByCustomer(
+            @RequestHeader("authorization") final String authorization,
+            final HttpServletResponse response)
+            throws AuthorizationFailedException, IOException {
+
+        String accessToken = Utility.getTokenFromAuthorization(authorization);
+
+        // Identify customer from the access token.
+        CustomerEntity customerEntity = customerService.getCustomer(accessToken);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        try (JsonGenerator generator =
+                     objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("orders");
+            orderService.exportOrdersByCustomer(
+                    customerEntity.getUuid(),
+                    orderEntity -> {
+                        try {
+                            generator.writeObject(getOrderList(orderEntity));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * To save the customer order if it is valid.
      *
@@ -159,36 +211,47 @@ public class OrderController {
         RestaurantEntity restaurantEntity =
                 restaurantService.restaurantByUUID(saveOrderRequest.getRestaurantId().toString());
 
-        List<OrderItemEntity> orderItemEntities = new ArrayList<>();
-
         List<ItemQuantity> itemQuantities = saveOrderRequest.getItemQuantities();
+        List<String> itemUuids = new ArrayList<>();
         for (ItemQuantity itemQuantity : itemQuantities) {
-            ItemEntity itemEntity = itemService.getItemByUUID(itemQuantity.getItemId().toString());
+            itemUuids.add(itemQuantity.getItemId().toString());
+        }
+        // All items are read at once, and only if the restaurant serves every one of them.
+        Map<String, ItemEntity> itemEntities =
+                itemService.getItemsForOrder(
+                        saveOrderRequest.getRestaurantId().toString(), itemUuids);
+
+        List<OrderItemEntity> orderItemEntities = new ArrayList<>();
+        int itemTotal = 0;
+        for (ItemQuantity itemQuantity : itemQuantities) {
+            ItemEntity itemEntity = itemEntities.get(itemQuantity.getItemId().toString());
             OrderItemEntity orderItem = new OrderItemEntity();
             orderItem.setItem(itemEntity);
-            orderItem.setPrice(itemQuantity.getPrice());
+            // The price is worked out from the menu price, the one sent by the client is not used.
+            orderItem.setPrice(itemEntity.getPrice() * itemQuantity.getQuantity());
             orderItem.setQuantity(itemQuantity.getQuantity());
             orderItemEntities.add(orderItem);
+            itemTotal += orderItem.getPrice();
         }
+        // The bill and the discount are worked out from the item prices and the percent of the
+        // coupon, the ones sent by the client are not used either.
+        BigDecimal discount =
+                BigDecimal.valueOf(itemTotal)
+                        .multiply(BigDecimal.valueOf(couponEntity.getPercent()))
+                        .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        BigDecimal bill = BigDecimal.valueOf(itemTotal).subtract(discount);
 
         OrderEntity order = new OrderEntity();
         order.setUuid(UUID.randomUUID().toString());
-        order.setBill(saveOrderRequest.getBill().doubleValue());
-        order.setDiscount(saveOrderRequest.getDiscount().doubleValue());
+        order.setBill(bill.doubleValue());
+        order.setDiscount(discount.doubleValue());
         order.setDate(ZonedDateTime.now());
         order.setAddress(addressEntity);
         order.setCoupon(couponEntity);
         order.setPayment(paymentEntity);
         order.setRestaurant(restaurantEntity);
         order.setCustomer(customerEntity);
-        order.setOrderItems(Collections.emptyList());
-        order = orderService.saveOrder(order);
-        if (order != null) {
-            for (OrderItemEntity orderItemEntity : orderItemEntities) {
-                orderItemEntity.setOrder(order);
-                orderService.saveOrderItem(orderItemEntity);
-            }
-        }
+        order = orderService.placeOrder(order, orderItemEntities);
         SaveOrderResponse saveOrderResponse = new SaveOrderResponse();
         saveOrderResponse.setId(order.getUuid().toString());
         saveOrderResponse.setStatus("ORDER SUCCESSFULLY PLACED");
@@ -198,6 +261,21 @@ public class OrderController {
 
     // Below private methods takes in the entities and converts them to valid response.
 
+    private OrderList getOrderList(OrderEntity orderEntity) {
+        OrderList order = new OrderList();
+        order.setId(UUID.fromString(orderEntity.getUuid()));
+        order.setDate(orderEntity.getDate().toString());
+        order.setBill(new BigDecimal(orderEntity.getBill()));
+        order.setDiscount(new BigDecimal(orderEntity.getDiscount()));
+        order.setCustomer(getOrderListCustomer(orderEntity.getCustomer()));
+        order.setCoupon(getOrderListCoupon(orderEntity.getCoupon()));
+        order.setAddress(getOrderListAddress(orderEntity.getAddress()));
+        order.setPayment(getOrderListPayment(orderEntity.getPayment()));
+        List<OrderItemEntity> orderItems = orderEntity.getOrderItems();
+        order.setItemQuantities(getItemQuantityResponseList(orderItems));
+        return order;
+    }
+
     private OrderListCustomer getOrderListCustomer(CustomerEntity customer) {
         OrderListCustomer orderListCustomer = new OrderListCustomer();
         orderListCustomer.setId(UUID.fromString(customer.getUuid()));
@@ -1,14 +1,17 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import com.upgrad.FoodOrderingApp.api.common.CatalogResponseWriter;
 import com.upgrad.FoodOrderingApp.api.model.PaymentListResponse;
 import com.upgrad.FoodOrderingApp.api.model.PaymentResponse;
 import com.upgrad.FoodOrderingApp.service.businness.PaymentService;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResource;
 import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
@@ -22,17 +25,29 @@ public class PaymentController {
 
     @Autowired PaymentService paymentService;
 
+    @Autowired CatalogResponseWriter catalogResponseWriter;
+
     /**
      * This API endpoint gets all the payment methods
      *
-     * @return Payment methods
+     * @param ifNoneMatch ETag of the payment methods already held by the client, if any.
+     * @return Payment methods serialized as JSON, or no content if the ETag matches.
      */
     @CrossOrigin
     @RequestMapping(
             method = RequestMethod.GET,
             path = "/payment",
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<PaymentListResponse> getAllPaymentMethods() {
+    public ResponseEntity<byte[]> getAllPaymentMethods(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            final String ifNoneMatch) {
+        return catalogResponseWriter.write(
+                CatalogResource.PAYMENT_METHODS, ifNoneMatch, this::getPaymentListResponse);
+    }
+
+    /* Builds PaymentListResponse of all the payment methods */
+
+    private PaymentListResponse getPaymentListResponse() {
         List<PaymentEntity> paymentMathods = paymentService.getAllPaymentMethods();
         PaymentListResponse paymentListResponse = new PaymentListResponse();
         for (PaymentEntity paymentMethod : paymentMathods) {
@@ -41,6 +56,6 @@ public class PaymentController {
             paymentResponse.setPaymentName(paymentMethod.getPaymentName());
             paymentListResponse.addPaymentMethodsItem(paymentResponse);
         }
-        return new ResponseEntity<>(paymentListResponse, HttpStatus.OK);
+        return paymentListResponse;
     }
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import com.upgrad.FoodOrderingApp.api.common.CatalogResponseWriter;
 import com.upgrad.FoodOrderingApp.api.common.Utility;
 import com.upgrad.FoodOrderingApp.api.model.*;
 import com.upgrad.FoodOrderingApp.service.businness.CategoryService;
 import com.upgrad.FoodOrderingApp.service.businness.CustomerService;
 import com.upgrad.FoodOrderingApp.service.businness.ItemService;
 import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResource;
+import com.upgrad.FoodOrderingApp.service.cache.MenuSnapshot;
 import com.upgrad.FoodOrderingApp.service.entity.*;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageException;
 import com.upgrad.FoodOrderingApp.service.exception.InvalidRatingException;
 import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,7 +24,9 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -38,33 +45,43 @@ public class RestaurantController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogResponseWriter catalogResponseWriter;
+
     /**
      * This API endpoint gets list of all restaurant in order of their ratings
      *
-     * @return
+     * @param ifNoneMatch ETag of the list already held by the client, if any.
+     * @return RestaurantListResponse serialized as JSON, or no content if the ETag matches.
      */
     @CrossOrigin
     @RequestMapping(
             method = RequestMethod.GET,
             path = "/restaurant",
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<RestaurantListResponse> getRestaurants() {
-
-        List<RestaurantEntity> allRestaurants = restaurantService.restaurantsByRating();
-        List<RestaurantList> allRestaurantsList = createListOfRestaurantList(allRestaurants);
-
-        RestaurantListResponse restaurantListResponse =
-                new RestaurantListResponse().restaurants(allRestaurantsList);
-
-        return new ResponseEntity<>(restaurantListResponse, HttpStatus.OK);
+    public ResponseEntity<byte[]> getRestaurants(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            final String ifNoneMatch) {
+        return catalogResponseWriter.write(
+                CatalogResource.RESTAURANTS,
+                ifNoneMatch,
+                () -> {
+                    List<RestaurantListing> allRestaurants =
+                            restaurantService.restaurantsByRating();
+                    List<RestaurantList> allRestaurantsList = createListOfRestaurantList(allRestaurants);
+                    return new RestaurantListResponse().restaurants(allRestaurantsList);
+                });
     }
 
     /**
-     * This API endpoint gets list of all restaurant found for given search string
+     * This API endpoint gets list of the restaurants best matching the given search string, best
+     * match first
      *
      * @param restaurantName Name of the restaurant that one would like to search
+     * @param limit          Maximum number of restaurants to be returned.
      * @return RestaurantListResponse
      * @throws RestaurantNotFoundException If the restaurant doesn't exist in database.
+     * @throws InvalidPageException        If the limit is less than one.
      */
     @CrossOrigin
     @RequestMapping(
@@ -72,10 +89,14 @@ public class RestaurantController {
             path = ("/restaurant/name/{restaurant_name}"),
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<RestaurantListResponse> getRestaurantsBySearchString(
-            @PathVariable("restaurant_name") final String restaurantName)
-            throws RestaurantNotFoundException {
-
-        List<RestaurantEntity> allRestaurants = restaurantService.restaurantsByName(restaurantName);
+            @PathVariable("restaurant_name") final String restaurantName,
+            @RequestParam(value = "limit", required = false) final Integer limit)
+            throws RestaurantNotFoundException, InvalidPageException {
+
+        List<RestaurantListing> allRestaurants =
+                limit == null
+                        ? restaurantService.restaurantsByName(restaurantName)
+                        : restaurantService.restaurantsByName(restaurantName, limit);
         List<RestaurantList> allRestaurantsList = createListOfRestaurantList(allRestaurants);
         RestaurantListResponse restaurantListResponse =
                 new RestaurantListResponse().restaurants(allRestaurantsList);
@@ -102,7 +123,8 @@ public class RestaurantController {
     public ResponseEntity<RestaurantListResponse> getRestaurantByCategory(
             @PathVariable("category_id") final String categoryUuid) throws CategoryNotFoundException {
 
-        List<RestaurantEntity> allRestaurants = restaurantService.restaurantByCategory(categoryUuid);
+        List<RestaurantListing> allRestaurants =
+                restaurantService.restaurantByCategory(categoryUuid);
         List<RestaurantList> allRestaurantsList = createListOfRestaurantList(allRestaurants);
         RestaurantListResponse restaurantListResponse =
                 new RestaurantListResponse().restaurants(allRestaurantsList);
@@ -139,7 +161,8 @@ public class RestaurantController {
     }
 
     /**
-     * This API endpoint updates the restaurant rating by customer
+     * This API endpoint saves the rating of the customer for the restaurant, replacing the rating the
+     * customer gave before.
      *
      * @param authorization  Bearer <access-token>
      * @param restaurantUuid UUID of the restaurant whose rating is to be updated.
@@ -165,7 +188,8 @@ public class RestaurantController {
         CustomerEntity customerEntity = customerService.getCustomer(accessToken);
         RestaurantEntity restaurantEntity = restaurantService.restaurantByUUID(restaurantUuid);
         RestaurantEntity updatedRestaurantEntity =
-                restaurantService.updateRestaurantRating(restaurantEntity, customerRating);
+                restaurantService.updateRestaurantRating(
+                        restaurantEntity, customerEntity, customerRating);
         RestaurantUpdatedResponse restaurantUpdatedResponse = new RestaurantUpdatedResponse();
         restaurantUpdatedResponse.setId(UUID.fromString(updatedRestaurantEntity.getUuid()));
         restaurantUpdatedResponse.setStatus("RESTAURANT RATING UPDATED SUCCESSFULLY");
@@ -176,29 +200,39 @@ public class RestaurantController {
     /* Creates a List of RestaurantList */
 
     private List<RestaurantList> createListOfRestaurantList(
-            final List<RestaurantEntity> allRestaurants) {
+            final List<RestaurantListing> allRestaurants) {
         List<RestaurantList> allRestaurantsList = new ArrayList<>();
-        for (RestaurantEntity restaurantEntity : allRestaurants) {
+        if (allRestaurants.isEmpty()) {
+            return allRestaurantsList;
+        }
+
+        // Category names of the restaurants in the list are fetched together, 50 restaurants to a
+        // query.
+        List<String> restaurantUuids = new ArrayList<>();
+        for (RestaurantListing restaurant : allRestaurants) {
+            restaurantUuids.add(restaurant.getUuid());
+        }
+        Map<String, List<String>> categoryNamesByRestaurant =
+                categoryService.getCategoryNamesByRestaurants(restaurantUuids);
+
+        for (RestaurantListing restaurant : allRestaurants) {
             RestaurantList restaurantList = new RestaurantList();
-            restaurantList.setId(UUID.fromString(restaurantEntity.getUuid()));
+            restaurantList.setId(UUID.fromString(restaurant.getUuid()));
             RestaurantDetailsResponseAddress restaurantDetailsResponseAddress =
-                    createRestaurantDetailsResponseAddress(restaurantEntity.getAddress());
+                    createRestaurantListAddress(restaurant);
 
             restaurantList.setAddress(restaurantDetailsResponseAddress);
-            restaurantList.setAveragePrice(restaurantEntity.getAvgPrice());
+            restaurantList.setAveragePrice(restaurant.getAvgPrice());
 
-            List<CategoryEntity> categoryEntities =
-                    categoryService.getCategoriesByRestaurant(restaurantEntity.getUuid());
-            StringBuilder categoriesString = new StringBuilder();
-            for (CategoryEntity category : categoryEntities) {
-                categoriesString.append(category.getCategoryName() + ", ");
-            }
-            restaurantList.setCategories(categoriesString.toString().replaceAll(", $", ""));
+            List<String> categoryNames =
+                    categoryNamesByRestaurant.getOrDefault(
+                            restaurant.getUuid(), Collections.emptyList());
+            restaurantList.setCategories(String.join(", ", categoryNames));
 
-            restaurantList.setCustomerRating(BigDecimal.valueOf(restaurantEntity.getCustomerRating()));
-            restaurantList.setNumberCustomersRated(restaurantEntity.getNumberCustomersRated());
-            restaurantList.setPhotoURL(restaurantEntity.getPhotoUrl());
-            restaurantList.setRestaurantName(restaurantEntity.getRestaurantName());
+            restaurantList.setCustomerRating(BigDecimal.valueOf(restaurant.getCustomerRating()));
+            restaurantList.setNumberCustomersRated(restaurant.getNumberCustomersRated());
+            restaurantList.setPhotoURL(restaurant.getPhotoUrl());
+            restaurantList.setRestaurantName(restaurant.getRestaurantName());
             allRestaurantsList.add(restaurantList);
         }
 
@@ -250,18 +284,40 @@ public class RestaurantController {
         return restaurantDetailsResponseAddress;
     }
 
+    /* Creates RestaurantDetailsResponseAddress from the address columns of a listing */
+
+    private RestaurantDetailsResponseAddress createRestaurantListAddress(
+            final RestaurantListing restaurant) {
+        RestaurantDetailsResponseAddress restaurantDetailsResponseAddress =
+                new RestaurantDetailsResponseAddress();
+        restaurantDetailsResponseAddress.setId(UUID.fromString(restaurant.getAddressUuid()));
+        restaurantDetailsResponseAddress.setFlatBuildingName(restaurant.getFlatBuilNo());
+        restaurantDetailsResponseAddress.setCity(restaurant.getCity());
+        restaurantDetailsResponseAddress.setLocality(restaurant.getLocality());
+        restaurantDetailsResponseAddress.setPincode(restaurant.getPincode());
+
+        RestaurantDetailsResponseAddressState restaurantDetailsResponseAddressState =
+                new RestaurantDetailsResponseAddressState();
+        restaurantDetailsResponseAddressState.setId(UUID.fromString(restaurant.getStateUuid()));
+        restaurantDetailsResponseAddressState.setStateName(restaurant.getStateName());
+        restaurantDetailsResponseAddress.setState(restaurantDetailsResponseAddressState);
+        return restaurantDetailsResponseAddress;
+    }
+
     /* Gets List<CategoryList>  in the resturant  */
 
     private List<CategoryList> getAllCategoryItemsInRestaurant(final String restaurantUuid) {
         List<CategoryList> allCategoryItems = new ArrayList<>();
-        List<CategoryEntity> categories = categoryService.getCategoriesByRestaurant(restaurantUuid);
+        MenuSnapshot menu = itemService.getMenuByRestaurant(restaurantUuid);
 
-        for (CategoryEntity c : categories) {
+        for (MenuSnapshot.Category c : menu.getCategories()) {
             CategoryList categoryList = new CategoryList();
             categoryList.setId(UUID.fromString(c.getUuid()));
             categoryList.setCategoryName(c.getCategoryName());
-            List<ItemList> allItemsInCategory =
-                    getAllItemsInCategoryInRestaurant(restaurantUuid, c.getUuid());
+            List<ItemList> allItemsInCategory = new ArrayList<>();
+            for (MenuSnapshot.Item item : c.getItems()) {
+                allItemsInCategory.add(createItemList(item));
+            }
             categoryList.setItemList(allItemsInCategory);
             allCategoryItems.add(categoryList);
         }
@@ -269,27 +325,18 @@ public class RestaurantController {
         return allCategoryItems;
     }
 
-    /* Gets List<ItemList>  in given category  in the resturant  */
-
-    private List<ItemList> getAllItemsInCategoryInRestaurant(
-            final String restaurantUuid, final String categoryUuid) {
-        List<ItemList> itemsInCategoryInRestaurant = new ArrayList<>();
-        List<ItemEntity> items =
-                itemService.getItemsByCategoryAndRestaurant(restaurantUuid, categoryUuid);
-        for (ItemEntity item : items) {
-            ItemList itemList = new ItemList();
-            itemList.setId(UUID.fromString(item.getUuid()));
-            itemList.setItemName(item.getItemName());
-            itemList.setPrice(item.getPrice());
-            if (item.getType().equals("0")) {
-                itemList.setItemType(ItemList.ItemTypeEnum.valueOf("VEG"));
-            } else {
-                itemList.setItemType(ItemList.ItemTypeEnum.valueOf("NON_VEG"));
-            }
-
-            itemsInCategoryInRestaurant.add(itemList);
+    /* Creates ItemList from the given menu item */
+
+    private ItemList createItemList(final MenuSnapshot.Item item) {
+        ItemList itemList = new ItemList();
+        itemList.setId(UUID.fromString(item.getUuid()));
+        itemList.setItemName(item.getItemName());
+        itemList.setPrice(item.getPrice());
+        if (item.getType().equals("0")) {
+            itemList.setItemType(ItemList.ItemTypeEnum.valueOf("VEG"));
+        } else {
+            itemList.setItemType(ItemList.ItemTypeEnum.valueOf("NON_VEG"));
         }
-
-        return itemsInCategoryInRestaurant;
+        return itemList;
     }
 }
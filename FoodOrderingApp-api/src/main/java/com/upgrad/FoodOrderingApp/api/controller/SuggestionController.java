@@ -0,0 +1,71 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import com.upgrad.FoodOrderingApp.api.model.SuggestionListResponse;
+import com.upgrad.FoodOrderingApp.api.model.SuggestionResponse;
+import com.upgrad.FoodOrderingApp.service.businness.SuggestionService;
+import com.upgrad.FoodOrderingApp.service.cache.Suggestion;
+import com.upgrad.FoodOrderingApp.service.cache.SuggestionType;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/")
+public class SuggestionController {
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    /**
+     * This API endpoint gets the restaurants, items and categories to be suggested while the
+     * customer types in the search box. It is answered from memory without querying the database.
+     *
+     * @param prefix Text typed so far.
+     * @param limit Maximum number of suggestions of each kind, optional.
+     * @return SuggestionListResponse
+     * @throws InvalidPageException If the limit is less than one.
+     */
+    @CrossOrigin
+    @RequestMapping(
+            method = RequestMethod.GET,
+            path = "/suggest",
+            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<SuggestionListResponse> getSuggestions(
+            @RequestParam("q") final String prefix,
+            @RequestParam(value = "limit", required = false) final Integer limit)
+            throws InvalidPageException {
+
+        Map<SuggestionType, List<Suggestion>> suggestions =
+                suggestionService.getSuggestions(prefix, limit);
+
+        SuggestionListResponse suggestionListResponse = new SuggestionListResponse();
+        suggestionListResponse.setRestaurants(
+                getSuggestionResponses(suggestions.get(SuggestionType.RESTAURANT)));
+        suggestionListResponse.setItems(getSuggestionResponses(suggestions.get(SuggestionType.ITEM)));
+        suggestionListResponse.setCategories(
+                getSuggestionResponses(suggestions.get(SuggestionType.CATEGORY)));
+
+        return new ResponseEntity<SuggestionListResponse>(suggestionListResponse, HttpStatus.OK);
+    }
+
+    private List<SuggestionResponse> getSuggestionResponses(final List<Suggestion> suggestions) {
+        List<SuggestionResponse> suggestionResponses = new ArrayList<>();
+        if (suggestions != null) {
+            for (Suggestion suggestion : suggestions) {
+                SuggestionResponse suggestionResponse = new SuggestionResponse();
+                suggestionResponse.setId(UUID.fromString(suggestion.getUuid()));
+                suggestionResponse.setName(suggestion.getName());
+                suggestionResponses.add(suggestionResponse);
+            }
+        }
+        return suggestionResponses;
+    }
+}
@@ -1,6 +1,7 @@
 package com.upgrad.FoodOrderingApp.api.exception;
 
 import com.upgrad.FoodOrderingApp.api.model.ErrorResponse;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
 import com.upgrad.FoodOrderingApp.service.exception.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -191,4 +192,62 @@ public class RestExceptionHandler {
                 new ErrorResponse().code(exception.getCode()).message(exception.getErrorMessage()),
                 HttpStatus.BAD_REQUEST);
     }
-}
\ No newline at end of file
+
+    /**
+     * Exception handler for ServiceUnavailableException
+     *
+     * @return ResponseEntity<ErrorResponse> type object displaying error code and error message along
+     * * with HttpStatus as SERVICE_UNAVAILABLE.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> serviceUnavailableException(
+            ServiceUnavailableException exception, WebRequest request) {
+        return new ResponseEntity<ErrorResponse>(
+                new ErrorResponse().code(exception.getCode()).message(exception.getErrorMessage()),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Exception handler for UnexpectedException
+     *
+     * @return ResponseEntity<ErrorResponse> type object displaying error code and error message along
+     * * with HttpStatus as INTERNAL_SERVER_ERROR.
+     */
+    @ExceptionHandler(UnexpectedException.class)
+    public ResponseEntity<ErrorResponse> unexpectedException(
+            UnexpectedException exception, WebRequest request) {
+        return new ResponseEntity<ErrorResponse>(
+                new ErrorResponse()
+                        .code(exception.getErrorCode().getCode())
+                        .message(exception.getMessage()),
+                HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * Exception handler for InvalidPageException
+     *
+     * @return ResponseEntity<ErrorResponse> type object displaying error code and error message along
+     * * with HttpStatus as BAD_REQUEST.
+     */
+    @ExceptionHandler(InvalidPageException.class)
+    public ResponseEntity<ErrorResponse> invalidPageException(
+            InvalidPageException exception, WebRequest request) {
+        return new ResponseEntity<ErrorResponse>(
+                new ErrorResponse().code(exception.getCode()).message(exception.getErrorMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Exception handler for InvalidTrendWindowException
+     *
+     * @return ResponseEntity<ErrorResponse> type object displaying error code and error message along
+     * * with HttpStatus as BAD_REQUEST.
+     */
+    @ExceptionHandler(InvalidTrendWindowException.class)
+    public ResponseEntity<ErrorResponse> invalidTrendWindowException(
+            InvalidTrendWindowException exception, WebRequest request) {
+        return new ResponseEntity<ErrorResponse>(
+                new ErrorResponse().code(exception.getCode()).message(exception.getErrorMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,46 @@
+package com.upgrad.FoodOrderingApp.api;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+
+/**
+ * Points the datasource of every Spring Boot test at an embedded PostgreSQL, so the tests reading
+ * and writing the database run in the build without a local server. The server is started once
+ * per test run and stopped when the run ends; every application context migrates it with the
+ * migrations of the db module. Registered for all tests in META-INF/spring.factories.
+ */
+public class EmbeddedPostgresInitializer
+        implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    // surefire runs the tests from the directory of the api module
+    private static final String MIGRATION_PATH =
+            "../FoodOrderingApp-db/src/main/resources/db/migration";
+
+    private static String jdbcUrl;
+
+    @Override
+    public void initialize(final ConfigurableApplicationContext applicationContext) {
+        TestPropertyValues.of(
+                        "spring.datasource.url=" + getJdbcUrl(),
+                        "spring.datasource.username=postgres",
+                        "spring.flyway.locations=filesystem:" + MIGRATION_PATH)
+                .applyTo(applicationContext);
+    }
+
+    private static synchronized String getJdbcUrl() {
+        if (jdbcUrl == null) {
+            EmbeddedPostgres postgres;
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new IllegalStateException("Embedded PostgreSQL could not be started", e);
+            }
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+        }
+        return jdbcUrl;
+    }
+}
@@ -6,9 +6,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.upgrad.FoodOrderingApp.api.model.CategoriesListResponse;
 import com.upgrad.FoodOrderingApp.api.model.CategoryDetailsResponse;
 import com.upgrad.FoodOrderingApp.service.businness.CategoryService;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResource;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResponseCache;
 import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
 import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,12 +24,15 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import static com.upgrad.FoodOrderingApp.service.common.ItemType.NON_VEG;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,6 +46,14 @@ public class CategoryControllerTest {
 
     @MockBean private CategoryService mockCategoryService;
 
+    @Autowired private CatalogResponseCache catalogResponseCache;
+
+    // Catalog listings are cached across requests, so every test case starts from an empty cache.
+    @Before
+    public void clearCatalogResponseCache() {
+        catalogResponseCache.invalidateAll();
+    }
+
     // This test case passes when you have are able to fetch any category by its id.
     @Test
     public void shouldGetCategoryById() throws Exception {
@@ -157,4 +171,77 @@ public class CategoryControllerTest {
         assertNull(categoriesListResponse.getCategories());
         verify(mockCategoryService, times(1)).getAllCategoriesOrderedByName();
     }
-}
\ No newline at end of file
+
+    // This test case passes when the list of categories is served with an ETag, is not rebuilt for the next request
+    // and is answered with 304 when the client sends the same ETag back.
+    @Test
+    public void shouldNotRebuildCategoriesAndReturnNotModifiedForMatchingETag() throws Exception {
+        final CategoryEntity categoryEntity = new CategoryEntity();
+        categoryEntity.setUuid(UUID.randomUUID().toString());
+        categoryEntity.setCategoryName("sampleCategoryName");
+        when(mockCategoryService.getAllCategoriesOrderedByName())
+                .thenReturn(Collections.singletonList(categoryEntity));
+
+        final String eTag =
+                mockMvc
+                        .perform(get("/category").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                        .andExpect(status().isOk())
+                        .andExpect(header().exists("ETag"))
+                        .andReturn()
+                        .getResponse()
+                        .getHeader("ETag");
+
+        mockMvc
+                .perform(get("/category").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("categories[0].category_name").value("sampleCategoryName"));
+
+        mockMvc
+                .perform(
+                        get("/category")
+                                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(mockCategoryService, times(1)).getAllCategoriesOrderedByName();
+    }
+
+    // This test case passes when the list of categories is built again once the cache has been invalidated.
+    @Test
+    public void shouldRebuildCategoriesAfterInvalidation() throws Exception {
+        when(mockCategoryService.getAllCategoriesOrderedByName()).thenReturn(Collections.emptyList());
+
+        final String eTag =
+                mockMvc
+                        .perform(get("/category").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getHeader("ETag");
+
+        final CategoryEntity categoryEntity = new CategoryEntity();
+        categoryEntity.setUuid(UUID.randomUUID().toString());
+        categoryEntity.setCategoryName("sampleCategoryName");
+        when(mockCategoryService.getAllCategoriesOrderedByName())
+                .thenReturn(Collections.singletonList(categoryEntity));
+        catalogResponseCache.invalidate(CatalogResource.CATEGORIES);
+
+        final String newETag =
+                mockMvc
+                        .perform(
+                                get("/category")
+                                        .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                                        .header("If-None-Match", eTag))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("categories[0].category_name").value("sampleCategoryName"))
+                        .andReturn()
+                        .getResponse()
+                        .getHeader("ETag");
+
+        assertNotEquals(eTag, newETag);
+        verify(mockCategoryService, times(2)).getAllCategoriesOrderedByName();
+    }
+}
@@ -5,6 +5,7 @@ import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AuthenticationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceUnavailableException;
 import com.upgrad.FoodOrderingApp.service.exception.SignUpRestrictedException;
 import com.upgrad.FoodOrderingApp.service.exception.UpdateCustomerException;
 import org.junit.Test;
@@ -200,6 +201,20 @@ public class CustomerControllerTest {
         verify(mockCustomerService, times(1)).authenticate("9090909090", "IncorrectPassword");
     }
 
+    //This test case passes when you have handled the exception of trying to login while password hashing is saturated.
+    @Test
+    public void shouldNotLoginWhenPasswordHashingIsSaturated() throws Exception {
+        when(mockCustomerService.authenticate("9090909090", "CorrectPassword"))
+                .thenThrow(new ServiceUnavailableException("GEN-002", "Too many requests are being processed. Please try again later."));
+        mockMvc
+                .perform(post("/customer/login")
+                        .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                        .header("authorization", "Basic " + getEncoder().encodeToString("9090909090:CorrectPassword".getBytes())))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("code").value("GEN-002"));
+        verify(mockCustomerService, times(1)).authenticate("9090909090", "CorrectPassword");
+    }
+
     // ----------------------------- POST /customer/logout --------------------------------
 
     //This test case passes when you are able to logout successfully.
@@ -6,6 +6,7 @@ import com.upgrad.FoodOrderingApp.service.businness.ItemService;
 import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidTrendWindowException;
 import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -21,6 +22,8 @@ import java.util.Collections;
 import java.util.UUID;
 
 import static com.upgrad.FoodOrderingApp.service.common.ItemType.NON_VEG;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -69,6 +72,48 @@ public class ItemControllerTest {
         assertEquals(itemListResponse.get(0).getId().toString(), itemId);
     }
 
+    // This test case passes when you are able to fetch the top 5 items ordered within the last day.
+    @Test
+    public void shouldGetTrendingItems() throws Exception {
+        final RestaurantEntity restaurantEntity = new RestaurantEntity();
+        when(mockRestaurantService.restaurantByUUID("some_restaurant_id")).thenReturn(restaurantEntity);
+
+        final ItemEntity itemEntity = new ItemEntity();
+        final String itemId = UUID.randomUUID().toString();
+        itemEntity.setUuid(itemId);
+        itemEntity.setType(NON_VEG);
+        when(mockItemService.getTrendingItems(restaurantEntity, "24h"))
+                .thenReturn(Collections.singletonList(itemEntity));
+
+        mockMvc
+                .perform(
+                        get("/item/restaurant/some_restaurant_id?trending=24h")
+                                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(itemId));
+        verify(mockItemService, times(1)).getTrendingItems(restaurantEntity, "24h");
+        verify(mockItemService, times(0)).getItemsByPopularity(restaurantEntity);
+    }
+
+    // This test case passes when you have handled the exception of trying to fetch trending items of a
+    // restaurant over a window that is not supported.
+    @Test
+    public void shouldNotGetTrendingItemsForInvalidWindow() throws Exception {
+        final RestaurantEntity restaurantEntity = new RestaurantEntity();
+        when(mockRestaurantService.restaurantByUUID("some_restaurant_id")).thenReturn(restaurantEntity);
+        when(mockItemService.getTrendingItems(restaurantEntity, "2h"))
+                .thenThrow(
+                        new InvalidTrendWindowException(
+                                "TRW-001", "Trending window should be one of 1h, 24h and 7d"));
+
+        mockMvc
+                .perform(
+                        get("/item/restaurant/some_restaurant_id?trending=2h")
+                                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("code").value("TRW-001"));
+    }
+
     // This test case passes when you have handled the exception of trying to fetch most popular items
     // of a restaurant,
     // but the restaurant id you gave does not exist.
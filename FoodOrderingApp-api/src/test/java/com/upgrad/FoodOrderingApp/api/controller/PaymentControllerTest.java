@@ -3,7 +3,9 @@ package com.upgrad.FoodOrderingApp.api.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.upgrad.FoodOrderingApp.api.model.PaymentListResponse;
 import com.upgrad.FoodOrderingApp.service.businness.PaymentService;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResponseCache;
 import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +36,14 @@ public class PaymentControllerTest {
     @MockBean
     private PaymentService mockPaymentService;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Before
+    public void clearCatalogResponseCache() {
+        catalogResponseCache.invalidateAll();
+    }
+
     //This test case passes when you are able to retrieve all payment methods that exist in the database.
     @Test
     public void shouldGetAllPaymentMethods() throws Exception {
@@ -1,6 +1,11 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.upgrad.FoodOrderingApp.api.model.RestaurantList;
@@ -9,16 +14,20 @@ import com.upgrad.FoodOrderingApp.service.businness.CategoryService;
 import com.upgrad.FoodOrderingApp.service.businness.CustomerService;
 import com.upgrad.FoodOrderingApp.service.businness.ItemService;
 import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
+import com.upgrad.FoodOrderingApp.service.cache.CatalogResponseCache;
+import com.upgrad.FoodOrderingApp.service.cache.MenuSnapshot;
 import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantListing;
 import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
 import com.upgrad.FoodOrderingApp.service.exception.InvalidRatingException;
 import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +40,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import static com.upgrad.FoodOrderingApp.service.common.ItemType.NON_VEG;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyDouble;
@@ -63,6 +73,14 @@ public class RestaurantControllerTest {
     @MockBean
     private CustomerService mockCustomerService;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Before
+    public void clearCatalogResponseCache() {
+        catalogResponseCache.invalidateAll();
+    }
+
     // ------------------------------------------ GET /restaurant/{restaurant_id} ------------------------------------------
 
     //This test case passes when you get restaurant details based on restaurant id.
@@ -73,12 +91,11 @@ public class RestaurantControllerTest {
                 .thenReturn(restaurantEntity);
 
         final CategoryEntity categoryEntity = getCategoryEntity();
-        when(mockCategoryService.getCategoriesByRestaurant("someRestaurantId"))
-                .thenReturn(Collections.singletonList(categoryEntity));
-
         final ItemEntity itemEntity = getItemEntity();
-        when(mockItemService.getItemsByCategoryAndRestaurant("someRestaurantId", categoryEntity.getUuid()))
-                .thenReturn(Collections.singletonList(itemEntity));
+        final MenuSnapshot menu =
+                MenuSnapshot.fromMenuItems(
+                        "someRestaurantId", 0L, Collections.singletonList(new Object[] {categoryEntity, itemEntity}));
+        when(mockItemService.getMenuByRestaurant("someRestaurantId")).thenReturn(menu);
 
         mockMvc
                 .perform(get("/restaurant/someRestaurantId").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
@@ -86,11 +103,52 @@ public class RestaurantControllerTest {
                 .andExpect(jsonPath("id").value(restaurantEntity.getUuid()))
                 .andExpect(jsonPath("restaurant_name").value("Famous Restaurant"))
                 .andExpect(jsonPath("customer_rating").value(3.4))
-                .andExpect(jsonPath("number_customers_rated").value(200));
+                .andExpect(jsonPath("number_customers_rated").value(200))
+                .andExpect(jsonPath("categories[0].id").value(categoryEntity.getUuid()))
+                .andExpect(jsonPath("categories[0].item_list[0].id").value(itemEntity.getUuid()));
         verify(mockRestaurantService, times(1)).restaurantByUUID("someRestaurantId");
-        verify(mockCategoryService, times(1)).getCategoriesByRestaurant("someRestaurantId");
-        verify(mockItemService, times(1))
-                .getItemsByCategoryAndRestaurant("someRestaurantId", categoryEntity.getUuid());
+        verify(mockItemService, times(1)).getMenuByRestaurant("someRestaurantId");
+        verify(mockCategoryService, times(0)).getCategoriesByRestaurant(anyString());
+    }
+
+    //This test case passes when the menu rows of a restaurant are grouped category wise, keeping the order of the rows
+    // and keeping a category that has no items in the restaurant.
+    @Test
+    public void shouldGroupMenuOfRestaurantByCategory() throws Exception {
+        final RestaurantEntity restaurantEntity = getRestaurantEntity();
+        when(mockRestaurantService.restaurantByUUID("someRestaurantId"))
+                .thenReturn(restaurantEntity);
+
+        final CategoryEntity chinese = getCategoryEntity();
+        chinese.setCategoryName("Chinese");
+        final CategoryEntity drinks = getCategoryEntity();
+        drinks.setCategoryName("Drinks");
+        final CategoryEntity indian = getCategoryEntity();
+        indian.setCategoryName("Indian");
+        final ItemEntity noodles = getItemEntity();
+        final ItemEntity rice = getItemEntity();
+        final ItemEntity curry = getItemEntity();
+        final MenuSnapshot menu =
+                MenuSnapshot.fromMenuItems("someRestaurantId", 0L, Arrays.asList(
+                        new Object[] {chinese, noodles},
+                        new Object[] {chinese, rice},
+                        new Object[] {drinks, null},
+                        new Object[] {indian, curry}));
+        when(mockItemService.getMenuByRestaurant("someRestaurantId")).thenReturn(menu);
+
+        mockMvc
+                .perform(get("/restaurant/someRestaurantId").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("categories.length()").value(3))
+                .andExpect(jsonPath("categories[0].category_name").value("Chinese"))
+                .andExpect(jsonPath("categories[0].item_list.length()").value(2))
+                .andExpect(jsonPath("categories[0].item_list[0].id").value(noodles.getUuid()))
+                .andExpect(jsonPath("categories[0].item_list[1].id").value(rice.getUuid()))
+                .andExpect(jsonPath("categories[1].category_name").value("Drinks"))
+                .andExpect(jsonPath("categories[1].item_list.length()").value(0))
+                .andExpect(jsonPath("categories[2].category_name").value("Indian"))
+                .andExpect(jsonPath("categories[2].item_list[0].id").value(curry.getUuid()));
+        verify(mockItemService, times(1)).getMenuByRestaurant("someRestaurantId");
     }
 
     //This test case passes when you have handled the exception of trying to fetch any restaurant but your restaurant id
@@ -120,7 +178,7 @@ public class RestaurantControllerTest {
                 .andExpect(jsonPath("code").value("RNF-001"));
         verify(mockRestaurantService, times(1)).restaurantByUUID("someRestaurantId");
         verify(mockCategoryService, times(0)).getCategoriesByRestaurant(anyString());
-        verify(mockItemService, times(0)).getItemsByCategoryAndRestaurant(anyString(), anyString());
+        verify(mockItemService, times(0)).getMenuByRestaurant(anyString());
     }
 
     // ------------------------------------------ GET /restaurant/name/{restaurant_name} ------------------------------------------
@@ -128,13 +186,15 @@ public class RestaurantControllerTest {
     //This test case passes when you are able to fetch restaurants by the name you provided.
     @Test
     public void shouldGetRestaurantDetailsByGivenName() throws Exception {
-        final RestaurantEntity restaurantEntity = getRestaurantEntity();
+        final RestaurantListing restaurantListing = getRestaurantListing();
         when(mockRestaurantService.restaurantsByName("someRestaurantName"))
-                .thenReturn(Collections.singletonList(restaurantEntity));
+                .thenReturn(Collections.singletonList(restaurantListing));
 
         final CategoryEntity categoryEntity = getCategoryEntity();
-        when(mockCategoryService.getCategoriesByRestaurant(restaurantEntity.getUuid()))
-                .thenReturn(Collections.singletonList(categoryEntity));
+        when(mockCategoryService.getCategoryNamesByRestaurants(
+                Collections.singletonList(restaurantListing.getUuid())))
+                .thenReturn(Collections.singletonMap(restaurantListing.getUuid(),
+                        Collections.singletonList(categoryEntity.getCategoryName())));
 
         final String responseString = mockMvc
                 .perform(get("/restaurant/name/someRestaurantName").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
@@ -145,12 +205,29 @@ public class RestaurantControllerTest {
         assertEquals(restaurantListResponse.getRestaurants().size(), 1);
 
         final RestaurantList restaurantList = restaurantListResponse.getRestaurants().get(0);
-        assertEquals(restaurantList.getId().toString(), restaurantEntity.getUuid());
-        assertEquals(restaurantList.getAddress().getId().toString(), restaurantEntity.getAddress().getUuid());
-        assertEquals(restaurantList.getAddress().getState().getId().toString(), restaurantEntity.getAddress().getState().getUuid());
+        assertEquals(restaurantList.getId().toString(), restaurantListing.getUuid());
+        assertEquals(restaurantList.getAddress().getId().toString(), restaurantListing.getAddressUuid());
+        assertEquals(restaurantList.getAddress().getState().getId().toString(), restaurantListing.getStateUuid());
 
         verify(mockRestaurantService, times(1)).restaurantsByName("someRestaurantName");
-        verify(mockCategoryService, times(1)).getCategoriesByRestaurant(restaurantEntity.getUuid());
+        verify(mockCategoryService, times(1))
+                .getCategoryNamesByRestaurants(Collections.singletonList(restaurantListing.getUuid()));
+        verify(mockCategoryService, times(0)).getCategoriesByRestaurant(anyString());
+    }
+
+    //This test case passes when you are able to limit the number of restaurants found by the name you provided.
+    @Test
+    public void shouldGetLimitedRestaurantDetailsByGivenName() throws Exception {
+        final RestaurantListing restaurantListing = getRestaurantListing();
+        when(mockRestaurantService.restaurantsByName("someRestaurantName", 1))
+                .thenReturn(Collections.singletonList(restaurantListing));
+
+        mockMvc
+                .perform(get("/restaurant/name/someRestaurantName?limit=1").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("restaurants[0].id").value(restaurantListing.getUuid()));
+        verify(mockRestaurantService, times(1)).restaurantsByName("someRestaurantName", 1);
+        verify(mockRestaurantService, times(0)).restaurantsByName("someRestaurantName");
     }
 
     //This test case passes when you have handled the exception of trying to fetch any restaurants but your restaurant name
@@ -173,13 +250,15 @@ public class RestaurantControllerTest {
     //This test case passes when you are able to retrieve restaurant belonging to any particular categories.
     @Test
     public void shouldGetRestaurantDetailsByGivenCategoryId() throws Exception {
-        final RestaurantEntity restaurantEntity = getRestaurantEntity();
+        final RestaurantListing restaurantListing = getRestaurantListing();
         when(mockRestaurantService.restaurantByCategory("someCategoryId"))
-                .thenReturn(Collections.singletonList(restaurantEntity));
+                .thenReturn(Collections.singletonList(restaurantListing));
 
         final CategoryEntity categoryEntity = getCategoryEntity();
-        when(mockCategoryService.getCategoriesByRestaurant(restaurantEntity.getUuid()))
-                .thenReturn(Collections.singletonList(categoryEntity));
+        when(mockCategoryService.getCategoryNamesByRestaurants(
+                Collections.singletonList(restaurantListing.getUuid())))
+                .thenReturn(Collections.singletonMap(restaurantListing.getUuid(),
+                        Collections.singletonList(categoryEntity.getCategoryName())));
 
         final String responseString = mockMvc
                 .perform(get("/restaurant/category/someCategoryId").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
@@ -190,12 +269,14 @@ public class RestaurantControllerTest {
         assertEquals(restaurantListResponse.getRestaurants().size(), 1);
 
         final RestaurantList restaurantList = restaurantListResponse.getRestaurants().get(0);
-        assertEquals(restaurantList.getId().toString(), restaurantEntity.getUuid());
-        assertEquals(restaurantList.getAddress().getId().toString(), restaurantEntity.getAddress().getUuid());
-        assertEquals(restaurantList.getAddress().getState().getId().toString(), restaurantEntity.getAddress().getState().getUuid());
+        assertEquals(restaurantList.getId().toString(), restaurantListing.getUuid());
+        assertEquals(restaurantList.getAddress().getId().toString(), restaurantListing.getAddressUuid());
+        assertEquals(restaurantList.getAddress().getState().getId().toString(), restaurantListing.getStateUuid());
 
         verify(mockRestaurantService, times(1)).restaurantByCategory("someCategoryId");
-        verify(mockCategoryService, times(1)).getCategoriesByRestaurant(restaurantEntity.getUuid());
+        verify(mockCategoryService, times(1))
+                .getCategoryNamesByRestaurants(Collections.singletonList(restaurantListing.getUuid()));
+        verify(mockCategoryService, times(0)).getCategoriesByRestaurant(anyString());
     }
 
     //This test case passes when you have handled the exception of trying to fetch any restaurants but your category id
@@ -232,13 +313,15 @@ public class RestaurantControllerTest {
     //This test case passes when you able to fetch the list of all restaurants.
     @Test
     public void shouldGetAllRestaurantDetails() throws Exception {
-        final RestaurantEntity restaurantEntity = getRestaurantEntity();
+        final RestaurantListing restaurantListing = getRestaurantListing();
         when(mockRestaurantService.restaurantsByRating())
-                .thenReturn(Collections.singletonList(restaurantEntity));
+                .thenReturn(Collections.singletonList(restaurantListing));
 
         final CategoryEntity categoryEntity = getCategoryEntity();
-        when(mockCategoryService.getCategoriesByRestaurant(restaurantEntity.getUuid()))
-                .thenReturn(Collections.singletonList(categoryEntity));
+        when(mockCategoryService.getCategoryNamesByRestaurants(
+                Collections.singletonList(restaurantListing.getUuid())))
+                .thenReturn(Collections.singletonMap(restaurantListing.getUuid(),
+                        Collections.singletonList(categoryEntity.getCategoryName())));
 
         final String responseString = mockMvc
                 .perform(get("/restaurant").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
@@ -249,12 +332,44 @@ public class RestaurantControllerTest {
         assertEquals(restaurantListResponse.getRestaurants().size(), 1);
 
         final RestaurantList restaurantList = restaurantListResponse.getRestaurants().get(0);
-        assertEquals(restaurantList.getId().toString(), restaurantEntity.getUuid());
-        assertEquals(restaurantList.getAddress().getId().toString(), restaurantEntity.getAddress().getUuid());
-        assertEquals(restaurantList.getAddress().getState().getId().toString(), restaurantEntity.getAddress().getState().getUuid());
+        assertEquals(restaurantList.getId().toString(), restaurantListing.getUuid());
+        assertEquals(restaurantList.getAddress().getId().toString(), restaurantListing.getAddressUuid());
+        assertEquals(restaurantList.getAddress().getState().getId().toString(), restaurantListing.getStateUuid());
+        assertEquals(restaurantList.getCategories(), "someCategory");
 
         verify(mockRestaurantService, times(1)).restaurantsByRating();
-        verify(mockCategoryService, times(1)).getCategoriesByRestaurant(restaurantEntity.getUuid());
+        verify(mockCategoryService, times(1))
+                .getCategoryNamesByRestaurants(Collections.singletonList(restaurantListing.getUuid()));
+        verify(mockCategoryService, times(0)).getCategoriesByRestaurant(anyString());
+    }
+
+    //This test case passes when the categories of all listed restaurants are fetched with a single batched lookup,
+    // irrespective of the number of restaurants.
+    @Test
+    public void shouldFetchCategoriesOfAllRestaurantsInOneLookup() throws Exception {
+        final List<RestaurantListing> restaurantListings = new ArrayList<>();
+        final Map<String, List<String>> categoryNamesByRestaurant = new HashMap<>();
+        for (int i = 0; i < 25; i++) {
+            final RestaurantListing restaurantListing = getRestaurantListing();
+            restaurantListings.add(restaurantListing);
+            categoryNamesByRestaurant.put(restaurantListing.getUuid(), Arrays.asList("Chinese", "Indian"));
+        }
+        when(mockRestaurantService.restaurantsByRating()).thenReturn(restaurantListings);
+        when(mockCategoryService.getCategoryNamesByRestaurants(anyList())).thenReturn(categoryNamesByRestaurant);
+
+        final String responseString = mockMvc
+                .perform(get("/restaurant").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        final RestaurantListResponse restaurantListResponse = new ObjectMapper().readValue(responseString, RestaurantListResponse.class);
+        assertEquals(restaurantListResponse.getRestaurants().size(), 25);
+        for (RestaurantList restaurantList : restaurantListResponse.getRestaurants()) {
+            assertEquals(restaurantList.getCategories(), "Chinese, Indian");
+        }
+
+        verify(mockCategoryService, times(1)).getCategoryNamesByRestaurants(anyList());
+        verify(mockCategoryService, times(0)).getCategoriesByRestaurant(anyString());
     }
 
 
@@ -265,15 +380,16 @@ public class RestaurantControllerTest {
     public void shouldUpdateRestaurantRating() throws Exception {
         final String restaurantId = UUID.randomUUID().toString();
 
+        final CustomerEntity customerEntity = new CustomerEntity();
         when(mockCustomerService.getCustomer("database_accesstoken2"))
-                .thenReturn(new CustomerEntity());
+                .thenReturn(customerEntity);
 
         final RestaurantEntity restaurantEntity = getRestaurantEntity();
         when(mockRestaurantService.restaurantByUUID(restaurantId)).thenReturn(restaurantEntity);
 
         final RestaurantEntity updatedRestaurantEntity = new RestaurantEntity();
         updatedRestaurantEntity.setUuid(String.valueOf(UUID.fromString(restaurantId)));
-        when(mockRestaurantService.updateRestaurantRating(restaurantEntity, 4.5))
+        when(mockRestaurantService.updateRestaurantRating(restaurantEntity, customerEntity, 4.5))
                 .thenReturn(updatedRestaurantEntity);
 
         mockMvc
@@ -285,7 +401,7 @@ public class RestaurantControllerTest {
         verify(mockCustomerService, times(1)).getCustomer("database_accesstoken2");
         verify(mockRestaurantService, times(1)).restaurantByUUID(restaurantId);
         verify(mockRestaurantService, times(1))
-                .updateRestaurantRating(restaurantEntity, 4.5);
+                .updateRestaurantRating(restaurantEntity, customerEntity, 4.5);
     }
 
     //This test case passes when you have handled the exception of trying to update restaurant rating while you are
@@ -303,7 +419,7 @@ public class RestaurantControllerTest {
                 .andExpect(jsonPath("code").value("ATHR-001"));
         verify(mockCustomerService, times(1)).getCustomer("invalid_auth");
         verify(mockRestaurantService, times(0)).restaurantByUUID(anyString());
-        verify(mockRestaurantService, times(0)).updateRestaurantRating(any(), anyDouble());
+        verify(mockRestaurantService, times(0)).updateRestaurantRating(any(), any(), anyDouble());
     }
 
     //This test case passes when you have handled the exception of trying to update restaurant rating while you are
@@ -321,7 +437,7 @@ public class RestaurantControllerTest {
                 .andExpect(jsonPath("code").value("ATHR-002"));
         verify(mockCustomerService, times(1)).getCustomer("invalid_auth");
         verify(mockRestaurantService, times(0)).restaurantByUUID(anyString());
-        verify(mockRestaurantService, times(0)).updateRestaurantRating(any(), anyDouble());
+        verify(mockRestaurantService, times(0)).updateRestaurantRating(any(), any(), anyDouble());
     }
 
     //This test case passes when you have handled the exception of trying to update restaurant rating while your session
@@ -339,7 +455,7 @@ public class RestaurantControllerTest {
                 .andExpect(jsonPath("code").value("ATHR-003"));
         verify(mockCustomerService, times(1)).getCustomer("invalid_auth");
         verify(mockRestaurantService, times(0)).restaurantByUUID(anyString());
-        verify(mockRestaurantService, times(0)).updateRestaurantRating(any(), anyDouble());
+        verify(mockRestaurantService, times(0)).updateRestaurantRating(any(), any(), anyDouble());
     }
 
     //This test case passes when you have handled the exception of trying to update any restaurant but your restaurant id
@@ -382,7 +498,7 @@ public class RestaurantControllerTest {
         verify(mockCustomerService, times(1)).getCustomer("database_accesstoken2");
         verify(mockRestaurantService, times(1)).restaurantByUUID(restaurantId);
         verify(mockRestaurantService, times(0))
-                .updateRestaurantRating(any(), anyDouble());
+                .updateRestaurantRating(any(), any(), anyDouble());
     }
 
     //This test case passes when you have handled the exception of trying to update restaurant rating while the rating
@@ -391,13 +507,14 @@ public class RestaurantControllerTest {
     public void shouldNotUpdateRestaurantRatingIfNewRatingIsLessThan1() throws Exception {
         final String restaurantId = UUID.randomUUID().toString();
 
+        final CustomerEntity customerEntity = new CustomerEntity();
         when(mockCustomerService.getCustomer("database_accesstoken2"))
-                .thenReturn(new CustomerEntity());
+                .thenReturn(customerEntity);
 
         final RestaurantEntity restaurantEntity = getRestaurantEntity();
         when(mockRestaurantService.restaurantByUUID(restaurantId)).thenReturn(restaurantEntity);
 
-        when(mockRestaurantService.updateRestaurantRating(restaurantEntity, -5.5))
+        when(mockRestaurantService.updateRestaurantRating(restaurantEntity, customerEntity, -5.5))
                 .thenThrow(new InvalidRatingException("IRE-001", "Rating should be in the range of 1 to 5"));
 
         mockMvc
@@ -409,7 +526,7 @@ public class RestaurantControllerTest {
         verify(mockCustomerService, times(1)).getCustomer("database_accesstoken2");
         verify(mockRestaurantService, times(1)).restaurantByUUID(restaurantId);
         verify(mockRestaurantService, times(1))
-                .updateRestaurantRating(restaurantEntity, -5.5);
+                .updateRestaurantRating(restaurantEntity, customerEntity, -5.5);
     }
 
     //This test case passes when you have handled the exception of trying to update restaurant rating while the rating
@@ -418,13 +535,14 @@ public class RestaurantControllerTest {
     public void shouldNotUpdateRestaurantRatingIfNewRatingIsGreaterThan5() throws Exception {
         final String restaurantId = UUID.randomUUID().toString();
 
+        final CustomerEntity customerEntity = new CustomerEntity();
         when(mockCustomerService.getCustomer("database_accesstoken2"))
-                .thenReturn(new CustomerEntity());
+                .thenReturn(customerEntity);
 
         final RestaurantEntity restaurantEntity = getRestaurantEntity();
         when(mockRestaurantService.restaurantByUUID(restaurantId)).thenReturn(restaurantEntity);
 
-        when(mockRestaurantService.updateRestaurantRating(restaurantEntity, 5.5))
+        when(mockRestaurantService.updateRestaurantRating(restaurantEntity, customerEntity, 5.5))
                 .thenThrow(new InvalidRatingException("IRE-001", "Rating should be in the range of 1 to 5"));
 
         mockMvc
@@ -436,7 +554,7 @@ public class RestaurantControllerTest {
         verify(mockCustomerService, times(1)).getCustomer("database_accesstoken2");
         verify(mockRestaurantService, times(1)).restaurantByUUID(restaurantId);
         verify(mockRestaurantService, times(1))
-                .updateRestaurantRating(restaurantEntity, 5.5);
+                .updateRestaurantRating(restaurantEntity, customerEntity, 5.5);
     }
 
     // ------------------------------------------ POJO builders ------------------------------------------
@@ -476,4 +594,14 @@ public class RestaurantControllerTest {
         restaurantEntity.setRestaurantName("Famous Restaurant");
         return restaurantEntity;
     }
+
+    private RestaurantListing getRestaurantListing() {
+        final RestaurantEntity restaurantEntity = getRestaurantEntity();
+        final AddressEntity addressEntity = restaurantEntity.getAddress();
+        return new RestaurantListing(restaurantEntity.getUuid(), restaurantEntity.getRestaurantName(),
+                restaurantEntity.getPhotoUrl(), restaurantEntity.getCustomerRating(), restaurantEntity.getAvgPrice(),
+                restaurantEntity.getNumberCustomersRated(), addressEntity.getUuid(), addressEntity.getFlatBuilNo(),
+                addressEntity.getLocality(), addressEntity.getCity(), addressEntity.getPincode(),
+                addressEntity.getState().getUuid(), addressEntity.getState().getStateName());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.api.model.RestaurantList;
+import com.upgrad.FoodOrderingApp.api.model.RestaurantListResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// This class checks against the seeded database that a restaurant listing takes the same number of
+// SQL statements however many restaurants it holds, counted by the Hibernate statistics.
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class RestaurantListingStatementsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    //This test case passes when a listing of one restaurant and a listing of many both take one
+    // statement for the restaurants and one for the categories of all of them, padded to the same
+    // number of UUIDs.
+    @Test
+    public void listingShouldTakeTwoStatementsForAnyNumberOfRestaurants() throws Exception {
+        RestaurantListResponse oneRestaurant = searchRestaurants(1);
+        assertEquals(1, oneRestaurant.getRestaurants().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        RestaurantListResponse manyRestaurants = searchRestaurants(10);
+        assertTrue(manyRestaurants.getRestaurants().size() > 1);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        for (RestaurantList restaurant : manyRestaurants.getRestaurants()) {
+            assertFalse(restaurant.getCategories().isEmpty());
+        }
+    }
+
+    private RestaurantListResponse searchRestaurants(final int limit) throws Exception {
+        statistics.clear();
+        String response =
+                mockMvc.perform(get("/restaurant/name/a?limit=" + limit))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        return new ObjectMapper().readValue(response, RestaurantListResponse.class);
+    }
+}
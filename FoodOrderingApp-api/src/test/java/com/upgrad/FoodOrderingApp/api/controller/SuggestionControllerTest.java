@@ -0,0 +1,85 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.api.model.SuggestionListResponse;
+import com.upgrad.FoodOrderingApp.service.businness.SuggestionService;
+import com.upgrad.FoodOrderingApp.service.cache.Suggestion;
+import com.upgrad.FoodOrderingApp.service.cache.SuggestionType;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// This class contains all the test cases regarding the suggestion controller
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SuggestionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SuggestionService mockSuggestionService;
+
+    //This test case passes when you are able to retrieve the suggestions of every kind for a prefix.
+    @Test
+    public void shouldGetSuggestions() throws Exception {
+        final String restaurantId = UUID.randomUUID().toString();
+        final String itemId = UUID.randomUUID().toString();
+        final Map<SuggestionType, List<Suggestion>> suggestions = new EnumMap<>(SuggestionType.class);
+        suggestions.put(
+                SuggestionType.RESTAURANT,
+                Collections.singletonList(new Suggestion(restaurantId, "Pizza Hut")));
+        suggestions.put(
+                SuggestionType.ITEM, Collections.singletonList(new Suggestion(itemId, "Paneer Pizza")));
+        suggestions.put(SuggestionType.CATEGORY, Collections.emptyList());
+
+        when(mockSuggestionService.getSuggestions("piz", 3)).thenReturn(suggestions);
+
+        final String response = mockMvc
+                .perform(get("/suggest?q=piz&limit=3").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        final SuggestionListResponse suggestionListResponse =
+                new ObjectMapper().readValue(response, SuggestionListResponse.class);
+        assertEquals(suggestionListResponse.getRestaurants().size(), 1);
+        assertEquals(suggestionListResponse.getRestaurants().get(0).getId().toString(), restaurantId);
+        assertEquals(suggestionListResponse.getRestaurants().get(0).getName(), "Pizza Hut");
+        assertEquals(suggestionListResponse.getItems().size(), 1);
+        assertEquals(suggestionListResponse.getItems().get(0).getId().toString(), itemId);
+        assertEquals(suggestionListResponse.getCategories().size(), 0);
+        verify(mockSuggestionService, times(1)).getSuggestions("piz", 3);
+    }
+
+    //This test case passes when you have handled the exception of asking for less than one suggestion.
+    @Test
+    public void shouldNotGetSuggestionsForInvalidLimit() throws Exception {
+        when(mockSuggestionService.getSuggestions("piz", 0))
+                .thenThrow(new InvalidPageException("PGN-002", "Limit should be at least 1"));
+
+        mockMvc
+                .perform(get("/suggest?q=piz&limit=0").contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("code").value("PGN-002"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.auth0.jwt.JWT;
+import com.upgrad.FoodOrderingApp.service.cache.CustomerSessionCache;
+import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// This class checks how the customer service authorizes access tokens in stateless mode, with the
+// customers read from a mocked DAO.
+public class CustomerServiceVerifiedTokenTest {
+
+    private static final String CUSTOMER_UUID = "c0a1b2d3-0000-4000-8000-000000000001";
+
+    private CustomerDao customerDao;
+
+    private JwtKeyring jwtKeyring;
+
+    private TokenRevocationSet tokenRevocationSet;
+
+    private CustomerService customerService;
+
+    @Before
+    public void setUp() {
+        customerDao = mock(CustomerDao.class);
+        CustomerEntity customerEntity = new CustomerEntity();
+        customerEntity.setUuid(CUSTOMER_UUID);
+        customerEntity.setFirstName("Test");
+        when(customerDao.getCustomerByUuid(CUSTOMER_UUID)).thenReturn(customerEntity);
+
+        jwtKeyring = new JwtKeyring("k1:secret-one,k2:secret-two", "k2");
+        tokenRevocationSet = new TokenRevocationSet();
+        customerService = new CustomerService();
+        ReflectionTestUtils.setField(customerService, "verificationMode", "stateless");
+        ReflectionTestUtils.setField(customerService, "customerDao", customerDao);
+        ReflectionTestUtils.setField(customerService, "jwtKeyring", jwtKeyring);
+        ReflectionTestUtils.setField(customerService, "tokenRevocationSet", tokenRevocationSet);
+        ReflectionTestUtils.setField(
+                customerService, "customerSessionCache", new CustomerSessionCache(100, 60000));
+    }
+
+    //This test case passes when a valid token gives its customer, who is read from the database
+    // only the first time the token is seen.
+    @Test
+    public void validTokenShouldGiveItsCustomer() throws Exception {
+        String token = generateToken(jwtKeyring, 1);
+
+        assertEquals(CUSTOMER_UUID, customerService.getCustomer(token).getUuid());
+        assertEquals(CUSTOMER_UUID, customerService.getCustomer(token).getUuid());
+
+        verify(customerDao, times(1)).getCustomerByUuid(CUSTOMER_UUID);
+    }
+
+    //This test case passes when a token of a key rotated out of the active position still works.
+    @Test
+    public void tokenOfRotatedKeyShouldGiveItsCustomer() throws Exception {
+        String token = generateToken(new JwtKeyring("k1:secret-one", "k1"), 1);
+
+        assertEquals(CUSTOMER_UUID, customerService.getCustomer(token).getUuid());
+    }
+
+    //This test case passes when an expired token fails with ATHR-003.
+    @Test
+    public void expiredTokenShouldFailAsExpired() {
+        assertRejected(generateToken(jwtKeyring, -1), "ATHR-003");
+    }
+
+    //This test case passes when a token with a forged signature fails with ATHR-001.
+    @Test
+    public void forgedTokenShouldFailAsNotLoggedIn() {
+        assertRejected(generateToken(new JwtKeyring("k2:not-the-secret", "k2"), 1), "ATHR-001");
+    }
+
+    //This test case passes when a token that is not a JWT at all fails with ATHR-001.
+    @Test
+    public void malformedTokenShouldFailAsNotLoggedIn() {
+        assertRejected("not-a-token", "ATHR-001");
+    }
+
+    //This test case passes when a revoked token fails with ATHR-002, even if its session is cached.
+    @Test
+    public void revokedTokenShouldFailAsLoggedOut() throws Exception {
+        String token = generateToken(jwtKeyring, 1);
+        customerService.getCustomer(token);
+
+        tokenRevocationSet.revoke(JWT.decode(token));
+
+        assertRejected(token, "ATHR-002");
+    }
+
+    //This test case passes when a valid token of a customer that does not exist fails with
+    // ATHR-001.
+    @Test
+    public void tokenOfUnknownCustomerShouldFailAsNotLoggedIn() {
+        ZonedDateTime now = ZonedDateTime.now();
+        String token =
+                jwtKeyring
+                        .getTokenProvider()
+                        .generateToken("no-such-customer", now, now.plusHours(1));
+
+        assertRejected(token, "ATHR-001");
+    }
+
+    private void assertRejected(final String token, final String code) {
+        try {
+            customerService.getCustomer(token);
+            fail("Token was accepted");
+        } catch (AuthorizationFailedException e) {
+            assertEquals(code, e.getCode());
+        }
+    }
+
+    private static String generateToken(final JwtKeyring keyring, final int expiresInHours) {
+        ZonedDateTime now = ZonedDateTime.now();
+        return keyring
+                .getTokenProvider()
+                .generateToken(CUSTOMER_UUID, now.minusHours(2), now.plusHours(expiresInHours));
+    }
+}
@@ -0,0 +1,145 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+// This class checks how the keyring signs access tokens and which tokens it accepts, including
+// tokens signed with keys that were rotated out.
+public class JwtKeyringTest {
+
+    private static final String CUSTOMER_UUID = "c0a1b2d3-0000-4000-8000-000000000001";
+
+    //This test case passes when a token signed with the active key verifies and names the customer.
+    @Test
+    public void tokenOfActiveKeyShouldVerify() {
+        JwtKeyring keyring = new JwtKeyring("k1:secret-one", "k1");
+
+        DecodedJWT jwt = keyring.verify(generateToken(keyring, 1));
+
+        assertEquals(CUSTOMER_UUID, jwt.getSubject());
+        assertEquals("k1", jwt.getKeyId());
+        assertNotNull(jwt.getId());
+    }
+
+    //This test case passes when a token signed with another secret under the same key id is
+    // rejected.
+    @Test(expected = JWTVerificationException.class)
+    public void tokenWithForgedSignatureShouldBeRejected() {
+        JwtKeyring forger = new JwtKeyring("k1:not-the-secret", "k1");
+
+        new JwtKeyring("k1:secret-one", "k1").verify(generateToken(forger, 1));
+    }
+
+    //This test case passes when an expired token is rejected as expired.
+    @Test(expected = TokenExpiredException.class)
+    public void expiredTokenShouldBeRejected() {
+        JwtKeyring keyring = new JwtKeyring("k1:secret-one", "k1");
+
+        keyring.verify(generateToken(keyring, -1));
+    }
+
+    //This test case passes when a token signed with a key not in the ring is rejected.
+    @Test(expected = JWTVerificationException.class)
+    public void tokenOfUnknownKeyShouldBeRejected() {
+        JwtKeyring other = new JwtKeyring("k9:secret-nine", "k9");
+
+        new JwtKeyring("k1:secret-one", "k1").verify(generateToken(other, 1));
+    }
+
+    //This test case passes when tokens of a rotated key keep verifying while the key is in the
+    // ring, new tokens are signed with the new active key, and the old tokens fail once it is
+    // removed.
+    @Test
+    public void rotatedKeyShouldVerifyUntilRemoved() {
+        String oldToken = generateToken(new JwtKeyring("k1:secret-one", "k1"), 1);
+        JwtKeyring rotated = new JwtKeyring("k1:secret-one,k2:secret-two", "k2");
+
+        assertEquals(CUSTOMER_UUID, rotated.verify(oldToken).getSubject());
+        assertEquals("k2", JWT.decode(generateToken(rotated, 1)).getKeyId());
+
+        try {
+            new JwtKeyring("k2:secret-two", "k2").verify(oldToken);
+            throw new AssertionError("Token of a removed key was accepted");
+        } catch (JWTVerificationException e) {
+            // expected
+        }
+    }
+
+    //This test case passes when a correctly signed token meant for another audience is rejected.
+    @Test(expected = JWTVerificationException.class)
+    public void tokenForOtherAudienceShouldBeRejected() {
+        String token =
+                JWT.create()
+                        .withIssuer("https://FoodOrderingApp.io")
+                        .withKeyId("k1")
+                        .withJWTId(UUID.randomUUID().toString())
+                        .withSubject(CUSTOMER_UUID)
+                        .withAudience("https://other-app.example")
+                        .withExpiresAt(inHours(1))
+                        .sign(Algorithm.HMAC512("secret-one"));
+
+        new JwtKeyring("k1:secret-one", "k1").verify(token);
+    }
+
+    //This test case passes when a correctly signed token without a token id, which could never be
+    // revoked, is rejected.
+    @Test(expected = JWTVerificationException.class)
+    public void tokenWithoutIdShouldBeRejected() {
+        String token =
+                JWT.create()
+                        .withIssuer("https://FoodOrderingApp.io")
+                        .withKeyId("k1")
+                        .withSubject(CUSTOMER_UUID)
+                        .withAudience("https://FoodOrderingApp.io/api")
+                        .withExpiresAt(inHours(1))
+                        .sign(Algorithm.HMAC512("secret-one"));
+
+        new JwtKeyring("k1:secret-one", "k1").verify(token);
+    }
+
+    //This test case passes when an active key id missing from the keys fails the configuration.
+    @Test(expected = UnexpectedException.class)
+    public void activeKeyOutsideTheRingShouldFail() {
+        new JwtKeyring("k1:secret-one", "k2");
+    }
+
+    //This test case passes when an unconfigured keyring signs with a random key of its own, whose
+    // tokens another unconfigured keyring does not accept.
+    @Test
+    public void unconfiguredKeyringShouldUseRandomKey() {
+        JwtKeyring keyring = new JwtKeyring("", "");
+        String token = generateToken(keyring, 1);
+
+        assertEquals(CUSTOMER_UUID, keyring.verify(token).getSubject());
+        try {
+            new JwtKeyring("", "").verify(token);
+            throw new AssertionError("Token of another random key was accepted");
+        } catch (JWTVerificationException e) {
+            // expected
+        }
+    }
+
+    // token of the customer signed with the active key, expiring the given hours from now
+    private static String generateToken(final JwtKeyring keyring, final int expiresInHours) {
+        ZonedDateTime now = ZonedDateTime.now();
+        return keyring
+                .getTokenProvider()
+                .generateToken(CUSTOMER_UUID, now.minusHours(2), now.plusHours(expiresInHours));
+    }
+
+    private static Date inHours(final int hours) {
+        return Date.from(ZonedDateTime.now().plusHours(hours).toInstant());
+    }
+}
@@ -0,0 +1,166 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.cache.CustomerSessionCache;
+import com.upgrad.FoodOrderingApp.service.dao.CustomerAuthDao;
+import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceUnavailableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// This class checks the password hashes made and read by the password cryptography provider, on a
+// pool of one thread with room for one waiting hash.
+public class PasswordCryptographyProviderTest {
+
+    private static final int HASHING_ITERATIONS = 2000;
+
+    private static final String PASSWORD = "Password@123";
+
+    private PasswordCryptographyProvider passwordCryptographyProvider;
+
+    @Before
+    public void setUp() {
+        passwordCryptographyProvider =
+                new PasswordCryptographyProvider(HASHING_ITERATIONS, 1, 1);
+    }
+
+    @After
+    public void tearDown() {
+        passwordCryptographyProvider.shutdown();
+    }
+
+    //This test case passes when a new hash is stored with its iterations, the hex of a 64 bit key
+    // and a 32 byte salt.
+    @Test
+    public void hashShouldHoldItsIterations() throws Exception {
+        String[] encryptedText = passwordCryptographyProvider.encrypt(PASSWORD);
+
+        assertEquals(32, Base64.getDecoder().decode(encryptedText[0]).length);
+        assertTrue(encryptedText[1].matches(HASHING_ITERATIONS + "\\$[0-9A-F]{16}"));
+        assertFalse(passwordCryptographyProvider.needsRehash(encryptedText[1]));
+    }
+
+    //This test case passes when a new hash matches its password only, and two hashes of the same
+    // password differ by their salt.
+    @Test
+    public void hashShouldMatchItsPasswordOnly() throws Exception {
+        String[] encryptedText = passwordCryptographyProvider.encrypt(PASSWORD);
+
+        assertTrue(passwordCryptographyProvider.matches(
+                PASSWORD, encryptedText[0], encryptedText[1]));
+        assertFalse(passwordCryptographyProvider.matches(
+                "Password@124", encryptedText[0], encryptedText[1]));
+        assertNotEquals(encryptedText[1], passwordCryptographyProvider.encrypt(PASSWORD)[1]);
+    }
+
+    //This test case passes when a hash stored before the iterations were stored with it is read
+    // with the legacy iterations, and is due to be hashed again.
+    @Test
+    public void legacyHashShouldMatchAndNeedRehash() throws Exception {
+        String salt = passwordCryptographyProvider.encrypt(PASSWORD)[0];
+        String legacyHash = legacyHash(PASSWORD, salt);
+
+        assertTrue(passwordCryptographyProvider.matches(PASSWORD, salt, legacyHash));
+        assertFalse(passwordCryptographyProvider.matches("Password@124", salt, legacyHash));
+        assertTrue(passwordCryptographyProvider.needsRehash(legacyHash));
+    }
+
+    //This test case passes when a hash is turned away with GEN-002 while the hashing thread is busy
+    // and its queue is full, and is made again once the pool has room.
+    @Test
+    public void hashingShouldBeTurnedAwayWhenPoolIsSaturated() throws Exception {
+        ThreadPoolExecutor hashingExecutor =
+                (ThreadPoolExecutor) ReflectionTestUtils.getField(
+                        passwordCryptographyProvider, "hashingExecutor");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch drained = new CountDownLatch(1);
+        hashingExecutor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        hashingExecutor.execute(drained::countDown);
+
+        try {
+            passwordCryptographyProvider.encrypt(PASSWORD);
+            fail();
+        } catch (ServiceUnavailableException e) {
+            assertEquals("GEN-002", e.getCode());
+        } finally {
+            release.countDown();
+        }
+        drained.await();
+        String[] encryptedText = passwordCryptographyProvider.encrypt(PASSWORD);
+        assertTrue(passwordCryptographyProvider.matches(
+                PASSWORD, encryptedText[0], encryptedText[1]));
+    }
+
+    //This test case passes when logging in with a legacy hash replaces it by a hash with the
+    // configured iterations and a new salt, which still matches the password.
+    @Test
+    public void loginShouldRehashLegacyHash() throws Exception {
+        String salt = passwordCryptographyProvider.encrypt(PASSWORD)[0];
+        CustomerEntity customerEntity = new CustomerEntity();
+        customerEntity.setUuid("c0a1b2d3-0000-4000-8000-000000000002");
+        customerEntity.setContactNumber("9090909090");
+        customerEntity.setSalt(salt);
+        customerEntity.setPassword(legacyHash(PASSWORD, salt));
+        CustomerDao customerDao = mock(CustomerDao.class);
+        when(customerDao.getCustomerByContactNumber("9090909090")).thenReturn(customerEntity);
+        CustomerAuthDao customerAuthDao = mock(CustomerAuthDao.class);
+
+        CustomerService customerService = new CustomerService();
+        ReflectionTestUtils.setField(customerService, "customerDao", customerDao);
+        ReflectionTestUtils.setField(customerService, "customerAuthDao", customerAuthDao);
+        ReflectionTestUtils.setField(
+                customerService, "passwordCryptographyProvider", passwordCryptographyProvider);
+        ReflectionTestUtils.setField(
+                customerService, "jwtKeyring", new JwtKeyring("k1:secret-one", "k1"));
+        ReflectionTestUtils.setField(
+                customerService, "customerSessionCache", new CustomerSessionCache(100, 60000));
+        customerService.authenticate("9090909090", PASSWORD);
+
+        assertNotEquals(salt, customerEntity.getSalt());
+        assertTrue(customerEntity.getPassword().startsWith(HASHING_ITERATIONS + "$"));
+        assertTrue(passwordCryptographyProvider.matches(
+                PASSWORD, customerEntity.getSalt(), customerEntity.getPassword()));
+    }
+
+    private static String legacyHash(final String password, final String salt) throws Exception {
+        PBEKeySpec spec =
+                new PBEKeySpec(
+                        password.toCharArray(),
+                        Base64.getDecoder().decode(salt),
+                        PasswordCryptographyProvider.LEGACY_HASHING_ITERATIONS,
+                        64);
+        byte[] hash = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512")
+                .generateSecret(spec)
+                .getEncoded();
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) {
+            hex.append(String.format("%02X", b));
+        }
+        return hex.toString();
+    }
+}
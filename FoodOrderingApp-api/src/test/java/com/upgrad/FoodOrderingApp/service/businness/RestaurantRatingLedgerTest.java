@@ -0,0 +1,193 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantRatingDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// This class checks against the seeded database that ratings are saved in the rating ledger once
+// per customer, that the restaurant changes only by the difference a rating makes, and that the
+// compaction sets a restaurant that drifted from its ledger rows back.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = FoodOrderingAppApiApplication.class)
+public class RestaurantRatingLedgerTest {
+
+    // Lion Heart, seeded with a rating of 4.50 by 562 customers and carried over as one ledger row
+    private static final String RESTAURANT_UUID = "2461973c-a238-11e8-9077-720006ceb890";
+
+    // the seeded customer, who has not rated any restaurant
+    private static final String CUSTOMER_UUID = "7d174a25-ba31-45a8-85b4-b06ffc9d5f8f";
+
+    private static final double DELTA = 1e-6;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RestaurantDao restaurantDao;
+
+    @Autowired
+    private RestaurantRatingDao restaurantRatingDao;
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    private Integer restaurantId;
+
+    private CustomerEntity customerEntity;
+
+    @Before
+    public void setUp() {
+        restaurantId = restaurantDao.restaurantByUUID(RESTAURANT_UUID).getId();
+        customerEntity = customerDao.getCustomerByUuid(CUSTOMER_UUID);
+    }
+
+    //This test case passes when the first rating of a customer is inserted, and a new rating of the
+    // same customer replaces it and gives the rating it replaced.
+    @Test
+    @Transactional
+    public void ratingShouldBeSavedOncePerCustomer() {
+        Object[] savedRating =
+                restaurantRatingDao.saveRestaurantRating(customerEntity.getId(), restaurantId, 4.0);
+        assertNull(savedRating[0]);
+        assertTrue((Boolean) savedRating[1]);
+
+        savedRating =
+                restaurantRatingDao.saveRestaurantRating(customerEntity.getId(), restaurantId, 2.0);
+        assertEquals(4.0, ((Number) savedRating[0]).doubleValue(), DELTA);
+        assertFalse((Boolean) savedRating[1]);
+
+        Number ledgerRows =
+                (Number) entityManager
+                        .createNativeQuery("select count(*) from restaurant_rating "
+                                + "where customer_id = " + customerEntity.getId()
+                                + " and restaurant_id = " + restaurantId)
+                        .getSingleResult();
+        assertEquals(1, ledgerRows.intValue());
+    }
+
+    //This test case passes when a first rating adds a rater, a changed rating only the change and a
+    // repeated rating nothing, leaving the restaurant in line with its ledger rows.
+    @Test
+    @Transactional
+    public void restaurantShouldChangeByTheDifference() throws Exception {
+        RestaurantEntity restaurantEntity =
+                restaurantService.updateRestaurantRating(
+                        restaurantDao.restaurantByUUID(RESTAURANT_UUID), customerEntity, 5.0);
+        assertEquals((4.50 * 562 + 5.0) / 563, restaurantEntity.getCustomerRating(), DELTA);
+        assertEquals(Integer.valueOf(563), restaurantEntity.getNumberCustomersRated());
+
+        restaurantEntity =
+                restaurantService.updateRestaurantRating(restaurantEntity, customerEntity, 3.0);
+        assertEquals((4.50 * 562 + 3.0) / 563, restaurantEntity.getCustomerRating(), DELTA);
+        assertEquals(Integer.valueOf(563), restaurantEntity.getNumberCustomersRated());
+
+        restaurantEntity =
+                restaurantService.updateRestaurantRating(restaurantEntity, customerEntity, 3.0);
+        assertEquals((4.50 * 562 + 3.0) / 563, restaurantEntity.getCustomerRating(), DELTA);
+        assertEquals(Integer.valueOf(563), restaurantEntity.getNumberCustomersRated());
+
+        assertFalse(restaurantRatingDao.compactRestaurantRatings().contains(RESTAURANT_UUID));
+    }
+
+    //This test case passes when the compaction sets a restaurant that drifted from its ledger rows
+    // back, and writes nothing once no restaurant drifted.
+    @Test
+    @Transactional
+    public void compactionShouldSetDriftedRestaurantBack() {
+        entityManager
+                .createNativeQuery("update restaurant set customer_rating = 1.0, "
+                        + "number_of_customers_rated = 10 where id = " + restaurantId)
+                .executeUpdate();
+
+        assertTrue(restaurantRatingDao.compactRestaurantRatings(restaurantId)
+                .contains(RESTAURANT_UUID));
+        assertTrue(restaurantRatingDao.compactRestaurantRatings(restaurantId).isEmpty());
+        assertTrue(restaurantRatingDao.compactRestaurantRatings().isEmpty());
+
+        RestaurantEntity restaurantEntity = restaurantDao.refreshRestaurant(restaurantId);
+        assertEquals(4.50, restaurantEntity.getCustomerRating(), DELTA);
+        assertEquals(Integer.valueOf(562), restaurantEntity.getNumberCustomersRated());
+    }
+
+    //This test case passes when a first rating racing with a first rating of the same customer in
+    // another transaction is applied by compacting the restaurant, counting the customer once with
+    // the rating saved last. The transactions commit, so the ledger and restaurant are put back.
+    @Test
+    public void concurrentFirstRatingShouldBeCompacted() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch inserted = new CountDownLatch(1);
+        try {
+            // the first transaction holds its uncommitted ledger row for a while, so the rating of
+            // the second one waits on it and then finds it without having seen a previous rating
+            Future<?> firstRating =
+                    executor.submit(
+                            () -> transactionTemplate.execute(
+                                    status -> {
+                                        restaurantRatingDao.saveRestaurantRating(
+                                                customerEntity.getId(), restaurantId, 1.0);
+                                        inserted.countDown();
+                                        sleep(500);
+                                        return null;
+                                    }));
+            assertTrue(inserted.await(10, TimeUnit.SECONDS));
+
+            RestaurantEntity restaurantEntity =
+                    restaurantService.updateRestaurantRating(
+                            restaurantDao.restaurantByUUID(RESTAURANT_UUID), customerEntity, 5.0);
+            firstRating.get();
+
+            assertEquals((4.50 * 562 + 5.0) / 563, restaurantEntity.getCustomerRating(), DELTA);
+            assertEquals(Integer.valueOf(563), restaurantEntity.getNumberCustomersRated());
+        } finally {
+            executor.shutdownNow();
+            transactionTemplate.execute(
+                    status ->
+                            entityManager
+                                    .createNativeQuery("delete from restaurant_rating "
+                                            + "where customer_id = " + customerEntity.getId())
+                                    .executeUpdate());
+            restaurantService.compactRestaurantRatings();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
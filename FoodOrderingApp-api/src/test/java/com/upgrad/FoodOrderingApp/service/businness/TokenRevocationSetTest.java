@@ -0,0 +1,133 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.upgrad.FoodOrderingApp.service.dao.CustomerAuthDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// This class checks which tokens the revocation set holds, with the logged out tokens read from a
+// mocked customer_auth DAO.
+public class TokenRevocationSetTest {
+
+    private CustomerAuthDao customerAuthDao;
+
+    private TokenRevocationSet tokenRevocationSet;
+
+    @Before
+    public void setUp() {
+        customerAuthDao = mock(CustomerAuthDao.class);
+        tokenRevocationSet = new TokenRevocationSet();
+        ReflectionTestUtils.setField(tokenRevocationSet, "customerAuthDao", customerAuthDao);
+        ReflectionTestUtils.setField(tokenRevocationSet, "verificationMode", "stateless");
+        when(customerAuthDao.getLoggedOutCustomerAuths(any()))
+                .thenReturn(Collections.emptyList());
+        when(customerAuthDao.getAccessTokensLoggedOutSince(any(), any()))
+                .thenReturn(Collections.emptyList());
+    }
+
+    //This test case passes when a revoked token is revoked and any other token is not.
+    @Test
+    public void revokedTokenShouldBeRevoked() {
+        String tokenId = UUID.randomUUID().toString();
+
+        tokenRevocationSet.revoke(JWT.decode(token(tokenId, 1)));
+
+        assertTrue(tokenRevocationSet.isRevoked(tokenId));
+        assertFalse(tokenRevocationSet.isRevoked(UUID.randomUUID().toString()));
+    }
+
+    //This test case passes when revocations of expired tokens are dropped by the periodic purge.
+    @Test
+    public void expiredRevocationsShouldBePurged() {
+        String expiredTokenId = UUID.randomUUID().toString();
+        String validTokenId = UUID.randomUUID().toString();
+        tokenRevocationSet.revoke(JWT.decode(token(expiredTokenId, -1)));
+        tokenRevocationSet.revoke(JWT.decode(token(validTokenId, 1)));
+
+        for (int i = 0; i < 1000; i++) {
+            tokenRevocationSet.revoke(JWT.decode(token(UUID.randomUUID().toString(), 1)));
+        }
+
+        assertFalse(tokenRevocationSet.isRevoked(expiredTokenId));
+        assertTrue(tokenRevocationSet.isRevoked(validTokenId));
+    }
+
+    //This test case passes when the tokens logged out before the startup are revoked, skipping
+    // malformed ones.
+    @Test
+    public void loggedOutTokensShouldBeLoadedAtStartup() {
+        String tokenId = UUID.randomUUID().toString();
+        when(customerAuthDao.getLoggedOutCustomerAuths(any()))
+                .thenReturn(
+                        Arrays.asList(
+                                customerAuth("not-a-token"), customerAuth(token(tokenId, 1))));
+
+        tokenRevocationSet.loadLoggedOutTokens();
+
+        assertTrue(tokenRevocationSet.isRevoked(tokenId));
+    }
+
+    //This test case passes when the tokens logged out by other instances since the previous
+    // refresh are revoked by the next one, reading from a minute before the previous refresh.
+    @Test
+    public void tokensLoggedOutElsewhereShouldBeRevokedOnRefresh() {
+        ZonedDateTime beforeLoad = ZonedDateTime.now();
+        tokenRevocationSet.loadLoggedOutTokens();
+        String tokenId = UUID.randomUUID().toString();
+        when(customerAuthDao.getAccessTokensLoggedOutSince(any(), any()))
+                .thenReturn(Collections.singletonList(token(tokenId, 1)));
+
+        tokenRevocationSet.refreshLoggedOutTokens();
+
+        assertTrue(tokenRevocationSet.isRevoked(tokenId));
+        ArgumentCaptor<ZonedDateTime> since = ArgumentCaptor.forClass(ZonedDateTime.class);
+        verify(customerAuthDao).getAccessTokensLoggedOutSince(since.capture(), any());
+        assertFalse(since.getValue().isAfter(beforeLoad.minusSeconds(59)));
+        assertTrue(since.getValue().isAfter(beforeLoad.minusSeconds(61)));
+    }
+
+    //This test case passes when the set is never filled from the database in database mode, where
+    // the logout time is read along with every token.
+    @Test
+    public void databaseModeShouldNotReadLogouts() {
+        ReflectionTestUtils.setField(tokenRevocationSet, "verificationMode", "database");
+
+        tokenRevocationSet.loadLoggedOutTokens();
+        tokenRevocationSet.refreshLoggedOutTokens();
+
+        verify(customerAuthDao, never()).getLoggedOutCustomerAuths(any());
+        verify(customerAuthDao, never()).getAccessTokensLoggedOutSince(any(), any());
+    }
+
+    private static String token(final String tokenId, final int expiresInHours) {
+        return JWT.create()
+                .withJWTId(tokenId)
+                .withExpiresAt(
+                        Date.from(ZonedDateTime.now().plusHours(expiresInHours).toInstant()))
+                .sign(Algorithm.HMAC512("secret"));
+    }
+
+    private static CustomerAuthEntity customerAuth(final String accessToken) {
+        CustomerAuthEntity customerAuthEntity = new CustomerAuthEntity();
+        customerAuthEntity.setAccessToken(accessToken);
+        return customerAuthEntity;
+    }
+}
@@ -0,0 +1,121 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// This class checks which address changes invalidate the restaurant listings, with the addresses
+// of the restaurants read from a mocked entity manager.
+public class CatalogCacheInvalidationListenerTest {
+
+    private static final Integer RESTAURANT_ADDRESS_ID = 3;
+
+    private static final Integer CUSTOMER_ADDRESS_ID = 42;
+
+    private TypedQuery<Integer> restaurantAddressIds;
+
+    private CatalogResponseCache catalogResponseCache;
+
+    private CatalogCacheInvalidationListener listener;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        restaurantAddressIds = mock(TypedQuery.class);
+        when(restaurantAddressIds.getResultList())
+                .thenReturn(Collections.singletonList(RESTAURANT_ADDRESS_ID));
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.createNamedQuery("restaurantAddressIds", Integer.class))
+                .thenReturn(restaurantAddressIds);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        catalogResponseCache = mock(CatalogResponseCache.class);
+
+        listener = new CatalogCacheInvalidationListener();
+        ReflectionTestUtils.setField(listener, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.setField(listener, "catalogResponseCache", catalogResponseCache);
+        ReflectionTestUtils.setField(
+                listener, "menuSnapshotCache", mock(MenuSnapshotCache.class));
+        ReflectionTestUtils.setField(listener, "suggestionIndex", mock(SuggestionIndex.class));
+        listener.loadRestaurantAddressIds();
+    }
+
+    //This test case passes when changing or deleting the address of a customer leaves the
+    // restaurant listings cached.
+    @Test
+    public void customerAddressChangeShouldKeepListings() {
+        AddressEntity address = address(CUSTOMER_ADDRESS_ID);
+        listener.onPostInsert(new PostInsertEvent(address, CUSTOMER_ADDRESS_ID, null, null, null));
+        listener.onPostUpdate(
+                new PostUpdateEvent(address, CUSTOMER_ADDRESS_ID, null, null, null, null, null));
+        listener.onPostDelete(new PostDeleteEvent(address, CUSTOMER_ADDRESS_ID, null, null, null));
+
+        verify(catalogResponseCache, never()).invalidate(CatalogResource.RESTAURANTS);
+    }
+
+    //This test case passes when changing or deleting the address of a restaurant invalidates the
+    // restaurant listings.
+    @Test
+    public void restaurantAddressChangeShouldInvalidateListings() {
+        AddressEntity address = address(RESTAURANT_ADDRESS_ID);
+        listener.onPostUpdate(
+                new PostUpdateEvent(address, RESTAURANT_ADDRESS_ID, null, null, null, null, null));
+        listener.onPostDelete(
+                new PostDeleteEvent(address, RESTAURANT_ADDRESS_ID, null, null, null));
+
+        verify(catalogResponseCache, times(2)).invalidate(CatalogResource.RESTAURANTS);
+    }
+
+    //This test case passes when the addresses of the restaurants are read again after a restaurant
+    // is written, so that the address of a new restaurant invalidates the listings.
+    @Test
+    public void restaurantWriteShouldReadAddressesAgain() {
+        when(restaurantAddressIds.getResultList())
+                .thenReturn(Arrays.asList(RESTAURANT_ADDRESS_ID, CUSTOMER_ADDRESS_ID));
+        listener.onPostInsert(new PostInsertEvent(new RestaurantEntity(), 1, null, null, null));
+        listener.onPostUpdate(
+                new PostUpdateEvent(
+                        address(CUSTOMER_ADDRESS_ID), CUSTOMER_ADDRESS_ID,
+                        null, null, null, null, null));
+
+        verify(catalogResponseCache, times(2)).invalidate(CatalogResource.RESTAURANTS);
+    }
+
+    //This test case passes when every address change invalidates the restaurant listings while the
+    // addresses of the restaurants can not be read.
+    @Test
+    public void unknownRestaurantAddressesShouldInvalidateListings() {
+        when(restaurantAddressIds.getResultList()).thenThrow(new PersistenceException());
+        listener.loadRestaurantAddressIds();
+        listener.onPostUpdate(
+                new PostUpdateEvent(
+                        address(CUSTOMER_ADDRESS_ID), CUSTOMER_ADDRESS_ID,
+                        null, null, null, null, null));
+
+        verify(catalogResponseCache, times(1)).invalidate(CatalogResource.RESTAURANTS);
+    }
+
+    private static AddressEntity address(final Integer id) {
+        AddressEntity address = new AddressEntity();
+        address.setId(id);
+        return address;
+    }
+}
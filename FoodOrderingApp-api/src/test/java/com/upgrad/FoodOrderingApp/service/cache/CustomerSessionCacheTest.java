@@ -0,0 +1,226 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import com.upgrad.FoodOrderingApp.service.businness.CustomerService;
+import com.upgrad.FoodOrderingApp.service.businness.PasswordCryptographyProvider;
+import com.upgrad.FoodOrderingApp.service.businness.TokenRevocationSet;
+import com.upgrad.FoodOrderingApp.service.common.ApplicationUtil;
+import com.upgrad.FoodOrderingApp.service.dao.CustomerAuthDao;
+import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// This class checks the customer session cache on its own, and the logout and password change of
+// the customer service dropping the sessions it holds, with the sessions read from a mocked DAO.
+public class CustomerSessionCacheTest {
+
+    private static final String CUSTOMER_UUID = "c0a1b2d3-0000-4000-8000-000000000003";
+
+    private static final String PASSWORD = "Password@123";
+
+    private CustomerSessionCache customerSessionCache;
+
+    private CustomerAuthDao customerAuthDao;
+
+    private CustomerDao customerDao;
+
+    private PasswordCryptographyProvider passwordCryptographyProvider;
+
+    private CustomerService customerService;
+
+    private CustomerEntity customerEntity;
+
+    @Before
+    public void setUp() throws Exception {
+        customerSessionCache = new CustomerSessionCache(2, 60000);
+        customerAuthDao = mock(CustomerAuthDao.class);
+        customerDao = mock(CustomerDao.class);
+        passwordCryptographyProvider = new PasswordCryptographyProvider(1000, 1, 4);
+
+        customerEntity = new CustomerEntity();
+        customerEntity.setUuid(CUSTOMER_UUID);
+        customerEntity.setFirstName("Test");
+        String[] encryptedText = passwordCryptographyProvider.encrypt(PASSWORD);
+        customerEntity.setSalt(encryptedText[0]);
+        customerEntity.setPassword(encryptedText[1]);
+        when(customerDao.getCustomerByUuid(CUSTOMER_UUID)).thenReturn(customerEntity);
+
+        customerService = new CustomerService();
+        ReflectionTestUtils.setField(customerService, "customerDao", customerDao);
+        ReflectionTestUtils.setField(customerService, "customerAuthDao", customerAuthDao);
+        ReflectionTestUtils.setField(customerService, "customerSessionCache", customerSessionCache);
+        ReflectionTestUtils.setField(
+                customerService, "passwordCryptographyProvider", passwordCryptographyProvider);
+        ReflectionTestUtils.setField(customerService, "applicationUtil", new ApplicationUtil());
+        ReflectionTestUtils.setField(
+                customerService, "tokenRevocationSet", new TokenRevocationSet());
+    }
+
+    @After
+    public void tearDown() {
+        passwordCryptographyProvider.shutdown();
+    }
+
+    //This test case passes when a cached session is a hit and a token that is not cached a miss.
+    @Test
+    public void cachedSessionShouldBeHit() {
+        CustomerSession session = session(ZonedDateTime.now().plusHours(8));
+        customerSessionCache.put("token-1", session, customerSessionCache.getGeneration());
+
+        assertEquals(session, customerSessionCache.get("token-1"));
+        assertNull(customerSessionCache.get("token-2"));
+        assertEquals(1, customerSessionCache.getHitCount());
+        assertEquals(1, customerSessionCache.getMissCount());
+    }
+
+    //This test case passes when an expired session is not cached, and a cached session is dropped
+    // once it expires.
+    @Test
+    public void expiredSessionShouldNotBeCached() throws Exception {
+        customerSessionCache.put(
+                "token-1",
+                session(ZonedDateTime.now().minusSeconds(1)),
+                customerSessionCache.getGeneration());
+        assertEquals(0, customerSessionCache.size());
+
+        customerSessionCache.put(
+                "token-2",
+                session(ZonedDateTime.now().plusNanos(50_000_000)),
+                customerSessionCache.getGeneration());
+        assertEquals(1, customerSessionCache.size());
+        Thread.sleep(100);
+        assertNull(customerSessionCache.get("token-2"));
+        assertEquals(0, customerSessionCache.size());
+    }
+
+    //This test case passes when a session valid for hours is dropped once it has been cached for
+    // the ttl, so that it is read again from the database.
+    @Test
+    public void cachedSessionShouldBeDroppedAfterTtl() throws Exception {
+        customerSessionCache = new CustomerSessionCache(2, 50);
+        customerSessionCache.put(
+                "token-1", session(ZonedDateTime.now().plusHours(8)),
+                customerSessionCache.getGeneration());
+        assertNotNull(customerSessionCache.get("token-1"));
+
+        Thread.sleep(100);
+        assertNull(customerSessionCache.get("token-1"));
+        assertEquals(0, customerSessionCache.size());
+    }
+
+    //This test case passes when the customer of a cached session has no password or salt.
+    @Test
+    public void cachedSessionShouldNotHoldPassword() throws Exception {
+        when(customerAuthDao.getCustomerAuthByToken("token-1")).thenReturn(customerAuth());
+        customerService.getCustomer("token-1");
+        CustomerEntity cachedCustomerEntity = customerService.getCustomer("token-1");
+
+        assertEquals(1, customerSessionCache.getHitCount());
+        assertEquals(CUSTOMER_UUID, cachedCustomerEntity.getUuid());
+        assertNull(cachedCustomerEntity.getPassword());
+        assertNull(cachedCustomerEntity.getSalt());
+    }
+
+    //This test case passes when a full cache turns away new sessions, unless it holds an expired
+    // session to make room with.
+    @Test
+    public void cacheShouldNotGrowPastItsSize() throws Exception {
+        customerSessionCache.put(
+                "token-1",
+                session(ZonedDateTime.now().plusNanos(50_000_000)),
+                customerSessionCache.getGeneration());
+        customerSessionCache.put(
+                "token-2", session(ZonedDateTime.now().plusHours(8)),
+                customerSessionCache.getGeneration());
+        customerSessionCache.put(
+                "token-3", session(ZonedDateTime.now().plusHours(8)),
+                customerSessionCache.getGeneration());
+        assertEquals(2, customerSessionCache.size());
+        assertNull(customerSessionCache.get("token-3"));
+
+        Thread.sleep(100);
+        customerSessionCache.put(
+                "token-3", session(ZonedDateTime.now().plusHours(8)),
+                customerSessionCache.getGeneration());
+        assertEquals(2, customerSessionCache.size());
+        assertNotNull(customerSessionCache.get("token-3"));
+    }
+
+    //This test case passes when a session read before an invalidation is not cached.
+    @Test
+    public void sessionReadBeforeInvalidationShouldNotBeCached() {
+        long loadGeneration = customerSessionCache.getGeneration();
+        customerSessionCache.invalidate("token-1");
+        customerSessionCache.put(
+                "token-1", session(ZonedDateTime.now().plusHours(8)), loadGeneration);
+
+        assertEquals(0, customerSessionCache.size());
+    }
+
+    //This test case passes when logging out drops the cached session, so that the next request
+    // with the token reads it again and is told the customer is logged out.
+    @Test
+    public void logoutShouldDropCachedSession() throws Exception {
+        CustomerAuthEntity customerAuthEntity = customerAuth();
+        when(customerAuthDao.getCustomerAuthByToken("token-1")).thenReturn(customerAuthEntity);
+        customerService.getCustomer("token-1");
+        assertEquals(1, customerSessionCache.size());
+
+        customerService.logout("token-1");
+        assertEquals(0, customerSessionCache.size());
+        try {
+            customerService.getCustomer("token-1");
+            fail();
+        } catch (AuthorizationFailedException e) {
+            assertEquals("ATHR-002", e.getCode());
+        }
+        verify(customerAuthDao, times(3)).getCustomerAuthByToken("token-1");
+    }
+
+    //This test case passes when changing the password checks the old password of the customer read
+    // from the database and drops every cached session of the customer.
+    @Test
+    public void passwordChangeShouldDropEverySessionOfCustomer() throws Exception {
+        when(customerAuthDao.getCustomerAuthByToken("token-1")).thenReturn(customerAuth());
+        when(customerAuthDao.getCustomerAuthByToken("token-2")).thenReturn(customerAuth());
+        customerService.getCustomer("token-1");
+        customerService.getCustomer("token-2");
+        assertEquals(2, customerSessionCache.size());
+
+        customerService.updateCustomerPassword(
+                PASSWORD, "Password@456", customerService.getCustomer("token-1"));
+        assertEquals(0, customerSessionCache.size());
+        customerService.getCustomer("token-1");
+        verify(customerAuthDao, times(2)).getCustomerAuthByToken("token-1");
+        assertTrue(passwordCryptographyProvider.matches(
+                "Password@456", customerEntity.getSalt(), customerEntity.getPassword()));
+    }
+
+    private CustomerSession session(final ZonedDateTime expiresAt) {
+        return new CustomerSession(customerEntity, null, expiresAt);
+    }
+
+    private CustomerAuthEntity customerAuth() {
+        CustomerAuthEntity customerAuthEntity = new CustomerAuthEntity();
+        customerAuthEntity.setCustomer(customerEntity);
+        customerAuthEntity.setLoginAt(ZonedDateTime.now());
+        customerAuthEntity.setExpiresAt(ZonedDateTime.now().plusHours(8));
+        return customerAuthEntity;
+    }
+}
@@ -0,0 +1,155 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import com.upgrad.FoodOrderingApp.service.dao.ItemDao;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// This class checks the item counts and top items held per restaurant, with the orders read from a
+// mocked item DAO.
+public class ItemPopularityCountersTest {
+
+    private ItemDao itemDao;
+
+    private ItemPopularityCounters itemPopularityCounters;
+
+    @Before
+    public void setUp() {
+        itemDao = mock(ItemDao.class);
+        itemPopularityCounters = new ItemPopularityCounters(2);
+        ReflectionTestUtils.setField(itemPopularityCounters, "itemDao", itemDao);
+        when(itemDao.getItemOrderCountsByRestaurant(1))
+                .thenReturn(
+                        rows(new Object[] {10, 5L}, new Object[] {20, 7L}, new Object[] {30, 1L}));
+        when(itemDao.getItemOrderCountsByRestaurant(2)).thenReturn(rows(new Object[] {40, 2L}));
+    }
+
+    //This test case passes when the counts of a restaurant are read once, on its first read, and
+    // only the top-items most ordered items are returned.
+    @Test
+    public void countsShouldBeReadOnFirstUse() {
+        assertEquals(Arrays.asList(20, 10), itemPopularityCounters.getTopItemIds(1));
+        assertEquals(Arrays.asList(20, 10), itemPopularityCounters.getTopItemIds(1));
+
+        verify(itemDao, times(1)).getItemOrderCountsByRestaurant(1);
+        assertEquals(1, itemPopularityCounters.getLoadCount());
+    }
+
+    //This test case passes when committed orders re-rank the items without reading the orders.
+    @Test
+    public void incrementsShouldReRankTheItems() {
+        itemPopularityCounters.getTopItemIds(1);
+
+        for (int i = 0; i < 7; i++) {
+            itemPopularityCounters.increment(1, 30);
+        }
+
+        assertEquals(Arrays.asList(30, 20), itemPopularityCounters.getTopItemIds(1));
+        verify(itemDao, times(1)).getItemOrderCountsByRestaurant(1);
+    }
+
+    //This test case passes when orders of a restaurant whose top items were never read are not
+    // held, and are part of the counts read on its first read.
+    @Test
+    public void ordersOfUnreadRestaurantShouldNotBeHeld() {
+        itemPopularityCounters.increment(2, 40);
+
+        assertEquals(0, itemPopularityCounters.size());
+        assertEquals(Collections.singletonList(40), itemPopularityCounters.getTopItemIds(2));
+    }
+
+    //This test case passes when a failed first read is tried again on the next read.
+    @Test
+    public void failedFirstReadShouldBeRetried() {
+        when(itemDao.getItemOrderCountsByRestaurant(3))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(rows(new Object[] {50, 1L}));
+
+        try {
+            itemPopularityCounters.getTopItemIds(3);
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertEquals(Collections.singletonList(50), itemPopularityCounters.getTopItemIds(3));
+    }
+
+    //This test case passes when the reconciliation reads the counts of all held restaurants in one
+    // query and corrects what they drifted to.
+    @Test
+    public void reconciliationShouldReadAllRestaurantsInOneQuery() {
+        itemPopularityCounters.getTopItemIds(1);
+        itemPopularityCounters.getTopItemIds(2);
+        itemPopularityCounters.increment(1, 30);
+        when(itemDao.getItemOrderCountsByRestaurants(anyCollection()))
+                .thenReturn(
+                        rows(
+                                new Object[] {1, 10, 9L},
+                                new Object[] {1, 20, 7L},
+                                new Object[] {2, 40, 3L}));
+
+        itemPopularityCounters.reconcile();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Integer>> restaurantIds =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(itemDao).getItemOrderCountsByRestaurants(restaurantIds.capture());
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), new HashSet<>(restaurantIds.getValue()));
+        verify(itemDao, times(1)).getItemOrderCountsByRestaurant(1);
+        verify(itemDao, times(1)).getItemOrderCountsByRestaurant(2);
+
+        assertEquals(Arrays.asList(10, 20), itemPopularityCounters.getTopItemIds(1));
+        assertEquals(Collections.singletonList(40), itemPopularityCounters.getTopItemIds(2));
+        // 10 from 5 to 9, 30 from 2 to none, 40 from 2 to 3
+        assertEquals(4 + 2 + 1, itemPopularityCounters.getReconciledDrift());
+    }
+
+    //This test case passes when restaurants not read since the previous reconciliation are
+    // dropped, and read again from the orders when next asked for.
+    @Test
+    public void coldRestaurantsShouldBeDropped() {
+        when(itemDao.getItemOrderCountsByRestaurants(anyCollection()))
+                .thenReturn(Collections.emptyList());
+        itemPopularityCounters.getTopItemIds(1);
+        itemPopularityCounters.getTopItemIds(2);
+        itemPopularityCounters.reconcile();
+        assertEquals(2, itemPopularityCounters.size());
+
+        itemPopularityCounters.getTopItemIds(1);
+        itemPopularityCounters.reconcile();
+
+        assertEquals(1, itemPopularityCounters.size());
+        assertEquals(Collections.singletonList(40), itemPopularityCounters.getTopItemIds(2));
+        verify(itemDao, times(2)).getItemOrderCountsByRestaurant(2);
+    }
+
+    //This test case passes when a reconciliation with no restaurant held runs no query.
+    @Test
+    public void reconciliationWithoutRestaurantsShouldNotQuery() {
+        itemPopularityCounters.reconcile();
+
+        verify(itemDao, never()).getItemOrderCountsByRestaurants(anyCollection());
+        verify(itemDao, never()).getItemOrderCountsByRestaurant(anyInt());
+        assertEquals(1, itemPopularityCounters.getReconciliationCount());
+    }
+
+    private static List<Object[]> rows(final Object[]... rows) {
+        return Arrays.asList(rows);
+    }
+}
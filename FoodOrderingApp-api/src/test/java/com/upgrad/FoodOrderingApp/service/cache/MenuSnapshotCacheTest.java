@@ -0,0 +1,142 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import com.upgrad.FoodOrderingApp.service.common.ItemType;
+import com.upgrad.FoodOrderingApp.service.dao.ItemDao;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// This class checks the menu cache of two menus at most, with the menus read from a mocked DAO.
+public class MenuSnapshotCacheTest {
+
+    private static final String RESTAURANT_UUID = "restaurant-1";
+
+    private ItemDao itemDao;
+
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Before
+    public void setUp() {
+        itemDao = mock(ItemDao.class);
+        when(itemDao.getMenuItemsByRestaurant(anyString())).thenReturn(new ArrayList<>());
+        menuSnapshotCache = new MenuSnapshotCache(2);
+        ReflectionTestUtils.setField(menuSnapshotCache, "itemDao", itemDao);
+    }
+
+    //This test case passes when a menu is read into its categories in order, with the items of each
+    // category and no items for a category without any.
+    @Test
+    public void menuShouldBeLoadedByCategory() {
+        CategoryEntity mains = category("category-1", "Mains");
+        CategoryEntity sides = category("category-2", "Sides");
+        when(itemDao.getMenuItemsByRestaurant(RESTAURANT_UUID))
+                .thenReturn(Arrays.asList(
+                        new Object[] {mains, item("item-1", "Curry", 250)},
+                        new Object[] {mains, item("item-2", "Biryani", 300)},
+                        new Object[] {sides, null}));
+
+        MenuSnapshot menu = menuSnapshotCache.getMenu(RESTAURANT_UUID);
+
+        assertEquals(RESTAURANT_UUID, menu.getRestaurantUuid());
+        List<MenuSnapshot.Category> categories = menu.getCategories();
+        assertEquals(2, categories.size());
+        assertEquals("Mains", categories.get(0).getCategoryName());
+        assertEquals(2, categories.get(0).getItems().size());
+        assertEquals("Curry", categories.get(0).getItems().get(0).getItemName());
+        assertEquals(Integer.valueOf(300), categories.get(0).getItems().get(1).getPrice());
+        assertEquals("0", categories.get(0).getItems().get(1).getType());
+        assertEquals("Sides", categories.get(1).getCategoryName());
+        assertTrue(categories.get(1).getItems().isEmpty());
+    }
+
+    //This test case passes when a menu is read from the database once and served from the cache
+    // afterwards.
+    @Test
+    public void menuShouldBeServedFromTheCache() {
+        MenuSnapshot menu = menuSnapshotCache.getMenu(RESTAURANT_UUID);
+
+        assertSame(menu, menuSnapshotCache.getMenu(RESTAURANT_UUID));
+        verify(itemDao, times(1)).getMenuItemsByRestaurant(RESTAURANT_UUID);
+        assertEquals(1, menuSnapshotCache.getHitCount());
+        assertEquals(1, menuSnapshotCache.getMissCount());
+    }
+
+    //This test case passes when invalidating a restaurant drops its menu only, and invalidating all
+    // drops every menu.
+    @Test
+    public void invalidationShouldDropMenus() {
+        MenuSnapshot menu = menuSnapshotCache.getMenu(RESTAURANT_UUID);
+        MenuSnapshot otherMenu = menuSnapshotCache.getMenu("restaurant-2");
+
+        menuSnapshotCache.invalidate(RESTAURANT_UUID);
+        assertNotSame(menu, menuSnapshotCache.getMenu(RESTAURANT_UUID));
+        assertSame(otherMenu, menuSnapshotCache.getMenu("restaurant-2"));
+
+        menuSnapshotCache.invalidateAll();
+        assertEquals(0, menuSnapshotCache.size());
+        assertEquals(2, menuSnapshotCache.getInvalidationCount());
+        assertEquals(2, menuSnapshotCache.getVersion());
+    }
+
+    //This test case passes when a menu read while the catalog changed is served but not cached.
+    @Test
+    public void menuReadDuringInvalidationShouldNotBeCached() {
+        when(itemDao.getMenuItemsByRestaurant(RESTAURANT_UUID))
+                .then(invocation -> {
+                    menuSnapshotCache.invalidateAll();
+                    return new ArrayList<>();
+                });
+
+        MenuSnapshot menu = menuSnapshotCache.getMenu(RESTAURANT_UUID);
+
+        assertEquals(0, menu.getVersion());
+        assertEquals(0, menuSnapshotCache.size());
+    }
+
+    //This test case passes when the least recently used menu is evicted once the cache is full.
+    @Test
+    public void leastRecentlyUsedMenuShouldBeEvicted() {
+        MenuSnapshot menu = menuSnapshotCache.getMenu(RESTAURANT_UUID);
+        menuSnapshotCache.getMenu("restaurant-2");
+        menuSnapshotCache.getMenu(RESTAURANT_UUID);
+        menuSnapshotCache.getMenu("restaurant-3");
+
+        assertEquals(2, menuSnapshotCache.size());
+        assertEquals(1, menuSnapshotCache.getEvictionCount());
+        assertSame(menu, menuSnapshotCache.getMenu(RESTAURANT_UUID));
+        menuSnapshotCache.getMenu("restaurant-2");
+        verify(itemDao, times(2)).getMenuItemsByRestaurant("restaurant-2");
+    }
+
+    private static CategoryEntity category(final String uuid, final String categoryName) {
+        CategoryEntity category = new CategoryEntity();
+        category.setUuid(uuid);
+        category.setCategoryName(categoryName);
+        return category;
+    }
+
+    private static ItemEntity item(final String uuid, final String itemName, final int price) {
+        ItemEntity item = new ItemEntity();
+        item.setUuid(uuid);
+        item.setItemName(itemName);
+        item.setPrice(price);
+        item.setType(ItemType.VEG);
+        return item;
+    }
+}
@@ -0,0 +1,242 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantRatingDao;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// This class checks how the rating buffer adds up the rating changes of hot restaurants and writes
+// them, with the DAOs and the transaction manager mocked. Ratings are offered in a transaction that
+// is simulated by the transaction synchronizations of the test thread.
+public class RestaurantRatingBufferTest {
+
+    private static final int HOT_THRESHOLD = 2;
+
+    private RestaurantDao restaurantDao;
+
+    private RestaurantRatingDao restaurantRatingDao;
+
+    private CatalogCacheInvalidationListener catalogCacheInvalidationListener;
+
+    private RestaurantRatingBuffer restaurantRatingBuffer;
+
+    @Before
+    public void setUp() {
+        restaurantDao = mock(RestaurantDao.class);
+        restaurantRatingDao = mock(RestaurantRatingDao.class);
+        catalogCacheInvalidationListener = mock(CatalogCacheInvalidationListener.class);
+        restaurantRatingBuffer = createBuffer(true);
+        when(restaurantDao.addRestaurantRatings(anyInt(), anyDouble(), anyInt())).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    //This test case passes when a disabled buffer leaves every rating change to the caller.
+    @Test
+    public void disabledBufferShouldNotTakeChanges() {
+        RestaurantRatingBuffer disabledBuffer = createBuffer(false);
+        for (int i = 0; i <= HOT_THRESHOLD; i++) {
+            assertFalse(disabledBuffer.offer(1, "restaurant-1", 4.0, 1));
+        }
+        assertEquals(0, disabledBuffer.size());
+    }
+
+    //This test case passes when only the changes after the first hot-threshold ratings of an
+    // interval are taken, and a flush writes their sum with one update.
+    @Test
+    public void changesOfHotRestaurantShouldBeWrittenAsOneSum() {
+        assertFalse(restaurantRatingBuffer.offer(1, "restaurant-1", 5.0, 1));
+        assertFalse(restaurantRatingBuffer.offer(1, "restaurant-1", 5.0, 1));
+        assertTrue(restaurantRatingBuffer.offer(1, "restaurant-1", 4.0, 1));
+        assertTrue(restaurantRatingBuffer.offer(1, "restaurant-1", -2.0, 0));
+        assertTrue(restaurantRatingBuffer.offer(1, "restaurant-1", 3.0, 1));
+        commit();
+
+        restaurantRatingBuffer.flush();
+
+        verify(restaurantDao).addRestaurantRatings(1, 5.0, 2);
+        verify(catalogCacheInvalidationListener).restaurantUpdated("restaurant-1");
+        assertEquals(3, restaurantRatingBuffer.getBufferedRatingCount());
+        assertEquals(1, restaurantRatingBuffer.getFlushedUpdateCount());
+    }
+
+    //This test case passes when the changes taken in a transaction that rolls back are not written.
+    @Test
+    public void changesOfRolledBackTransactionShouldNotBeWritten() {
+        for (int i = 0; i < HOT_THRESHOLD; i++) {
+            assertFalse(restaurantRatingBuffer.offer(1, "restaurant-1", 5.0, 1));
+        }
+        assertTrue(restaurantRatingBuffer.offer(1, "restaurant-1", 4.0, 1));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        restaurantRatingBuffer.flush();
+
+        verify(restaurantDao, never()).addRestaurantRatings(anyInt(), anyDouble(), anyInt());
+        assertEquals(0, restaurantRatingBuffer.getBufferedRatingCount());
+    }
+
+    //This test case passes when no change is taken outside a transaction, so the caller writes it.
+    @Test
+    public void changesOutsideTransactionShouldNotBeTaken() {
+        TransactionSynchronizationManager.clearSynchronization();
+        for (int i = 0; i <= HOT_THRESHOLD; i++) {
+            assertFalse(restaurantRatingBuffer.offer(1, "restaurant-1", 4.0, 1));
+        }
+        assertEquals(0, restaurantRatingBuffer.size());
+    }
+
+    //This test case passes when a change committed after a flush dropped its restaurant as idle is
+    // still written by the next flush.
+    @Test
+    public void changeCommittedAfterRestaurantWasDroppedShouldBeWritten() {
+        for (int i = 0; i < HOT_THRESHOLD; i++) {
+            assertFalse(restaurantRatingBuffer.offer(2, "restaurant-2", 5.0, 1));
+        }
+        assertTrue(restaurantRatingBuffer.offer(2, "restaurant-2", 3.0, 1));
+        restaurantRatingBuffer.flush();
+        restaurantRatingBuffer.flush();
+        assertEquals(0, restaurantRatingBuffer.size());
+
+        commit();
+        restaurantRatingBuffer.flush();
+
+        verify(restaurantDao).addRestaurantRatings(2, 3.0, 1);
+    }
+
+    //This test case passes when a flush writes the restaurants in the order of their id.
+    @Test
+    public void flushShouldWriteRestaurantsInIdOrder() {
+        makeHot(7, "restaurant-7");
+        makeHot(3, "restaurant-3");
+        makeHot(5, "restaurant-5");
+
+        restaurantRatingBuffer.flush();
+
+        InOrder inOrder = inOrder(restaurantDao);
+        inOrder.verify(restaurantDao).addRestaurantRatings(eq(3), anyDouble(), anyInt());
+        inOrder.verify(restaurantDao).addRestaurantRatings(eq(5), anyDouble(), anyInt());
+        inOrder.verify(restaurantDao).addRestaurantRatings(eq(7), anyDouble(), anyInt());
+    }
+
+    //This test case passes when the changes of a failed flush are put back and written together
+    // with the changes buffered since, even if the restaurant is not rated before the next flush.
+    @Test
+    public void changesOfFailedFlushShouldBeWrittenWithTheNextOne() {
+        makeHot(1, "restaurant-1");
+        when(restaurantDao.addRestaurantRatings(1, 4.0, 1))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(true);
+
+        restaurantRatingBuffer.flush();
+
+        assertEquals(1, restaurantRatingBuffer.getFlushFailureCount());
+        verify(catalogCacheInvalidationListener, never()).restaurantUpdated("restaurant-1");
+
+        restaurantRatingBuffer.flush();
+
+        verify(restaurantDao, times(2)).addRestaurantRatings(1, 4.0, 1);
+        verify(catalogCacheInvalidationListener).restaurantUpdated("restaurant-1");
+        assertEquals(1, restaurantRatingBuffer.getFlushFailureCount());
+    }
+
+    //This test case passes when a failed flush and the changes buffered after it are merged into
+    // one update.
+    @Test
+    public void changesOfFailedFlushShouldBeMergedWithNewChanges() {
+        makeHot(1, "restaurant-1");
+        when(restaurantDao.addRestaurantRatings(1, 4.0, 1))
+                .thenThrow(new IllegalStateException("connection lost"));
+        restaurantRatingBuffer.flush();
+
+        makeHot(1, "restaurant-1");
+        restaurantRatingBuffer.flush();
+
+        verify(restaurantDao).addRestaurantRatings(1, 8.0, 2);
+    }
+
+    //This test case passes when a restaurant drifted from the ledger is compacted instead.
+    @Test
+    public void driftedRestaurantShouldBeCompacted() {
+        makeHot(1, "restaurant-1");
+        when(restaurantDao.addRestaurantRatings(1, 4.0, 1)).thenReturn(false);
+        when(restaurantRatingDao.compactRestaurantRatings(1))
+                .thenReturn(Collections.singletonList("restaurant-1"));
+
+        restaurantRatingBuffer.flush();
+
+        verify(restaurantRatingDao).compactRestaurantRatings(1);
+        verify(catalogCacheInvalidationListener).restaurantUpdated("restaurant-1");
+    }
+
+    //This test case passes when a restaurant not rated for a whole interval leaves the buffer and
+    // has to pass the hot-threshold again.
+    @Test
+    public void idleRestaurantShouldLeaveTheBuffer() {
+        makeHot(1, "restaurant-1");
+        restaurantRatingBuffer.flush();
+        assertEquals(1, restaurantRatingBuffer.size());
+
+        restaurantRatingBuffer.flush();
+
+        assertEquals(0, restaurantRatingBuffer.size());
+        assertFalse(restaurantRatingBuffer.offer(1, "restaurant-1", 4.0, 1));
+    }
+
+    // rates the restaurant until one change of 4.0 by a new rater is buffered, and commits
+    private void makeHot(final Integer restaurantId, final String restaurantUuid) {
+        for (int i = 0; i < HOT_THRESHOLD; i++) {
+            assertFalse(restaurantRatingBuffer.offer(restaurantId, restaurantUuid, 5.0, 1));
+        }
+        assertTrue(restaurantRatingBuffer.offer(restaurantId, restaurantUuid, 4.0, 1));
+        commit();
+    }
+
+    // commits the simulated transaction and starts the next one
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations =
+                TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private RestaurantRatingBuffer createBuffer(final boolean enabled) {
+        RestaurantRatingBuffer buffer =
+                new RestaurantRatingBuffer(
+                        mock(PlatformTransactionManager.class), enabled, HOT_THRESHOLD);
+        ReflectionTestUtils.setField(buffer, "restaurantDao", restaurantDao);
+        ReflectionTestUtils.setField(buffer, "restaurantRatingDao", restaurantRatingDao);
+        ReflectionTestUtils.setField(
+                buffer, "catalogCacheInvalidationListener", catalogCacheInvalidationListener);
+        return buffer;
+    }
+}
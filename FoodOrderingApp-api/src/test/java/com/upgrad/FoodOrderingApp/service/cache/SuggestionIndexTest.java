@@ -0,0 +1,127 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import com.upgrad.FoodOrderingApp.service.dao.CategoryDao;
+import com.upgrad.FoodOrderingApp.service.dao.ItemDao;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// This class checks the suggestion index built from mocked DAOs, and its rebuilds in the
+// background.
+public class SuggestionIndexTest {
+
+    private RestaurantDao restaurantDao;
+
+    private ItemDao itemDao;
+
+    private CategoryDao categoryDao;
+
+    private SuggestionIndex suggestionIndex;
+
+    @Before
+    public void setUp() {
+        restaurantDao = mock(RestaurantDao.class);
+        itemDao = mock(ItemDao.class);
+        categoryDao = mock(CategoryDao.class);
+        when(restaurantDao.getRestaurantSuggestions())
+                .thenReturn(rows(
+                        row("r1", "Pizza Hut", 3.9),
+                        row("r2", "Dominos Pizza", 4.5),
+                        row("r3", "Lion Heart", 4.7)));
+        when(itemDao.getItemSuggestions())
+                .thenReturn(rows(row("i1", "Paneer Tikka", 12L), row("i2", "Pav Bhaji", 40L)));
+        when(categoryDao.getCategorySuggestions())
+                .thenReturn(rows(row("c1", "Indian", 5L), row("c2", null, 9L)));
+
+        suggestionIndex = new SuggestionIndex(2);
+        ReflectionTestUtils.setField(suggestionIndex, "restaurantDao", restaurantDao);
+        ReflectionTestUtils.setField(suggestionIndex, "itemDao", itemDao);
+        ReflectionTestUtils.setField(suggestionIndex, "categoryDao", categoryDao);
+    }
+
+    @After
+    public void tearDown() {
+        suggestionIndex.shutdown();
+    }
+
+    //This test case passes when each kind of name is ranked by its own score, names without a name
+    // are left out and the index is read from the database once.
+    @Test
+    public void suggestionsShouldBeRankedByScore() {
+        assertUuids(suggestionIndex.suggest(SuggestionType.RESTAURANT, "PIZ", 10), "r2", "r1");
+        assertUuids(suggestionIndex.suggest(SuggestionType.ITEM, "pa", 10), "i2", "i1");
+        assertUuids(suggestionIndex.suggest(SuggestionType.CATEGORY, "ind", 10), "c1");
+        assertUuids(suggestionIndex.suggest(SuggestionType.RESTAURANT, "heart", 1), "r3");
+        assertEquals(6, suggestionIndex.size());
+        assertEquals(1, suggestionIndex.getBuildCount());
+        verify(restaurantDao, times(1)).getRestaurantSuggestions();
+    }
+
+    //This test case passes when no more than max-results suggestions are returned.
+    @Test
+    public void suggestionsShouldBeCappedAtMaxResults() {
+        when(restaurantDao.getRestaurantSuggestions())
+                .thenReturn(rows(
+                        row("r1", "Punjabi Dhaba", 3.0),
+                        row("r2", "Pind Balluchi", 4.0),
+                        row("r3", "Paradise", 5.0)));
+
+        assertUuids(suggestionIndex.suggest(SuggestionType.RESTAURANT, "p", 10), "r3", "r2");
+    }
+
+    //This test case passes when an invalidation swaps in an index read again in the background, and
+    // a failed rebuild keeps the previous index.
+    @Test
+    public void invalidationShouldRebuildInTheBackground() throws Exception {
+        assertUuids(suggestionIndex.suggest(SuggestionType.RESTAURANT, "lion", 10), "r3");
+
+        when(restaurantDao.getRestaurantSuggestions())
+                .thenReturn(rows(row("r4", "Lion King", 4.9), row("r3", "Lion Heart", 4.7)));
+        suggestionIndex.invalidate();
+        awaitBuilds(2);
+        assertUuids(suggestionIndex.suggest(SuggestionType.RESTAURANT, "lion", 10), "r4", "r3");
+
+        when(restaurantDao.getRestaurantSuggestions()).thenThrow(new IllegalStateException());
+        suggestionIndex.invalidate();
+        for (int i = 0; i < 500 && suggestionIndex.getRebuildFailureCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, suggestionIndex.getRebuildFailureCount());
+        assertUuids(suggestionIndex.suggest(SuggestionType.RESTAURANT, "lion", 10), "r4", "r3");
+    }
+
+    private void awaitBuilds(final long builds) throws InterruptedException {
+        for (int i = 0; i < 500 && suggestionIndex.getBuildCount() < builds; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(builds, suggestionIndex.getBuildCount());
+    }
+
+    private static Object[] row(final String uuid, final String name, final Object score) {
+        return new Object[] {uuid, name, score};
+    }
+
+    private static List<Object[]> rows(final Object[]... rows) {
+        return new ArrayList<>(Arrays.asList(rows));
+    }
+
+    private static void assertUuids(final List<Suggestion> found, final String... uuids) {
+        List<String> foundUuids = new ArrayList<>();
+        for (Suggestion suggestion : found) {
+            foundUuids.add(suggestion.getUuid());
+        }
+        assertEquals(Arrays.asList(uuids), foundUuids);
+    }
+}
@@ -0,0 +1,78 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// This class checks the lookups of the suggestion trie over names given best first.
+public class SuggestionTrieTest {
+
+    //This test case passes when a prefix finds every name having a word starting with it, best
+    // first, and nothing else.
+    @Test
+    public void prefixShouldFindNamesHavingAWordStartingWithIt() {
+        SuggestionTrie trie =
+                trie(10, "Dominos Pizza", "Pizza Hut", "Lion Heart", "Pizzeria Da Vinci");
+
+        assertNames(trie.lookup("piz", 10), "Dominos Pizza", "Pizza Hut", "Pizzeria Da Vinci");
+        assertNames(trie.lookup("pizza", 10), "Dominos Pizza", "Pizza Hut");
+        assertNames(trie.lookup("h", 10), "Pizza Hut", "Lion Heart");
+        assertNames(trie.lookup("pizza h", 10), "Pizza Hut");
+        assertNames(trie.lookup("da vinci", 10), "Pizzeria Da Vinci");
+        assertTrue(trie.lookup("izza", 10).isEmpty());
+        assertTrue(trie.lookup("pizzas", 10).isEmpty());
+        assertTrue(trie.lookup("", 10).isEmpty());
+    }
+
+    //This test case passes when a lookup returns no more than the limit asked for and the
+    // max-results held by each node, whichever is lower.
+    @Test
+    public void lookupShouldReturnTheBestUpToMaxResults() {
+        SuggestionTrie trie = trie(3, "Pasta", "Paneer", "Pav Bhaji", "Paratha", "Papad");
+
+        assertNames(trie.lookup("pa", 10), "Pasta", "Paneer", "Pav Bhaji");
+        assertNames(trie.lookup("pa", 2), "Pasta", "Paneer");
+        assertNames(trie.lookup("par", 10), "Paratha");
+        assertTrue(trie.lookup("pa", 0).isEmpty());
+    }
+
+    //This test case passes when a name having several words starting with the prefix is found once.
+    @Test
+    public void nameShouldBeFoundOnceForSeveralMatchingWords() {
+        SuggestionTrie trie = trie(10, "Punjabi Paratha Point", "Pav Bhaji");
+
+        assertNames(trie.lookup("p", 10), "Punjabi Paratha Point", "Pav Bhaji");
+    }
+
+    //This test case passes when names and prefixes are matched ignoring case and extra whitespace.
+    @Test
+    public void matchingShouldIgnoreCaseAndWhitespace() {
+        SuggestionTrie trie = trie(10, "  Lion   HEART ");
+
+        assertEquals("pizza hut", SuggestionTrie.normalize("  Pizza \t HUT "));
+        assertEquals("", SuggestionTrie.normalize(null));
+        assertNames(trie.lookup(SuggestionTrie.normalize("LION  h"), 10), "  Lion   HEART ");
+        assertEquals(1, trie.size());
+    }
+
+    private static SuggestionTrie trie(final int maxResults, final String... names) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            suggestions.add(new Suggestion("uuid-" + i, names[i]));
+        }
+        return new SuggestionTrie(suggestions, maxResults);
+    }
+
+    private static void assertNames(final List<Suggestion> found, final String... names) {
+        List<String> foundNames = new ArrayList<>();
+        for (Suggestion suggestion : found) {
+            foundNames.add(suggestion.getName());
+        }
+        assertEquals(Arrays.asList(names), foundNames);
+    }
+}
@@ -0,0 +1,169 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+// This class checks the trending items of restaurants over the windows, with the time of the
+// orders set by the test.
+public class TrendingItemsTest {
+
+    private static final long START = 500_000 * TrendingItems.BUCKET_LENGTH_MILLIS;
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicLong time = new AtomicLong(START);
+
+    private TrendingItems trendingItems;
+
+    @Before
+    public void setUp() {
+        trendingItems = new TrendingItems(5, 32, "", time::get);
+    }
+
+    //This test case passes when orders leave each window once its length has passed.
+    @Test
+    public void ordersShouldLeaveEachWindowAfterItsLength() {
+        record(1, 10, 2);
+        record(1, 20, 1);
+        assertTopItems(1, TrendWindow.LAST_HOUR, 10, 20);
+
+        passTime(TimeUnit.HOURS.toMillis(1));
+        assertTopItems(1, TrendWindow.LAST_HOUR);
+        assertTopItems(1, TrendWindow.LAST_DAY, 10, 20);
+
+        passTime(TimeUnit.HOURS.toMillis(23));
+        assertTopItems(1, TrendWindow.LAST_DAY);
+        assertTopItems(1, TrendWindow.LAST_WEEK, 10, 20);
+
+        passTime(TimeUnit.DAYS.toMillis(6));
+        assertTopItems(1, TrendWindow.LAST_WEEK);
+    }
+
+    //This test case passes when a window ranks only the orders of its own buckets.
+    @Test
+    public void windowShouldRankOnlyItsOwnOrders() {
+        record(1, 10, 3);
+        passTime(TimeUnit.MINUTES.toMillis(30));
+        record(1, 20, 2);
+        passTime(TimeUnit.MINUTES.toMillis(45));
+
+        assertTopItems(1, TrendWindow.LAST_HOUR, 20);
+        assertTopItems(1, TrendWindow.LAST_DAY, 10, 20);
+        assertTopItems(2, TrendWindow.LAST_DAY);
+    }
+
+    //This test case passes when a new item ordered into a full bucket takes the place and count
+    // of the least ordered item of the bucket.
+    @Test
+    public void newItemShouldTakeOverTheLeastOrderedItemOfAFullBucket() {
+        trendingItems = new TrendingItems(5, 2, "", time::get);
+        record(1, 10, 3);
+        record(1, 20, 1);
+
+        record(1, 30, 1);
+        assertTopItems(1, TrendWindow.LAST_HOUR, 10, 30);
+
+        record(1, 20, 1);
+        assertTopItems(1, TrendWindow.LAST_HOUR, 10, 20);
+    }
+
+    //This test case passes when the trending items read back from a snapshot match those written.
+    @Test
+    public void snapshotShouldRestoreTheTrendingItems() throws Exception {
+        String snapshotFile = new File(temporaryFolder.getRoot(), "trending").getPath();
+        trendingItems = new TrendingItems(5, 32, snapshotFile, time::get);
+        record(1, 10, 2);
+        record(2, 40, 1);
+        passTime(TimeUnit.HOURS.toMillis(2));
+        record(1, 20, 3);
+        record(1, 30, 1);
+        trendingItems.writeSnapshot();
+
+        TrendingItems restored = new TrendingItems(5, 32, snapshotFile, time::get);
+        restored.loadSnapshot();
+
+        assertEquals(1, trendingItems.getSnapshotsWritten());
+        assertEquals(2, restored.size());
+        for (TrendWindow window : TrendWindow.values()) {
+            for (Integer restaurantId : Arrays.asList(1, 2)) {
+                assertEquals(
+                        trendingItems.getTopItemIds(restaurantId, window),
+                        restored.getTopItemIds(restaurantId, window));
+            }
+        }
+        assertEquals(Arrays.asList(20, 30), restored.getTopItemIds(1, TrendWindow.LAST_HOUR));
+    }
+
+    //This test case passes when buckets that left every window since the snapshot are not loaded.
+    @Test
+    public void snapshotShouldNotRestoreOrdersOlderThanAWeek() throws Exception {
+        String snapshotFile = new File(temporaryFolder.getRoot(), "trending").getPath();
+        trendingItems = new TrendingItems(5, 32, snapshotFile, time::get);
+        record(1, 10, 2);
+        trendingItems.writeSnapshot();
+        passTime(TimeUnit.DAYS.toMillis(8));
+
+        TrendingItems restored = new TrendingItems(5, 32, snapshotFile, time::get);
+        restored.loadSnapshot();
+
+        assertEquals(0, restored.size());
+        assertEquals(0, restored.getSnapshotFailures());
+    }
+
+    //This test case passes when a damaged snapshot is counted as failed and the counts start empty.
+    @Test
+    public void damagedSnapshotShouldBeSkipped() throws Exception {
+        File snapshotFile = temporaryFolder.newFile("trending");
+        Files.write(snapshotFile.toPath(), new byte[] {1, 2, 3});
+        trendingItems = new TrendingItems(5, 32, snapshotFile.getPath(), time::get);
+
+        trendingItems.loadSnapshot();
+
+        assertEquals(1, trendingItems.getSnapshotFailures());
+        assertEquals(0, trendingItems.size());
+    }
+
+    //This test case passes when only the restaurants without orders in the last week are dropped.
+    @Test
+    public void idleRestaurantsShouldBeDropped() {
+        record(1, 10, 1);
+        record(2, 20, 1);
+        passTime(TimeUnit.DAYS.toMillis(6));
+        record(2, 30, 1);
+        passTime(TimeUnit.DAYS.toMillis(2));
+
+        trendingItems.removeIdleRestaurants();
+
+        assertEquals(1, trendingItems.size());
+        assertTopItems(1, TrendWindow.LAST_WEEK);
+        assertTopItems(2, TrendWindow.LAST_WEEK, 30);
+    }
+
+    private void record(final Integer restaurantId, final Integer itemId, final int orders) {
+        for (int i = 0; i < orders; i++) {
+            trendingItems.record(restaurantId, itemId);
+        }
+    }
+
+    private void passTime(final long millis) {
+        time.addAndGet(millis);
+    }
+
+    private void assertTopItems(
+            final Integer restaurantId, final TrendWindow window, final Integer... itemIds) {
+        assertEquals(
+                itemIds.length == 0 ? Collections.emptyList() : Arrays.asList(itemIds),
+                trendingItems.getTopItemIds(restaurantId, window));
+    }
+}
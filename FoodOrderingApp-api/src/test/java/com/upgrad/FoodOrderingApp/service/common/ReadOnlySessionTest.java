@@ -0,0 +1,69 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// This class checks against the seeded database that a read-only transaction loads read-only
+// entities into a session that is never flushed, and a read-write transaction does not.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = FoodOrderingAppApiApplication.class)
+public class ReadOnlySessionTest {
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void readOnlyTransactionShouldLoadReadOnlyEntities() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.execute(
+                status -> {
+                    Session session = entityManager.unwrap(Session.class);
+                    assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+                    List<RestaurantEntity> restaurants = getRestaurants();
+                    assertFalse(restaurants.isEmpty());
+                    for (RestaurantEntity restaurant : restaurants) {
+                        assertTrue(session.isReadOnly(restaurant));
+                    }
+                    return null;
+                });
+    }
+
+    @Test
+    public void readWriteTransactionShouldLoadModifiableEntities() {
+        new TransactionTemplate(transactionManager)
+                .execute(
+                        status -> {
+                            Session session = entityManager.unwrap(Session.class);
+                            assertEquals(FlushMode.AUTO, session.getHibernateFlushMode());
+                            for (RestaurantEntity restaurant : getRestaurants()) {
+                                assertFalse(session.isReadOnly(restaurant));
+                            }
+                            return null;
+                        });
+    }
+
+    private List<RestaurantEntity> getRestaurants() {
+        return entityManager
+                .createQuery("select r from RestaurantEntity r", RestaurantEntity.class)
+                .getResultList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// This class checks that the category names of the restaurants are read in padded chunks of a fixed
+// size, with the rows read from a mocked entity manager.
+public class CategoryDaoTest {
+
+    private Query categoryNamesQuery;
+
+    private CategoryDao categoryDao;
+
+    @Before
+    public void setUp() {
+        categoryNamesQuery = mock(Query.class);
+        when(categoryNamesQuery.setParameter(eq("restaurantUuids"), any()))
+                .thenReturn(categoryNamesQuery);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.createNamedQuery("getCategoryNamesByRestaurants"))
+                .thenReturn(categoryNamesQuery);
+
+        categoryDao = new CategoryDao();
+        ReflectionTestUtils.setField(categoryDao, "entityManager", entityManager);
+    }
+
+    //This test case passes when the category names of 51 restaurants are read in two queries of 50
+    // UUIDs each, the second padded with the last UUID, and the rows of both are put together.
+    @Test
+    public void categoryNamesShouldBeReadInPaddedChunks() {
+        List<String> restaurantUuids = new ArrayList<>();
+        for (int i = 0; i <= 50; i++) {
+            restaurantUuids.add("restaurant-" + i);
+        }
+        when(categoryNamesQuery.getResultList())
+                .thenReturn(Arrays.asList(
+                        new Object[] {"restaurant-0", "Chinese"},
+                        new Object[] {"restaurant-0", "Indian"}))
+                .thenReturn(Collections.singletonList(new Object[] {"restaurant-50", "Drinks"}));
+
+        Map<String, List<String>> categoryNames =
+                categoryDao.getCategoryNamesByRestaurants(restaurantUuids);
+
+        assertEquals(Arrays.asList("Chinese", "Indian"), categoryNames.get("restaurant-0"));
+        assertEquals(Collections.singletonList("Drinks"), categoryNames.get("restaurant-50"));
+        ArgumentCaptor<Object> chunks = ArgumentCaptor.forClass(Object.class);
+        verify(categoryNamesQuery, times(2)).setParameter(eq("restaurantUuids"), chunks.capture());
+        assertEquals(restaurantUuids.subList(0, 50), chunks.getAllValues().get(0));
+        assertEquals(
+                Collections.nCopies(50, "restaurant-50"), chunks.getAllValues().get(1));
+    }
+
+    //This test case passes when no query is run for an empty list of restaurants.
+    @Test
+    public void noRestaurantsShouldNotBeQueried() {
+        assertEquals(
+                0, categoryDao.getCategoryNamesByRestaurants(Collections.emptyList()).size());
+        verify(categoryNamesQuery, times(0)).getResultList();
+    }
+}
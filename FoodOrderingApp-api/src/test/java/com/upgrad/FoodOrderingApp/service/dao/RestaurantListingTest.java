@@ -0,0 +1,81 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantListing;
+import org.hibernate.Session;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// This class checks against the seeded database that restaurant listings are read into rows
+// without loading a single entity, and that the rows hold what the entities hold.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = FoodOrderingAppApiApplication.class)
+@Transactional
+public class RestaurantListingTest {
+
+    private static final String CATEGORY_UUID = "2ddf5546-ecd0-11e8-8eb2-f2801f1b9fd1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private RestaurantDao restaurantDao;
+
+    //This test case passes when the listings of all queries leave the persistence context empty.
+    @Test
+    public void listingsShouldNotLoadEntities() {
+        List<RestaurantListing> restaurants = restaurantDao.restaurantsByRating();
+        assertFalse(restaurants.isEmpty());
+        assertFalse(restaurantDao.restaurantByCategory(CATEGORY_UUID).isEmpty());
+        String restaurantName = restaurants.get(0).getRestaurantName();
+        assertFalse(restaurantDao.restaurantsByName(restaurantName, 5).isEmpty());
+
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    //This test case passes when every listing matches the restaurant, address and state it was
+    // read from, highest rated first.
+    @Test
+    public void listingsShouldMatchEntities() {
+        List<RestaurantListing> restaurants = restaurantDao.restaurantsByRating();
+        List<Double> ratings = new ArrayList<>();
+        for (RestaurantListing restaurant : restaurants) {
+            RestaurantEntity restaurantEntity =
+                    restaurantDao.restaurantByUUID(restaurant.getUuid());
+            AddressEntity addressEntity = restaurantEntity.getAddress();
+            assertEquals(restaurantEntity.getRestaurantName(), restaurant.getRestaurantName());
+            assertEquals(restaurantEntity.getPhotoUrl(), restaurant.getPhotoUrl());
+            assertEquals(restaurantEntity.getCustomerRating(), restaurant.getCustomerRating());
+            assertEquals(restaurantEntity.getAvgPrice(), restaurant.getAvgPrice());
+            assertEquals(
+                    restaurantEntity.getNumberCustomersRated(),
+                    restaurant.getNumberCustomersRated());
+            assertEquals(addressEntity.getUuid(), restaurant.getAddressUuid());
+            assertEquals(addressEntity.getFlatBuilNo(), restaurant.getFlatBuilNo());
+            assertEquals(addressEntity.getLocality(), restaurant.getLocality());
+            assertEquals(addressEntity.getCity(), restaurant.getCity());
+            assertEquals(addressEntity.getPincode(), restaurant.getPincode());
+            assertEquals(addressEntity.getState().getUuid(), restaurant.getStateUuid());
+            assertEquals(addressEntity.getState().getStateName(), restaurant.getStateName());
+            ratings.add(restaurant.getCustomerRating());
+        }
+        for (int i = 1; i < ratings.size(); i++) {
+            assertTrue(ratings.get(i - 1) >= ratings.get(i));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+// This class checks the menu query against two restaurants seeded in the test transaction, which
+// share both of their categories but not their items.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = FoodOrderingAppApiApplication.class)
+@Transactional
+public class RestaurantMenuQueryTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ItemDao itemDao;
+
+    private String firstRestaurantUuid;
+
+    private String secondRestaurantUuid;
+
+    @Before
+    public void seedRestaurants() {
+        firstRestaurantUuid = UUID.randomUUID().toString();
+        secondRestaurantUuid = UUID.randomUUID().toString();
+        Integer firstRestaurant = insertRestaurant(firstRestaurantUuid);
+        Integer secondRestaurant = insertRestaurant(secondRestaurantUuid);
+
+        Integer mains = insertCategory("Menu Test Mains");
+        Integer sides = insertCategory("Menu Test Sides");
+        for (Integer restaurant : new Integer[] {firstRestaurant, secondRestaurant}) {
+            insert("insert into restaurant_category(restaurant_id, category_id) values ("
+                    + restaurant + ", " + mains + ")");
+            insert("insert into restaurant_category(restaurant_id, category_id) values ("
+                    + restaurant + ", " + sides + ")");
+        }
+
+        insertItem("Menu Test Curry", firstRestaurant, mains);
+        insertItem("Menu Test Biryani", secondRestaurant, mains);
+        insertItem("Menu Test Kebab", secondRestaurant, mains);
+        insertItem("Menu Test Naan", secondRestaurant, sides);
+        insertItem("Menu Test Raita", secondRestaurant, sides);
+    }
+
+    //This test case passes when the menu holds only the items of the restaurant, and a category
+    // without items in the restaurant once, however many items it has in other restaurants.
+    @Test
+    public void menuShouldHoldOnlyItemsOfTheRestaurant() {
+        List<Object[]> menu = itemDao.getMenuItemsByRestaurant(firstRestaurantUuid);
+
+        assertEquals(2, menu.size());
+        assertEquals("Menu Test Mains", ((CategoryEntity) menu.get(0)[0]).getCategoryName());
+        assertEquals("Menu Test Curry", ((ItemEntity) menu.get(0)[1]).getItemName());
+        assertEquals("Menu Test Sides", ((CategoryEntity) menu.get(1)[0]).getCategoryName());
+        assertNull(menu.get(1)[1]);
+    }
+
+    //This test case passes when every item of the restaurant is listed once under its category.
+    @Test
+    public void menuShouldHoldEveryItemOfTheRestaurantOnce() {
+        List<Object[]> menu = itemDao.getMenuItemsByRestaurant(secondRestaurantUuid);
+
+        assertEquals(4, menu.size());
+        String[] itemNames = {
+                "Menu Test Biryani", "Menu Test Kebab", "Menu Test Naan", "Menu Test Raita"
+        };
+        for (int i = 0; i < itemNames.length; i++) {
+            assertEquals(itemNames[i], ((ItemEntity) menu.get(i)[1]).getItemName());
+        }
+    }
+
+    private Integer insertRestaurant(final String uuid) {
+        return insert("insert into restaurant(uuid, restaurant_name, photo_url, customer_rating, "
+                + "average_price_for_two, number_of_customers_rated, address_id) values ('"
+                + uuid + "', 'Menu Test Restaurant', 'someurl', 4.0, 500, 10, 1)");
+    }
+
+    private Integer insertCategory(final String categoryName) {
+        return insert("insert into category(uuid, category_name) values ('"
+                + UUID.randomUUID() + "', '" + categoryName + "')");
+    }
+
+    private void insertItem(
+            final String itemName, final Integer restaurant, final Integer category) {
+        Integer item = insert("insert into item(uuid, item_name, price, type) values ('"
+                + UUID.randomUUID() + "', '" + itemName + "', 100, '0')");
+        insert("insert into restaurant_item(item_id, restaurant_id) values ("
+                + item + ", " + restaurant + ")");
+        insert("insert into category_item(item_id, category_id) values ("
+                + item + ", " + category + ")");
+    }
+
+    private Integer insert(final String statement) {
+        return ((Number) entityManager
+                .createNativeQuery(statement + " returning id")
+                .getSingleResult())
+                .intValue();
+    }
+}
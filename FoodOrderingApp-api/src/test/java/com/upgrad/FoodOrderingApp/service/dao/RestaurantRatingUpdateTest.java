@@ -0,0 +1,125 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// This class checks against the seeded database that rating changes are applied to a restaurant by
+// a single update, and that the restaurant is read again with a single select afterwards.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = FoodOrderingAppApiApplication.class)
+@Transactional
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class RestaurantRatingUpdateTest {
+
+    // Gateway Taproom, seeded with a rating of 4.70 by 714 customers
+    private static final String RESTAURANT_UUID = "246165d2-a238-11e8-9077-720006ceb890";
+
+    private static final double DELTA = 1e-6;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RestaurantDao restaurantDao;
+
+    private Statistics statistics;
+
+    private Integer restaurantId;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        restaurantId = restaurantDao.restaurantByUUID(RESTAURANT_UUID).getId();
+    }
+
+    //This test case passes when a new rating is added to the average and to the number of raters.
+    @Test
+    public void newRatingShouldBeAddedToTheAverage() {
+        assertTrue(restaurantDao.addRestaurantRatings(restaurantId, 5.0, 1));
+
+        RestaurantEntity restaurantEntity = restaurantDao.refreshRestaurant(restaurantId);
+        assertEquals((4.70 * 714 + 5.0) / 715, restaurantEntity.getCustomerRating(), DELTA);
+        assertEquals(Integer.valueOf(715), restaurantEntity.getNumberCustomersRated());
+    }
+
+    //This test case passes when changed ratings of several customers are applied at once and keep
+    // the number of raters.
+    @Test
+    public void changedRatingsShouldKeepTheNumberOfRaters() {
+        assertTrue(restaurantDao.addRestaurantRatings(restaurantId, -3.0, 0));
+
+        RestaurantEntity restaurantEntity = restaurantDao.refreshRestaurant(restaurantId);
+        assertEquals((4.70 * 714 - 3.0) / 714, restaurantEntity.getCustomerRating(), DELTA);
+        assertEquals(Integer.valueOf(714), restaurantEntity.getNumberCustomersRated());
+    }
+
+    //This test case passes when a change leaving the restaurant without raters is not applied.
+    @Test
+    public void changeLeavingNoRatersShouldNotBeApplied() {
+        assertFalse(restaurantDao.addRestaurantRatings(restaurantId, -4.70 * 714, -714));
+
+        RestaurantEntity restaurantEntity = restaurantDao.refreshRestaurant(restaurantId);
+        assertEquals(4.70, restaurantEntity.getCustomerRating(), DELTA);
+        assertEquals(Integer.valueOf(714), restaurantEntity.getNumberCustomersRated());
+    }
+
+    //This test case passes when a change of a restaurant that does not exist updates nothing.
+    @Test
+    public void changeOfUnknownRestaurantShouldNotBeApplied() {
+        assertFalse(restaurantDao.addRestaurantRatings(-1, 5.0, 1));
+    }
+
+    //This test case passes when the restaurant held by the persistence context is refreshed in
+    // place with a single select.
+    @Test
+    public void managedRestaurantShouldBeRefreshedWithOneSelect() {
+        RestaurantEntity managed = restaurantDao.restaurantByUUID(RESTAURANT_UUID);
+        restaurantDao.addRestaurantRatings(restaurantId, 5.0, 1);
+        statistics.clear();
+
+        RestaurantEntity restaurantEntity = restaurantDao.refreshRestaurant(restaurantId);
+
+        assertSame(managed, restaurantEntity);
+        assertEquals(Integer.valueOf(715), restaurantEntity.getNumberCustomersRated());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    //This test case passes when a restaurant not held by the persistence context is read with a
+    // single select, and an unknown restaurant is not found.
+    @Test
+    public void detachedRestaurantShouldBeReadWithOneSelect() {
+        restaurantDao.addRestaurantRatings(restaurantId, 5.0, 1);
+        entityManager.clear();
+        statistics.clear();
+
+        RestaurantEntity restaurantEntity = restaurantDao.refreshRestaurant(restaurantId);
+
+        assertEquals(RESTAURANT_UUID, restaurantEntity.getUuid());
+        assertEquals(Integer.valueOf(715), restaurantEntity.getNumberCustomersRated());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNull(restaurantDao.refreshRestaurant(-1));
+    }
+}
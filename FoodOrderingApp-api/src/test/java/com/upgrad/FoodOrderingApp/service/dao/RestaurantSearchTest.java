@@ -0,0 +1,87 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantListing;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+// This class checks the restaurant name search against restaurants seeded in the test transaction,
+// next to those of the seeded database.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = FoodOrderingAppApiApplication.class)
+@Transactional
+public class RestaurantSearchTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private RestaurantDao restaurantDao;
+
+    @Before
+    public void seedRestaurants() {
+        for (String restaurantName : new String[] {
+                "Zesty Kitchen Test",
+                "Kitchen Test Zesty",
+                "Search_Test Diner",
+                "100% Search Test",
+                "Search\\Test Bar"
+        }) {
+            entityManager
+                    .createNativeQuery("insert into restaurant(uuid, restaurant_name, photo_url, "
+                            + "customer_rating, average_price_for_two, number_of_customers_rated, "
+                            + "address_id) values (:uuid, :restaurantName, 'someurl', 4.0, 500, "
+                            + "10, 1)")
+                    .setParameter("uuid", UUID.randomUUID().toString())
+                    .setParameter("restaurantName", restaurantName)
+                    .executeUpdate();
+        }
+    }
+
+    //This test case passes when a name starting with the search string comes before a name only
+    // containing it.
+    @Test
+    public void namesStartingWithTheSearchShouldComeFirst() {
+        List<String> names = names(restaurantDao.restaurantsByName("kitchen test", 10));
+
+        assertEquals("Kitchen Test Zesty", names.get(0));
+        assertEquals("Zesty Kitchen Test", names.get(1));
+    }
+
+    //This test case passes when %, _ and \ typed in the search box are searched for as they are,
+    // instead of matching any text or escaping the next character.
+    @Test
+    public void likeWildcardsShouldBeSearchedForLiterally() {
+        assertEquals(
+                Collections.singletonList("Search_Test Diner"),
+                names(restaurantDao.restaurantsByName("_", 10)));
+        assertEquals(
+                Collections.singletonList("100% Search Test"),
+                names(restaurantDao.restaurantsByName("%", 10)));
+        assertEquals(
+                Collections.singletonList("Search\\Test Bar"),
+                names(restaurantDao.restaurantsByName("\\", 10)));
+    }
+
+    private static List<String> names(final List<RestaurantListing> restaurants) {
+        List<String> names = new ArrayList<>();
+        for (RestaurantListing restaurant : restaurants) {
+            names.add(restaurant.getRestaurantName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,79 @@
+package com.upgrad.FoodOrderingApp.service.datasource;
+
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+// This class checks the routing of transactions against the seeded database, which stands in for
+// its own replica: the replica pool connects to it with the application name "replica".
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = FoodOrderingAppApiApplication.class)
+@TestPropertySource(
+        properties = "datasource.replicas.urls=${spring.datasource.url}&ApplicationName=replica")
+public class ReadReplicaRoutingTest {
+
+    private static final String REPLICA = "replica";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Autowired private ReadRouting readRouting;
+
+    @Test
+    public void readOnlyTransactionShouldUseReplica() {
+        assertEquals(REPLICA, applicationName(true, null));
+    }
+
+    @Test
+    public void readWriteTransactionShouldUsePrimary() {
+        assertNotEquals(REPLICA, applicationName(false, null));
+    }
+
+    @Test
+    public void readOnlyTransactionShouldUsePrimaryAfterCustomerWrote() {
+        String customerUuid = UUID.randomUUID().toString();
+        new TransactionTemplate(transactionManager)
+                .execute(
+                        status -> {
+                            readRouting.recordWrite(customerUuid);
+                            return null;
+                        });
+
+        assertNotEquals(REPLICA, applicationName(true, customerUuid));
+        assertEquals(REPLICA, applicationName(true, UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void readOnlyTransactionShouldUsePrimaryWhenReadingFromPrimary() {
+        assertNotEquals(REPLICA, readRouting.readFromPrimary(() -> applicationName(true, null)));
+    }
+
+    private String applicationName(final boolean readOnly, final String customerUuid) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(
+                status -> {
+                    if (customerUuid != null) {
+                        readRouting.readOwnWrites(customerUuid);
+                    }
+                    return (String)
+                            entityManager
+                                    .createNativeQuery("select current_setting('application_name')")
+                                    .getSingleResult();
+                });
+    }
+}
@@ -0,0 +1,164 @@
+package com.upgrad.FoodOrderingApp.service.datasource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// This class checks which data source serves a transaction, with the primary and the replica
+// mocked: the replica reports the lag it is given.
+public class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MILLIS = 1000;
+
+    private static final long LAG_CHECK_TIMEOUT_MILLIS = 250;
+
+    private Connection primaryConnection;
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Before
+    public void setUp() throws SQLException {
+        primaryConnection = mock(Connection.class);
+        primary = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        replica = mock(DataSource.class);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (replicaRoutingDataSource != null) {
+            replicaRoutingDataSource.close();
+        }
+    }
+
+    //This test case passes when a read-only transaction is served by a replica within the lag.
+    @Test
+    public void replicaWithinLagShouldServeReadOnlyTransaction() throws Exception {
+        Connection replicaConnection = replicaReporting(10L);
+        createRoutingDataSource();
+
+        assertSame(replicaConnection, replicaRoutingDataSource.getConnection());
+        assertEquals(1, replicaRoutingDataSource.getReplicaReadCount());
+    }
+
+    //This test case passes when a read-write transaction is served by the primary.
+    @Test
+    public void readWriteTransactionShouldUsePrimary() throws Exception {
+        replicaReporting(0L);
+        createRoutingDataSource();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        assertSame(primaryConnection, replicaRoutingDataSource.getConnection());
+        assertEquals(0, replicaRoutingDataSource.getPrimaryFallbackCount());
+    }
+
+    //This test case passes when a replica further behind than max-lag is skipped for the primary.
+    @Test
+    public void laggingReplicaShouldFallBackToPrimary() throws Exception {
+        replicaReporting(MAX_LAG_MILLIS + 1);
+        createRoutingDataSource();
+
+        assertSame(primaryConnection, replicaRoutingDataSource.getConnection());
+        assertEquals(1, replicaRoutingDataSource.getPrimaryFallbackCount());
+    }
+
+    //This test case passes when a replica that never replayed a transaction is skipped.
+    @Test
+    public void replicaWithoutReplayShouldFallBackToPrimary() throws Exception {
+        replicaReporting(null);
+        createRoutingDataSource();
+
+        assertSame(primaryConnection, replicaRoutingDataSource.getConnection());
+    }
+
+    //This test case passes when a replica refusing connections is skipped, and serves reads again
+    // once a later check reaches it.
+    @Test
+    public void unreachableReplicaShouldBeSkippedUntilItIsBack() throws Exception {
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        createRoutingDataSource();
+
+        assertSame(primaryConnection, replicaRoutingDataSource.getConnection());
+
+        Connection replicaConnection = replicaReporting(0L);
+        replicaRoutingDataSource.checkReplicaLag();
+
+        assertSame(replicaConnection, replicaRoutingDataSource.getConnection());
+    }
+
+    //This test case passes when a replica not answering holds up the lag check no longer than the
+    // lag check timeout and is skipped.
+    @Test
+    public void hangingReplicaShouldNotHoldUpTheLagCheck() throws Exception {
+        CountDownLatch replicaDown = new CountDownLatch(1);
+        when(replica.getConnection())
+                .thenAnswer(
+                        invocation -> {
+                            replicaDown.await();
+                            throw new SQLException("connection timed out");
+                        });
+        try {
+            long start = System.nanoTime();
+            createRoutingDataSource();
+            replicaRoutingDataSource.checkReplicaLag();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertTrue(elapsedMillis < 4 * LAG_CHECK_TIMEOUT_MILLIS);
+            assertSame(primaryConnection, replicaRoutingDataSource.getConnection());
+        } finally {
+            replicaDown.countDown();
+        }
+    }
+
+    // makes the replica report the lag, null for a replica that never replayed a transaction
+    private Connection replicaReporting(final Long lagMillis) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagMillis == null ? 0L : lagMillis);
+        when(resultSet.wasNull()).thenReturn(lagMillis == null);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseMajorVersion()).thenReturn(10);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.getMetaData()).thenReturn(metaData);
+        // stubbed without calling the replica, which may be stubbed to throw
+        doReturn(connection).when(replica).getConnection();
+        return connection;
+    }
+
+    private void createRoutingDataSource() {
+        replicaRoutingDataSource =
+                new ReplicaRoutingDataSource(
+                        primary,
+                        Collections.singletonMap("replica-1", replica),
+                        MAX_LAG_MILLIS,
+                        LAG_CHECK_TIMEOUT_MILLIS);
+        replicaRoutingDataSource.afterPropertiesSet();
+    }
+}
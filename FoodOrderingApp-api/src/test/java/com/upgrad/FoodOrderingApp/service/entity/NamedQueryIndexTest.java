@@ -0,0 +1,331 @@
+package com.upgrad.FoodOrderingApp.service.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NamedNativeQueries;
+import javax.persistence.NamedNativeQuery;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Parameter;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// This class checks that every named query of the service module can be answered through an
+// index, unless it reads whole tables by design. Sequential scans are switched off in the test
+// transaction, so the planner only falls back to one where no index can serve the query. It does
+// not check the plan the planner picks with its default settings, which depends on the size of the
+// tables.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = FoodOrderingAppApiApplication.class)
+@Transactional
+public class NamedQueryIndexTest {
+
+    // Queries reading whole tables by design, with the tables they may scan.
+    private static final Map<String, Set<String>> FULL_SCANS = new HashMap<>();
+
+    // Parameters whose type Hibernate does not know, i.e. those of the native queries.
+    private static final Map<String, Object> PARAMETER_VALUES = new HashMap<>();
+
+    static {
+        FULL_SCANS.put("getAllStates", tables("state"));
+        FULL_SCANS.put("getAllPaymentMethods", tables("payment"));
+        FULL_SCANS.put("getAllCategoriesOrderedByName", tables("category"));
+        FULL_SCANS.put("restaurantsByRating", tables("restaurant", "address", "state"));
+        FULL_SCANS.put("restaurantSuggestions", tables("restaurant"));
+        FULL_SCANS.put("itemSuggestions", tables("item", "order_item"));
+        FULL_SCANS.put("categorySuggestions", tables("category", "restaurant_category"));
+        FULL_SCANS.put("compactRestaurantRatings", tables("restaurant", "restaurant_rating"));
+
+        PARAMETER_VALUES.put("searchString", "pizza");
+        PARAMETER_VALUES.put("pattern", "%pizza%");
+        PARAMETER_VALUES.put("prefixPattern", "pizza%");
+        PARAMETER_VALUES.put("customerId", 1);
+        PARAMETER_VALUES.put("restaurantId", 1);
+        PARAMETER_VALUES.put("rating", 4.5);
+        PARAMETER_VALUES.put("ratingSum", 4.5);
+        PARAMETER_VALUES.put("ratingCount", 1);
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //This test case passes when no named query has to read a table through a sequential scan.
+    @Test
+    public void namedQueriesShouldBeServedByIndexes() throws Exception {
+        entityManager.createNativeQuery("set local enable_seqscan = off").executeUpdate();
+
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, String> namedQuery : getNamedQueries().entrySet()) {
+            String name = namedQuery.getKey();
+            List<String> plans = explain(name, namedQuery.getValue());
+            assertFalse("No statement was run for " + name, plans.isEmpty());
+
+            Set<String> fullScans = FULL_SCANS.getOrDefault(name, Collections.emptySet());
+            for (String plan : plans) {
+                for (String table : getSequentiallyScannedTables(plan)) {
+                    if (!fullScans.contains(table)) {
+                        failures.add(name + " scans " + table + ":\n" + plan);
+                    }
+                }
+            }
+        }
+        assertTrue(String.join("\n", failures), failures.isEmpty());
+    }
+
+    // Runs the named query with sample parameters and returns the plans of its statements. Only
+    // selects are executed, every other statement is explained without being run.
+    private List<String> explain(final String name, final String queryString) {
+        Query query = entityManager.createNamedQuery(name);
+        // a result in the query cache would not reach the database
+        query.setHint("org.hibernate.cacheable", false);
+        for (Parameter<?> parameter : query.getParameters()) {
+            query.setParameter(parameter.getName(), getSampleValue(name, parameter));
+        }
+
+        List<String> plans = new ArrayList<>();
+        ExplainingDataSource.PLANS.set(plans);
+        try {
+            String statement = queryString.trim().toLowerCase(Locale.ROOT);
+            if (statement.startsWith("update") || statement.startsWith("delete")) {
+                query.executeUpdate();
+            } else {
+                query.getResultList();
+            }
+        } catch (PersistenceException e) {
+            if (!(e.getCause() instanceof NotExecutedException)
+                    && !(rootCause(e) instanceof NotExecutedException)) {
+                throw e;
+            }
+        } finally {
+            ExplainingDataSource.PLANS.remove();
+        }
+        return plans;
+    }
+
+    private Object getSampleValue(final String name, final Parameter<?> parameter) {
+        Class<?> type = parameter.getParameterType();
+        if (type == null || Object.class.equals(type)) {
+            if (!PARAMETER_VALUES.containsKey(parameter.getName())) {
+                fail("No value for parameter " + parameter.getName() + " of " + name);
+            }
+            return PARAMETER_VALUES.get(parameter.getName());
+        }
+        for (EntityType<?> entityType : entityManager.getMetamodel().getEntities()) {
+            if (entityType.getJavaType().equals(type)) {
+                return entityManager.getReference(
+                        type, getSampleValue(entityType.getIdType().getJavaType()));
+            }
+        }
+        return getSampleValue(type);
+    }
+
+    private static Object getSampleValue(final Class<?> type) {
+        if (String.class.equals(type)) {
+            return "sample";
+        } else if (Integer.class.equals(type) || int.class.equals(type)) {
+            return 1;
+        } else if (Long.class.equals(type) || long.class.equals(type)) {
+            return 1L;
+        } else if (Double.class.equals(type) || double.class.equals(type)) {
+            return 1.0;
+        } else if (ZonedDateTime.class.equals(type)) {
+            return ZonedDateTime.now();
+        }
+        throw new IllegalArgumentException("No sample value of " + type);
+    }
+
+    // Named queries of all entities, name -> query string.
+    private Map<String, String> getNamedQueries() {
+        Map<String, String> namedQueries = new LinkedHashMap<>();
+        for (EntityType<?> entityType : entityManager.getMetamodel().getEntities()) {
+            Class<?> entityClass = entityType.getJavaType();
+            List<NamedQuery> queries = new ArrayList<>();
+            if (entityClass.isAnnotationPresent(NamedQueries.class)) {
+                queries.addAll(
+                        Arrays.asList(entityClass.getAnnotation(NamedQueries.class).value()));
+            }
+            if (entityClass.isAnnotationPresent(NamedQuery.class)) {
+                queries.add(entityClass.getAnnotation(NamedQuery.class));
+            }
+            for (NamedQuery query : queries) {
+                namedQueries.put(query.name(), query.query());
+            }
+
+            List<NamedNativeQuery> nativeQueries = new ArrayList<>();
+            if (entityClass.isAnnotationPresent(NamedNativeQueries.class)) {
+                nativeQueries.addAll(
+                        Arrays.asList(entityClass.getAnnotation(NamedNativeQueries.class).value()));
+            }
+            if (entityClass.isAnnotationPresent(NamedNativeQuery.class)) {
+                nativeQueries.add(entityClass.getAnnotation(NamedNativeQuery.class));
+            }
+            for (NamedNativeQuery query : nativeQueries) {
+                namedQueries.put(query.name(), query.query());
+            }
+        }
+        assertFalse("No named queries found", namedQueries.isEmpty());
+        return namedQueries;
+    }
+
+    private static Set<String> getSequentiallyScannedTables(final String plan) throws IOException {
+        Set<String> tables = new HashSet<>();
+        for (JsonNode statement : new ObjectMapper().readTree(plan)) {
+            collectSequentiallyScannedTables(statement.get("Plan"), tables);
+        }
+        return tables;
+    }
+
+    private static void collectSequentiallyScannedTables(
+            final JsonNode node, final Set<String> tables) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            tables.add(node.path("Relation Name").asText().toLowerCase(Locale.ROOT));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentiallyScannedTables(child, tables);
+        }
+    }
+
+    private static Set<String> tables(final String... tables) {
+        return new HashSet<>(Arrays.asList(tables));
+    }
+
+    private static Throwable rootCause(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /** Thrown instead of running a statement that is not a select. */
+    static final class NotExecutedException extends SQLException {
+        NotExecutedException(final String sql) {
+            super("Not executed while explaining: " + sql);
+        }
+    }
+
+    /**
+     * Wraps the data source so that, while plans are recorded on the current thread, every prepared
+     * statement is explained with its parameters before it is run.
+     */
+    @TestConfiguration
+    static class ExplainingDataSource {
+
+        static final ThreadLocal<List<String>> PLANS = new ThreadLocal<>();
+
+        @Bean
+        static BeanPostProcessor explainingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(
+                        final Object bean, final String beanName) {
+                    if (!(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    DataSource dataSource = (DataSource) bean;
+                    return Proxy.newProxyInstance(
+                            DataSource.class.getClassLoader(),
+                            new Class<?>[] {DataSource.class},
+                            (proxy, method, args) -> {
+                                Object result = invoke(dataSource, method, args);
+                                return result instanceof Connection
+                                        ? explaining((Connection) result)
+                                        : result;
+                            });
+                }
+            };
+        }
+
+        private static Connection explaining(final Connection connection) {
+            return (Connection)
+                    Proxy.newProxyInstance(
+                            Connection.class.getClassLoader(),
+                            new Class<?>[] {Connection.class},
+                            (proxy, method, args) -> {
+                                Object result = invoke(connection, method, args);
+                                if (PLANS.get() == null
+                                        || !"prepareStatement".equals(method.getName())) {
+                                    return result;
+                                }
+                                String sql = (String) args[0];
+                                PreparedStatement explain =
+                                        connection.prepareStatement("explain (format json) " + sql);
+                                return explaining((PreparedStatement) result, explain, sql);
+                            });
+        }
+
+        private static PreparedStatement explaining(
+                final PreparedStatement statement,
+                final PreparedStatement explain,
+                final String sql) {
+            boolean select = sql.trim().toLowerCase(Locale.ROOT).startsWith("select");
+            return (PreparedStatement)
+                    Proxy.newProxyInstance(
+                            PreparedStatement.class.getClassLoader(),
+                            new Class<?>[] {PreparedStatement.class},
+                            (proxy, method, args) -> {
+                                String name = method.getName();
+                                if (name.startsWith("set") || name.equals("clearParameters")) {
+                                    invoke(explain, method, args);
+                                } else if (name.startsWith("execute") && args == null) {
+                                    try (ResultSet plan = explain.executeQuery()) {
+                                        plan.next();
+                                        PLANS.get().add(plan.getString(1));
+                                    }
+                                    if (!select) {
+                                        throw new NotExecutedException(sql);
+                                    }
+                                } else if (name.equals("close")) {
+                                    explain.close();
+                                }
+                                return invoke(statement, method, args);
+                            });
+        }
+
+        private static Object invoke(final Object target, final Method method, final Object[] args)
+                throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.upgrad.FoodOrderingApp.service.entity;
+
+import com.upgrad.FoodOrderingApp.api.FoodOrderingAppApiApplication;
+import com.upgrad.FoodOrderingApp.service.businness.AddressService;
+import com.upgrad.FoodOrderingApp.service.dao.CategoryDao;
+import com.upgrad.FoodOrderingApp.service.dao.CouponDao;
+import com.upgrad.FoodOrderingApp.service.dao.PaymentDao;
+import com.upgrad.FoodOrderingApp.service.dao.StateDao;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// This class checks against the seeded database that states, payment methods, coupons and
+// categories are read from the second-level cache once they were looked up: repeated lookups do not
+// prepare a single statement.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = FoodOrderingAppApiApplication.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ReferenceDataCacheTest {
+
+    private static final String STATE_UUID = "c860e78a-a29b-11e8-9a3a-720006ceb890";
+
+    private static final String PAYMENT_UUID = "2ddf6a5e-ecd0-11e8-8eb2-f2801f1b9fd1";
+
+    private static final String COUPON_NAME = "NEW30";
+
+    private static final String COUPON_UUID = "2ddf6284-ecd0-11e8-8eb2-f2801f1b9fd1";
+
+    private static final String CATEGORY_UUID = "2ddf5546-ecd0-11e8-8eb2-f2801f1b9fd1";
+
+    @Autowired
+    private StateDao stateDao;
+
+    @Autowired
+    private PaymentDao paymentDao;
+
+    @Autowired
+    private CouponDao couponDao;
+
+    @Autowired
+    private CategoryDao categoryDao;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void repeatedLookupsOfReferenceDataShouldNotQueryTheDatabase() throws Exception {
+        lookUpReferenceData();
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            lookUpReferenceData();
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    public void stateLookupShouldQueryTheDatabaseAtMostOnce() throws Exception {
+        statistics.clear();
+
+        assertNotNull(addressService.getStateByUUID(STATE_UUID));
+
+        assertTrue(statistics.getPrepareStatementCount() <= 1);
+    }
+
+    @Test
+    public void unknownCouponShouldBeCachedAsNotFound() {
+        assertNull(couponDao.getCouponByName("NO-SUCH-COUPON"));
+        statistics.clear();
+
+        assertNull(couponDao.getCouponByName("NO-SUCH-COUPON"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private void lookUpReferenceData() throws Exception {
+        assertNotNull(addressService.getStateByUUID(STATE_UUID));
+        assertNotNull(stateDao.getStateByUUID(STATE_UUID));
+        assertTrue(!stateDao.getAllStates().isEmpty());
+        assertNotNull(paymentDao.getPaymentByUUID(PAYMENT_UUID));
+        assertTrue(!paymentDao.getAllPaymentMethods().isEmpty());
+        assertNotNull(couponDao.getCouponByName(COUPON_NAME));
+        assertNotNull(couponDao.getCouponByCouponId(COUPON_UUID));
+        assertNotNull(categoryDao.getCategoryByUuid(CATEGORY_UUID));
+        assertTrue(!categoryDao.getAllCategoriesOrderedByName().isEmpty());
+    }
+}
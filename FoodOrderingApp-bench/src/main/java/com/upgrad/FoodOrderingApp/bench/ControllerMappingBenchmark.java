@@ -0,0 +1,263 @@
+package com.upgrad.FoodOrderingApp.bench;
+
+import com.upgrad.FoodOrderingApp.api.controller.OrderController;
+import com.upgrad.FoodOrderingApp.api.controller.RestaurantController;
+import com.upgrad.FoodOrderingApp.api.model.CustomerOrderResponse;
+import com.upgrad.FoodOrderingApp.api.model.RestaurantDetailsResponse;
+import com.upgrad.FoodOrderingApp.api.model.RestaurantListResponse;
+import com.upgrad.FoodOrderingApp.service.businness.CategoryService;
+import com.upgrad.FoodOrderingApp.service.businness.CustomerService;
+import com.upgrad.FoodOrderingApp.service.businness.ItemService;
+import com.upgrad.FoodOrderingApp.service.businness.OrderPage;
+import com.upgrad.FoodOrderingApp.service.businness.OrderService;
+import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
+import com.upgrad.FoodOrderingApp.service.cache.MenuSnapshot;
+import com.upgrad.FoodOrderingApp.service.common.ItemType;
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.OrderEntity;
+import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantListing;
+import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.http.ResponseEntity;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of entities and restaurant listings to the swagger response models done by
+ * RestaurantController and OrderController. The controllers are wired with services that hand out
+ * entities and listings prepared up front, so only the mapping in the controller is measured and
+ * no database is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerMappingBenchmark {
+
+    private static final String AUTHORIZATION = "Bearer access-token";
+
+    // restaurants in a listing, orders on a page of the order history and items of a menu
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private RestaurantController restaurantController;
+
+    private OrderController orderController;
+
+    private String restaurantUuid;
+
+    @Setup
+    public void setUp() {
+        StateEntity state = new StateEntity();
+        state.setUuid(UUID.randomUUID().toString());
+        state.setStateName("Karnataka");
+
+        final List<RestaurantEntity> restaurants = new ArrayList<>();
+        final List<RestaurantListing> restaurantListings = new ArrayList<>();
+        final Map<String, List<String>> categoryNames = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            RestaurantEntity restaurant = new RestaurantEntity();
+            restaurant.setUuid(UUID.randomUUID().toString());
+            restaurant.setRestaurantName("Restaurant " + i);
+            restaurant.setPhotoUrl("https://example.com/restaurant/" + i + ".jpg");
+            restaurant.setCustomerRating(4.2);
+            restaurant.setAvgPrice(300);
+            restaurant.setNumberCustomersRated(120);
+            restaurant.setAddress(newAddress(state));
+            restaurants.add(restaurant);
+            restaurantListings.add(newListing(restaurant));
+            categoryNames.put(restaurant.getUuid(), Arrays.asList("Chinese", "Indian", "Snacks"));
+        }
+        final RestaurantEntity restaurant = restaurants.get(0);
+        restaurantUuid = restaurant.getUuid();
+
+        final List<Object[]> menuItems = new ArrayList<>();
+        final List<ItemEntity> items = new ArrayList<>();
+        CategoryEntity category = null;
+        for (int i = 0; i < size; i++) {
+            if (i % 10 == 0) {
+                category = new CategoryEntity();
+                category.setUuid(UUID.randomUUID().toString());
+                category.setCategoryName("Category " + i / 10);
+            }
+            ItemEntity item = new ItemEntity();
+            item.setUuid(UUID.randomUUID().toString());
+            item.setItemName("Item " + i);
+            item.setPrice(100 + i);
+            item.setType(i % 2 == 0 ? ItemType.VEG : ItemType.NON_VEG);
+            items.add(item);
+            menuItems.add(new Object[] {category, item});
+        }
+        final MenuSnapshot menu = MenuSnapshot.fromMenuItems(restaurantUuid, 0L, menuItems);
+
+        final CustomerEntity customer = new CustomerEntity();
+        customer.setUuid(UUID.randomUUID().toString());
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmailAddress("john.doe@example.com");
+        customer.setContactNumber("9090909090");
+
+        CouponEntity coupon = new CouponEntity();
+        coupon.setUuid(UUID.randomUUID().toString());
+        coupon.setCouponName("FLAT10");
+        coupon.setPercent(10);
+        PaymentEntity payment = new PaymentEntity();
+        payment.setUuid(UUID.randomUUID().toString());
+        payment.setPaymentName("UPI");
+        AddressEntity address = newAddress(state);
+
+        final List<OrderEntity> orders = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            OrderEntity order = new OrderEntity();
+            order.setUuid(UUID.randomUUID().toString());
+            order.setDate(ZonedDateTime.now());
+            order.setBill(540.0);
+            order.setDiscount(60.0);
+            order.setCustomer(customer);
+            order.setCoupon(coupon);
+            order.setPayment(payment);
+            order.setAddress(address);
+            order.setRestaurant(restaurant);
+            List<OrderItemEntity> orderItems = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                OrderItemEntity orderItem = new OrderItemEntity();
+                orderItem.setItem(items.get((i + j) % items.size()));
+                orderItem.setQuantity(j + 1);
+                orderItem.setPrice(200);
+                orderItems.add(orderItem);
+            }
+            order.setOrderItems(orderItems);
+            orders.add(order);
+        }
+
+        restaurantController = new RestaurantController();
+        DirectFieldAccessor restaurantControllerFields = new DirectFieldAccessor(restaurantController);
+        restaurantControllerFields.setPropertyValue(
+                "restaurantService",
+                new RestaurantService() {
+                    @Override
+                    public List<RestaurantListing> restaurantsByName(final String search) {
+                        return restaurantListings;
+                    }
+
+                    @Override
+                    public List<RestaurantListing> restaurantsByName(
+                            final String search, final int limit) {
+                        return restaurantListings;
+                    }
+
+                    @Override
+                    public RestaurantEntity restaurantByUUID(final String uuid) {
+                        return restaurant;
+                    }
+                });
+        restaurantControllerFields.setPropertyValue(
+                "categoryService",
+                new CategoryService() {
+                    @Override
+                    public Map<String, List<String>> getCategoryNamesByRestaurants(
+                            final List<String> restaurantUuids) {
+                        return categoryNames;
+                    }
+                });
+        restaurantControllerFields.setPropertyValue(
+                "itemService",
+                new ItemService() {
+                    @Override
+                    public MenuSnapshot getMenuByRestaurant(final String uuid) {
+                        return menu;
+                    }
+                });
+
+        orderController = new OrderController();
+        DirectFieldAccessor orderControllerFields = new DirectFieldAccessor(orderController);
+        orderControllerFields.setPropertyValue(
+                "customerService",
+                new CustomerService() {
+                    @Override
+                    public CustomerEntity getCustomer(final String accessToken) {
+                        return customer;
+                    }
+                });
+        orderControllerFields.setPropertyValue(
+                "orderService",
+                new OrderService() {
+                    @Override
+                    public OrderPage getOrdersByCustomer(
+                            final String customerUuid, final String cursor, final Integer limit) {
+                        return new OrderPage(orders, null);
+                    }
+                });
+    }
+
+    @Benchmark
+    public ResponseEntity<RestaurantListResponse> restaurantList() throws Exception {
+        return restaurantController.getRestaurantsBySearchString("Restaurant");
+    }
+
+    @Benchmark
+    public ResponseEntity<RestaurantDetailsResponse> restaurantDetails() throws Exception {
+        return restaurantController.getRestaurantById(restaurantUuid);
+    }
+
+    @Benchmark
+    public ResponseEntity<CustomerOrderResponse> customerOrders() throws Exception {
+        return orderController.getOrdersByCustomer(AUTHORIZATION, null, null);
+    }
+
+    private static AddressEntity newAddress(final StateEntity state) {
+        AddressEntity address = new AddressEntity();
+        address.setUuid(UUID.randomUUID().toString());
+        address.setFlatBuilNo("12, MG Road");
+        address.setLocality("Indiranagar");
+        address.setCity("Bengaluru");
+        address.setPincode("560038");
+        address.setState(state);
+        return address;
+    }
+
+    private static RestaurantListing newListing(final RestaurantEntity restaurant) {
+        AddressEntity address = restaurant.getAddress();
+        return new RestaurantListing(
+                restaurant.getUuid(),
+                restaurant.getRestaurantName(),
+                restaurant.getPhotoUrl(),
+                restaurant.getCustomerRating(),
+                restaurant.getAvgPrice(),
+                restaurant.getNumberCustomersRated(),
+                address.getUuid(),
+                address.getFlatBuilNo(),
+                address.getLocality(),
+                address.getCity(),
+                address.getPincode(),
+                address.getState().getUuid(),
+                address.getState().getStateName());
+    }
+}
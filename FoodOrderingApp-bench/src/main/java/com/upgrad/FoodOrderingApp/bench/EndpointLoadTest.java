@@ -0,0 +1,437 @@
+package com.upgrad.FoodOrderingApp.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the order and restaurant endpoints of a running application with concurrent clients and
+ * measures their throughput, to compare configurations of the application, e.g. a candidate pool or
+ * batch setting against the defaults. Each scenario runs on its own for a warm-up and then a
+ * measured period; the results are printed and written as JSON, and two result files can be
+ * compared.
+ *
+ * <p>A customer with an address is signed up for the run, so the database only needs restaurants
+ * with items, e.g. loaded by the synthetic data generator of FoodOrderingApp-db.
+ *
+ * <pre>
+ *   java -jar FoodOrderingApp-api.jar
+ *   java -cp FoodOrderingApp-bench/target/benchmarks.jar \
+ *       com.upgrad.FoodOrderingApp.bench.EndpointLoadTest --out default.json
+ *   java -jar FoodOrderingApp-api.jar --datasource.pool.connections-per-core=2
+ *   java -cp FoodOrderingApp-bench/target/benchmarks.jar \
+ *       com.upgrad.FoodOrderingApp.bench.EndpointLoadTest --out candidate.json
+ *   java -cp FoodOrderingApp-bench/target/benchmarks.jar \
+ *       com.upgrad.FoodOrderingApp.bench.EndpointLoadTest --compare default.json candidate.json
+ * </pre>
+ *
+ * <p>Options: --url (http://localhost:8080/api), --threads (32), --warmup and --duration in
+ * seconds (10 and 30), --scenarios (all, comma separated) and --out (load-test-result.json).
+ *
+ * <p>Run the comparison against a production-sized database, and only take a setting over into
+ * application.yaml once it has been measured to help.
+ */
+public class EndpointLoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String PASSWORD = "LoadTest@1";
+
+    private final String baseUrl;
+
+    private final int threads;
+
+    private final long warmupNanos;
+
+    private final long durationNanos;
+
+    private String authorization;
+
+    private String addressId;
+
+    private String paymentId;
+
+    private final List<String> restaurantIds = new ArrayList<>();
+
+    // restaurant id -> ids and prices of its items
+    private final Map<String, List<JsonNode>> menus = new LinkedHashMap<>();
+
+    EndpointLoadTest(final Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("url", "http://localhost:8080/api");
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "32"));
+        this.warmupNanos =
+                TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.durationNanos =
+                TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "30")));
+    }
+
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--") && !args[i].equals("--compare") && i + 1 < args.length) {
+                options.put(args[i].substring(2), args[++i]);
+            } else {
+                arguments.add(args[i]);
+            }
+        }
+        if (arguments.size() == 3 && arguments.get(0).equals("--compare")) {
+            compare(new File(arguments.get(1)), new File(arguments.get(2)));
+            return;
+        }
+
+        EndpointLoadTest loadTest = new EndpointLoadTest(options);
+        loadTest.prepare();
+        Map<String, Scenario> scenarios = loadTest.getScenarios();
+        if (options.containsKey("scenarios")) {
+            scenarios.keySet().retainAll(Arrays.asList(options.get("scenarios").split(",")));
+        }
+
+        ObjectNode results = OBJECT_MAPPER.createObjectNode();
+        System.out.printf(
+                "%-20s %12s %10s %10s %10s%n",
+                "scenario", "requests/s", "p50 ms", "p99 ms", "errors");
+        for (Map.Entry<String, Scenario> scenario : scenarios.entrySet()) {
+            Result result = loadTest.run(scenario.getValue());
+            System.out.printf(
+                    "%-20s %12.1f %10.2f %10.2f %10d%n",
+                    scenario.getKey(),
+                    result.throughput,
+                    result.p50Millis,
+                    result.p99Millis,
+                    result.errors);
+            results.set(scenario.getKey(), OBJECT_MAPPER.valueToTree(result));
+        }
+        File out = new File(options.getOrDefault("out", "load-test-result.json"));
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(out, results);
+        System.out.println("Results written to " + out);
+    }
+
+    // The endpoints measured, each request picking its restaurant at random.
+    private Map<String, Scenario> getScenarios() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("restaurant-list", () -> request("GET", "/restaurant", null, null));
+        scenarios.put(
+                "restaurant-details",
+                () -> request("GET", "/restaurant/" + randomRestaurantId(), null, null));
+        scenarios.put(
+                "restaurant-name",
+                () -> request("GET", "/restaurant/name/" + randomRestaurantName(), null, null));
+        // orders placed first, so that the history has pages to read
+        scenarios.put("place-order", () -> request("POST", "/order", authorization, randomOrder()));
+        scenarios.put(
+                "order-history", () -> request("GET", "/order?limit=20", authorization, null));
+        return scenarios;
+    }
+
+    // Signs up and logs in a customer with an address, and reads the restaurants and their menus.
+    private void prepare() throws IOException {
+        String contactNumber =
+                String.valueOf(6000000000L + System.currentTimeMillis() % 1000000000L);
+        ObjectNode signup = OBJECT_MAPPER.createObjectNode();
+        signup.put("first_name", "Load");
+        signup.put("last_name", "Test");
+        signup.put("email_address", "load.test" + contactNumber + "@example.com");
+        signup.put("contact_number", contactNumber);
+        signup.put("password", PASSWORD);
+        expectSuccess(request("POST", "/customer/signup", null, signup.toString()), "sign up");
+
+        byte[] credentials = (contactNumber + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection login =
+                open(
+                        "POST",
+                        "/customer/login",
+                        "Basic " + Base64.getEncoder().encodeToString(credentials));
+        expectSuccess(login.getResponseCode(), "log in");
+        authorization = "Bearer " + login.getHeaderField("access-token");
+        drain(login);
+
+        JsonNode states = get("/states", null).path("states");
+        ObjectNode address = OBJECT_MAPPER.createObjectNode();
+        address.put("flat_building_name", "1, Load Test Tower");
+        address.put("locality", "Powai");
+        address.put("city", "Mumbai");
+        address.put("pincode", "400076");
+        address.put("state_uuid", states.get(0).path("id").asText());
+        HttpURLConnection saveAddress = open("POST", "/address", authorization);
+        write(saveAddress, address.toString());
+        expectSuccess(saveAddress.getResponseCode(), "save an address");
+        addressId = read(saveAddress).path("id").asText();
+
+        paymentId = get("/payment", null).path("paymentMethods").get(0).path("id").asText();
+
+        for (JsonNode restaurant : get("/restaurant", null).path("restaurants")) {
+            restaurantIds.add(restaurant.path("id").asText());
+        }
+        if (restaurantIds.isEmpty()) {
+            throw new IllegalStateException("No restaurants to load test with");
+        }
+        // menus of up to 100 restaurants are enough to spread the orders
+        for (String restaurantId : restaurantIds.subList(0, Math.min(100, restaurantIds.size()))) {
+            List<JsonNode> items = new ArrayList<>();
+            for (JsonNode category : get("/restaurant/" + restaurantId, null).path("categories")) {
+                category.path("item_list").forEach(items::add);
+            }
+            if (!items.isEmpty()) {
+                menus.put(restaurantId, items);
+            }
+        }
+        if (menus.isEmpty()) {
+            throw new IllegalStateException("No restaurant has items to order");
+        }
+    }
+
+    private Result run(final Scenario scenario) throws InterruptedException {
+        long warmupEnd = System.nanoTime() + warmupNanos;
+        long measurementEnd = warmupEnd + durationNanos;
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Client client = new Client(scenario, warmupEnd, measurementEnd);
+            clients.add(client);
+            client.start();
+        }
+
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Client client : clients) {
+            client.join();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + client.count);
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            errors += client.errors;
+        }
+        Arrays.sort(latencies);
+
+        Result result = new Result();
+        result.requests = latencies.length;
+        result.errors = errors;
+        result.throughput = latencies.length / (durationNanos / 1e9);
+        result.p50Millis = percentile(latencies, 0.50) / 1e6;
+        result.p99Millis = percentile(latencies, 0.99) / 1e6;
+        return result;
+    }
+
+    private static void compare(final File baseline, final File candidate) throws IOException {
+        JsonNode before = OBJECT_MAPPER.readTree(baseline);
+        JsonNode after = OBJECT_MAPPER.readTree(candidate);
+        System.out.printf(
+                "%-20s %12s %12s %9s %10s %10s%n",
+                "scenario", "before /s", "after /s", "delta", "p99 before", "p99 after");
+        for (Iterator<String> names = before.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!after.has(name)) {
+                continue;
+            }
+            double throughputBefore = before.get(name).path("throughput").asDouble();
+            double throughputAfter = after.get(name).path("throughput").asDouble();
+            System.out.printf(
+                    "%-20s %12.1f %12.1f %+8.1f%% %10.2f %10.2f%n",
+                    name,
+                    throughputBefore,
+                    throughputAfter,
+                    100 * (throughputAfter - throughputBefore) / throughputBefore,
+                    before.get(name).path("p99Millis").asDouble(),
+                    after.get(name).path("p99Millis").asDouble());
+        }
+    }
+
+    private String randomRestaurantId() {
+        return restaurantIds.get(ThreadLocalRandom.current().nextInt(restaurantIds.size()));
+    }
+
+    // a word of a restaurant name, as typed into the search
+    private String randomRestaurantName() {
+        String[] words = new String[] {"grill", "spice", "cafe", "kitchen", "house", "tandoor"};
+        return words[ThreadLocalRandom.current().nextInt(words.length)];
+    }
+
+    private String randomOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> restaurants = new ArrayList<>(menus.keySet());
+        String restaurantId = restaurants.get(random.nextInt(restaurants.size()));
+        List<JsonNode> items = menus.get(restaurantId);
+
+        ArrayNode itemQuantities = OBJECT_MAPPER.createArrayNode();
+        long bill = 0;
+        for (int line = 1 + random.nextInt(3); line > 0; line--) {
+            JsonNode item = items.get(random.nextInt(items.size()));
+            int quantity = 1 + random.nextInt(2);
+            long price = item.path("price").asLong() * quantity;
+            bill += price;
+            ObjectNode itemQuantity = itemQuantities.addObject();
+            itemQuantity.put("item_id", item.path("id").asText());
+            itemQuantity.put("quantity", quantity);
+            itemQuantity.put("price", price);
+        }
+        ObjectNode order = OBJECT_MAPPER.createObjectNode();
+        order.put("address_id", addressId);
+        order.put("payment_id", paymentId);
+        order.put("bill", bill);
+        order.put("discount", 0);
+        order.put("restaurant_id", restaurantId);
+        order.set("item_quantities", itemQuantities);
+        return order.toString();
+    }
+
+    private JsonNode get(final String path, final String authorization) throws IOException {
+        HttpURLConnection connection = open("GET", path, authorization);
+        expectSuccess(connection.getResponseCode(), "GET " + path);
+        return read(connection);
+    }
+
+    // Sends a request, reads the whole response and returns its status.
+    private int request(
+            final String method, final String path, final String authorization, final String body)
+            throws IOException {
+        HttpURLConnection connection = open(method, path, authorization);
+        if (body != null) {
+            write(connection, body);
+        }
+        int status = connection.getResponseCode();
+        drain(connection);
+        return status;
+    }
+
+    private HttpURLConnection open(
+            final String method, final String path, final String authorization) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json");
+        if (authorization != null) {
+            connection.setRequestProperty("authorization", authorization);
+        }
+        return connection;
+    }
+
+    private static void write(final HttpURLConnection connection, final String body)
+            throws IOException {
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static JsonNode read(final HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getInputStream()) {
+            return OBJECT_MAPPER.readTree(in);
+        }
+    }
+
+    // Reads the response to the end, so that the connection is kept alive for the next request.
+    private static void drain(final HttpURLConnection connection) throws IOException {
+        InputStream in =
+                connection.getResponseCode() < 400
+                        ? connection.getInputStream()
+                        : connection.getErrorStream();
+        if (in == null) {
+            return;
+        }
+        try (InputStream body = in) {
+            byte[] buffer = new byte[8192];
+            while (body.read(buffer) >= 0) {
+                // discarded
+            }
+        }
+    }
+
+    private static void expectSuccess(final int status, final String step) {
+        if (status < 200 || status >= 300) {
+            throw new IllegalStateException("Could not " + step + ", status " + status);
+        }
+    }
+
+    private static long percentile(final long[] sortedValues, final double percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
+        return sortedValues[Math.max(0, Math.min(sortedValues.length - 1, index))];
+    }
+
+    /** One request of a scenario, returning the HTTP status. */
+    private interface Scenario {
+        int request() throws IOException;
+    }
+
+    /** Throughput and latencies of the measured period of a scenario. */
+    public static final class Result {
+
+        public long requests;
+
+        public long errors;
+
+        public double throughput;
+
+        public double p50Millis;
+
+        public double p99Millis;
+    }
+
+    /** A client sending requests one after the other, recording those of the measured period. */
+    private static final class Client extends Thread {
+
+        private final Scenario scenario;
+
+        private final long warmupEnd;
+
+        private final long measurementEnd;
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long errors;
+
+        Client(final Scenario scenario, final long warmupEnd, final long measurementEnd) {
+            this.scenario = scenario;
+            this.warmupEnd = warmupEnd;
+            this.measurementEnd = measurementEnd;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long start;
+            while ((start = System.nanoTime()) < measurementEnd) {
+                boolean success;
+                try {
+                    int status = scenario.request();
+                    success = status >= 200 && status < 300;
+                } catch (IOException e) {
+                    success = false;
+                }
+                long end = System.nanoTime();
+                if (start < warmupEnd || end > measurementEnd) {
+                    continue;
+                }
+                if (!success) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = end - start;
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.upgrad.FoodOrderingApp.bench;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.FoodOrderingApp.service.businness.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Cost of issuing an access token at login and of verifying one on an authorized request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private String customerUuid;
+
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(UUID.randomUUID().toString());
+        customerUuid = UUID.randomUUID().toString();
+        ZonedDateTime now = ZonedDateTime.now();
+        accessToken = jwtTokenProvider.generateToken(customerUuid, now, now.plusHours(8));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        ZonedDateTime now = ZonedDateTime.now();
+        return jwtTokenProvider.generateToken(customerUuid, now, now.plusHours(8));
+    }
+
+    @Benchmark
+    public DecodedJWT verifyToken() {
+        return jwtTokenProvider.verifyToken(accessToken);
+    }
+}
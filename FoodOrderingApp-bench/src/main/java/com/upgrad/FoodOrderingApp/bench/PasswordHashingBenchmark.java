@@ -0,0 +1,71 @@
+package com.upgrad.FoodOrderingApp.bench;
+
+import com.upgrad.FoodOrderingApp.service.businness.PasswordCryptographyProvider;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceUnavailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency distribution of signup (encrypt) and login (matches) hashing for a range
+ * of iteration counts, with as many callers as there are cores contending for the hashing pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "Passw0rd#1";
+
+    @Param({"1000", "10000", "100000"})
+    private int iterations;
+
+    private PasswordCryptographyProvider passwordCryptographyProvider;
+
+    private String salt;
+
+    private String hashedPassword;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ServiceUnavailableException {
+        // a queue as deep as the number of callers, so that no hashing is turned away
+        passwordCryptographyProvider =
+                new PasswordCryptographyProvider(
+                        iterations, 0, Runtime.getRuntime().availableProcessors());
+        String[] encryptedText = passwordCryptographyProvider.encrypt(PASSWORD);
+        salt = encryptedText[0];
+        hashedPassword = encryptedText[1];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordCryptographyProvider.shutdown();
+    }
+
+    @Benchmark
+    public String[] encrypt() throws ServiceUnavailableException {
+        return passwordCryptographyProvider.encrypt(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() throws ServiceUnavailableException {
+        return passwordCryptographyProvider.matches(PASSWORD, salt, hashedPassword);
+    }
+}
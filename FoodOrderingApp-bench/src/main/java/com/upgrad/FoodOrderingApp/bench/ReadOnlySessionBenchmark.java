@@ -0,0 +1,141 @@
+package com.upgrad.FoodOrderingApp.bench;
+
+import com.upgrad.FoodOrderingApp.service.common.ReadOnlySessionJpaDialect;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantListing;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of reading the restaurant listing through Hibernate as one request does: in an entity
+ * manager held open for the request, the listing read outside a transaction as the service methods
+ * did before, in a read-write transaction, or in a read-only transaction with a read-only session,
+ * see {@link ReadOnlySessionJpaDialect}. The listing is read either as restaurant entities with
+ * their address and state, as it was before, or as {@link RestaurantListing} rows as it is now. Run
+ * with the gc profiler for the bytes allocated per request, gc.alloc.rate.norm:
+ *
+ * <pre>
+ *   java -jar FoodOrderingApp-bench/target/benchmarks.jar ReadOnlySession -prof gc
+ * </pre>
+ *
+ * <p>Needs a database with restaurants, e.g. loaded by the generate profile of FoodOrderingApp-db.
+ * The -Dbench.datasource.url, .username and .password JVM options default to the database of
+ * application.yaml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadOnlySessionBenchmark {
+
+    @Param({"none", "read-write", "read-only"})
+    private String transaction;
+
+    private HikariDataSource dataSource;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(
+                System.getProperty(
+                        "bench.datasource.url", "jdbc:postgresql://localhost:5432/restaurantdb"));
+        dataSource.setUsername(System.getProperty("bench.datasource.username", "postgres"));
+        dataSource.setPassword(System.getProperty("bench.datasource.password", "password"));
+
+        HibernateJpaVendorAdapter jpaVendorAdapter = new HibernateJpaVendorAdapter();
+        jpaVendorAdapter.setDatabasePlatform("org.hibernate.dialect.PostgreSQL9Dialect");
+        // the second-level cache would hide the reads being measured
+        Map<String, Object> jpaProperties = new HashMap<>();
+        jpaProperties.put("hibernate.temp.use_jdbc_metadata_defaults", false);
+        jpaProperties.put("hibernate.cache.use_second_level_cache", false);
+        jpaProperties.put("hibernate.cache.use_query_cache", false);
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setJpaVendorAdapter(jpaVendorAdapter);
+        entityManagerFactoryBean.setJpaDialect(new ReadOnlySessionJpaDialect());
+        entityManagerFactoryBean.setJpaPropertyMap(jpaProperties);
+        entityManagerFactoryBean.setPackagesToScan("com.upgrad.FoodOrderingApp.service.entity");
+        entityManagerFactoryBean.afterPropertiesSet();
+        entityManagerFactory = entityManagerFactoryBean.getObject();
+
+        transactionTemplate =
+                new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        transactionTemplate.setReadOnly("read-only".equals(transaction));
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactoryBean.destroy();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<RestaurantEntity> restaurantsByRating() {
+        return inRequest(
+                entityManager ->
+                        entityManager
+                                .createQuery(
+                                        "select r from RestaurantEntity r "
+                                                + "order by r.customerRating desc, r.id asc",
+                                        RestaurantEntity.class)
+                                .getResultList());
+    }
+
+    @Benchmark
+    public List<RestaurantListing> restaurantListingsByRating() {
+        return inRequest(
+                entityManager ->
+                        entityManager
+                                .createNamedQuery("restaurantsByRating", RestaurantListing.class)
+                                .getResultList());
+    }
+
+    private <T> T inRequest(final Function<EntityManager, T> read) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(
+                entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            if ("none".equals(transaction)) {
+                return read.apply(entityManager);
+            }
+            return transactionTemplate.execute(status -> read.apply(entityManager));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+}
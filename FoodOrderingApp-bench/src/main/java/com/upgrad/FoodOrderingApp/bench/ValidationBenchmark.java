@@ -0,0 +1,71 @@
+package com.upgrad.FoodOrderingApp.bench;
+
+import com.upgrad.FoodOrderingApp.service.common.ApplicationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input validation done on signup, password update and rating update, for an input that passes
+ * and one that is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final ApplicationUtil applicationUtil = new ApplicationUtil();
+
+    @Param({"valid", "invalid"})
+    private String input;
+
+    private String emailAddress;
+
+    private String contactNumber;
+
+    private String password;
+
+    private String customerRating;
+
+    @Setup
+    public void setUp() {
+        boolean valid = "valid".equals(input);
+        emailAddress = valid ? "john.doe@example.com" : "john.doe@example";
+        contactNumber = valid ? "9090909090" : "90909090ab";
+        password = valid ? "Passw0rd#1" : "password1";
+        customerRating = valid ? "4.5" : "5.5";
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return applicationUtil.isValidEmail(emailAddress);
+    }
+
+    @Benchmark
+    public boolean isValidContactNumber() {
+        return applicationUtil.isValidContactNumber(contactNumber);
+    }
+
+    @Benchmark
+    public boolean isValidPassword() {
+        return applicationUtil.isValidPassword(password);
+    }
+
+    @Benchmark
+    public boolean validateCustomerRating() {
+        return applicationUtil.validateCustomerRating(customerRating);
+    }
+}
@@ -0,0 +1,127 @@
+package com.upgrad.FoodOrderingApp.db;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Rows streamed into one table with COPY ... FROM STDIN in text format. Rows are sent in chunks of
+ * about CHUNK_SIZE characters, so the table is loaded in constant memory however many rows it gets.
+ */
+final class CopyStream implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final CopyIn copyIn;
+
+    private final StringBuilder chunk = new StringBuilder(CHUNK_SIZE + 1024);
+
+    private boolean rowStarted;
+
+    private long rows;
+
+    CopyStream(final CopyManager copyManager, final String table, final String columns)
+            throws SQLException {
+        this.copyIn = copyManager.copyIn("COPY " + table + " (" + columns + ") FROM STDIN");
+    }
+
+    CopyStream add(final String value) {
+        startValue();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    chunk.append("\\\\");
+                    break;
+                case '\t':
+                    chunk.append("\\t");
+                    break;
+                case '\n':
+                    chunk.append("\\n");
+                    break;
+                case '\r':
+                    chunk.append("\\r");
+                    break;
+                default:
+                    chunk.append(c);
+            }
+        }
+        return this;
+    }
+
+    CopyStream add(final long value) {
+        startValue();
+        chunk.append(value);
+        return this;
+    }
+
+    // A fixed point number with two decimals, given in hundredths.
+    CopyStream addHundredths(final long hundredths) {
+        startValue();
+        if (hundredths < 0) {
+            chunk.append('-');
+        }
+        long absolute = Math.abs(hundredths);
+        chunk.append(absolute / 100).append('.');
+        long fraction = absolute % 100;
+        if (fraction < 10) {
+            chunk.append('0');
+        }
+        chunk.append(fraction);
+        return this;
+    }
+
+    CopyStream addNull() {
+        startValue();
+        chunk.append("\\N");
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        chunk.append('\n');
+        rowStarted = false;
+        rows++;
+        if (chunk.length() >= CHUNK_SIZE) {
+            sendChunk();
+        }
+    }
+
+    /**
+     * This method sends the remaining rows and ends the COPY.
+     *
+     * @return number of rows loaded.
+     */
+    long finish() throws SQLException {
+        sendChunk();
+        return copyIn.endCopy();
+    }
+
+    long getRowCount() {
+        return rows;
+    }
+
+    // Cancels the COPY if it was not finished, e.g. when generating a row failed.
+    @Override
+    public void close() throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+
+    private void startValue() {
+        if (rowStarted) {
+            chunk.append('\t');
+        }
+        rowStarted = true;
+    }
+
+    private void sendChunk() throws SQLException {
+        if (chunk.length() == 0) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+}
@@ -0,0 +1,965 @@
+package com.upgrad.FoodOrderingApp.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Loads a database set up by the migrations with synthetic data at production scale, for load
+ * tests. Every table gets rows referring only to rows that exist, and the rows are streamed with
+ * COPY rather than inserted one by one. States and payment methods are taken as they are; the
+ * seeded data stays and the generated rows get the ids after it.
+ *
+ * <p>How often restaurants are ordered from, items of a menu are ordered and customers order
+ * follows Zipfian distributions, so a few restaurants, dishes and heavy customers take most of the
+ * orders, as in production. Restaurants are rated by distinct customers, more often the more they
+ * are ordered from, and their customer rating and number of raters are set from those ratings.
+ * Generated customers share the password of the first seeded customer and their sessions are all
+ * logged out.
+ *
+ * <p>Sizes and skews are read from the system properties below. The same seed on the same database
+ * generates the same data. Everything is loaded in one transaction, so a failed run leaves the
+ * database as it was.
+ *
+ * <pre>
+ *   mvn -Psetup,generate process-classes -Dgenerator.restaurants=50000 \
+ *       -Dgenerator.customers=2000000 -Dgenerator.orders=20000000
+ * </pre>
+ *
+ * <table summary="Settings">
+ *   <tr><td>generator.url, .user, .password</td><td>database, set by the generate profile</td></tr>
+ *   <tr><td>generator.seed</td><td>seed of the random numbers, 1</td></tr>
+ *   <tr><td>generator.customers</td><td>10000</td></tr>
+ *   <tr><td>generator.restaurants</td><td>500</td></tr>
+ *   <tr><td>generator.orders</td><td>200000</td></tr>
+ *   <tr><td>generator.categories</td><td>categories added to the seeded ones, 20</td></tr>
+ *   <tr><td>generator.coupons</td><td>coupons added to the seeded ones, 10</td></tr>
+ *   <tr><td>generator.items-per-restaurant</td><td>average menu size, 30</td></tr>
+ *   <tr><td>generator.items-per-order</td><td>most lines of an order, 5</td></tr>
+ *   <tr><td>generator.addresses-per-customer</td><td>most addresses of a customer, 3</td></tr>
+ *   <tr><td>generator.sessions-per-customer</td><td>past logins of every customer, 1</td></tr>
+ *   <tr><td>generator.days</td><td>orders are spread over the last days, 365</td></tr>
+ *   <tr><td>generator.coupon-share</td><td>share of orders with a coupon, 0.2</td></tr>
+ *   <tr><td>generator.rating-share</td><td>ratings per order of a restaurant, 0.2</td></tr>
+ *   <tr><td>generator.restaurant-skew</td><td>skew of the restaurants ordered from, 0.99</td></tr>
+ *   <tr><td>generator.item-skew</td><td>skew of the items ordered within a menu, 0.99</td></tr>
+ *   <tr><td>generator.customer-skew</td><td>skew of the customers ordering, 0.8</td></tr>
+ *   <tr><td>generator.category-skew</td><td>skew of the categories of restaurants, 0.8</td></tr>
+ * </table>
+ *
+ * <p>Skews are between 0, every one as likely as the others, and 1 exclusive.
+ */
+public class SyntheticDataGenerator {
+
+    private static final String SETTING_PREFIX = "generator.";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Tables whose ids are assigned here, in the order they are loaded.
+    private static final String[] TABLES = {
+        "category",
+        "coupon",
+        "customer",
+        "address",
+        "customer_address",
+        "customer_auth",
+        "restaurant",
+        "restaurant_category",
+        "item",
+        "restaurant_item",
+        "category_item",
+        "orders",
+        "order_item",
+        "restaurant_rating"
+    };
+
+    // Independent random streams, so that e.g. adding coupons does not change the orders.
+    private static final long CATEGORY_STREAM = 1;
+    private static final long COUPON_STREAM = 2;
+    private static final long CUSTOMER_STREAM = 3;
+    private static final long ADDRESS_STREAM = 4;
+    private static final long SESSION_STREAM = 5;
+    private static final long MENU_STREAM = 6;
+    private static final long RESTAURANT_STREAM = 7;
+    private static final long ITEM_STREAM = 8;
+    private static final long ORDER_STREAM = 9;
+    private static final long RATING_STREAM = 10;
+    private static final long LAYOUT_STREAM = 11;
+
+    private static final String[] FIRST_NAMES = {
+        "Aarav", "Aditi", "Akash", "Ananya", "Arjun", "Diya", "Ishaan", "Kavya", "Meera", "Neha",
+        "Nikhil", "Pooja", "Rahul", "Riya", "Rohan", "Saanvi", "Sneha", "Tanvi", "Varun", "Vikram"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Agarwal", "Bose", "Chopra", "Das", "Gupta", "Iyer", "Joshi", "Kapoor", "Kumar", "Mehta",
+        "Menon", "Nair", "Patel", "Rao", "Reddy", "Shah", "Sharma", "Singh", "Verma", "Yadav"
+    };
+
+    private static final String[][] CITIES = {
+        {"Mumbai", "Maharashtra", "400"},
+        {"Pune", "Maharashtra", "411"},
+        {"Bengaluru", "Karnataka", "560"},
+        {"Hyderabad", "Telangana", "500"},
+        {"Chennai", "Tamil Nadu", "600"},
+        {"Delhi", "Delhi", "110"},
+        {"Kolkata", "West Bengal", "700"},
+        {"Ahmedabad", "Gujarat", "380"},
+        {"Jaipur", "Rajasthan", "302"},
+        {"Lucknow", "Uttar Pradesh", "226"}
+    };
+
+    private static final String[] LOCALITIES = {
+        "Andheri", "Bandra", "Indiranagar", "Koramangala", "Banjara Hills", "Adyar", "Saket",
+        "Salt Lake", "Navrangpura", "Malviya Nagar", "Gomti Nagar", "Kothrud", "Whitefield",
+        "Powai", "Jubilee Hills", "Velachery", "Hauz Khas", "Park Street"
+    };
+
+    private static final String[] BUILDINGS = {
+        "Sunrise Apartments", "Lake View", "Green Park", "Shanti Niwas", "Royal Residency",
+        "Silver Oak", "Palm Heights", "Crystal Tower"
+    };
+
+    private static final String[] CATEGORY_NAMES = {
+        "North Indian", "South Indian", "Mughlai", "Biryani", "Street Food", "Fast Food", "Bakery",
+        "Desserts", "Beverages", "Seafood", "Thai", "Japanese", "Mexican", "Lebanese", "Pizza",
+        "Burgers", "Rolls", "Ice Cream", "Salads", "Healthy Food"
+    };
+
+    private static final String[] RESTAURANT_PREFIXES = {
+        "Royal", "Golden", "Spicy", "Urban", "Little", "Grand", "Green", "Blue", "Old", "New",
+        "Happy", "Hungry"
+    };
+
+    private static final String[] RESTAURANT_CORES = {
+        "Tandoor", "Dragon", "Curry", "Grill", "Bistro", "Dhaba", "Oven", "Wok", "Spice", "Bowl"
+    };
+
+    private static final String[] RESTAURANT_SUFFIXES = {
+        "Kitchen", "House", "Cafe", "Bar & Grill", "Express", "Corner", "Point", "Lounge"
+    };
+
+    // Bases of item names; the first NON_VEG_BASES are not vegetarian.
+    private static final String[] ITEM_BASES = {
+        "Chicken", "Mutton", "Egg", "Prawn", "Fish", "Paneer", "Veg", "Aloo", "Mushroom", "Dal",
+        "Corn", "Cheese"
+    };
+
+    private static final int NON_VEG_BASES = 5;
+
+    private static final String[] ITEM_DISHES = {
+        "Tikka", "Biryani", "Curry", "Masala", "Burger", "Pizza", "Noodles", "Fried Rice", "Roll",
+        "Kabab", "Soup", "Salad", "Sandwich", "Momos"
+    };
+
+    private final long seed;
+
+    private final int customers;
+
+    private final int restaurants;
+
+    private final int orders;
+
+    private final int extraCategories;
+
+    private final int extraCoupons;
+
+    private final int itemsPerRestaurant;
+
+    private final int itemsPerOrder;
+
+    private final int addressesPerCustomer;
+
+    private final int sessionsPerCustomer;
+
+    private final int days;
+
+    private final double couponShare;
+
+    private final double ratingShare;
+
+    private final ZipfianDistribution restaurantPopularity;
+
+    private final ZipfianDistribution customerActivity;
+
+    private final double itemSkew;
+
+    private final double categorySkew;
+
+    // Ranks of the distributions are spread over the ids, so the most ordered restaurant and the
+    // heaviest customer are not simply the first ones generated.
+    private final int restaurantStride;
+
+    private final int restaurantOffset;
+
+    private final int customerStride;
+
+    private final int customerOffset;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    // highest id of every table before loading
+    private final Map<String, Integer> baseIds = new HashMap<>();
+
+    private final Map<String, Integer> stateIds = new HashMap<>();
+
+    private final List<Integer> paymentIds = new ArrayList<>();
+
+    private final List<Integer> categoryIds = new ArrayList<>();
+
+    private final List<Integer> couponIds = new ArrayList<>();
+
+    private final List<Integer> couponPercents = new ArrayList<>();
+
+    private String customerPassword;
+
+    private String customerSalt;
+
+    // index of the first address of every customer among the customer addresses, one more entry
+    // holding their total
+    private int[] customerAddresses;
+
+    // index of the first item of every restaurant among the items, one more entry holding their
+    // total
+    private int[] menus;
+
+    private int[] itemPrices;
+
+    private int[] itemCategoryIds;
+
+    private int[][] restaurantCategoryIds;
+
+    // menu size -> distribution of the items ordered from a menu of that size
+    private final Map<Integer, ZipfianDistribution> menuPopularity = new HashMap<>();
+
+    private CopyManager copyManager;
+
+    SyntheticDataGenerator(final Properties settings) {
+        this.seed = getLong(settings, "seed", 1);
+        this.customers = getInt(settings, "customers", 10000);
+        this.restaurants = getInt(settings, "restaurants", 500);
+        this.orders = getInt(settings, "orders", 200000);
+        this.extraCategories = getInt(settings, "categories", 20);
+        this.extraCoupons = getInt(settings, "coupons", 10);
+        this.itemsPerRestaurant = getInt(settings, "items-per-restaurant", 30);
+        this.itemsPerOrder = getInt(settings, "items-per-order", 5);
+        this.addressesPerCustomer = getInt(settings, "addresses-per-customer", 3);
+        this.sessionsPerCustomer = getInt(settings, "sessions-per-customer", 1);
+        this.days = getInt(settings, "days", 365);
+        this.couponShare = getDouble(settings, "coupon-share", 0.2);
+        this.ratingShare = getDouble(settings, "rating-share", 0.2);
+        this.itemSkew = getDouble(settings, "item-skew", 0.99);
+        this.categorySkew = getDouble(settings, "category-skew", 0.8);
+        if (customers < 1 || restaurants < 1 || itemsPerRestaurant < 1 || itemsPerOrder < 1
+                || addressesPerCustomer < 1 || days < 1 || orders < 0) {
+            throw new IllegalArgumentException(
+                    "Customers, restaurants, items, addresses and days must be at least 1");
+        }
+        this.restaurantPopularity =
+                new ZipfianDistribution(restaurants, getDouble(settings, "restaurant-skew", 0.99));
+        this.customerActivity =
+                new ZipfianDistribution(customers, getDouble(settings, "customer-skew", 0.8));
+
+        SplittableRandom layout = random(LAYOUT_STREAM, 0);
+        this.restaurantStride = coprimeStride(restaurants, layout);
+        this.restaurantOffset = layout.nextInt(restaurants);
+        this.customerStride = coprimeStride(customers, layout);
+        this.customerOffset = layout.nextInt(customers);
+    }
+
+    public static void main(final String[] args) throws SQLException {
+        Properties settings = System.getProperties();
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(settings);
+        try (Connection connection =
+                DriverManager.getConnection(
+                        settings.getProperty(SETTING_PREFIX + "url"),
+                        settings.getProperty(SETTING_PREFIX + "user"),
+                        settings.getProperty(SETTING_PREFIX + "password"))) {
+            connection.setAutoCommit(false);
+            generator.generate(connection);
+            connection.commit();
+
+            // fresh statistics, so that the plans of the load test are those of production
+            long start = System.nanoTime();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+            System.out.printf("%-20s %30.1f s%n", "analyze", (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /**
+     * This method loads every table in the transaction of the connection, without committing.
+     *
+     * @param connection connection to the database, not in auto-commit mode.
+     */
+    void generate(final Connection connection) throws SQLException {
+        copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        readSeededData(connection);
+
+        loadCategories(connection);
+        loadCoupons(connection);
+        loadCustomers();
+        loadAddresses();
+        loadCustomerAddresses();
+        loadSessions();
+
+        planMenus();
+        loadRestaurants();
+        loadRestaurantCategories();
+        loadItems();
+        loadRestaurantItems();
+        loadCategoryItems();
+
+        loadOrders();
+        loadOrderItems();
+        loadRatings();
+        rateRestaurants(connection);
+
+        advanceSequences(connection);
+    }
+
+    private void readSeededData(final Connection connection) throws SQLException {
+        for (String table : TABLES) {
+            baseIds.put(table, queryInt(connection, "select coalesce(max(id), 0) from " + table));
+        }
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet states = statement.executeQuery("select id, state_name from state")) {
+                while (states.next()) {
+                    stateIds.put(states.getString(2), states.getInt(1));
+                }
+            }
+            try (ResultSet payments =
+                    statement.executeQuery("select id from payment order by id")) {
+                while (payments.next()) {
+                    paymentIds.add(payments.getInt(1));
+                }
+            }
+            try (ResultSet customer =
+                    statement.executeQuery(
+                            "select password, salt from customer order by id limit 1")) {
+                if (customer.next()) {
+                    customerPassword = customer.getString(1);
+                    customerSalt = customer.getString(2);
+                }
+            }
+        }
+        if (stateIds.isEmpty() || paymentIds.isEmpty() || customerPassword == null) {
+            throw new IllegalStateException(
+                    "States, payment methods and a customer must be seeded, "
+                            + "run the migrations first");
+        }
+    }
+
+    private void loadCategories(final Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        SplittableRandom random = random(CATEGORY_STREAM, baseIds.get("category"));
+        try (CopyStream copy = new CopyStream(copyManager, "category", "id, uuid, category_name")) {
+            for (int i = 0; i < extraCategories; i++) {
+                String name = CATEGORY_NAMES[i % CATEGORY_NAMES.length];
+                if (i >= CATEGORY_NAMES.length) {
+                    name = name + " " + (i / CATEGORY_NAMES.length + 1);
+                }
+                copy.add(baseIds.get("category") + i + 1).add(uuid(random)).add(name);
+                copy.endRow();
+            }
+            report("category", copy.finish(), start);
+        }
+        try (Statement statement = connection.createStatement();
+                ResultSet categories =
+                        statement.executeQuery("select id from category order by id")) {
+            while (categories.next()) {
+                categoryIds.add(categories.getInt(1));
+            }
+        }
+        if (categoryIds.isEmpty()) {
+            throw new IllegalStateException("Restaurants need at least one category");
+        }
+    }
+
+    private void loadCoupons(final Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        SplittableRandom random = random(COUPON_STREAM, baseIds.get("coupon"));
+        try (CopyStream copy =
+                new CopyStream(copyManager, "coupon", "id, uuid, coupon_name, percent")) {
+            for (int i = 0; i < extraCoupons; i++) {
+                int id = baseIds.get("coupon") + i + 1;
+                int percent = 5 * (1 + random.nextInt(10));
+                copy.add(id).add(uuid(random)).add("SAVE" + percent + "X" + id).add(percent);
+                copy.endRow();
+            }
+            report("coupon", copy.finish(), start);
+        }
+        try (Statement statement = connection.createStatement();
+                ResultSet coupons =
+                        statement.executeQuery("select id, percent from coupon order by id")) {
+            while (coupons.next()) {
+                couponIds.add(coupons.getInt(1));
+                couponPercents.add(coupons.getInt(2));
+            }
+        }
+    }
+
+    private void loadCustomers() throws SQLException {
+        long start = System.nanoTime();
+        SplittableRandom random = random(CUSTOMER_STREAM, baseIds.get("customer"));
+        try (CopyStream copy =
+                new CopyStream(
+                        copyManager,
+                        "customer",
+                        "id, uuid, firstname, lastname, email, contact_number, password, salt")) {
+            for (int i = 0; i < customers; i++) {
+                int id = customerId(i);
+                String firstName = pick(FIRST_NAMES, random);
+                String lastName = pick(LAST_NAMES, random);
+                copy.add(id)
+                        .add(uuid(random))
+                        .add(firstName)
+                        .add(lastName)
+                        .add(firstName.toLowerCase() + "." + lastName.toLowerCase() + id
+                                + "@example.com")
+                        // unique, and apart from the numbers of real customers
+                        .add(String.valueOf(7000000000L + id))
+                        .add(customerPassword)
+                        .add(customerSalt);
+                copy.endRow();
+            }
+            report("customer", copy.finish(), start);
+        }
+    }
+
+    // Addresses of the customers first, then one for every restaurant.
+    private void loadAddresses() throws SQLException {
+        long start = System.nanoTime();
+        SplittableRandom random = random(ADDRESS_STREAM, baseIds.get("address"));
+        customerAddresses = new int[customers + 1];
+        for (int i = 0; i < customers; i++) {
+            customerAddresses[i + 1] =
+                    customerAddresses[i] + 1 + random.nextInt(addressesPerCustomer);
+        }
+
+        int addresses = customerAddresses[customers] + restaurants;
+        try (CopyStream copy =
+                new CopyStream(
+                        copyManager,
+                        "address",
+                        "id, uuid, flat_buil_number, locality, city, pincode, state_id, active")) {
+            for (int i = 0; i < addresses; i++) {
+                String[] city = CITIES[random.nextInt(CITIES.length)];
+                copy.add(baseIds.get("address") + i + 1)
+                        .add(uuid(random))
+                        .add((1 + random.nextInt(500)) + ", " + pick(BUILDINGS, random))
+                        .add(pick(LOCALITIES, random))
+                        .add(city[0])
+                        .add(city[2] + (100 + random.nextInt(900)));
+                Integer stateId = stateIds.get(city[1]);
+                if (stateId == null) {
+                    copy.addNull();
+                } else {
+                    copy.add(stateId);
+                }
+                copy.add(1);
+                copy.endRow();
+            }
+            report("address", copy.finish(), start);
+        }
+    }
+
+    private void loadCustomerAddresses() throws SQLException {
+        long start = System.nanoTime();
+        try (CopyStream copy =
+                new CopyStream(copyManager, "customer_address", "id, customer_id, address_id")) {
+            for (int i = 0; i < customers; i++) {
+                for (int address = customerAddresses[i];
+                        address < customerAddresses[i + 1];
+                        address++) {
+                    copy.add(baseIds.get("customer_address") + address + 1)
+                            .add(customerId(i))
+                            .add(baseIds.get("address") + address + 1);
+                    copy.endRow();
+                }
+            }
+            report("customer_address", copy.finish(), start);
+        }
+    }
+
+    // Past logins, all logged out, so they cannot be used to authenticate.
+    private void loadSessions() throws SQLException {
+        long start = System.nanoTime();
+        SplittableRandom random = random(SESSION_STREAM, baseIds.get("customer_auth"));
+        try (CopyStream copy =
+                new CopyStream(
+                        copyManager,
+                        "customer_auth",
+                        "id, uuid, customer_id, access_token, login_at, logout_at, expires_at")) {
+            int id = baseIds.get("customer_auth");
+            for (int i = 0; i < customers; i++) {
+                for (int session = 0; session < sessionsPerCustomer; session++) {
+                    LocalDateTime loginAt = randomTime(random);
+                    LocalDateTime logoutAt = loginAt.plusMinutes(1 + random.nextInt(120));
+                    copy.add(++id)
+                            .add(uuid(random))
+                            .add(customerId(i))
+                            .add(Long.toHexString(random.nextLong())
+                                    + Long.toHexString(random.nextLong()))
+                            .add(TIMESTAMP_FORMAT.format(loginAt))
+                            .add(TIMESTAMP_FORMAT.format(logoutAt))
+                            .add(TIMESTAMP_FORMAT.format(loginAt.plusHours(8)));
+                    copy.endRow();
+                }
+            }
+            report("customer_auth", copy.finish(), start);
+        }
+    }
+
+    // Sizes, prices and categories of the menus, which restaurants and orders depend on.
+    private void planMenus() {
+        SplittableRandom random = random(MENU_STREAM, baseIds.get("restaurant"));
+        ZipfianDistribution categoryPopularity =
+                new ZipfianDistribution(categoryIds.size(), categorySkew);
+        int minItems = Math.max(1, itemsPerRestaurant / 2);
+
+        menus = new int[restaurants + 1];
+        restaurantCategoryIds = new int[restaurants][];
+        for (int r = 0; r < restaurants; r++) {
+            menus[r + 1] =
+                    menus[r] + minItems + random.nextInt(2 * (itemsPerRestaurant - minItems) + 1);
+            int categories = Math.min(categoryIds.size(), 2 + random.nextInt(4));
+            int[] chosen = new int[categories];
+            for (int c = 0; c < categories; c++) {
+                int categoryId = categoryIds.get(categoryPopularity.sample(random.nextDouble()));
+                // a few draws for a category not chosen yet, then the next one not chosen
+                for (int attempt = 0; attempt < 8 && contains(chosen, c, categoryId); attempt++) {
+                    categoryId = categoryIds.get(categoryPopularity.sample(random.nextDouble()));
+                }
+                for (int next = 0; contains(chosen, c, categoryId); next++) {
+                    categoryId = categoryIds.get(next);
+                }
+                chosen[c] = categoryId;
+            }
+            restaurantCategoryIds[r] = chosen;
+        }
+
+        int items = menus[restaurants];
+        itemPrices = new int[items];
+        itemCategoryIds = new int[items];
+        for (int r = 0; r < restaurants; r++) {
+            // cheap and expensive restaurants, the dishes of one within a range
+            int priceLevel = 1 + random.nextInt(4);
+            for (int item = menus[r]; item < menus[r + 1]; item++) {
+                itemPrices[item] = 10 * (priceLevel * (3 + random.nextInt(12)));
+                itemCategoryIds[item] =
+                        restaurantCategoryIds[r][random.nextInt(restaurantCategoryIds[r].length)];
+            }
+        }
+    }
+
+    // Ratings are set once the ratings are loaded, see rateRestaurants.
+    private void loadRestaurants() throws SQLException {
+        long start = System.nanoTime();
+        SplittableRandom random = random(RESTAURANT_STREAM, baseIds.get("restaurant"));
+        int restaurantAddresses = baseIds.get("address") + customerAddresses[customers];
+        try (CopyStream copy =
+                new CopyStream(
+                        copyManager,
+                        "restaurant",
+                        "id, uuid, restaurant_name, photo_url, customer_rating, "
+                                + "average_price_for_two, number_of_customers_rated, address_id")) {
+            for (int r = 0; r < restaurants; r++) {
+                int id = restaurantId(r);
+                long menuPrices = 0;
+                for (int item = menus[r]; item < menus[r + 1]; item++) {
+                    menuPrices += itemPrices[item];
+                }
+                long averagePriceForTwo = 3 * menuPrices / (menus[r + 1] - menus[r]);
+                copy.add(id)
+                        .add(uuid(random))
+                        .add(pick(RESTAURANT_PREFIXES, random)
+                                + " " + pick(RESTAURANT_CORES, random)
+                                + " " + pick(RESTAURANT_SUFFIXES, random))
+                        .add("https://images.example.com/restaurants/" + id + ".jpg")
+                        .add(0)
+                        .add(averagePriceForTwo)
+                        .add(0)
+                        .add(restaurantAddresses + r + 1);
+                copy.endRow();
+            }
+            report("restaurant", copy.finish(), start);
+        }
+    }
+
+    private void loadRestaurantCategories() throws SQLException {
+        long start = System.nanoTime();
+        try (CopyStream copy =
+                new CopyStream(
+                        copyManager, "restaurant_category", "id, restaurant_id, category_id")) {
+            int id = baseIds.get("restaurant_category");
+            for (int r = 0; r < restaurants; r++) {
+                for (int categoryId : restaurantCategoryIds[r]) {
+                    copy.add(++id).add(restaurantId(r)).add(categoryId);
+                    copy.endRow();
+                }
+            }
+            report("restaurant_category", copy.finish(), start);
+        }
+    }
+
+    private void loadItems() throws SQLException {
+        long start = System.nanoTime();
+        SplittableRandom random = random(ITEM_STREAM, baseIds.get("item"));
+        try (CopyStream copy =
+                new CopyStream(copyManager, "item", "id, uuid, item_name, price, type")) {
+            for (int item = 0; item < itemPrices.length; item++) {
+                int base = random.nextInt(ITEM_BASES.length);
+                copy.add(itemId(item))
+                        .add(uuid(random))
+                        .add(ITEM_BASES[base] + " " + pick(ITEM_DISHES, random))
+                        .add(itemPrices[item])
+                        .add(base < NON_VEG_BASES ? "1" : "0");
+                copy.endRow();
+            }
+            report("item", copy.finish(), start);
+        }
+    }
+
+    private void loadRestaurantItems() throws SQLException {
+        long start = System.nanoTime();
+        try (CopyStream copy =
+                new CopyStream(copyManager, "restaurant_item", "id, item_id, restaurant_id")) {
+            for (int r = 0; r < restaurants; r++) {
+                for (int item = menus[r]; item < menus[r + 1]; item++) {
+                    copy.add(baseIds.get("restaurant_item") + item + 1)
+                            .add(itemId(item))
+                            .add(restaurantId(r));
+                    copy.endRow();
+                }
+            }
+            report("restaurant_item", copy.finish(), start);
+        }
+    }
+
+    private void loadCategoryItems() throws SQLException {
+        long start = System.nanoTime();
+        try (CopyStream copy =
+                new CopyStream(copyManager, "category_item", "id, item_id, category_id")) {
+            for (int item = 0; item < itemCategoryIds.length; item++) {
+                copy.add(baseIds.get("category_item") + item + 1)
+                        .add(itemId(item))
+                        .add(itemCategoryIds[item]);
+                copy.endRow();
+            }
+            report("category_item", copy.finish(), start);
+        }
+    }
+
+    // Only one COPY runs at a time on a connection, so the lines of an order are generated twice,
+    // here for the bill and again in loadOrderItems, from the same random numbers.
+    private void loadOrders() throws SQLException {
+        long start = System.nanoTime();
+        try (CopyStream copy =
+                new CopyStream(
+                        copyManager,
+                        "orders",
+                        "id, uuid, bill, coupon_id, discount, date, payment_id, customer_id, "
+                                + "address_id, restaurant_id")) {
+            for (int i = 0; i < orders; i++) {
+                Order order = new Order(i);
+                long total = 0;
+                for (int line = 0; line < order.lines; line++) {
+                    total += order.nextLinePrice();
+                }
+                // in hundredths, as the bill
+                long discount =
+                        order.couponIndex < 0 ? 0 : total * couponPercents.get(order.couponIndex);
+                copy.add(baseIds.get("orders") + i + 1)
+                        .add(order.uuid)
+                        .addHundredths(total * 100 - discount);
+                if (order.couponIndex < 0) {
+                    copy.addNull();
+                } else {
+                    copy.add(couponIds.get(order.couponIndex));
+                }
+                copy.addHundredths(discount)
+                        .add(TIMESTAMP_FORMAT.format(order.date))
+                        .add(order.paymentId)
+                        .add(order.customerId)
+                        .add(order.addressId)
+                        .add(order.restaurantId);
+                copy.endRow();
+            }
+            report("orders", copy.finish(), start);
+        }
+    }
+
+    private void loadOrderItems() throws SQLException {
+        long start = System.nanoTime();
+        try (CopyStream copy =
+                new CopyStream(
+                        copyManager, "order_item", "id, order_id, item_id, quantity, price")) {
+            int id = baseIds.get("order_item");
+            for (int i = 0; i < orders; i++) {
+                Order order = new Order(i);
+                for (int line = 0; line < order.lines; line++) {
+                    long price = order.nextLinePrice();
+                    copy.add(++id)
+                            .add(baseIds.get("orders") + i + 1)
+                            .add(order.itemId)
+                            .add(order.quantity)
+                            .add(price);
+                    copy.endRow();
+                }
+            }
+            report("order_item", copy.finish(), start);
+        }
+    }
+
+    // Every restaurant is rated by distinct customers, about rating-share times its expected
+    // number of orders.
+    private void loadRatings() throws SQLException {
+        long start = System.nanoTime();
+        try (CopyStream copy =
+                new CopyStream(
+                        copyManager,
+                        "restaurant_rating",
+                        "id, customer_id, restaurant_id, rating, weight")) {
+            int id = baseIds.get("restaurant_rating");
+            for (int rank = 0; rank < restaurants; rank++) {
+                int restaurant = scatter(rank, restaurants, restaurantStride, restaurantOffset);
+                SplittableRandom random = random(RATING_STREAM, restaurantId(restaurant));
+                double expectedOrders = orders * restaurantPopularity.probability(rank);
+                long ratings = Math.min(customers, Math.round(expectedOrders * ratingShare));
+                // between 2.5 and 4.9 on average, the ratings of a restaurant spread around it
+                double quality = 2.5 + 2.4 * random.nextDouble();
+                int firstCustomer = random.nextInt(customers);
+                for (long rating = 0; rating < ratings; rating++) {
+                    double spread =
+                            random.nextDouble() + random.nextDouble() + random.nextDouble() - 1.5;
+                    long value = Math.max(1, Math.min(5, Math.round(quality + 1.5 * spread)));
+                    // a stride coprime with the number of customers visits each at most once
+                    int customer = (int) ((firstCustomer + rating * customerStride) % customers);
+                    copy.add(++id)
+                            .add(customerId(customer))
+                            .add(restaurantId(restaurant))
+                            .add(value)
+                            .add(1);
+                    copy.endRow();
+                }
+            }
+            report("restaurant_rating", copy.finish(), start);
+        }
+    }
+
+    private void rateRestaurants(final Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement statement =
+                connection.prepareStatement(
+                        "update restaurant r set customer_rating = l.rating_sum / l.rating_count, "
+                                + "number_of_customers_rated = l.rating_count "
+                                + "from (select restaurant_id, sum(rating * weight) as rating_sum, "
+                                + "sum(weight) as rating_count from restaurant_rating "
+                                + "where restaurant_id > ? group by restaurant_id) l "
+                                + "where l.restaurant_id = r.id")) {
+            statement.setInt(1, baseIds.get("restaurant"));
+            report("restaurant ratings", statement.executeUpdate(), start);
+        }
+    }
+
+    // The sequences continue after the generated ids, for the application and later runs.
+    private void advanceSequences(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                statement.execute(
+                        "select setval(pg_get_serial_sequence('" + table + "', 'id'), max(id)) "
+                                + "from " + table + " having max(id) is not null");
+            }
+        }
+    }
+
+    /**
+     * An order generated from random numbers of its own, so that it is the same each time it is
+     * generated. Its lines are generated one after the other with {@link #nextLinePrice()}.
+     */
+    private final class Order {
+
+        private final SplittableRandom random;
+
+        private final String uuid;
+
+        private final int customerId;
+
+        private final int restaurant;
+
+        private final int restaurantId;
+
+        private final int addressId;
+
+        private final int paymentId;
+
+        // index among the coupons, -1 for none
+        private final int couponIndex;
+
+        private final LocalDateTime date;
+
+        private final int lines;
+
+        private int itemId;
+
+        private int quantity;
+
+        Order(final int index) {
+            random = random(ORDER_STREAM, baseIds.get("orders") + index + 1);
+            uuid = uuid(random);
+            int customer =
+                    scatter(
+                            customerActivity.sample(random.nextDouble()),
+                            customers,
+                            customerStride,
+                            customerOffset);
+            customerId = customerId(customer);
+            restaurant =
+                    scatter(
+                            restaurantPopularity.sample(random.nextDouble()),
+                            restaurants,
+                            restaurantStride,
+                            restaurantOffset);
+            restaurantId = restaurantId(restaurant);
+            int customerAddress =
+                    customerAddresses[customer]
+                            + random.nextInt(
+                                    customerAddresses[customer + 1] - customerAddresses[customer]);
+            addressId = baseIds.get("address") + customerAddress + 1;
+            paymentId = paymentIds.get(random.nextInt(paymentIds.size()));
+            couponIndex =
+                    !couponIds.isEmpty() && random.nextDouble() < couponShare
+                            ? random.nextInt(couponIds.size())
+                            : -1;
+            date = randomTime(random);
+            lines = 1 + random.nextInt(itemsPerOrder);
+        }
+
+        // Picks the item and quantity of the next line and returns its price.
+        long nextLinePrice() {
+            int menuSize = menus[restaurant + 1] - menus[restaurant];
+            ZipfianDistribution itemPopularity =
+                    menuPopularity.computeIfAbsent(
+                            menuSize, size -> new ZipfianDistribution(size, itemSkew));
+            int item = menus[restaurant] + itemPopularity.sample(random.nextDouble());
+            itemId = itemId(item);
+            quantity = 1 + random.nextInt(3);
+            return (long) itemPrices[item] * quantity;
+        }
+    }
+
+    private int customerId(final int customer) {
+        return baseIds.get("customer") + customer + 1;
+    }
+
+    private int restaurantId(final int restaurant) {
+        return baseIds.get("restaurant") + restaurant + 1;
+    }
+
+    private int itemId(final int item) {
+        return baseIds.get("item") + item + 1;
+    }
+
+    private LocalDateTime randomTime(final SplittableRandom random) {
+        return now.minusSeconds(random.nextLong(days * 86400L));
+    }
+
+    private SplittableRandom random(final long stream, final long id) {
+        return new SplittableRandom(
+                seed * 0x9E3779B97F4A7C15L
+                        + stream * 0xBF58476D1CE4E5B9L
+                        + id * 0x94D049BB133111EBL);
+    }
+
+    private static String uuid(final SplittableRandom random) {
+        // version 4 and IETF variant bits, as UUID.randomUUID sets them
+        long mostSignificantBits = random.nextLong() & 0xFFFFFFFFFFFF0FFFL | 0x0000000000004000L;
+        long leastSignificantBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    private static String pick(final String[] values, final SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static boolean contains(final int[] values, final int length, final int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Maps the ranks 0 to n - 1 one to one onto the indexes 0 to n - 1.
+    private static int scatter(final int rank, final int n, final int stride, final int offset) {
+        return (int) (((long) rank * stride + offset) % n);
+    }
+
+    private static int coprimeStride(final int n, final SplittableRandom random) {
+        if (n == 1) {
+            return 1;
+        }
+        int stride = (int) (n * 0.618) + random.nextInt(n);
+        while (gcd(stride, n) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static int gcd(final int a, final int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static int queryInt(final Connection connection, final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static void report(final String step, final long rows, final long start) {
+        System.out.printf(
+                "%-20s %,14d rows %10.1f s%n", step, rows, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static int getInt(
+            final Properties settings, final String name, final int defaultValue) {
+        return Integer.parseInt(getSetting(settings, name, defaultValue));
+    }
+
+    private static long getLong(
+            final Properties settings, final String name, final long defaultValue) {
+        return Long.parseLong(getSetting(settings, name, defaultValue));
+    }
+
+    private static double getDouble(
+            final Properties settings, final String name, final double defaultValue) {
+        return Double.parseDouble(getSetting(settings, name, defaultValue));
+    }
+
+    private static String getSetting(
+            final Properties settings, final String name, final Object defaultValue) {
+        return settings.getProperty(SETTING_PREFIX + name, String.valueOf(defaultValue)).trim();
+    }
+}
@@ -0,0 +1,70 @@
+package com.upgrad.FoodOrderingApp.db;
+
+/**
+ * Zipfian distribution over the ranks 0 to n - 1, rank 0 being the most frequent, sampled in
+ * constant time with the method of Gray et al., "Quickly Generating Billion-Record Synthetic
+ * Databases". Building it takes time linear in n.
+ */
+final class ZipfianDistribution {
+
+    private final int n;
+
+    private final double theta;
+
+    private final double zetan;
+
+    private final double alpha;
+
+    private final double eta;
+
+    private final double secondRankBound;
+
+    /**
+     * @param n number of ranks.
+     * @param theta skew, between 0 (uniform) and 1 exclusive; the closer to 1 the more the first
+     *     ranks take.
+     */
+    ZipfianDistribution(final int n, final double theta) {
+        if (n < 1) {
+            throw new IllegalArgumentException("A distribution needs at least one rank: " + n);
+        }
+        if (theta < 0 || theta >= 1) {
+            throw new IllegalArgumentException("Skew must be at least 0 and below 1: " + theta);
+        }
+        this.n = n;
+        this.theta = theta;
+        double zeta = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            zeta += 1 / Math.pow(rank, theta);
+        }
+        this.zetan = zeta;
+        this.alpha = 1 / (1 - theta);
+        double zeta2 = 1 + 1 / Math.pow(2, theta);
+        this.eta = n > 2 ? (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetan) : 0;
+        this.secondRankBound = zeta2;
+    }
+
+    int size() {
+        return n;
+    }
+
+    /**
+     * @param uniform uniformly distributed number in [0, 1).
+     * @return the rank the number falls on.
+     */
+    int sample(final double uniform) {
+        double uz = uniform * zetan;
+        if (uz < 1) {
+            return 0;
+        }
+        if (uz < secondRankBound || n <= 2) {
+            return Math.min(1, n - 1);
+        }
+        return Math.min(n - 1, (int) (n * Math.pow(eta * uniform - eta + 1, alpha)));
+    }
+
+    /** Probability of a rank. */
+    double probability(final int rank) {
+        return 1 / (Math.pow(rank + 1, theta) * zetan);
+    }
+}
@@ -0,0 +1,2 @@
+-- trigram matching for the restaurant search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
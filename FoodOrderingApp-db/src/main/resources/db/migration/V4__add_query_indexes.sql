@@ -0,0 +1,43 @@
+-- Indexes serving the named queries of the service module, so none of them has to scan a table
+-- that grows with the restaurants, customers or orders. Two-column indexes hold both sides of a
+-- link table, so a lookup from either side is answered from the index alone.
+
+-- restaurants are searched by any part of their name and by similar names (ILIKE, % and <%)
+CREATE INDEX restaurant_name_trgm_idx ON RESTAURANT USING GIN (restaurant_name gin_trgm_ops);
+
+-- pages of the order history of a customer are read newest first, keyed on (date, id)
+CREATE INDEX orders_customer_date_idx ON ORDERS(customer_id, date DESC, id DESC);
+
+-- sessions are looked up by access token on every authenticated request
+CREATE INDEX customer_auth_access_token_idx ON CUSTOMER_AUTH(access_token);
+-- sessions logged out before they expire are loaded into the revocation set
+CREATE INDEX customer_auth_logged_out_expires_idx ON CUSTOMER_AUTH(expires_at) WHERE logout_at IS NOT NULL;
+
+CREATE INDEX customer_address_customer_idx ON CUSTOMER_ADDRESS(customer_id, address_id);
+CREATE INDEX customer_address_address_idx ON CUSTOMER_ADDRESS(address_id);
+
+CREATE INDEX coupon_name_idx ON COUPON(coupon_name);
+
+-- restaurants are listed by rating, ties in the order of their id
+CREATE INDEX restaurant_customer_rating_idx ON RESTAURANT(customer_rating DESC, id);
+
+-- categories are listed by name
+CREATE INDEX category_name_idx ON CATEGORY(category_name);
+
+CREATE INDEX restaurant_category_restaurant_idx ON RESTAURANT_CATEGORY(restaurant_id, category_id);
+CREATE INDEX restaurant_category_category_idx ON RESTAURANT_CATEGORY(category_id, restaurant_id);
+
+CREATE INDEX category_item_category_idx ON CATEGORY_ITEM(category_id, item_id);
+CREATE INDEX category_item_item_idx ON CATEGORY_ITEM(item_id, category_id);
+
+CREATE INDEX restaurant_item_restaurant_idx ON RESTAURANT_ITEM(restaurant_id, item_id);
+CREATE INDEX restaurant_item_item_idx ON RESTAURANT_ITEM(item_id, restaurant_id);
+
+-- orders are counted per restaurant for the item popularity and checked per address before an
+-- address is deleted; orders_customer_date_idx serves the order history
+CREATE INDEX orders_restaurant_idx ON ORDERS(restaurant_id);
+CREATE INDEX orders_address_idx ON ORDERS(address_id);
+
+-- items are fetched per order and orders counted per item
+CREATE INDEX order_item_order_idx ON ORDER_ITEM(order_id, item_id);
+CREATE INDEX order_item_item_idx ON ORDER_ITEM(item_id);
@@ -0,0 +1,4 @@
+-- ids of orders and their items are allocated by the application in blocks of 50; the next block
+-- starts after the ids already handed out one at a time
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_item_id_seq INCREMENT BY 50;
@@ -0,0 +1,9 @@
+-- latest rating of every customer of a restaurant; weight is the number of ratings the row stands
+-- for, more than one only for the row without a customer carrying over the ratings from before the
+-- ledger existed
+CREATE TABLE RESTAURANT_RATING(id SERIAL, customer_id INTEGER, restaurant_id INTEGER NOT NULL, rating DECIMAL NOT NULL, weight INTEGER NOT NULL DEFAULT 1, PRIMARY KEY (id), UNIQUE (customer_id, restaurant_id), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE, FOREIGN KEY (restaurant_id) REFERENCES RESTAURANT(id) ON DELETE CASCADE);
+-- the compaction adds up the ratings of every restaurant
+CREATE INDEX restaurant_rating_restaurant_idx ON RESTAURANT_RATING(restaurant_id);
+
+-- ratings given before the rating ledger existed carry over as one row per restaurant
+INSERT INTO RESTAURANT_RATING(customer_id,restaurant_id,rating,weight) SELECT NULL,id,customer_rating,number_of_customers_rated FROM RESTAURANT WHERE number_of_customers_rated > 0;
@@ -1,14 +1,37 @@
 package com.upgrad.FoodOrderingApp.service;
 
+import com.upgrad.FoodOrderingApp.service.common.ReadOnlySessionJpaDialect;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Enabling the component scan and entity scan of classes in the below mentioned "com.upgrad.FoodOrderingApp.service" and "com.upgrad.FoodOrderingApp.service.entity" packages respectively.
+ * Scheduling runs the periodic jobs of the service, e.g. the reconciliation of item popularity.
+ * Read-only service methods get a read-only session, see {@link ReadOnlySessionJpaDialect}.
  */
 @Configuration
+@EnableScheduling
 @ComponentScan("com.upgrad.FoodOrderingApp.service")
 @EntityScan("com.upgrad.FoodOrderingApp.service.entity")
 public class ServiceConfiguration {
+
+    @Bean
+    public static BeanPostProcessor readOnlySessionJpaDialect() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(
+                    final Object bean, final String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean) {
+                    ((LocalContainerEntityManagerFactoryBean) bean)
+                            .setJpaDialect(new ReadOnlySessionJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
 }
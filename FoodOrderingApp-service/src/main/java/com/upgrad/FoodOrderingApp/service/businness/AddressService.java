@@ -4,6 +4,7 @@ import com.upgrad.FoodOrderingApp.service.dao.AddressDao;
 import com.upgrad.FoodOrderingApp.service.dao.CustomerAddressDao;
 import com.upgrad.FoodOrderingApp.service.dao.OrdersDao;
 import com.upgrad.FoodOrderingApp.service.dao.StateDao;
+import com.upgrad.FoodOrderingApp.service.datasource.ReadRouting;
 import com.upgrad.FoodOrderingApp.service.entity.*;
 import com.upgrad.FoodOrderingApp.service.exception.AddressNotFoundException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
@@ -27,6 +28,8 @@ public class AddressService {
 
     @Autowired private OrdersDao ordersDao;
 
+    @Autowired private ReadRouting readRouting;
+
     /**
      * This method implements the logic for 'saving the address' endpoint.
      *
@@ -59,6 +62,7 @@ public class AddressService {
             createdCustomerAddressEntity.setCustomer(customerEntity);
             createdCustomerAddressEntity.setAddress(createdCustomerAddress);
             customerAddressDao.createCustomerAddress(createdCustomerAddressEntity);
+            readRouting.recordWrite(customerEntity.getUuid());
             return createdCustomerAddress;
         } else {
             throw new SaveAddressException("SAR-001", "No field can be empty");
@@ -66,12 +70,15 @@ public class AddressService {
     }
 
     /**
-     * Returns all the addresses of a given customer.
+     * Returns all the addresses of a given customer. They may be read from a replica, but not right
+     * after the customer saved an address.
      *
      * @param customerEntity Customer whose addresses are to be returned.
      * @return List<AddressEntity> object.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<AddressEntity> getAllAddress(final CustomerEntity customerEntity) {
+        readRouting.readOwnWrites(customerEntity.getUuid());
         List<AddressEntity> addressEntityList = new ArrayList<>();
         List<CustomerAddressEntity> customerAddressEntityList =
                 addressDao.customerAddressByCustomer(customerEntity);
@@ -130,6 +137,7 @@ public class AddressService {
      *
      * @return List<StateEntity> object.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<StateEntity> getAllStates() {
         return stateDao.getAllStates();
     }
@@ -141,11 +149,13 @@ public class AddressService {
      * @return StateEntity object.
      * @throws AddressNotFoundException If given uuid does not exist in database.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public StateEntity getStateByUUID(final String stateUuid) throws AddressNotFoundException {
-        if (stateDao.getStateByUUID(stateUuid) == null) {
+        StateEntity state = stateDao.getStateByUUID(stateUuid);
+        if (state == null) {
             throw new AddressNotFoundException("ANF-002", "No state by this id");
         }
-        return stateDao.getStateByUUID(stateUuid);
+        return state;
     }
 
     // method checks provided pincode is in valid format or not
@@ -5,8 +5,11 @@ import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
 import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CategoryService {
@@ -19,6 +22,7 @@ public class CategoryService {
      * @param uuid of category
      * @return CategoryEntity for given uuid
      * */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public CategoryEntity getCategoryById(final String uuid) throws CategoryNotFoundException {
         if (uuid == null) {
             throw new CategoryNotFoundException("CNF-001", "Category id field should not be empty");
@@ -35,6 +39,7 @@ public class CategoryService {
      *
      * @return List of CategoryEntity
      * */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<CategoryEntity> getAllCategoriesOrderedByName() {
         List<CategoryEntity> categoryEntities = categoryDao.getAllCategoriesOrderedByName();
         return categoryEntities;
@@ -46,9 +51,21 @@ public class CategoryService {
      * @param restaurantUuid
      * @return List of CategoryEntity
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<CategoryEntity> getCategoriesByRestaurant(final String restaurantUuid) {
         List<CategoryEntity> categoryEntities = categoryDao.getCategoriesByRestaurant(restaurantUuid);
 
         return categoryEntities;
     }
+
+    /**
+     * Gets the category names of all the given restaurants, in one query for every 50 restaurants.
+     *
+     * @param restaurantUuids UUIDs of the restaurants.
+     * @return Map of restaurant UUID to its category names ordered by name.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public Map<String, List<String>> getCategoryNamesByRestaurants(final List<String> restaurantUuids) {
+        return categoryDao.getCategoryNamesByRestaurants(restaurantUuids);
+    }
 }
@@ -1,41 +1,69 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.FoodOrderingApp.service.cache.CustomerSession;
+import com.upgrad.FoodOrderingApp.service.cache.CustomerSessionCache;
+import com.upgrad.FoodOrderingApp.service.common.ApplicationUtil;
 import com.upgrad.FoodOrderingApp.service.dao.CustomerAuthDao;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AuthenticationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.UpdateCustomerException;
-import org.apache.commons.validator.routines.EmailValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceUnavailableException;
 import com.upgrad.FoodOrderingApp.service.exception.SignUpRestrictedException;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
 @Service
 public class CustomerService {
 
+    /**
+     * Value of "jwt.verification.mode" that authorizes requests by verifying the access token against
+     * the {@link JwtKeyring} instead of looking it up in the customer_auth table.
+     */
+    public static final String STATELESS_VERIFICATION = "stateless";
+
+    @Value("${jwt.verification.mode:database}")
+    private String verificationMode;
+
     @Autowired private CustomerDao customerDao;
 
     @Autowired private PasswordCryptographyProvider passwordCryptographyProvider;
 
     @Autowired private CustomerAuthDao customerAuthDao;
 
+    @Autowired private CustomerSessionCache customerSessionCache;
+
+    @Autowired private JwtKeyring jwtKeyring;
+
+    @Autowired private TokenRevocationSet tokenRevocationSet;
+
+    @Autowired private ApplicationUtil applicationUtil;
+
     /**
      * This method implements the logic for 'signup' endpoint.
      *
      * @param customerEntity for creating new customer.
      * @return CustomerEntity object.
      * @throws SignUpRestrictedException if any of the validation fails.
+     * @throws ServiceUnavailableException if the password hashing pool is saturated.
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public CustomerEntity saveCustomer(CustomerEntity customerEntity)
-            throws SignUpRestrictedException {
+            throws SignUpRestrictedException, ServiceUnavailableException {
         // Validation for required fields if any field other than lastname is empty then it throws
         // SignUpRestrictedException exception
         if (!customerEntity.getFirstName().isEmpty()
@@ -48,15 +76,15 @@ public class CustomerService {
                         "SGR-001", "This contact number is already registered! Try other contact number.");
             }
             // checks the email entered by user is valid or not
-            if (!isValidEmail(customerEntity.getEmailAddress())) {
+            if (!applicationUtil.isValidEmail(customerEntity.getEmailAddress())) {
                 throw new SignUpRestrictedException("SGR-002", "Invalid email-id format!");
             }
             // checks the contact number entered by user is valid or not
-            if (!isValidContactNumber(customerEntity.getContactNumber())) {
+            if (!applicationUtil.isValidContactNumber(customerEntity.getContactNumber())) {
                 throw new SignUpRestrictedException("SGR-003", "Invalid contact number!");
             }
             // checks the password entered by user is valid or not
-            if (!isValidPassword(customerEntity.getPassword())) {
+            if (!applicationUtil.isValidPassword(customerEntity.getPassword())) {
                 throw new SignUpRestrictedException("SGR-004", "Weak password!");
             }
             customerEntity.setUuid(UUID.randomUUID().toString());
@@ -78,10 +106,11 @@ public class CustomerService {
      * @param password customers password.
      * @return CustomerAuthEntity object.
      * @throws AuthenticationFailedException if any of the validation fails.
+     * @throws ServiceUnavailableException if the password hashing pool is saturated.
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public CustomerAuthEntity authenticate(String username, String password)
-            throws AuthenticationFailedException {
+            throws AuthenticationFailedException, ServiceUnavailableException {
         // fetch the customer details from database using contactNumber(username)
         CustomerEntity customerEntity = customerDao.getCustomerByContactNumber(username);
         // if there is no customer registered with given contactNumber then it throw
@@ -90,14 +119,21 @@ public class CustomerService {
             throw new AuthenticationFailedException(
                     "ATH-001", "This contact number has not been registered!");
         }
-        final String encryptedPassword =
-                PasswordCryptographyProvider.encrypt(password, customerEntity.getSalt());
         // if the encrypted password doesn't match with the fetched customer password throws
         // AuthenticationFailedException with code "ATH--002
-        if (!encryptedPassword.equals(customerEntity.getPassword())) {
+        if (!passwordCryptographyProvider.matches(
+                password, customerEntity.getSalt(), customerEntity.getPassword())) {
             throw new AuthenticationFailedException("ATH-002", "Invalid Credentials");
         }
-        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(encryptedPassword);
+        // the raw password is at hand only now, so a hash made with fewer iterations than currently
+        // configured is replaced here; the customer is managed and the change is flushed on commit
+        if (passwordCryptographyProvider.needsRehash(customerEntity.getPassword())) {
+            String[] encryptedText = passwordCryptographyProvider.encrypt(password);
+            customerEntity.setSalt(encryptedText[0]);
+            customerEntity.setPassword(encryptedText[1]);
+            customerSessionCache.invalidateCustomer(customerEntity.getUuid());
+        }
+        JwtTokenProvider jwtTokenProvider = jwtKeyring.getTokenProvider();
         CustomerAuthEntity customerAuthEntity = new CustomerAuthEntity();
         customerAuthEntity.setUuid(UUID.randomUUID().toString());
         customerAuthEntity.setCustomer(customerEntity);
@@ -120,11 +156,16 @@ public class CustomerService {
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public CustomerAuthEntity logout(final String accessToken) throws AuthorizationFailedException {
+        getCustomer(accessToken);
         CustomerAuthEntity customerAuthEntity = customerAuthDao.getCustomerAuthByToken(accessToken);
-        CustomerEntity customerEntity = getCustomer(accessToken);
-        customerAuthEntity.setCustomer(customerEntity);
         customerAuthEntity.setLogoutAt(ZonedDateTime.now());
         customerAuthDao.updateCustomerAuth(customerAuthEntity);
+        customerSessionCache.invalidate(accessToken);
+        try {
+            tokenRevocationSet.revoke(JWT.decode(accessToken));
+        } catch (JWTDecodeException e) {
+            // Only tokens that pass verification need to be revoked.
+        }
         return customerAuthEntity;
     }
 
@@ -136,58 +177,120 @@ public class CustomerService {
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public CustomerEntity updateCustomer(final CustomerEntity customerEntity) {
-        return customerDao.updateCustomer(customerEntity);
+        CustomerEntity updatedCustomerEntity = customerDao.updateCustomer(customerEntity);
+        customerSessionCache.invalidateCustomer(customerEntity.getUuid());
+        return updatedCustomerEntity;
     }
 
     /**
-     * This method checks if the token is valid.
+     * This method checks if the token is valid. The session of the token is looked up in the
+     * customer_auth table only if it is not in the session cache.
      *
      * @param accessToken Takes access-token as input which is obtained during successful login.
-     * @return CustomerEntity - Customer who obtained this access-token during his login.
+     * @return CustomerEntity - Detached copy of the customer who obtained this access-token during
+     *     his login.
      * @throws AuthorizationFailedException Based on token validity.
      */
     public CustomerEntity getCustomer(String accessToken) throws AuthorizationFailedException {
-        CustomerAuthEntity customerAuthEntity = customerAuthDao.getCustomerAuthByToken(accessToken);
-        if (customerAuthEntity != null) {
+        if (STATELESS_VERIFICATION.equals(verificationMode)) {
+            return getCustomerByVerifiedToken(accessToken);
+        }
 
-            if (customerAuthEntity.getLogoutAt() != null) {
-                throw new AuthorizationFailedException(
-                        "ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+        CustomerSession session = customerSessionCache.get(accessToken);
+        if (session == null) {
+            long loadGeneration = customerSessionCache.getGeneration();
+            CustomerAuthEntity customerAuthEntity = customerAuthDao.getCustomerAuthByToken(accessToken);
+            if (customerAuthEntity == null) {
+                throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
             }
+            session = new CustomerSession(customerAuthEntity);
+            customerSessionCache.put(accessToken, session, loadGeneration);
+        }
 
-            if (ZonedDateTime.now().isAfter(customerAuthEntity.getExpiresAt())) {
-                throw new AuthorizationFailedException(
-                        "ATHR-003", "Your session is expired. Log in again to access this endpoint.");
-            }
-            return customerAuthEntity.getCustomer();
-        } else {
+        if (session.getLogoutAt() != null) {
+            throw new AuthorizationFailedException(
+                    "ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+        }
+
+        if (ZonedDateTime.now().isAfter(session.getExpiresAt())) {
+            throw new AuthorizationFailedException(
+                    "ATHR-003", "Your session is expired. Log in again to access this endpoint.");
+        }
+        return session.toCustomerEntity();
+    }
+
+    /**
+     * This method checks if the token is valid without looking it up in the database. The token is
+     * verified against the keyring and checked against the revoked tokens, the customer is read from
+     * the database only the first time the token is seen.
+     *
+     * @param accessToken Takes access-token as input which is obtained during successful login.
+     * @return CustomerEntity - Detached copy of the customer who is the subject of the token.
+     * @throws AuthorizationFailedException Based on token validity.
+     */
+    private CustomerEntity getCustomerByVerifiedToken(final String accessToken)
+            throws AuthorizationFailedException {
+        final DecodedJWT jwt;
+        try {
+            jwt = jwtKeyring.verify(accessToken);
+        } catch (TokenExpiredException e) {
+            throw new AuthorizationFailedException(
+                    "ATHR-003", "Your session is expired. Log in again to access this endpoint.");
+        } catch (JWTVerificationException e) {
             throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
         }
+
+        if (tokenRevocationSet.isRevoked(jwt.getId())) {
+            throw new AuthorizationFailedException(
+                    "ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+        }
+
+        CustomerSession session = customerSessionCache.get(accessToken);
+        if (session == null) {
+            long loadGeneration = customerSessionCache.getGeneration();
+            CustomerEntity customerEntity = customerDao.getCustomerByUuid(jwt.getSubject());
+            if (customerEntity == null) {
+                throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
+            }
+            session =
+                    new CustomerSession(
+                            customerEntity,
+                            null,
+                            ZonedDateTime.ofInstant(jwt.getExpiresAt().toInstant(), ZoneId.systemDefault()));
+            customerSessionCache.put(accessToken, session, loadGeneration);
+        }
+        return session.toCustomerEntity();
     }
 
     /**
-     * This method updates password of the given customer.
+     * This method updates password of the given customer. The old password is checked against the
+     * customer read from the database, since the customer of an access token holds no password.
      *
      * @param oldPassword Customer's old password.
      * @param newPassword Customer's new password.
      * @param customerEntity CustomerEntity object to update the password.
      * @return Updated CustomerEntity object.
      * @throws UpdateCustomerException If any of the validation for old or new password fails.
+     * @throws ServiceUnavailableException if the password hashing pool is saturated.
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public CustomerEntity updateCustomerPassword(
             final String oldPassword, final String newPassword, final CustomerEntity customerEntity)
-            throws UpdateCustomerException {
-        if (isValidPassword(newPassword)) {
-            String oldEncryptedPassword =
-                    PasswordCryptographyProvider.encrypt(oldPassword, customerEntity.getSalt());
-            if (!oldEncryptedPassword.equals(customerEntity.getPassword())) {
+            throws UpdateCustomerException, ServiceUnavailableException {
+        if (applicationUtil.isValidPassword(newPassword)) {
+            CustomerEntity storedCustomerEntity =
+                    customerDao.getCustomerByUuid(customerEntity.getUuid());
+            if (!passwordCryptographyProvider.matches(
+                    oldPassword,
+                    storedCustomerEntity.getSalt(),
+                    storedCustomerEntity.getPassword())) {
                 throw new UpdateCustomerException("UCR-004", "Incorrect old password!");
             }
             String[] encryptedText = passwordCryptographyProvider.encrypt(newPassword);
-            customerEntity.setSalt(encryptedText[0]);
-            customerEntity.setPassword(encryptedText[1]);
-            return customerDao.updateCustomer(customerEntity);
+            storedCustomerEntity.setSalt(encryptedText[0]);
+            storedCustomerEntity.setPassword(encryptedText[1]);
+            customerSessionCache.invalidateCustomer(customerEntity.getUuid());
+            return storedCustomerEntity;
         } else {
             throw new UpdateCustomerException("UCR-001", "Weak password!");
         }
@@ -197,28 +300,4 @@ public class CustomerService {
     private boolean isContactNumberInUse(final String contactNumber) {
         return customerDao.getCustomerByContactNumber(contactNumber) != null;
     }
-
-    // method checks for format of the email is correct or not using EmailValidator
-    private boolean isValidEmail(final String emailAddress) {
-        EmailValidator validator = EmailValidator.getInstance();
-        return validator.isValid(emailAddress);
-    }
-
-    // method checks for given contact number is valid or not
-    private boolean isValidContactNumber(final String contactNumber) {
-        if (contactNumber.length() != 10) {
-            return false;
-        }
-        for (int i = 0; i < contactNumber.length(); i++) {
-            if (!Character.isDigit(contactNumber.charAt(i))) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    // method checks for given password meets the requirements or not
-    private boolean isValidPassword(final String password) {
-        return password.matches("^(?=.*?[A-Z])(?=.*?[0-9])(?=.*?[#@$%&*!^]).{8,}$");
-    }
 }
\ No newline at end of file
@@ -1,28 +1,91 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.upgrad.FoodOrderingApp.service.cache.ItemPopularityCounters;
+import com.upgrad.FoodOrderingApp.service.cache.MenuSnapshot;
+import com.upgrad.FoodOrderingApp.service.cache.MenuSnapshotCache;
+import com.upgrad.FoodOrderingApp.service.cache.TrendWindow;
+import com.upgrad.FoodOrderingApp.service.cache.TrendingItems;
 import com.upgrad.FoodOrderingApp.service.dao.ItemDao;
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidTrendWindowException;
 import com.upgrad.FoodOrderingApp.service.exception.ItemNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ItemService {
 
     @Autowired private ItemDao itemDao;
 
+    @Autowired private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired private ItemPopularityCounters itemPopularityCounters;
+
+    @Autowired private TrendingItems trendingItems;
+
     /**
-     * This method gets top five popular items of a restaurant.
+     * This method gets top five popular items of a restaurant, i.e. the items that are part of the
+     * most orders placed with it. The ranking is kept in memory, only the items are read.
      *
      * @param restaurantEntity Restaurant whose top five items are to be queried.
-     * @return top five items
+     * @return top five items, most popular item first
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<ItemEntity> getItemsByPopularity(RestaurantEntity restaurantEntity) {
-        return itemDao.getOrdersByRestaurant(restaurantEntity);
+        return getItemsInOrder(itemPopularityCounters.getTopItemIds(restaurantEntity.getId()));
+    }
+
+    /**
+     * This method gets top five trending items of a restaurant, i.e. the items that are part of the
+     * most orders placed with it within the window ending now. Orders are counted as they are
+     * placed through this instance, and the counts outlive a restart through their snapshot.
+     *
+     * @param restaurantEntity Restaurant whose trending items are to be queried.
+     * @param window "1h", "24h" or "7d".
+     * @return top five items of the window, most ordered item first
+     * @throws InvalidTrendWindowException if the window is not one of the above.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public List<ItemEntity> getTrendingItems(
+            final RestaurantEntity restaurantEntity, final String window)
+            throws InvalidTrendWindowException {
+        TrendWindow trendWindow = TrendWindow.fromLabel(window);
+        if (trendWindow == null) {
+            throw new InvalidTrendWindowException(
+                    "TRW-001", "Trending window should be one of 1h, 24h and 7d");
+        }
+        return getItemsInOrder(trendingItems.getTopItemIds(restaurantEntity.getId(), trendWindow));
+    }
+
+    // Reads the items with the given ids in one query, keeping the order of the ids.
+    private List<ItemEntity> getItemsInOrder(final List<Integer> topItemIds) {
+        Map<Integer, ItemEntity> itemsById = new HashMap<>();
+        for (ItemEntity item : itemDao.getItemsByIds(topItemIds)) {
+            itemsById.put(item.getId(), item);
+        }
+        List<ItemEntity> items = new ArrayList<>(topItemIds.size());
+        for (Integer itemId : topItemIds) {
+            ItemEntity item = itemsById.get(itemId);
+            // an item deleted since it was ordered is no longer shown
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
     }
 
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public ItemEntity getItemByUUID(String itemUUID) throws ItemNotFoundException {
         ItemEntity item = itemDao.getItemByUUID(itemUUID);
         if (item == null) {
@@ -32,17 +95,64 @@ public class ItemService {
     }
 
     /**
-     * This method gets Items for a given category in a restaurant
+     * This method gets the items of an order in one database round trip, checking that every item
+     * exists and is served by the restaurant the order is placed with.
      *
-     * @param resturantUuid Restaurant whose items are to be queried, categoryUuid Category to be
-     *     queried.
-     * @return List of ItemEntity
+     * @param restaurantUuid Restaurant the order is placed with.
+     * @param itemUuids UUIDs of the ordered items, possibly repeated.
+     * @return Map of item UUID to ItemEntity holding every requested item.
+     * @throws ItemNotFoundException INF-003 naming every UUID with no item, or INF-004 naming every
+     *     item the restaurant doesn't serve.
      */
-    public List<ItemEntity> getItemsByCategoryAndRestaurant(
-            final String resturantUuid, final String categoryUuid) {
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public Map<String, ItemEntity> getItemsForOrder(
+            final String restaurantUuid, final Collection<String> itemUuids)
+            throws ItemNotFoundException {
+        Set<String> requestedUuids = new LinkedHashSet<>(itemUuids);
+        Map<String, ItemEntity> items = new HashMap<>();
+        if (requestedUuids.isEmpty()) {
+            return items;
+        }
+
+        Set<String> servedUuids = new HashSet<>();
+        for (Object[] row :
+                itemDao.getItemsByUuidsWithRestaurantItem(restaurantUuid, requestedUuids)) {
+            ItemEntity item = (ItemEntity) row[0];
+            items.put(item.getUuid(), item);
+            if (row[1] != null) {
+                servedUuids.add(item.getUuid());
+            }
+        }
+
+        List<String> missingUuids = new ArrayList<>();
+        List<String> notServedUuids = new ArrayList<>();
+        for (String itemUuid : requestedUuids) {
+            if (!items.containsKey(itemUuid)) {
+                missingUuids.add(itemUuid);
+            } else if (!servedUuids.contains(itemUuid)) {
+                notServedUuids.add(itemUuid);
+            }
+        }
+        if (!missingUuids.isEmpty()) {
+            throw new ItemNotFoundException(
+                    "INF-003", "No item by this id exist: " + String.join(", ", missingUuids));
+        }
+        if (!notServedUuids.isEmpty()) {
+            throw new ItemNotFoundException(
+                    "INF-004",
+                    "Item not available in this restaurant: " + String.join(", ", notServedUuids));
+        }
+        return items;
+    }
 
-        List<ItemEntity> itemsInEachCategoryInRestaurant =
-                itemDao.getAllItemsInCategoryInRestaurant(resturantUuid, categoryUuid);
-        return itemsInEachCategoryInRestaurant;
+    /**
+     * This method gets the menu of a restaurant from the menu cache, reading it in one database
+     * round trip on a cache miss.
+     *
+     * @param restaurantUuid Restaurant whose menu is to be queried.
+     * @return MenuSnapshot holding the categories of the restaurant and their items
+     */
+    public MenuSnapshot getMenuByRestaurant(final String restaurantUuid) {
+        return menuSnapshotCache.getMenu(restaurantUuid);
     }
 }
\ No newline at end of file
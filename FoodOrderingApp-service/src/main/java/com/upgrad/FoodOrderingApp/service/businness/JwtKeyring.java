@@ -0,0 +1,95 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server side signing keys of the access tokens, each known by a key id that is written to the
+ * "kid" header of the tokens it signs. New tokens are signed with the active key, and tokens signed
+ * with any other key of the ring keep verifying until that key is removed, which allows keys to be
+ * rotated without logging every customer out.
+ *
+ * <p>Keys are configured as "jwt.keyring.keys=kid1:secret1,kid2:secret2" along with
+ * "jwt.keyring.active-key-id". Without configuration a random key is generated at startup, so
+ * tokens do not survive a restart and are not accepted by other instances of the application.
+ */
+@Component
+public class JwtKeyring {
+
+    private final Map<String, JwtTokenProvider> providers;
+
+    private final JwtTokenProvider activeProvider;
+
+    public JwtKeyring(
+            @Value("${jwt.keyring.keys:}") final String keys,
+            @Value("${jwt.keyring.active-key-id:}") final String activeKeyId) {
+        Map<String, JwtTokenProvider> keyring = new HashMap<>();
+        for (String key : keys.split(",")) {
+            if (key.trim().isEmpty()) {
+                continue;
+            }
+            String[] idAndSecret = key.trim().split(":", 2);
+            if (idAndSecret.length != 2 || idAndSecret[1].isEmpty()) {
+                throw new UnexpectedException(GenericErrorCode.GEN_001);
+            }
+            keyring.put(idAndSecret[0], new JwtTokenProvider(idAndSecret[0], idAndSecret[1]));
+        }
+
+        if (keyring.isEmpty()) {
+            byte[] secret = new byte[64];
+            new SecureRandom().nextBytes(secret);
+            JwtTokenProvider provider =
+                    new JwtTokenProvider(
+                            UUID.randomUUID().toString(), Base64.getEncoder().encodeToString(secret));
+            keyring.put(provider.getKeyId(), provider);
+            activeProvider = provider;
+        } else if (keyring.containsKey(activeKeyId)) {
+            activeProvider = keyring.get(activeKeyId);
+        } else {
+            throw new UnexpectedException(GenericErrorCode.GEN_001);
+        }
+        providers = Collections.unmodifiableMap(keyring);
+    }
+
+    /**
+     * This method gets the token provider signing new tokens.
+     *
+     * @return JwtTokenProvider of the active key.
+     */
+    public JwtTokenProvider getTokenProvider() {
+        return activeProvider;
+    }
+
+    /**
+     * This method verifies a token with the key named by its key id. Besides signature, issuer,
+     * audience and expiry, the token must name the customer as its subject and carry a token id so
+     * that it can be revoked.
+     *
+     * @param token JWT to be verified.
+     * @return DecodedJWT of the verified token.
+     * @throws JWTVerificationException if the token is not valid.
+     */
+    public DecodedJWT verify(final String token) throws JWTVerificationException {
+        JwtTokenProvider provider = providers.get(JWT.decode(token).getKeyId());
+        if (provider == null) {
+            throw new JWTVerificationException("Token is not signed with a known key");
+        }
+        DecodedJWT jwt = provider.verifyToken(token);
+        if (jwt.getSubject() == null || jwt.getId() == null || jwt.getExpiresAt() == null) {
+            throw new JWTVerificationException("Token is missing the subject, id or expiry");
+        }
+        return jwt;
+    }
+}
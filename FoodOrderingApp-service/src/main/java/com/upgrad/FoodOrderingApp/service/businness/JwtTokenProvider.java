@@ -1,26 +1,46 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
 import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
 
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoField;
 import java.util.Date;
 import java.util.UUID;
 
 public class JwtTokenProvider {
     private static final String TOKEN_ISSUER = "https://FoodOrderingApp.io";
 
+    // the tokens are only meant for this application's API, the customer is their subject
+    private static final String TOKEN_AUDIENCE = "https://FoodOrderingApp.io/api";
+
+    private final String keyId;
+
     private final Algorithm algorithm;
 
+    private final JWTVerifier verifier;
+
     public JwtTokenProvider(final String secret) {
+        this(UUID.randomUUID().toString(), secret);
+    }
+
+    public JwtTokenProvider(final String keyId, final String secret) {
+        this.keyId = keyId;
         try {
             algorithm = Algorithm.HMAC512(secret);
         } catch (IllegalArgumentException e) {
             throw new UnexpectedException(GenericErrorCode.GEN_001);
         }
+        verifier =
+                JWT.require(algorithm).withIssuer(TOKEN_ISSUER).withAudience(TOKEN_AUDIENCE).build();
+    }
+
+    public String getKeyId() {
+        return keyId;
     }
 
     public String generateToken(
@@ -28,15 +48,30 @@ public class JwtTokenProvider {
             final ZonedDateTime issuedDateTime,
             final ZonedDateTime expiresDateTime) {
 
-        final Date issuedAt = new Date(issuedDateTime.getLong(ChronoField.INSTANT_SECONDS));
-        final Date expiresAt = new Date(expiresDateTime.getLong(ChronoField.INSTANT_SECONDS));
+        final Date issuedAt = Date.from(issuedDateTime.toInstant());
+        final Date expiresAt = Date.from(expiresDateTime.toInstant());
 
         return JWT.create()
                 .withIssuer(TOKEN_ISSUER) //
-                .withKeyId(UUID.randomUUID().toString())
-                .withAudience(customerUuid) //
+                .withKeyId(keyId)
+                .withJWTId(UUID.randomUUID().toString())
+                .withSubject(customerUuid)
+                .withAudience(TOKEN_AUDIENCE) //
                 .withIssuedAt(issuedAt)
                 .withExpiresAt(expiresAt)
                 .sign(algorithm);
     }
-}
\ No newline at end of file
+
+    /**
+     * This method verifies the signature, issuer, audience and expiry of a token signed with this
+     * provider's key.
+     *
+     * @param token JWT to be verified.
+     * @return DecodedJWT of the verified token.
+     * @throws JWTVerificationException if the token is malformed, forged, expired or not issued by
+     *     and for this application.
+     */
+    public DecodedJWT verifyToken(final String token) throws JWTVerificationException {
+        return verifier.verify(token);
+    }
+}
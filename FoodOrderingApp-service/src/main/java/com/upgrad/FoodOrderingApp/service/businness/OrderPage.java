@@ -0,0 +1,30 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.OrderEntity;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of the order history of a customer along with the cursor of the page that follows it,
+ * which is null on the last page.
+ */
+public final class OrderPage {
+
+    private final List<OrderEntity> orders;
+
+    private final String nextCursor;
+
+    public OrderPage(final List<OrderEntity> orders, final String nextCursor) {
+        this.orders = Collections.unmodifiableList(orders);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderEntity> getOrders() {
+        return orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -1,25 +1,49 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
+import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
 import com.upgrad.FoodOrderingApp.service.dao.CouponDao;
 import com.upgrad.FoodOrderingApp.service.dao.OrderDao;
+import com.upgrad.FoodOrderingApp.service.datasource.ReadRouting;
 import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
 import com.upgrad.FoodOrderingApp.service.entity.OrderEntity;
 import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
 import com.upgrad.FoodOrderingApp.service.exception.CouponNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.PersistenceException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 @Service
 public class OrderService {
 
+    /** Number of orders on a page of the order history when the request doesn't say. */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /** Largest number of orders on a page of the order history. */
+    public static final int MAX_PAGE_SIZE = 50;
+
+    private static final String CURSOR_SEPARATOR = "|";
+
     @Autowired private CouponDao couponDao;
 
     @Autowired private OrderDao orderDao;
 
+    @Autowired private ReadRouting readRouting;
+
     /**
      * This method contains business logic to get coupon details by coupon name.
      *
@@ -27,6 +51,7 @@ public class OrderService {
      * @return
      * @throws CouponNotFoundException if coupon with that name doesn't exist in database.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public CouponEntity getCouponByCouponName(String couponName) throws CouponNotFoundException {
 
         if (couponName.isEmpty()) {
@@ -49,6 +74,7 @@ public class OrderService {
      * @return
      * @throws CouponNotFoundException if coupon with that id doesn't exist in database.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public CouponEntity getCouponByCouponId(String couponUUID) throws CouponNotFoundException {
 
         CouponEntity couponEntity = couponDao.getCouponByCouponId(couponUUID);
@@ -61,42 +87,93 @@ public class OrderService {
     }
 
     /**
-     * Fetches the orders of the customer in a sorted manner with latest order being on the top.
+     * Fetches a page of the orders of the customer with latest order being on the top. A page is
+     * fetched in the same number of queries wherever it is in the history.
+     * The orders may be read from a replica, but not right after the customer placed an order.
      *
      * @param customerUUID customer whose orders are to be fetched.
-     * @return list of orders made by customer
+     * @param cursor cursor returned with the previous page, null for the first page.
+     * @param limit maximum number of orders on the page, null for the default page size. It is
+     *     capped at {@link #MAX_PAGE_SIZE}.
+     * @return page of orders made by customer
+     * @throws InvalidPageException if the cursor is malformed or the limit is less than one.
      */
-    public List<OrderEntity> getOrdersByCustomers(String customerUUID) {
-        return orderDao.getOrdersByCustomers(customerUUID);
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public OrderPage getOrdersByCustomer(
+            final String customerUUID, final String cursor, final Integer limit)
+            throws InvalidPageException {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        if (pageSize < 1) {
+            throw new InvalidPageException("PGN-002", "Limit should be at least 1");
+        }
+        readRouting.readOwnWrites(customerUUID);
+
+        ZonedDateTime afterDate = null;
+        Integer afterId = null;
+        if (cursor != null) {
+            try {
+                String[] dateAndId =
+                        new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                                .split(Pattern.quote(CURSOR_SEPARATOR), 2);
+                afterDate = ZonedDateTime.ofInstant(Instant.parse(dateAndId[0]), ZoneId.systemDefault());
+                afterId = Integer.valueOf(dateAndId[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new InvalidPageException("PGN-001", "Invalid cursor");
+            }
+        }
+
+        // one order more than the page holds tells whether there is a next page
+        List<OrderEntity> orders =
+                orderDao.getOrdersByCustomer(customerUUID, afterDate, afterId, pageSize + 1);
+        if (orders.size() <= pageSize) {
+            return new OrderPage(orders, null);
+        }
+        List<OrderEntity> page = orders.subList(0, pageSize);
+        OrderEntity last = page.get(pageSize - 1);
+        String nextCursor =
+                Base64.getUrlEncoder()
+                        .withoutPadding()
+                        .encodeToString(
+                                (last.getDate().toInstant() + CURSOR_SEPARATOR + last.getId())
+                                        .getBytes(StandardCharsets.UTF_8));
+        return new OrderPage(page, nextCursor);
     }
 
     /**
-     * Persists the order in the database.
+     * Streams the complete order history of the customer, latest order first, without holding the
+     * history in memory. Orders are handed over one at a time, detached and with their items.
      *
-     * @param order Order to be persisted.
-     * @return Persisted order.
+     * @param customerUUID customer whose orders are to be exported.
+     * @param orderConsumer receives each order of the customer.
      */
-    @Transactional(propagation = Propagation.REQUIRED)
-    public OrderEntity saveOrder(OrderEntity order) {
-        try {
-            return orderDao.saveOrder(order);
-        } catch (Exception ex) {
-            return null;
-        }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void exportOrdersByCustomer(
+            final String customerUUID, final Consumer<OrderEntity> orderConsumer) {
+        readRouting.readOwnWrites(customerUUID);
+        orderDao.scrollOrdersByCustomer(customerUUID, orderConsumer);
     }
 
     /**
-     * Persists the Order Item.
+     * Places the order: persists the order and all of its items in one transaction, so that either
+     * all of them are saved or none is. The rows are written in JDBC batches when the transaction is
+     * flushed.
      *
-     * @param orderItemEntity Order Item to be persisted.
-     * @return persisted order item.
+     * @param order Order to be persisted.
+     * @param orderItems Items of the order to be persisted.
+     * @return Persisted order with its items.
+     * @throws UnexpectedException if the order could not be saved; nothing of it is saved then.
      */
     @Transactional(propagation = Propagation.REQUIRED)
-    public OrderItemEntity saveOrderItem(OrderItemEntity orderItemEntity) {
+    public OrderEntity placeOrder(final OrderEntity order, final List<OrderItemEntity> orderItems) {
+        for (OrderItemEntity orderItem : orderItems) {
+            orderItem.setOrder(order);
+        }
+        order.setOrderItems(orderItems);
+        readRouting.recordWrite(order.getCustomer().getUuid());
         try {
-            return orderDao.saveOrderItem(orderItemEntity);
-        } catch (Exception ex) {
-            return null;
+            return orderDao.saveOrderWithItems(order, orderItems);
+        } catch (PersistenceException | DataAccessException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
         }
     }
 }
\ No newline at end of file
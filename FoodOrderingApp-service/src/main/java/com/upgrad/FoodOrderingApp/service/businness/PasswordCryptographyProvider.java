@@ -1,46 +1,180 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
+import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
 import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Hashes passwords with PBKDF2. The hashing runs on a bounded pool of its own so that a burst of
+ * logins or signups can only take as many cores as the pool has threads; once its queue is full,
+ * further requests fail fast with {@link ServiceUnavailableException} instead of piling up on the
+ * request threads.
+ *
+ * <p>A hash is stored as "iterations$hex" so the iteration count can be raised over time. Hashes
+ * stored before that are plain hex made with {@link #LEGACY_HASHING_ITERATIONS} iterations, and
+ * {@link #needsRehash(String)} tells whether a stored hash is weaker than the configured cost.
+ */
 @Component
 public class PasswordCryptographyProvider {
 
+    public static final int LEGACY_HASHING_ITERATIONS = 1000;
+
     private static String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
-    private static int HASHING_ITERATIONS = 1000;
     private static int HASHING_KEY_LENGTH = 64;
     private static final char[] hexArray = "0123456789ABCDEF".toCharArray();
+    private static final String ITERATIONS_SEPARATOR = "$";
+
+    // SecretKeyFactory is not thread safe and looking it up goes through the provider registry.
+    private static final ThreadLocal<SecretKeyFactory> SECRET_KEY_FACTORY =
+            ThreadLocal.withInitial(
+                    () -> {
+                        try {
+                            return SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
+                        } catch (NoSuchAlgorithmException e) {
+                            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+                        }
+                    });
+
+    private final int hashingIterations;
+
+    private final ThreadPoolExecutor hashingExecutor;
+
+    public PasswordCryptographyProvider(
+            @Value("${password.hashing.iterations:1000}") final int hashingIterations,
+            @Value("${password.hashing.threads:0}") final int hashingThreads,
+            @Value("${password.hashing.queue-capacity:64}") final int queueCapacity) {
+        this.hashingIterations = hashingIterations;
+        int threads =
+                hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingExecutor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        runnable -> {
+                            Thread thread =
+                                    new Thread(
+                                            runnable,
+                                            "password-hashing-" + threadNumber.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.AbortPolicy());
+    }
 
     /**
      * This method generates Salt and hashed Password
      *
      * @param password char array.
-     * @return String array with [0] encoded salt [1] hashed password.
+     * @return String array with [0] encoded salt [1] hashed password prefixed with its iterations.
+     * @throws ServiceUnavailableException if the hashing pool is saturated.
      */
-    public String[] encrypt(final String password) {
-        byte[] salt = generateSaltBytes();
-        byte[] hashedPassword = hashPassword(password.toCharArray(), salt);
-        return new String[] {getBase64EncodedBytesAsString(salt), bytesToHex(hashedPassword)};
+    public String[] encrypt(final String password) throws ServiceUnavailableException {
+        final byte[] salt = generateSaltBytes();
+        final int iterations = hashingIterations;
+        byte[] hashedPassword =
+                runOnHashingExecutor(() -> hashPassword(password.toCharArray(), salt, iterations));
+        return new String[] {
+                getBase64EncodedBytesAsString(salt),
+                iterations + ITERATIONS_SEPARATOR + bytesToHex(hashedPassword)
+        };
     }
 
     /**
-     * This method re-generates hashed Password from raw-password and salt. This will be used during
-     * authentication.
+     * This method checks a raw password against a stored hash, using the iteration count stored
+     * with the hash. This will be used during authentication.
      *
-     * @param password char array.
-     * @param salt byte array.
-     * @return byte array of hashed password.
+     * @param password raw password.
+     * @param salt encoded salt stored with the hash.
+     * @param storedHash hash as returned by {@link #encrypt(String)} or a legacy hash.
+     * @return true if the password matches.
+     * @throws ServiceUnavailableException if the hashing pool is saturated.
+     */
+    public boolean matches(final String password, final String salt, final String storedHash)
+            throws ServiceUnavailableException {
+        final int iterations = getIterations(storedHash);
+        final byte[] saltBytes = getBase64DecodedStringAsBytes(salt);
+        byte[] hashedPassword =
+                runOnHashingExecutor(
+                        () -> hashPassword(password.toCharArray(), saltBytes, iterations));
+        return MessageDigest.isEqual(
+                bytesToHex(hashedPassword).getBytes(StandardCharsets.US_ASCII),
+                getHex(storedHash).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * This method tells if a stored hash was made with fewer iterations than currently configured
+     * and should be replaced the next time the raw password is at hand.
+     *
+     * @param storedHash hash as returned by {@link #encrypt(String)} or a legacy hash.
+     * @return true if the password should be hashed again.
      */
-    public static String encrypt(final String password, String salt) {
-        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt)));
+    public boolean needsRehash(final String storedHash) {
+        return getIterations(storedHash) < hashingIterations;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    private byte[] runOnHashingExecutor(final Callable<byte[]> hashing)
+            throws ServiceUnavailableException {
+        final Future<byte[]> hashedPassword;
+        try {
+            hashedPassword = hashingExecutor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException(
+                    "GEN-002", "Too many requests are being processed. Please try again later.");
+        }
+        try {
+            return hashedPassword.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e.getCause());
+        }
+    }
+
+    private static int getIterations(final String storedHash) {
+        int separator = storedHash.indexOf(ITERATIONS_SEPARATOR);
+        if (separator < 0) {
+            return LEGACY_HASHING_ITERATIONS;
+        }
+        return Integer.parseInt(storedHash.substring(0, separator));
+    }
+
+    private static String getHex(final String storedHash) {
+        return storedHash.substring(storedHash.indexOf(ITERATIONS_SEPARATOR) + 1);
     }
 
     /**
@@ -60,16 +194,19 @@ public class PasswordCryptographyProvider {
      *
      * @param password char array.
      * @param salt byte array.
+     * @param iterations PBKDF2 iteration count.
      * @return byte array of hashed password.
      */
-    private static byte[] hashPassword(final char[] password, final byte[] salt) {
+    private static byte[] hashPassword(
+            final char[] password, final byte[] salt, final int iterations) {
         try {
-            SecretKeyFactory skf = SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
-            PBEKeySpec spec = new PBEKeySpec(password, salt, HASHING_ITERATIONS, HASHING_KEY_LENGTH);
+            SecretKeyFactory skf = SECRET_KEY_FACTORY.get();
+            PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASHING_KEY_LENGTH);
             SecretKey key = skf.generateSecret(spec);
             byte[] res = key.getEncoded();
+            spec.clearPassword();
             return res;
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+        } catch (InvalidKeySpecException e) {
             throw new RuntimeException(e);
         }
     }
@@ -91,4 +228,4 @@ public class PasswordCryptographyProvider {
     private static byte[] getBase64DecodedStringAsBytes(String decode) {
         return Base64.getDecoder().decode(decode);
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,8 @@ import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
 import com.upgrad.FoodOrderingApp.service.exception.PaymentMethodNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,6 +20,7 @@ public class PaymentService {
      *
      * @return
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public List<PaymentEntity> getAllPaymentMethods() {
         return paymentDao.getAllPaymentMethods();
     }
@@ -28,6 +31,7 @@ public class PaymentService {
      * @param paymentUUID UUID of the payment that is to be fetched
      * @return
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public PaymentEntity getPaymentByUUID(String paymentUUID) throws PaymentMethodNotFoundException {
         PaymentEntity payment = paymentDao.getPaymentByUUID(paymentUUID);
         if (payment == null) {
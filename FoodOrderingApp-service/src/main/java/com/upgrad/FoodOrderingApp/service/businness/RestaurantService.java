@@ -1,11 +1,18 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
+import com.upgrad.FoodOrderingApp.service.cache.CatalogCacheInvalidationListener;
+import com.upgrad.FoodOrderingApp.service.cache.RestaurantRatingBuffer;
 import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantRatingDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantListing;
 import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageException;
 import com.upgrad.FoodOrderingApp.service.exception.InvalidRatingException;
 import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,9 +22,24 @@ import java.util.List;
 @Service
 public class RestaurantService {
 
+    /** Number of restaurants a search returns when the request doesn't say. */
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    /** Largest number of restaurants a search returns. */
+    public static final int MAX_SEARCH_LIMIT = 50;
+
     @Autowired
     private RestaurantDao restaurantDao;
 
+    @Autowired
+    private RestaurantRatingDao restaurantRatingDao;
+
+    @Autowired
+    private RestaurantRatingBuffer restaurantRatingBuffer;
+
+    @Autowired
+    private CatalogCacheInvalidationListener catalogCacheInvalidationListener;
+
     /**
      * This method gets the restaurant details.
      *
@@ -25,6 +47,7 @@ public class RestaurantService {
      * @return
      * @throws RestaurantNotFoundException if restaurant with UUID doesn't exist in the database.
      */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
     public RestaurantEntity restaurantByUUID(String uuid) throws RestaurantNotFoundException {
         RestaurantEntity restaurant = restaurantDao.restaurantByUUID(uuid);
         if (restaurant == null) {
@@ -34,74 +57,162 @@ public class RestaurantService {
     }
 
     /**
-     * Gets all the restaurants in DB.
+     * Gets the listing of all the restaurants in DB.
      *
-     * @return List of RestaurantEntity
+     * @return List of RestaurantListing
      */
-    public List<RestaurantEntity> restaurantsByRating() {
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public List<RestaurantListing> restaurantsByRating() {
 
         return restaurantDao.restaurantsByRating();
     }
 
     /**
-     * Gets restaurants in DB based on search string.
+     * Gets the {@link #DEFAULT_SEARCH_LIMIT} restaurants in DB best matching the search string.
      *
-     * @return List of RestaurantEntity
+     * @return List of RestaurantListing
      */
-    public List<RestaurantEntity> restaurantsByName(final String search)
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public List<RestaurantListing> restaurantsByName(final String search)
+            throws RestaurantNotFoundException {
+        return searchRestaurantsByName(search, DEFAULT_SEARCH_LIMIT);
+    }
+
+    /**
+     * Gets restaurants in DB based on search string, best match first. Names starting with the
+     * search string come first, then names containing it or similar to it, so a misspelt search
+     * still finds the restaurant.
+     *
+     * @param search Text to search restaurant names for.
+     * @param limit Maximum number of restaurants, capped at {@link #MAX_SEARCH_LIMIT}.
+     * @return List of RestaurantListing
+     * @throws InvalidPageException if the limit is less than one.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public List<RestaurantListing> restaurantsByName(final String search, final int limit)
+            throws RestaurantNotFoundException, InvalidPageException {
+        if (limit < 1) {
+            throw new InvalidPageException("PGN-002", "Limit should be at least 1");
+        }
+        return searchRestaurantsByName(search, Math.min(limit, MAX_SEARCH_LIMIT));
+    }
+
+    private List<RestaurantListing> searchRestaurantsByName(final String search, final int limit)
             throws RestaurantNotFoundException {
         if (search == null || search.isEmpty()) {
             throw new RestaurantNotFoundException("RNF-003", "Restaurant name field should not be empty");
         }
 
-        List<RestaurantEntity> relevantRestaurantEntities = restaurantDao.restaurantsByName(search);
-
-        return relevantRestaurantEntities;
+        return restaurantDao.restaurantsByName(search, limit);
     }
 
     /**
-     * Gets all the restaurants in DB based on Category Uuid
+     * Gets the listing of all the restaurants in DB based on Category Uuid
      *
-     * @return List of RestaurantEntity
+     * @return List of RestaurantListing
      */
-    public List<RestaurantEntity> restaurantByCategory(final String categoryUuid)
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public List<RestaurantListing> restaurantByCategory(final String categoryUuid)
             throws CategoryNotFoundException {
         if (categoryUuid == null) {
             throw new CategoryNotFoundException("CNF-001", "Category id field should not be empty");
         }
 
-        List<RestaurantEntity> restaurantEntities = restaurantDao.restaurantByCategory(categoryUuid);
-        if (restaurantEntities == null) {
+        List<RestaurantListing> restaurants = restaurantDao.restaurantByCategory(categoryUuid);
+        if (restaurants == null) {
             throw new CategoryNotFoundException("CNF-002", "No category by this id");
         }
 
-        return restaurantEntities;
+        return restaurants;
     }
 
     /**
-     * Updates the customer rating for a restaurant
+     * Saves the rating of a customer for a restaurant in the rating ledger, replacing the rating the
+     * customer gave before, and changes the customer rating of the restaurant by the difference: a
+     * first rating adds a rater, a changed rating only the change and a repeated rating nothing. The
+     * restaurant row is written by a single update statement, so ratings submitted at the same time
+     * are all counted. Changes of a restaurant rated many times at once may be buffered when the
+     * transaction commits and written together shortly after, see {@link RestaurantRatingBuffer}.
      *
-     * @param restaurantEntity Restaurant whose rating is to be done, customerRating as provided by
-     *                         customer
-     * @return RestaurantEntity
+     * @param restaurantEntity Restaurant being rated.
+     * @param customerEntity Customer rating the restaurant.
+     * @param customerRating Rating given by the customer, from 1 to 5.
+     * @return RestaurantEntity with the updated rating, or as given if the rating did not change it
+     *     yet.
+     * @throws InvalidRatingException if the rating is not in the range of 1 to 5.
+     * @throws RestaurantNotFoundException if the restaurant doesn't exist in the database anymore.
      */
     @Transactional(propagation = Propagation.REQUIRED)
     public RestaurantEntity updateRestaurantRating(
-            final RestaurantEntity restaurantEntity, final Double customerRating)
-            throws InvalidRatingException {
-        if (Double.valueOf(customerRating) < 1 || Double.valueOf(customerRating) > 5) {
+            final RestaurantEntity restaurantEntity,
+            final CustomerEntity customerEntity,
+            final Double customerRating)
+            throws InvalidRatingException, RestaurantNotFoundException {
+        if (customerRating == null || customerRating < 1 || customerRating > 5) {
             throw new InvalidRatingException("IRE-001", "Restaurant should be in the range of 1 to 5");
         }
 
-        Double currentRating = restaurantEntity.getCustomerRating();
-        Integer numberCustomersRated = restaurantEntity.getNumberCustomersRated();
+        Object[] savedRating =
+                restaurantRatingDao.saveRestaurantRating(
+                        customerEntity.getId(), restaurantEntity.getId(), customerRating);
+        Number previousRating = (Number) savedRating[0];
+        boolean inserted = (Boolean) savedRating[1];
+
+        double ratingSum;
+        int ratingCount;
+        if (inserted) {
+            ratingSum = customerRating;
+            ratingCount = 1;
+        } else if (previousRating != null) {
+            ratingSum = customerRating - previousRating.doubleValue();
+            ratingCount = 0;
+            if (ratingSum == 0) {
+                return restaurantEntity;
+            }
+        } else {
+            // first rated by a concurrent request of the same customer, whose rating is not known here
+            return compactRestaurantRatings(restaurantEntity);
+        }
 
-        Double newRating =
-                ((currentRating * numberCustomersRated) + currentRating) / (numberCustomersRated + 1);
+        if (restaurantRatingBuffer.offer(
+                restaurantEntity.getId(), restaurantEntity.getUuid(), ratingSum, ratingCount)) {
+            return restaurantEntity;
+        }
+        if (!restaurantDao.addRestaurantRatings(restaurantEntity.getId(), ratingSum, ratingCount)) {
+            return compactRestaurantRatings(restaurantEntity);
+        }
+        catalogCacheInvalidationListener.restaurantUpdated(restaurantEntity.getUuid());
+        return restaurantDao.refreshRestaurant(restaurantEntity.getId());
+    }
 
-        restaurantEntity.setCustomerRating(newRating);
-        restaurantEntity.setNumberCustomersRated(numberCustomersRated + 1);
+    /**
+     * Sets the customer rating and the number of raters of every restaurant from the rating ledger,
+     * where the incremental updates drifted from it, e.g. through buffered changes lost with an
+     * instance or ratings written outside the application. Restaurant rows are only written if they
+     * drifted.
+     */
+    @Scheduled(
+            initialDelayString = "${restaurant.rating.compaction-interval:3600000}",
+            fixedDelayString = "${restaurant.rating.compaction-interval:3600000}")
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void compactRestaurantRatings() {
+        for (String restaurantUuid : restaurantRatingDao.compactRestaurantRatings()) {
+            catalogCacheInvalidationListener.restaurantUpdated(restaurantUuid);
+        }
+    }
 
-        return restaurantDao.updateRestaurantEntity(restaurantEntity);
+    private RestaurantEntity compactRestaurantRatings(final RestaurantEntity restaurantEntity)
+            throws RestaurantNotFoundException {
+        List<String> restaurantUuids =
+                restaurantRatingDao.compactRestaurantRatings(restaurantEntity.getId());
+        for (String restaurantUuid : restaurantUuids) {
+            catalogCacheInvalidationListener.restaurantUpdated(restaurantUuid);
+        }
+        RestaurantEntity compactedRestaurantEntity =
+                restaurantDao.refreshRestaurant(restaurantEntity.getId());
+        if (compactedRestaurantEntity == null) {
+            throw new RestaurantNotFoundException("RNF-001", "No restaurant by this id");
+        }
+        return compactedRestaurantEntity;
     }
 }
@@ -0,0 +1,47 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.cache.Suggestion;
+import com.upgrad.FoodOrderingApp.service.cache.SuggestionIndex;
+import com.upgrad.FoodOrderingApp.service.cache.SuggestionType;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidPageException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SuggestionService {
+
+    /** Number of names of each kind suggested when the request doesn't say. */
+    public static final int DEFAULT_SUGGESTION_LIMIT = 5;
+
+    @Autowired private SuggestionIndex suggestionIndex;
+
+    /**
+     * Gets the restaurants, items and categories having a word starting with what the customer has
+     * typed so far, from memory. Restaurants are ranked by customer rating, items and categories by
+     * popularity.
+     *
+     * @param prefix Text typed in the search box.
+     * @param limit Maximum number of names of each kind, null for {@link #DEFAULT_SUGGESTION_LIMIT}.
+     *     It is capped at the max-results of the suggestion index.
+     * @return Suggestions of every kind, best first, empty for a blank prefix.
+     * @throws InvalidPageException if the limit is less than one.
+     */
+    public Map<SuggestionType, List<Suggestion>> getSuggestions(
+            final String prefix, final Integer limit) throws InvalidPageException {
+        int maxSuggestions = limit == null ? DEFAULT_SUGGESTION_LIMIT : limit;
+        if (maxSuggestions < 1) {
+            throw new InvalidPageException("PGN-002", "Limit should be at least 1");
+        }
+        maxSuggestions = Math.min(maxSuggestions, suggestionIndex.getMaxResults());
+
+        Map<SuggestionType, List<Suggestion>> suggestions = new EnumMap<>(SuggestionType.class);
+        for (SuggestionType type : SuggestionType.values()) {
+            suggestions.put(type, suggestionIndex.suggest(type, prefix, maxSuggestions));
+        }
+        return suggestions;
+    }
+}
@@ -0,0 +1,117 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.FoodOrderingApp.service.dao.CustomerAuthDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ids of the tokens that were logged out before they expired, each kept only until the expiry of
+ * its token since an expired token is rejected anyway. The set is filled from the customer_auth
+ * table at startup and then by every logout served by this instance.
+ *
+ * <p>Every instance holds a set of its own. Logouts served by other instances are read from the
+ * customer_auth table every refresh-interval, so a token logged out on one instance is still
+ * accepted by the others for up to that long.
+ */
+@Component
+public class TokenRevocationSet {
+
+    private static final int PURGE_INTERVAL = 1000;
+
+    // Logouts are read again from a minute before the previous refresh, so a logout committed up to
+    // a minute after its logout time was taken is not missed.
+    private static final long REFRESH_OVERLAP_SECONDS = 60;
+
+    @Autowired private CustomerAuthDao customerAuthDao;
+
+    @Value("${jwt.verification.mode:database}")
+    private String verificationMode;
+
+    // token id -> expiry of the token in epoch milliseconds
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    private final AtomicInteger revocationsSincePurge = new AtomicInteger();
+
+    // time the logouts were last read from the database, null before they were read
+    private volatile ZonedDateTime lastRefresh;
+
+    @PostConstruct
+    public void loadLoggedOutTokens() {
+        // In database mode the logout time is read along with every token, the set is not
+        // consulted.
+        if (!CustomerService.STATELESS_VERIFICATION.equals(verificationMode)) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now();
+        for (CustomerAuthEntity customerAuthEntity :
+                customerAuthDao.getLoggedOutCustomerAuths(now)) {
+            revokeAccessToken(customerAuthEntity.getAccessToken());
+        }
+        lastRefresh = now;
+    }
+
+    /** This method revokes the tokens logged out by any instance since the previous refresh. */
+    @Scheduled(
+            initialDelayString = "${jwt.revocation.refresh-interval:5000}",
+            fixedDelayString = "${jwt.revocation.refresh-interval:5000}")
+    public void refreshLoggedOutTokens() {
+        if (lastRefresh == null) {
+            loadLoggedOutTokens();
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now();
+        for (String accessToken :
+                customerAuthDao.getAccessTokensLoggedOutSince(
+                        lastRefresh.minusSeconds(REFRESH_OVERLAP_SECONDS), now)) {
+            revokeAccessToken(accessToken);
+        }
+        lastRefresh = now;
+    }
+
+    /**
+     * This method revokes a token until it expires.
+     *
+     * @param jwt Decoded token to be revoked.
+     */
+    public void revoke(final DecodedJWT jwt) {
+        if (jwt.getId() == null || jwt.getExpiresAt() == null) {
+            return;
+        }
+        revokedTokens.put(jwt.getId(), jwt.getExpiresAt().getTime());
+        if (revocationsSincePurge.incrementAndGet() >= PURGE_INTERVAL) {
+            revocationsSincePurge.set(0);
+            long now = System.currentTimeMillis();
+            revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        }
+    }
+
+    /**
+     * This method checks if a token has been revoked.
+     *
+     * @param tokenId Id of the token.
+     * @return true if the token has been logged out.
+     */
+    public boolean isRevoked(final String tokenId) {
+        return revokedTokens.containsKey(tokenId);
+    }
+
+    private void revokeAccessToken(final String accessToken) {
+        try {
+            revoke(JWT.decode(accessToken));
+        } catch (JWTDecodeException e) {
+            // A malformed token can not pass verification either.
+        }
+    }
+}
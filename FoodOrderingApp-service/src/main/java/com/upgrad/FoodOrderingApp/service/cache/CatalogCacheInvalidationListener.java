@@ -0,0 +1,219 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantCategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidates the menu cache, the catalog response cache and the suggestion index once a
+ * transaction writing the rows behind them has committed. Changes done outside the application,
+ * e.g. through the sql scripts of the db module, are not seen here and need {@link
+ * MenuSnapshotCache#invalidateAll()}, {@link CatalogResponseCache#invalidateAll()} and {@link
+ * SuggestionIndex#invalidate()}.
+ *
+ * <p>Addresses are shared by restaurants and customers, and only a change of the address of a
+ * restaurant invalidates the restaurant listings. The ids of the restaurant addresses are read on
+ * startup and again after every committed restaurant write; while they can not be read, every
+ * address change invalidates the listings.
+ */
+@Component
+public class CatalogCacheInvalidationListener
+        implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(CatalogCacheInvalidationListener.class);
+
+    @PersistenceUnit private EntityManagerFactory entityManagerFactory;
+
+    @Autowired private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired private CatalogResponseCache catalogResponseCache;
+
+    @Autowired private SuggestionIndex suggestionIndex;
+
+    // null while the addresses of the restaurants could not be read
+    private volatile Set<Integer> restaurantAddressIds;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry =
+                entityManagerFactory
+                        .unwrap(SessionFactoryImplementor.class)
+                        .getServiceRegistry()
+                        .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        loadRestaurantAddressIds();
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        // A new address can not be part of a restaurant listing until a restaurant refers to it.
+        if (!(event.getEntity() instanceof AddressEntity)) {
+            invalidate(event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHanding(final EntityPersister persister) {
+        return isMenuEntity(persister.getMappedClass())
+                || isCatalogEntity(persister.getMappedClass());
+    }
+
+    /**
+     * This method invalidates the menu and listings showing the restaurant once the surrounding
+     * transaction has committed, or right away outside a transaction. Update statements bypass the
+     * entity listeners, so the code running them reports the restaurants they wrote here. They only
+     * write ratings, which change no suggested name, so the suggestion index is not rebuilt; it
+     * ranks the restaurants by their new rating after its next refresh.
+     *
+     * @param restaurantUuid UUID of the restaurant written by an update statement.
+     */
+    public void restaurantUpdated(final String restaurantUuid) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateRestaurant(restaurantUuid);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        invalidateRestaurant(restaurantUuid);
+                    }
+                });
+    }
+
+    private void invalidateRestaurant(final String restaurantUuid) {
+        menuSnapshotCache.invalidate(restaurantUuid);
+        catalogResponseCache.invalidate(CatalogResource.RESTAURANTS);
+    }
+
+    private void invalidate(final Object entity) {
+        if (entity instanceof RestaurantEntity) {
+            menuSnapshotCache.invalidate(((RestaurantEntity) entity).getUuid());
+        } else if (isMenuEntity(entity.getClass())) {
+            menuSnapshotCache.invalidateAll();
+        }
+
+        if (entity instanceof CategoryEntity) {
+            catalogResponseCache.invalidate(
+                    CatalogResource.CATEGORIES, CatalogResource.RESTAURANTS);
+        } else if (entity instanceof StateEntity) {
+            catalogResponseCache.invalidate(CatalogResource.STATES, CatalogResource.RESTAURANTS);
+        } else if (entity instanceof PaymentEntity) {
+            catalogResponseCache.invalidate(CatalogResource.PAYMENT_METHODS);
+        } else if (entity instanceof RestaurantEntity
+                || entity instanceof RestaurantCategoryEntity
+                || isRestaurantAddress(entity)) {
+            catalogResponseCache.invalidate(CatalogResource.RESTAURANTS);
+        }
+
+        // a restaurant may have been added, removed or moved to another address
+        if (entity instanceof RestaurantEntity) {
+            loadRestaurantAddressIds();
+        }
+
+        if (entity instanceof RestaurantEntity
+                || entity instanceof ItemEntity
+                || entity instanceof CategoryEntity
+                || entity instanceof RestaurantCategoryEntity) {
+            suggestionIndex.invalidate();
+        }
+    }
+
+    /**
+     * This method reads the ids of the addresses of all restaurants. It uses an entity manager of
+     * its own, since it runs after the transaction that wrote a restaurant has completed.
+     */
+    synchronized void loadRestaurantAddressIds() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            restaurantAddressIds =
+                    new HashSet<>(
+                            entityManager
+                                    .createNamedQuery("restaurantAddressIds", Integer.class)
+                                    .getResultList());
+        } catch (RuntimeException e) {
+            restaurantAddressIds = null;
+            LOG.warn(
+                    "Restaurant addresses could not be read, every address change will invalidate "
+                            + "the restaurant listings",
+                    e);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private boolean isRestaurantAddress(final Object entity) {
+        if (!(entity instanceof AddressEntity)) {
+            return false;
+        }
+        Set<Integer> addressIds = restaurantAddressIds;
+        return addressIds == null || addressIds.contains(((AddressEntity) entity).getId());
+    }
+
+    private boolean isMenuEntity(final Class<?> entityClass) {
+        return RestaurantEntity.class.equals(entityClass)
+                || CategoryEntity.class.equals(entityClass)
+                || ItemEntity.class.equals(entityClass)
+                || RestaurantCategoryEntity.class.equals(entityClass)
+                || CategoryItemEntity.class.equals(entityClass)
+                || RestaurantItemEntity.class.equals(entityClass);
+    }
+
+    private boolean isCatalogEntity(final Class<?> entityClass) {
+        return StateEntity.class.equals(entityClass)
+                || PaymentEntity.class.equals(entityClass)
+                || AddressEntity.class.equals(entityClass);
+    }
+}
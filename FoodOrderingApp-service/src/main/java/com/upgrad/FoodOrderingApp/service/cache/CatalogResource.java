@@ -0,0 +1,9 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+/** Read mostly catalog listings whose serialized responses are held in the response cache. */
+public enum CatalogResource {
+    CATEGORIES,
+    STATES,
+    PAYMENT_METHODS,
+    RESTAURANTS
+}
@@ -0,0 +1,128 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Holds the serialized UTF-8 JSON body of each catalog listing together with its strong ETag, so
+ * the listing is neither rebuilt nor re-serialized until the rows behind it are written.
+ *
+ * <p>Invalidation bumps the version of the resource. A body serialized while the version changed is
+ * returned once but never cached.
+ */
+@Component
+public class CatalogResponseCache implements MeterBinder {
+
+    private final Map<CatalogResource, CachedResponse> responses =
+            new EnumMap<>(CatalogResource.class);
+
+    private final Map<CatalogResource, Long> versions = new EnumMap<>(CatalogResource.class);
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * This method gets the cached response of a catalog listing, serializing it on a cache miss.
+     *
+     * @param resource Catalog listing to be returned.
+     * @param serializer Builds the listing and returns it as UTF-8 JSON bytes.
+     * @return CachedResponse
+     */
+    public CachedResponse get(final CatalogResource resource, final Supplier<byte[]> serializer) {
+        final long loadVersion;
+        synchronized (this) {
+            CachedResponse response = responses.get(resource);
+            if (response != null) {
+                hits.incrementAndGet();
+                return response;
+            }
+            misses.incrementAndGet();
+            loadVersion = versionOf(resource);
+        }
+
+        byte[] body = serializer.get();
+        CachedResponse response =
+                new CachedResponse(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+
+        synchronized (this) {
+            if (loadVersion == versionOf(resource)) {
+                responses.put(resource, response);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * This method drops the cached response of the given catalog listings.
+     *
+     * @param resources Catalog listings whose rows were written.
+     */
+    public synchronized void invalidate(final CatalogResource... resources) {
+        for (CatalogResource resource : resources) {
+            versions.put(resource, versionOf(resource) + 1);
+            responses.remove(resource);
+        }
+    }
+
+    /** This method drops the cached response of every catalog listing. */
+    public void invalidateAll() {
+        invalidate(CatalogResource.values());
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder(
+                        "catalog.response.cache.requests", this, CatalogResponseCache::getHitCount)
+                .tag("result", "hit")
+                .description("Number of catalog responses served from the cache")
+                .register(registry);
+        FunctionCounter.builder(
+                        "catalog.response.cache.requests", this, CatalogResponseCache::getMissCount)
+                .tag("result", "miss")
+                .description("Number of catalog responses built and serialized")
+                .register(registry);
+    }
+
+    private long versionOf(final CatalogResource resource) {
+        Long version = versions.get(resource);
+        return version == null ? 0L : version;
+    }
+
+    /** Serialized body of a catalog listing and its strong ETag. */
+    public static final class CachedResponse {
+
+        private final byte[] body;
+
+        private final String eTag;
+
+        public CachedResponse(final byte[] body, final String eTag) {
+            this.body = body;
+            this.eTag = eTag;
+        }
+
+        /** The returned array is shared between requests and must not be modified. */
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.time.ZonedDateTime;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
+
+/**
+ * Immutable copy of the session of an access token, i.e. its logout and expiry time together with
+ * the customer it belongs to, as held by the {@link CustomerSessionCache}. The password and salt of
+ * the customer are left out.
+ */
+public final class CustomerSession {
+
+    private final ZonedDateTime logoutAt;
+
+    private final ZonedDateTime expiresAt;
+
+    private final Integer customerId;
+
+    private final String customerUuid;
+
+    private final String firstName;
+
+    private final String lastName;
+
+    private final String emailAddress;
+
+    private final String contactNumber;
+
+    public CustomerSession(final CustomerAuthEntity customerAuthEntity) {
+        this(
+                customerAuthEntity.getCustomer(),
+                customerAuthEntity.getLogoutAt(),
+                customerAuthEntity.getExpiresAt());
+    }
+
+    public CustomerSession(
+            final CustomerEntity customer,
+            final ZonedDateTime logoutAt,
+            final ZonedDateTime expiresAt) {
+        this.logoutAt = logoutAt;
+        this.expiresAt = expiresAt;
+        this.customerId = customer.getId();
+        this.customerUuid = customer.getUuid();
+        this.firstName = customer.getFirstName();
+        this.lastName = customer.getLastName();
+        this.emailAddress = customer.getEmailAddress();
+        this.contactNumber = customer.getContactNumber();
+    }
+
+    public ZonedDateTime getLogoutAt() {
+        return logoutAt;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public String getCustomerUuid() {
+        return customerUuid;
+    }
+
+    /**
+     * This method creates a new detached CustomerEntity from the snapshot, so a caller changing the
+     * returned customer never changes the cached copy. The returned customer has no password or
+     * salt.
+     *
+     * @return CustomerEntity object.
+     */
+    public CustomerEntity toCustomerEntity() {
+        CustomerEntity customerEntity = new CustomerEntity();
+        customerEntity.setId(customerId);
+        customerEntity.setUuid(customerUuid);
+        customerEntity.setFirstName(firstName);
+        customerEntity.setLastName(lastName);
+        customerEntity.setEmailAddress(emailAddress);
+        customerEntity.setContactNumber(contactNumber);
+        return customerEntity;
+    }
+}
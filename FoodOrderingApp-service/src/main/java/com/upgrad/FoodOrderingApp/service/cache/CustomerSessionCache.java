@@ -0,0 +1,196 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache of customer sessions keyed by access token, so that an authenticated request does
+ * not need to look up the customer_auth table. A session is dropped once its expiresAt has passed,
+ * or once it has been cached for ttl milliseconds, whichever comes first.
+ *
+ * <p>Invalidation happens right away and once more after the surrounding transaction commits, and
+ * bumps the generation of the cache. A session read from the database is only stored if the
+ * generation did not change while it was being read, so a lookup racing with a logout never caches
+ * the session as still logged in.
+ *
+ * <p>The cache is local to the application instance. A logout or a password change on another
+ * instance is seen here once the cached session is dropped, so no later than ttl after it was read.
+ * The cached session holds no password or salt.
+ */
+@Component
+public class CustomerSessionCache implements MeterBinder {
+
+    private final int maxSize;
+
+    private final long ttl;
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public CustomerSessionCache(
+            @Value("${customer.session.cache.max-size:10000}") final int maxSize,
+            @Value("${customer.session.cache.ttl:5000}") final long ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    /**
+     * This method gets the cached session of an access token.
+     *
+     * @param accessToken access-token obtained during successful login.
+     * @return CustomerSession or null if the token is not cached or its cached session has expired.
+     */
+    public CustomerSession get(final String accessToken) {
+        Entry entry = sessions.get(accessToken);
+        if (entry != null && ZonedDateTime.now().isAfter(entry.cachedUntil)) {
+            sessions.remove(accessToken, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.session;
+    }
+
+    /**
+     * This method gets the generation to be passed to {@link #put} for a session about to be read
+     * from the database.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * This method caches the session of an access token unless the cache was invalidated since the
+     * session was read, the session has already expired or the cache is full.
+     *
+     * @param accessToken access-token of the session.
+     * @param session Session read from the database.
+     * @param loadGeneration Generation of the cache taken before the session was read.
+     */
+    public void put(
+            final String accessToken, final CustomerSession session, final long loadGeneration) {
+        ZonedDateTime now = ZonedDateTime.now();
+        if (now.isAfter(session.getExpiresAt())) {
+            return;
+        }
+        if (sessions.size() >= maxSize) {
+            sessions.values().removeIf(cached -> now.isAfter(cached.cachedUntil));
+            if (sessions.size() >= maxSize) {
+                return;
+            }
+        }
+        ZonedDateTime cachedUntil = now.plus(ttl, ChronoUnit.MILLIS);
+        Entry entry =
+                new Entry(
+                        session,
+                        cachedUntil.isAfter(session.getExpiresAt())
+                                ? session.getExpiresAt()
+                                : cachedUntil);
+        sessions.put(accessToken, entry);
+        if (generation.get() != loadGeneration) {
+            sessions.remove(accessToken, entry);
+        }
+    }
+
+    /**
+     * This method drops the session of an access token, to be called when the customer logs out.
+     *
+     * @param accessToken access-token of the session.
+     */
+    public void invalidate(final String accessToken) {
+        runNowAndAfterCommit(
+                () -> {
+                    generation.incrementAndGet();
+                    sessions.remove(accessToken);
+                });
+    }
+
+    /**
+     * This method drops every session of a customer, to be called when the customer details or the
+     * password change.
+     *
+     * @param customerUuid UUID of the customer.
+     */
+    public void invalidateCustomer(final String customerUuid) {
+        runNowAndAfterCommit(
+                () -> {
+                    generation.incrementAndGet();
+                    sessions.values()
+                            .removeIf(
+                                    entry -> entry.session.getCustomerUuid().equals(customerUuid));
+                });
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder(
+                        "customer.session.cache.requests", this, CustomerSessionCache::getHitCount)
+                .tag("result", "hit")
+                .description("Number of access tokens resolved from the cache")
+                .register(registry);
+        FunctionCounter.builder(
+                        "customer.session.cache.requests", this, CustomerSessionCache::getMissCount)
+                .tag("result", "miss")
+                .description("Number of access tokens looked up in the database")
+                .register(registry);
+        Gauge.builder("customer.session.cache.size", this, CustomerSessionCache::size)
+                .description("Number of sessions in the cache")
+                .register(registry);
+    }
+
+    private void runNowAndAfterCommit(final Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCommit() {
+                            invalidation.run();
+                        }
+                    });
+        }
+    }
+
+    private static final class Entry {
+
+        private final CustomerSession session;
+
+        private final ZonedDateTime cachedUntil;
+
+        private Entry(final CustomerSession session, final ZonedDateTime cachedUntil) {
+            this.session = session;
+            this.cachedUntil = cachedUntil;
+        }
+    }
+}
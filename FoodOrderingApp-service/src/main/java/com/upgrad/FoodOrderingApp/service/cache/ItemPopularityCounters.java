@@ -0,0 +1,260 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import com.upgrad.FoodOrderingApp.service.dao.ItemDao;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Number of orders every item of a restaurant is part of, kept in memory together with the top
+ * items of the restaurant so that the most popular items are read without touching the orders.
+ *
+ * <p>The counts of a restaurant are read from order_item the first time its top items are asked
+ * for, and from then on every committed order item adds to them (see {@link
+ * ItemPopularityListener}). Orders placed by other instances or written outside the application
+ * are not seen that way, so {@link #reconcile()} periodically reads the counts of every restaurant
+ * from order_item again, all in one statement. An order committed while the counts of its
+ * restaurant are being read may be counted twice until the next reconciliation.
+ *
+ * <p>Only restaurants whose top items were asked for since the previous reconciliation are held
+ * after it; the others are dropped and read again when next asked for.
+ */
+@Component
+public class ItemPopularityCounters implements MeterBinder {
+
+    @Autowired private ItemDao itemDao;
+
+    private final int topItems;
+
+    // restaurant id -> popularity of its items
+    private final Map<Integer, RestaurantItemPopularity> restaurants = new ConcurrentHashMap<>();
+
+    private final AtomicLong loads = new AtomicLong();
+
+    private final AtomicLong reconciliations = new AtomicLong();
+
+    private final AtomicLong reconciledDrift = new AtomicLong();
+
+    public ItemPopularityCounters(@Value("${item.popularity.top-items:5}") final int topItems) {
+        this.topItems = topItems;
+    }
+
+    /**
+     * This method gets the most ordered items of a restaurant, reading the counts of the restaurant
+     * from the database the first time it is asked for.
+     *
+     * @param restaurantId Id of the restaurant.
+     * @return ids of at most top-items items, most ordered item first.
+     */
+    public List<Integer> getTopItemIds(final Integer restaurantId) {
+        RestaurantItemPopularity popularity =
+                restaurants.computeIfAbsent(
+                        restaurantId, id -> new RestaurantItemPopularity(topItems));
+        popularity.read = true;
+        if (!popularity.isLoaded()) {
+            synchronized (popularity.rebuildLock) {
+                if (!popularity.isLoaded()) {
+                    rebuild(restaurantId, popularity);
+                    loads.incrementAndGet();
+                }
+            }
+        }
+        return popularity.getTopItemIds();
+    }
+
+    /**
+     * This method counts an item of a committed order. A restaurant not held here is left alone, as
+     * its counts are read from order_item including the order once they are asked for.
+     *
+     * @param restaurantId Id of the restaurant the order is placed with.
+     * @param itemId Id of the ordered item.
+     */
+    public void increment(final Integer restaurantId, final Integer itemId) {
+        RestaurantItemPopularity popularity = restaurants.get(restaurantId);
+        if (popularity != null) {
+            popularity.increment(itemId);
+        }
+    }
+
+    /**
+     * This method drops the restaurants whose top items were not asked for since the previous
+     * reconciliation, and reads the counts of the others from order_item again in one statement,
+     * replacing whatever the counts drifted to.
+     */
+    @Scheduled(
+            initialDelayString = "${item.popularity.reconciliation-interval:3600000}",
+            fixedDelayString = "${item.popularity.reconciliation-interval:3600000}")
+    public synchronized void reconcile() {
+        Map<Integer, RestaurantItemPopularity> reconciled = new HashMap<>();
+        for (Map.Entry<Integer, RestaurantItemPopularity> restaurant : restaurants.entrySet()) {
+            RestaurantItemPopularity popularity = restaurant.getValue();
+            if (!popularity.read) {
+                restaurants.remove(restaurant.getKey(), popularity);
+            } else if (popularity.isLoaded()) {
+                // a restaurant being read on first use is left to that read
+                reconciled.put(restaurant.getKey(), popularity);
+            }
+            popularity.read = false;
+        }
+
+        if (!reconciled.isEmpty()) {
+            reconciled.values().forEach(RestaurantItemPopularity::startRebuild);
+            Map<Integer, Map<Integer, Long>> orderCounts = new HashMap<>();
+            try {
+                for (Object[] row :
+                        itemDao.getItemOrderCountsByRestaurants(
+                                new ArrayList<>(reconciled.keySet()))) {
+                    orderCounts
+                            .computeIfAbsent((Integer) row[0], id -> new HashMap<>())
+                            .put((Integer) row[1], ((Number) row[2]).longValue());
+                }
+            } catch (RuntimeException e) {
+                reconciled.values().forEach(RestaurantItemPopularity::abortRebuild);
+                throw e;
+            }
+            for (Map.Entry<Integer, RestaurantItemPopularity> restaurant : reconciled.entrySet()) {
+                reconciledDrift.addAndGet(
+                        restaurant
+                                .getValue()
+                                .finishRebuild(
+                                        orderCounts.getOrDefault(
+                                                restaurant.getKey(), new HashMap<>())));
+            }
+        }
+        reconciliations.incrementAndGet();
+    }
+
+    public int size() {
+        return restaurants.size();
+    }
+
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    public long getReconciliationCount() {
+        return reconciliations.get();
+    }
+
+    public long getReconciledDrift() {
+        return reconciledDrift.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("item.popularity.loads", this, ItemPopularityCounters::getLoadCount)
+                .description("Number of restaurants whose item counts were read on first use")
+                .register(registry);
+        FunctionCounter.builder(
+                        "item.popularity.reconciliations",
+                        this,
+                        ItemPopularityCounters::getReconciliationCount)
+                .description("Number of times the item counts were read from the orders again")
+                .register(registry);
+        FunctionCounter.builder(
+                        "item.popularity.drift", this, ItemPopularityCounters::getReconciledDrift)
+                .description("Sum of the differences corrected by the reconciliations")
+                .register(registry);
+        Gauge.builder("item.popularity.size", this, ItemPopularityCounters::size)
+                .description("Number of restaurants whose item counts are held")
+                .register(registry);
+    }
+
+    // Must hold the rebuild lock of the restaurant.
+    private void rebuild(final Integer restaurantId, final RestaurantItemPopularity popularity) {
+        popularity.startRebuild();
+        Map<Integer, Long> orderCounts = new HashMap<>();
+        try {
+            for (Object[] row : itemDao.getItemOrderCountsByRestaurant(restaurantId)) {
+                orderCounts.put((Integer) row[0], ((Number) row[1]).longValue());
+            }
+        } catch (RuntimeException e) {
+            popularity.abortRebuild();
+            throw e;
+        }
+        popularity.finishRebuild(orderCounts);
+    }
+
+    /** Counts of the items of one restaurant together with their ranking. */
+    private static final class RestaurantItemPopularity {
+
+        // Held while the counts are read on first use, so at most one such read runs at a time.
+        // Once loaded, the counts are only read again by the reconciliation.
+        private final Object rebuildLock = new Object();
+
+        // Whether the top items were asked for since the previous reconciliation.
+        private volatile boolean read;
+
+        private Map<Integer, Long> orderCounts = new HashMap<>();
+
+        // Increments seen since the current rebuild started, null when no rebuild is running.
+        private Map<Integer, Long> pendingOrderCounts;
+
+        private final TopItemRanking topItems;
+
+        private volatile boolean loaded;
+
+        RestaurantItemPopularity(final int topItems) {
+            this.topItems = new TopItemRanking(topItems);
+        }
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        List<Integer> getTopItemIds() {
+            return topItems.getItemIds();
+        }
+
+        synchronized void increment(final Integer itemId) {
+            orderCounts.merge(itemId, 1L, Long::sum);
+            if (pendingOrderCounts != null) {
+                pendingOrderCounts.merge(itemId, 1L, Long::sum);
+            }
+            topItems.countIncreased(itemId, orderCounts);
+        }
+
+        synchronized void startRebuild() {
+            pendingOrderCounts = new HashMap<>();
+        }
+
+        synchronized void abortRebuild() {
+            pendingOrderCounts = null;
+        }
+
+        synchronized long finishRebuild(final Map<Integer, Long> rebuiltOrderCounts) {
+            for (Map.Entry<Integer, Long> pending : pendingOrderCounts.entrySet()) {
+                rebuiltOrderCounts.merge(pending.getKey(), pending.getValue(), Long::sum);
+            }
+            pendingOrderCounts = null;
+
+            long drift = 0;
+            if (loaded) {
+                for (Map.Entry<Integer, Long> rebuilt : rebuiltOrderCounts.entrySet()) {
+                    long count = orderCounts.getOrDefault(rebuilt.getKey(), 0L);
+                    drift += Math.abs(rebuilt.getValue() - count);
+                }
+                for (Map.Entry<Integer, Long> current : orderCounts.entrySet()) {
+                    if (!rebuiltOrderCounts.containsKey(current.getKey())) {
+                        drift += current.getValue();
+                    }
+                }
+            }
+            orderCounts = rebuiltOrderCounts;
+            topItems.rebuild(orderCounts);
+            loaded = true;
+            return drift;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts every order item in the {@link ItemPopularityCounters} and the {@link TrendingItems} once
+ * the transaction inserting it has committed, so items of an order that is rolled back are never
+ * counted.
+ */
+@Component
+public class ItemPopularityListener implements PostCommitInsertEventListener {
+
+    @PersistenceUnit private EntityManagerFactory entityManagerFactory;
+
+    @Autowired private ItemPopularityCounters itemPopularityCounters;
+
+    @Autowired private TrendingItems trendingItems;
+
+    @PostConstruct
+    public void register() {
+        entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_COMMIT_INSERT, this);
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        OrderItemEntity orderItem = (OrderItemEntity) event.getEntity();
+        Integer restaurantId = orderItem.getOrder().getRestaurant().getId();
+        Integer itemId = orderItem.getItem().getId();
+        itemPopularityCounters.increment(restaurantId, itemId);
+        trendingItems.record(restaurantId, itemId);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHanding(final EntityPersister persister) {
+        return OrderItemEntity.class.equals(persister.getMappedClass());
+    }
+}
@@ -0,0 +1,147 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+
+/**
+ * Immutable copy of the menu of a restaurant, i.e. its categories in order of category name each
+ * holding its items in order of item name. A snapshot is detached from the persistence context so
+ * it can be shared between requests.
+ */
+public final class MenuSnapshot {
+
+    private final String restaurantUuid;
+
+    private final long version;
+
+    private final List<Category> categories;
+
+    public MenuSnapshot(
+            final String restaurantUuid, final long version, final List<Category> categories) {
+        this.restaurantUuid = restaurantUuid;
+        this.version = version;
+        this.categories = Collections.unmodifiableList(new ArrayList<>(categories));
+    }
+
+    /**
+     * This method builds the snapshot of a menu from (category, item) rows ordered by category.
+     *
+     * @param restaurantUuid Restaurant the menu belongs to.
+     * @param version Version stamp of the cache at the time the rows were read.
+     * @param menuItems Rows with [0] CategoryEntity [1] ItemEntity or null if the category is
+     *     empty.
+     * @return MenuSnapshot
+     */
+    public static MenuSnapshot fromMenuItems(
+            final String restaurantUuid, final long version, final List<Object[]> menuItems) {
+        Map<String, String> categoryNames = new LinkedHashMap<>();
+        Map<String, List<Item>> itemsByCategory = new LinkedHashMap<>();
+        for (Object[] menuItem : menuItems) {
+            CategoryEntity category = (CategoryEntity) menuItem[0];
+            ItemEntity item = (ItemEntity) menuItem[1];
+            List<Item> items = itemsByCategory.get(category.getUuid());
+            if (items == null) {
+                items = new ArrayList<>();
+                itemsByCategory.put(category.getUuid(), items);
+                categoryNames.put(category.getUuid(), category.getCategoryName());
+            }
+            if (item != null) {
+                items.add(
+                        new Item(
+                                item.getUuid(),
+                                item.getItemName(),
+                                item.getPrice(),
+                                item.getType()));
+            }
+        }
+
+        List<Category> categories = new ArrayList<>();
+        for (Map.Entry<String, List<Item>> entry : itemsByCategory.entrySet()) {
+            categories.add(
+                    new Category(
+                            entry.getKey(), categoryNames.get(entry.getKey()), entry.getValue()));
+        }
+        return new MenuSnapshot(restaurantUuid, version, categories);
+    }
+
+    public String getRestaurantUuid() {
+        return restaurantUuid;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    /** A category of the menu along with the items of the restaurant in it. */
+    public static final class Category {
+
+        private final String uuid;
+
+        private final String categoryName;
+
+        private final List<Item> items;
+
+        public Category(final String uuid, final String categoryName, final List<Item> items) {
+            this.uuid = uuid;
+            this.categoryName = categoryName;
+            this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public String getCategoryName() {
+            return categoryName;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+    }
+
+    /** An item of the menu. */
+    public static final class Item {
+
+        private final String uuid;
+
+        private final String itemName;
+
+        private final Integer price;
+
+        private final String type;
+
+        public Item(
+                final String uuid, final String itemName, final Integer price, final String type) {
+            this.uuid = uuid;
+            this.itemName = itemName;
+            this.price = price;
+            this.type = type;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public String getItemName() {
+            return itemName;
+        }
+
+        public Integer getPrice() {
+            return price;
+        }
+
+        public String getType() {
+            return type;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import com.upgrad.FoodOrderingApp.service.dao.ItemDao;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size bounded LRU cache of restaurant menus keyed by restaurant uuid.
+ *
+ * <p>Every invalidation bumps the version of the cache. A menu read from the database is only
+ * stored if the version did not change while it was being read, so a snapshot loaded concurrently
+ * with a catalog change is served once but never cached.
+ */
+@Component
+public class MenuSnapshotCache implements MeterBinder {
+
+    @Autowired private ItemDao itemDao;
+
+    private final int maxSize;
+
+    private final Map<String, MenuSnapshot> snapshots;
+
+    private long version;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public MenuSnapshotCache(@Value("${restaurant.menu.cache.max-size:1000}") final int maxSize) {
+        this.maxSize = maxSize;
+        this.snapshots =
+                new LinkedHashMap<String, MenuSnapshot>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(
+                            final Map.Entry<String, MenuSnapshot> eldest) {
+                        if (size() > MenuSnapshotCache.this.maxSize) {
+                            evictions.incrementAndGet();
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+    }
+
+    /**
+     * This method gets the menu of a restaurant, reading it from the database on a cache miss.
+     *
+     * @param restaurantUuid Restaurant whose menu is to be returned.
+     * @return MenuSnapshot
+     */
+    public MenuSnapshot getMenu(final String restaurantUuid) {
+        final long loadVersion;
+        synchronized (this) {
+            MenuSnapshot snapshot = snapshots.get(restaurantUuid);
+            if (snapshot != null) {
+                hits.incrementAndGet();
+                return snapshot;
+            }
+            misses.incrementAndGet();
+            loadVersion = version;
+        }
+
+        MenuSnapshot snapshot =
+                MenuSnapshot.fromMenuItems(
+                        restaurantUuid,
+                        loadVersion,
+                        itemDao.getMenuItemsByRestaurant(restaurantUuid));
+
+        synchronized (this) {
+            if (loadVersion == version) {
+                snapshots.put(restaurantUuid, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * This method drops the menu of a restaurant, to be called when the restaurant row changes.
+     *
+     * @param restaurantUuid Restaurant whose menu is to be dropped.
+     */
+    public synchronized void invalidate(final String restaurantUuid) {
+        version++;
+        invalidations.incrementAndGet();
+        snapshots.remove(restaurantUuid);
+    }
+
+    /**
+     * This method drops every menu, to be called when a category, an item or a link between them
+     * and a restaurant changes since any number of menus may contain it.
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations.incrementAndGet();
+        snapshots.clear();
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int size() {
+        return snapshots.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("menu.cache.requests", this, MenuSnapshotCache::getHitCount)
+                .tag("result", "hit")
+                .description("Number of menus served from the cache")
+                .register(registry);
+        FunctionCounter.builder("menu.cache.requests", this, MenuSnapshotCache::getMissCount)
+                .tag("result", "miss")
+                .description("Number of menus read from the database")
+                .register(registry);
+        FunctionCounter.builder("menu.cache.evictions", this, MenuSnapshotCache::getEvictionCount)
+                .description("Number of menus evicted to keep the cache within its size")
+                .register(registry);
+        FunctionCounter.builder(
+                        "menu.cache.invalidations", this, MenuSnapshotCache::getInvalidationCount)
+                .description("Number of times menus were dropped due to a catalog change")
+                .register(registry);
+        Gauge.builder("menu.cache.size", this, MenuSnapshotCache::size)
+                .description("Number of menus in the cache")
+                .register(registry);
+    }
+}
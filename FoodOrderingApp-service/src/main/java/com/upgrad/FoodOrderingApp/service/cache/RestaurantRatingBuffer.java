@@ -0,0 +1,301 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantRatingDao;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Adds up the rating changes of restaurants rated more than hot-threshold times within one
+ * flush-interval and writes the sums with one update per restaurant every flush-interval, so a
+ * popular restaurant does not queue every rating on its row. The first hot-threshold ratings of a
+ * restaurant in an interval are not taken here and are written right away by the caller.
+ *
+ * <p>A rating change is what a rating does to the sum of the ratings of the restaurant and to the
+ * number of its raters, see {@link com.upgrad.FoodOrderingApp.service.businness.RestaurantService}.
+ * Buffered changes show in the customer rating once flushed. Changes of a failed flush are put back
+ * and written with the next one; changes buffered when the instance dies without shutting down are
+ * only restored by the rating compaction. The buffer only takes changes when enabled, and only
+ * those made in a transaction: a taken change is added once its transaction commits, so the change
+ * of a rolled back rating is never written.
+ */
+@Component
+public class RestaurantRatingBuffer implements MeterBinder {
+
+    @Autowired private RestaurantDao restaurantDao;
+
+    @Autowired private RestaurantRatingDao restaurantRatingDao;
+
+    @Autowired private CatalogCacheInvalidationListener catalogCacheInvalidationListener;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final int hotThreshold;
+
+    // restaurant id -> ratings of the current interval
+    private final Map<Integer, PendingRatings> pendingRatings = new ConcurrentHashMap<>();
+
+    private final AtomicLong bufferedRatings = new AtomicLong();
+
+    private final AtomicLong flushedUpdates = new AtomicLong();
+
+    private final AtomicLong flushFailures = new AtomicLong();
+
+    public RestaurantRatingBuffer(
+            final PlatformTransactionManager transactionManager,
+            @Value("${restaurant.rating.buffer.enabled:false}") final boolean enabled,
+            @Value("${restaurant.rating.buffer.hot-threshold:5}") final int hotThreshold) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.hotThreshold = hotThreshold;
+    }
+
+    /**
+     * This method takes the rating change of a restaurant if the restaurant is hot, and adds it to
+     * the buffer once the current transaction commits. Without an active transaction
+     * synchronization no change is taken.
+     *
+     * @param restaurantId Id of the rated restaurant.
+     * @param restaurantUuid UUID of the rated restaurant.
+     * @param ratingSum Change of the sum of the ratings.
+     * @param ratingCount Change of the number of raters.
+     * @return true if the change is buffered on commit, false if the caller has to write it.
+     */
+    public boolean offer(
+            final Integer restaurantId,
+            final String restaurantUuid,
+            final double ratingSum,
+            final int ratingCount) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        boolean[] hot = new boolean[1];
+        pendingRatings.compute(
+                restaurantId,
+                (id, pending) -> {
+                    PendingRatings ratings =
+                            pending == null ? new PendingRatings(restaurantUuid) : pending;
+                    ratings.ratingsInInterval++;
+                    hot[0] = ratings.ratingsInInterval > hotThreshold;
+                    return ratings;
+                });
+        if (!hot[0]) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        add(restaurantId, restaurantUuid, ratingSum, ratingCount);
+                    }
+                });
+        return true;
+    }
+
+    // a restaurant dropped by a flush since the change was taken is put back with the change
+    private void add(
+            final Integer restaurantId,
+            final String restaurantUuid,
+            final double ratingSum,
+            final int ratingCount) {
+        pendingRatings.compute(
+                restaurantId,
+                (id, pending) -> {
+                    PendingRatings ratings =
+                            pending == null ? new PendingRatings(restaurantUuid) : pending;
+                    ratings.bufferedRatings++;
+                    ratings.ratingSum += ratingSum;
+                    ratings.ratingCount += ratingCount;
+                    return ratings;
+                });
+        bufferedRatings.incrementAndGet();
+    }
+
+    /**
+     * This method writes the buffered ratings in one transaction, restaurants in the order of their
+     * id so that concurrent flushes of several instances do not deadlock, and starts a new interval.
+     */
+    @Scheduled(
+            initialDelayString = "${restaurant.rating.buffer.flush-interval:250}",
+            fixedDelayString = "${restaurant.rating.buffer.flush-interval:250}")
+    @PreDestroy
+    public void flush() {
+        List<RatingSum> ratingSums = new ArrayList<>();
+        for (Integer restaurantId : pendingRatings.keySet()) {
+            pendingRatings.computeIfPresent(
+                    restaurantId,
+                    (id, pending) -> {
+                        // a restaurant not rated during the whole interval is dropped, unless it
+                        // holds changes put back by a failed flush
+                        if (pending.ratingsInInterval == 0 && pending.bufferedRatings == 0) {
+                            return null;
+                        }
+                        if (pending.bufferedRatings > 0) {
+                            ratingSums.add(
+                                    new RatingSum(
+                                            id,
+                                            pending.restaurantUuid,
+                                            pending.bufferedRatings,
+                                            pending.ratingSum,
+                                            pending.ratingCount));
+                        }
+                        pending.ratingsInInterval = 0;
+                        pending.bufferedRatings = 0;
+                        pending.ratingSum = 0;
+                        pending.ratingCount = 0;
+                        return pending;
+                    });
+        }
+        if (ratingSums.isEmpty()) {
+            return;
+        }
+        ratingSums.sort(Comparator.comparing(ratingSum -> ratingSum.restaurantId));
+
+        try {
+            transactionTemplate.execute(
+                    status -> {
+                        for (RatingSum ratingSum : ratingSums) {
+                            if (restaurantDao.addRestaurantRatings(
+                                    ratingSum.restaurantId,
+                                    ratingSum.ratingSum,
+                                    ratingSum.ratingCount)) {
+                                catalogCacheInvalidationListener.restaurantUpdated(
+                                        ratingSum.restaurantUuid);
+                            } else {
+                                // drifted from the ledger, which holds the buffered ratings already
+                                for (String restaurantUuid :
+                                        restaurantRatingDao.compactRestaurantRatings(
+                                                ratingSum.restaurantId)) {
+                                    catalogCacheInvalidationListener.restaurantUpdated(restaurantUuid);
+                                }
+                            }
+                        }
+                        return null;
+                    });
+            flushedUpdates.addAndGet(ratingSums.size());
+        } catch (RuntimeException e) {
+            flushFailures.incrementAndGet();
+            for (RatingSum ratingSum : ratingSums) {
+                pendingRatings.merge(
+                        ratingSum.restaurantId,
+                        new PendingRatings(ratingSum),
+                        (pending, putBack) -> {
+                            pending.bufferedRatings += putBack.bufferedRatings;
+                            pending.ratingSum += putBack.ratingSum;
+                            pending.ratingCount += putBack.ratingCount;
+                            return pending;
+                        });
+            }
+        }
+    }
+
+    public int size() {
+        return pendingRatings.size();
+    }
+
+    public long getBufferedRatingCount() {
+        return bufferedRatings.get();
+    }
+
+    public long getFlushedUpdateCount() {
+        return flushedUpdates.get();
+    }
+
+    public long getFlushFailureCount() {
+        return flushFailures.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder(
+                        "restaurant.rating.buffered", this, RestaurantRatingBuffer::getBufferedRatingCount)
+                .description("Number of rating changes added up in memory instead of written one by one")
+                .register(registry);
+        FunctionCounter.builder(
+                        "restaurant.rating.flushed", this, RestaurantRatingBuffer::getFlushedUpdateCount)
+                .description("Number of restaurant updates written by the flushes")
+                .register(registry);
+        FunctionCounter.builder(
+                        "restaurant.rating.flush-failures",
+                        this,
+                        RestaurantRatingBuffer::getFlushFailureCount)
+                .description("Number of flushes that failed and kept their changes for the next one")
+                .register(registry);
+        Gauge.builder("restaurant.rating.buffer.size", this, RestaurantRatingBuffer::size)
+                .description("Number of restaurants rated in the current interval")
+                .register(registry);
+    }
+
+    /** Ratings of one restaurant in the current interval, only changed inside the map operations. */
+    private static final class PendingRatings {
+
+        private final String restaurantUuid;
+
+        private int ratingsInInterval;
+
+        private int bufferedRatings;
+
+        private double ratingSum;
+
+        private int ratingCount;
+
+        PendingRatings(final String restaurantUuid) {
+            this.restaurantUuid = restaurantUuid;
+        }
+
+        // ratings of a failed flush, put back for the next one
+        PendingRatings(final RatingSum ratingSum) {
+            this.restaurantUuid = ratingSum.restaurantUuid;
+            this.ratingsInInterval = ratingSum.bufferedRatings;
+            this.bufferedRatings = ratingSum.bufferedRatings;
+            this.ratingSum = ratingSum.ratingSum;
+            this.ratingCount = ratingSum.ratingCount;
+        }
+    }
+
+    /** Ratings of one restaurant taken out of the buffer by a flush. */
+    private static final class RatingSum {
+
+        private final Integer restaurantId;
+
+        private final String restaurantUuid;
+
+        private final int bufferedRatings;
+
+        private final double ratingSum;
+
+        private final int ratingCount;
+
+        RatingSum(
+                final Integer restaurantId,
+                final String restaurantUuid,
+                final int bufferedRatings,
+                final double ratingSum,
+                final int ratingCount) {
+            this.restaurantId = restaurantId;
+            this.restaurantUuid = restaurantUuid;
+            this.bufferedRatings = bufferedRatings;
+            this.ratingSum = ratingSum;
+            this.ratingCount = ratingCount;
+        }
+    }
+}
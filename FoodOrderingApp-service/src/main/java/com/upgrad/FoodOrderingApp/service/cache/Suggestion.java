@@ -0,0 +1,22 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+/** Restaurant, item or category suggested for what the customer has typed so far. */
+public final class Suggestion {
+
+    private final String uuid;
+
+    private final String name;
+
+    public Suggestion(final String uuid, final String name) {
+        this.uuid = uuid;
+        this.name = name;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
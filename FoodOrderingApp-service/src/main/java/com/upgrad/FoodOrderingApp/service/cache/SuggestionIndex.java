@@ -0,0 +1,245 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import com.upgrad.FoodOrderingApp.service.dao.CategoryDao;
+import com.upgrad.FoodOrderingApp.service.dao.ItemDao;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of the restaurant, item and category names suggested while the customer types.
+ * Restaurants are ranked by customer rating, items by the number of orders they are part of and
+ * categories by the number of restaurants serving them.
+ *
+ * <p>The index is read from the database on first use and never changed afterwards. Once a
+ * transaction writing restaurants, items or categories has committed (see {@link
+ * CatalogCacheInvalidationListener}) a new index is built in the background and swapped in, so
+ * lookups keep reading the previous index meanwhile and never wait for the database. Invalidations
+ * arriving while a rebuild is waiting are coalesced into that rebuild. If a rebuild fails the
+ * previous index is kept until the next invalidation. Placed orders and ratings do not invalidate
+ * the index, the order counts of the items and the ratings of the restaurants are refreshed every
+ * refresh-interval instead.
+ */
+@Component
+public class SuggestionIndex implements MeterBinder {
+
+    private static final Comparator<ScoredSuggestion> BY_SCORE =
+            Comparator.comparingDouble((ScoredSuggestion scored) -> -scored.score)
+                    .thenComparing(scored -> scored.suggestion.getName())
+                    .thenComparing(scored -> scored.suggestion.getUuid());
+
+    @Autowired private RestaurantDao restaurantDao;
+
+    @Autowired private ItemDao itemDao;
+
+    @Autowired private CategoryDao categoryDao;
+
+    private final int maxResults;
+
+    private final ExecutorService rebuildExecutor =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "suggestion-index-rebuild");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+    private final Object loadLock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    // Set while a rebuild is submitted but has not started reading yet.
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    // Bumped on every invalidation, an index read before the latest bump is never swapped in over
+    // one read after it.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong builds = new AtomicLong();
+
+    private final AtomicLong rebuildFailures = new AtomicLong();
+
+    public SuggestionIndex(@Value("${suggest.max-results:10}") final int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * This method gets the best suggestions having a word whose start matches what has been typed.
+     *
+     * @param type Kind of names to be suggested.
+     * @param prefix Text typed so far, case and extra whitespace are ignored.
+     * @param limit Largest number of suggestions to be returned, capped at max-results.
+     * @return Suggestions, best first.
+     */
+    public List<Suggestion> suggest(
+            final SuggestionType type, final String prefix, final int limit) {
+        return getSnapshot().tries.get(type).lookup(SuggestionTrie.normalize(prefix), limit);
+    }
+
+    /** This method schedules a rebuild of the index, unless one is waiting to start already. */
+    @Scheduled(
+            initialDelayString = "${suggest.refresh-interval:3600000}",
+            fixedDelayString = "${suggest.refresh-interval:3600000}")
+    public void invalidate() {
+        invalidations.incrementAndGet();
+        if (snapshot != null) {
+            scheduleRebuild();
+        }
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return 0;
+        }
+        int size = 0;
+        for (SuggestionTrie trie : current.tries.values()) {
+            size += trie.size();
+        }
+        return size;
+    }
+
+    public long getBuildCount() {
+        return builds.get();
+    }
+
+    public long getRebuildFailureCount() {
+        return rebuildFailures.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("suggest.index.builds", this, SuggestionIndex::getBuildCount)
+                .description("Number of times the suggestion index was read from the database")
+                .register(registry);
+        FunctionCounter.builder(
+                        "suggest.index.rebuild-failures",
+                        this,
+                        SuggestionIndex::getRebuildFailureCount)
+                .description(
+                        "Number of background rebuilds that failed and kept the previous index")
+                .register(registry);
+        Gauge.builder("suggest.index.size", this, SuggestionIndex::size)
+                .description("Number of restaurants, items and categories in the suggestion index")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (loadLock) {
+                current = snapshot;
+                if (current == null) {
+                    current = build();
+                    swap(current);
+                    // written while reading, the invalidation found no index to rebuild
+                    if (invalidations.get() != current.invalidation) {
+                        scheduleRebuild();
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        rebuildPending.set(false);
+        try {
+            swap(build());
+        } catch (RuntimeException e) {
+            rebuildFailures.incrementAndGet();
+        }
+    }
+
+    private synchronized void swap(final Snapshot built) {
+        if (snapshot == null || built.invalidation >= snapshot.invalidation) {
+            snapshot = built;
+        }
+    }
+
+    private Snapshot build() {
+        long invalidation = invalidations.get();
+        Map<SuggestionType, SuggestionTrie> tries = new EnumMap<>(SuggestionType.class);
+        tries.put(SuggestionType.RESTAURANT, trie(restaurantDao.getRestaurantSuggestions()));
+        tries.put(SuggestionType.ITEM, trie(itemDao.getItemSuggestions()));
+        tries.put(SuggestionType.CATEGORY, trie(categoryDao.getCategorySuggestions()));
+        builds.incrementAndGet();
+        return new Snapshot(Collections.unmodifiableMap(tries), invalidation);
+    }
+
+    // rows of (uuid, name, score) tuples
+    private SuggestionTrie trie(final List<Object[]> rows) {
+        List<ScoredSuggestion> scored = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                double score = row[2] == null ? 0 : ((Number) row[2]).doubleValue();
+                Suggestion suggestion = new Suggestion((String) row[0], (String) row[1]);
+                scored.add(new ScoredSuggestion(suggestion, score));
+            }
+        }
+        scored.sort(BY_SCORE);
+        List<Suggestion> ranked = new ArrayList<>(scored.size());
+        for (ScoredSuggestion suggestion : scored) {
+            ranked.add(suggestion.suggestion);
+        }
+        return new SuggestionTrie(ranked, maxResults);
+    }
+
+    private static final class ScoredSuggestion {
+
+        private final Suggestion suggestion;
+
+        private final double score;
+
+        ScoredSuggestion(final Suggestion suggestion, final double score) {
+            this.suggestion = suggestion;
+            this.score = score;
+        }
+    }
+
+    /** Tries of all kinds of suggestions read together. */
+    private static final class Snapshot {
+
+        private final Map<SuggestionType, SuggestionTrie> tries;
+
+        // value of the invalidation counter when reading started
+        private final long invalidation;
+
+        Snapshot(final Map<SuggestionType, SuggestionTrie> tries, final long invalidation) {
+            this.tries = tries;
+            this.invalidation = invalidation;
+        }
+    }
+}
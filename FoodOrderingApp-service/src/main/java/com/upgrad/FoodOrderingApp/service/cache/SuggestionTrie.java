@@ -0,0 +1,198 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable radix trie over the names of one kind of suggestion. Every name is reachable from the
+ * start of each of its words, so "piz" finds "Dominos Pizza". Every node holds the best suggestions
+ * below it, so a lookup walks the prefix and copies at most max-results suggestions, however many
+ * names share the prefix.
+ */
+final class SuggestionTrie {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int[] NO_SUGGESTIONS = new int[0];
+
+    private final Suggestion[] suggestions;
+
+    private final Node root;
+
+    /**
+     * @param rankedSuggestions Suggestions, best first.
+     * @param maxResults Largest number of suggestions a lookup returns.
+     */
+    SuggestionTrie(final List<Suggestion> rankedSuggestions, final int maxResults) {
+        suggestions = rankedSuggestions.toArray(new Suggestion[0]);
+
+        // (key, rank) pairs, one for every word start of every name
+        List<Key> keys = new ArrayList<>();
+        for (int rank = 0; rank < suggestions.length; rank++) {
+            String name = normalize(suggestions[rank].getName());
+            for (int start = 0; start < name.length(); start++) {
+                if (start == 0 || name.charAt(start - 1) == ' ') {
+                    keys.add(new Key(name.substring(start), rank));
+                }
+            }
+        }
+        Collections.sort(keys);
+        root = build(keys.toArray(new Key[0]), 0, keys.size(), 0, maxResults);
+    }
+
+    /**
+     * Lower cases the text and collapses its whitespace, the same way for names and prefixes.
+     *
+     * @param text Name or typed prefix.
+     * @return Normalized text, empty for null.
+     */
+    static String normalize(final String text) {
+        if (text == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    int size() {
+        return suggestions.length;
+    }
+
+    /**
+     * @param prefix Normalized prefix of a word of the name.
+     * @param limit Largest number of suggestions to be returned.
+     * @return Best suggestions having a word starting with the prefix, best first.
+     */
+    List<Suggestion> lookup(final String prefix, final int limit) {
+        if (prefix.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        Node node = root;
+        int matched = 0;
+        while (matched < prefix.length()) {
+            Node child = node.child(prefix.charAt(matched));
+            if (child == null) {
+                return Collections.emptyList();
+            }
+            int length = Math.min(child.label.length(), prefix.length() - matched);
+            if (!child.label.regionMatches(0, prefix, matched, length)) {
+                return Collections.emptyList();
+            }
+            matched += length;
+            node = child;
+        }
+
+        int count = Math.min(limit, node.best.length);
+        List<Suggestion> found = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            found.add(suggestions[node.best[i]]);
+        }
+        return found;
+    }
+
+    // keys[from, to) are sorted and share their first depth characters
+    private static Node build(
+            final Key[] keys, final int from, final int to, final int depth, final int maxResults) {
+        int childFrom = from;
+        while (childFrom < to && keys[childFrom].text.length() == depth) {
+            childFrom++;
+        }
+        int[] candidates = new int[childFrom - from];
+        for (int i = from; i < childFrom; i++) {
+            candidates[i - from] = keys[i].rank;
+        }
+
+        List<Node> children = new ArrayList<>();
+        while (childFrom < to) {
+            char first = keys[childFrom].text.charAt(depth);
+            int childTo = childFrom + 1;
+            while (childTo < to && keys[childTo].text.charAt(depth) == first) {
+                childTo++;
+            }
+            // sorted keys, so the first and the last key share what all of them share
+            String firstText = keys[childFrom].text;
+            String lastText = keys[childTo - 1].text;
+            int childDepth = depth + 1;
+            while (childDepth < firstText.length()
+                    && childDepth < lastText.length()
+                    && firstText.charAt(childDepth) == lastText.charAt(childDepth)) {
+                childDepth++;
+            }
+            Node child = build(keys, childFrom, childTo, childDepth, maxResults);
+            child.label = firstText.substring(depth, childDepth);
+            children.add(child);
+
+            int[] merged = Arrays.copyOf(candidates, candidates.length + child.best.length);
+            System.arraycopy(child.best, 0, merged, candidates.length, child.best.length);
+            candidates = merged;
+            childFrom = childTo;
+        }
+
+        return new Node(children.toArray(new Node[0]), best(candidates, maxResults));
+    }
+
+    // lowest distinct ranks, a name having several words starting with the same prefix counts once
+    private static int[] best(final int[] ranks, final int maxResults) {
+        if (ranks.length == 0) {
+            return NO_SUGGESTIONS;
+        }
+        Arrays.sort(ranks);
+        int[] best = new int[Math.min(ranks.length, maxResults)];
+        int count = 0;
+        for (int i = 0; i < ranks.length && count < best.length; i++) {
+            if (i == 0 || ranks[i] != ranks[i - 1]) {
+                best[count++] = ranks[i];
+            }
+        }
+        return count == best.length ? best : Arrays.copyOf(best, count);
+    }
+
+    private static final class Node {
+
+        // characters of the edge leading to this node, empty for the root
+        private String label = "";
+
+        // sorted by the first character of their label
+        private final Node[] children;
+
+        private final char[] firstChars;
+
+        // ranks of the best suggestions below this node, best first
+        private final int[] best;
+
+        Node(final Node[] children, final int[] best) {
+            this.children = children;
+            this.best = best;
+            firstChars = new char[children.length];
+            for (int i = 0; i < children.length; i++) {
+                firstChars[i] = children[i].label.charAt(0);
+            }
+        }
+
+        Node child(final char first) {
+            int index = Arrays.binarySearch(firstChars, first);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    private static final class Key implements Comparable<Key> {
+
+        private final String text;
+
+        private final int rank;
+
+        Key(final String text, final int rank) {
+            this.text = text;
+            this.rank = rank;
+        }
+
+        @Override
+        public int compareTo(final Key other) {
+            int byText = text.compareTo(other.text);
+            return byText != 0 ? byText : Integer.compare(rank, other.rank);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+/** Kinds of catalog names suggested while the customer types in the search box. */
+public enum SuggestionType {
+    RESTAURANT,
+    ITEM,
+    CATEGORY
+}
@@ -0,0 +1,100 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The most counted items of a set of item counts, most counted first. The ids are kept in an array
+ * sorted by count in which a growing count moves at most one item up, and every change publishes a
+ * copy, so a read never sorts or locks. Changes must be made under the lock guarding the counts.
+ */
+final class TopItemRanking {
+
+    // ties between counts are broken by the lower item id
+    private static final Comparator<Map.Entry<Integer, Long>> BY_COUNT =
+            Comparator.<Map.Entry<Integer, Long>>comparingLong(Map.Entry::getValue)
+                    .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+    private final int[] itemIds;
+
+    private int size;
+
+    private volatile List<Integer> publishedItemIds = Collections.emptyList();
+
+    TopItemRanking(final int maxSize) {
+        this.itemIds = new int[maxSize];
+    }
+
+    List<Integer> getItemIds() {
+        return publishedItemIds;
+    }
+
+    /**
+     * Moves an item whose count grew to its place in the ranking. Only valid if no other count
+     * shrank since the ranking was last rebuilt.
+     *
+     * @param itemId Id of the item whose count grew.
+     * @param counts Count of every item.
+     */
+    void countIncreased(final int itemId, final Map<Integer, Long> counts) {
+        long count = counts.getOrDefault(itemId, 0L);
+        int position = indexOf(itemId);
+        if (position < 0) {
+            if (size < itemIds.length) {
+                position = size++;
+            } else if (size > 0 && count > counts.getOrDefault(itemIds[size - 1], 0L)) {
+                position = size - 1;
+            } else {
+                return;
+            }
+            itemIds[position] = itemId;
+        }
+        while (position > 0 && counts.getOrDefault(itemIds[position - 1], 0L) < count) {
+            itemIds[position] = itemIds[position - 1];
+            itemIds[--position] = itemId;
+        }
+        publish();
+    }
+
+    /**
+     * Ranks the items again from scratch through a min-heap of the most counted items, to be called
+     * when any count shrank or the counts were replaced.
+     *
+     * @param counts Count of every item.
+     */
+    void rebuild(final Map<Integer, Long> counts) {
+        PriorityQueue<Map.Entry<Integer, Long>> top = new PriorityQueue<>(BY_COUNT);
+        for (Map.Entry<Integer, Long> count : counts.entrySet()) {
+            top.offer(count);
+            if (top.size() > itemIds.length) {
+                top.poll();
+            }
+        }
+        size = top.size();
+        for (int position = size - 1; position >= 0; position--) {
+            itemIds[position] = top.poll().getKey();
+        }
+        publish();
+    }
+
+    private int indexOf(final int itemId) {
+        for (int position = 0; position < size; position++) {
+            if (itemIds[position] == itemId) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private void publish() {
+        List<Integer> ids = new ArrayList<>(size);
+        for (int position = 0; position < size; position++) {
+            ids.add(itemIds[position]);
+        }
+        publishedItemIds = Collections.unmodifiableList(ids);
+    }
+}
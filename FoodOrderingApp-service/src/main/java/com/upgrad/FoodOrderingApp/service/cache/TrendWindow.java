@@ -0,0 +1,44 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/** Periods trending items are ranked over, each ending now. */
+public enum TrendWindow {
+    LAST_HOUR("1h", TimeUnit.HOURS.toMillis(1)),
+
+    LAST_DAY("24h", TimeUnit.DAYS.toMillis(1)),
+
+    LAST_WEEK("7d", TimeUnit.DAYS.toMillis(7));
+
+    private final String label;
+
+    private final long lengthMillis;
+
+    TrendWindow(final String label, final long lengthMillis) {
+        this.label = label;
+        this.lengthMillis = lengthMillis;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getLengthMillis() {
+        return lengthMillis;
+    }
+
+    /**
+     * This method gets the window with the given label.
+     *
+     * @param label "1h", "24h" or "7d".
+     * @return TrendWindow, or null if there is no window with that label.
+     */
+    public static TrendWindow fromLabel(final String label) {
+        for (TrendWindow window : values()) {
+            if (window.label.equals(label)) {
+                return window;
+            }
+        }
+        return null;
+    }
+}
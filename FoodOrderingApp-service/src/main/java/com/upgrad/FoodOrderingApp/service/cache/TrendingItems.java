@@ -0,0 +1,530 @@
+package com.upgrad.FoodOrderingApp.service.cache;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Items ordered most from each restaurant over the {@link TrendWindow}s, counted in memory as
+ * orders commit (see {@link ItemPopularityListener}).
+ *
+ * <p>Orders are counted in buckets of {@link #BUCKET_LENGTH_MILLIS}, and a window covers the
+ * current bucket and the ones before it, so a window is up to one bucket shorter than its length.
+ * A bucket holds a Space-Saving summary of at most items-per-bucket items: once it is full, the
+ * least counted item gives its place and count to the next new item, so a bucket never takes more
+ * memory however many items are ordered. Every window keeps the sum of its buckets and the ranking
+ * of that sum; a bucket leaving a window is subtracted from it. Reading the top items of a window
+ * therefore takes no more than reading top-items ids.
+ *
+ * <p>The counts of a window are exact as long as none of its buckets was full when a new item was
+ * ordered. Otherwise the item taking over a place is overcounted by the count it took over, and the
+ * item giving it up is undercounted by its orders in that bucket, so an item ordered rarely in many
+ * buckets of a restaurant with more than items-per-bucket items may rank too high.
+ *
+ * <p>A restaurant without orders in the longest window is dropped every snapshot-interval, so only
+ * restaurants ordered from within the last week take memory. Buckets are written to the
+ * snapshot-file periodically and on shutdown, and read from it at startup, dropping those that have
+ * left every window in between.
+ */
+@Component
+public class TrendingItems implements MeterBinder {
+
+    /** Length of the buckets orders are counted in; every window is a whole number of them. */
+    public static final long BUCKET_LENGTH_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final Logger LOG = LoggerFactory.getLogger(TrendingItems.class);
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // buckets in the longest window, older buckets are dropped
+    private static final int RING_SIZE;
+
+    static {
+        long longestWindow = 0;
+        for (TrendWindow window : TrendWindow.values()) {
+            longestWindow = Math.max(longestWindow, window.getLengthMillis());
+        }
+        RING_SIZE = (int) (longestWindow / BUCKET_LENGTH_MILLIS);
+    }
+
+    private final int topItems;
+
+    private final int itemsPerBucket;
+
+    private final Path snapshotFile;
+
+    // milliseconds since the epoch
+    private final LongSupplier clock;
+
+    // restaurant id -> items ordered from it
+    private final Map<Integer, RestaurantTrend> restaurants = new ConcurrentHashMap<>();
+
+    private final AtomicLong snapshotsWritten = new AtomicLong();
+
+    private final AtomicLong snapshotFailures = new AtomicLong();
+
+    @Autowired
+    public TrendingItems(
+            @Value("${item.popularity.top-items:5}") final int topItems,
+            @Value("${item.trending.items-per-bucket:32}") final int itemsPerBucket,
+            @Value("${item.trending.snapshot-file:}") final String snapshotFile) {
+        this(topItems, itemsPerBucket, snapshotFile, System::currentTimeMillis);
+    }
+
+    // with the time taken from the given clock instead of the system clock
+    TrendingItems(
+            final int topItems,
+            final int itemsPerBucket,
+            final String snapshotFile,
+            final LongSupplier clock) {
+        this.topItems = topItems;
+        this.itemsPerBucket = itemsPerBucket;
+        this.snapshotFile = snapshotFile.isEmpty() ? null : Paths.get(snapshotFile);
+        this.clock = clock;
+    }
+
+    /**
+     * This method counts an item of an order committed now.
+     *
+     * @param restaurantId Id of the restaurant the order is placed with.
+     * @param itemId Id of the ordered item.
+     */
+    public void record(final Integer restaurantId, final Integer itemId) {
+        long now = currentBucket();
+        // recorded within the map operation, so the restaurant cannot be dropped as idle meanwhile
+        restaurants.compute(
+                restaurantId,
+                (id, trend) -> {
+                    RestaurantTrend restaurantTrend =
+                            trend == null ? new RestaurantTrend(topItems, itemsPerBucket) : trend;
+                    restaurantTrend.record(itemId, now);
+                    return restaurantTrend;
+                });
+    }
+
+    /**
+     * This method gets the items of a restaurant ordered most within a window ending now.
+     *
+     * @param restaurantId Id of the restaurant.
+     * @param window Window the orders are counted over.
+     * @return ids of at most top-items items, most ordered item first.
+     */
+    public List<Integer> getTopItemIds(final Integer restaurantId, final TrendWindow window) {
+        RestaurantTrend trend = restaurants.get(restaurantId);
+        if (trend == null) {
+            return Collections.emptyList();
+        }
+        return trend.getTopItemIds(window, currentBucket());
+    }
+
+    /** This method reads the buckets written by {@link #writeSnapshot()}, if there are any. */
+    @PostConstruct
+    public void loadSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+        long now = currentBucket();
+        Map<Integer, RestaurantTrend> loaded = new HashMap<>();
+        try (DataInputStream in =
+                     new DataInputStream(
+                             new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_VERSION || in.readLong() != BUCKET_LENGTH_MILLIS) {
+                // written by a version counting differently, the counts are started afresh
+                return;
+            }
+            int restaurantCount = in.readInt();
+            for (int r = 0; r < restaurantCount; r++) {
+                RestaurantTrend trend = new RestaurantTrend(topItems, itemsPerBucket);
+                loaded.put(in.readInt(), trend);
+                int bucketCount = in.readInt();
+                List<BucketSummary> buckets = new ArrayList<>(bucketCount);
+                for (int b = 0; b < bucketCount; b++) {
+                    BucketSummary bucket = new BucketSummary(in.readLong(), itemsPerBucket);
+                    int size = in.readInt();
+                    for (int i = 0; i < size; i++) {
+                        bucket.put(in.readInt(), in.readLong());
+                    }
+                    buckets.add(bucket);
+                }
+                trend.restore(buckets, now);
+            }
+        } catch (IOException | RuntimeException e) {
+            // a damaged snapshot only costs the counts so far, it must not keep the service down
+            snapshotFailures.incrementAndGet();
+            LOG.warn(
+                    "Trending items snapshot {} could not be read, counting afresh",
+                    snapshotFile,
+                    e);
+            return;
+        }
+        loaded.values().removeIf(trend -> trend.isIdle(now));
+        restaurants.putAll(loaded);
+    }
+
+    /** This method writes the buckets of every restaurant to the snapshot-file. */
+    @Scheduled(
+            initialDelayString = "${item.trending.snapshot-interval:60000}",
+            fixedDelayString = "${item.trending.snapshot-interval:60000}")
+    @PreDestroy
+    public synchronized void writeSnapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+        long now = currentBucket();
+        Path partialFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            if (snapshotFile.getParent() != null) {
+                Files.createDirectories(snapshotFile.getParent());
+            }
+            try (DataOutputStream out =
+                         new DataOutputStream(
+                                 new BufferedOutputStream(Files.newOutputStream(partialFile)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(BUCKET_LENGTH_MILLIS);
+                // copied first, as restaurants may be added while the snapshot is written
+                List<Map.Entry<Integer, RestaurantTrend>> trends =
+                        new ArrayList<>(restaurants.entrySet());
+                out.writeInt(trends.size());
+                for (Map.Entry<Integer, RestaurantTrend> trend : trends) {
+                    out.writeInt(trend.getKey());
+                    List<BucketSummary> buckets = trend.getValue().copyBuckets(now);
+                    out.writeInt(buckets.size());
+                    for (BucketSummary bucket : buckets) {
+                        out.writeLong(bucket.number);
+                        out.writeInt(bucket.size);
+                        for (int i = 0; i < bucket.size; i++) {
+                            out.writeInt(bucket.itemIds[i]);
+                            out.writeLong(bucket.counts[i]);
+                        }
+                    }
+                }
+            }
+            Files.move(
+                    partialFile,
+                    snapshotFile,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            snapshotsWritten.incrementAndGet();
+        } catch (IOException e) {
+            snapshotFailures.incrementAndGet();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** This method drops the restaurants without orders in the longest window. */
+    @Scheduled(
+            initialDelayString = "${item.trending.snapshot-interval:60000}",
+            fixedDelayString = "${item.trending.snapshot-interval:60000}")
+    public void removeIdleRestaurants() {
+        long now = currentBucket();
+        for (Integer restaurantId : restaurants.keySet()) {
+            restaurants.computeIfPresent(
+                    restaurantId, (id, trend) -> trend.isIdle(now) ? null : trend);
+        }
+    }
+
+    public int size() {
+        return restaurants.size();
+    }
+
+    public long getSnapshotsWritten() {
+        return snapshotsWritten.get();
+    }
+
+    public long getSnapshotFailures() {
+        return snapshotFailures.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder(
+                        "item.trending.snapshots", this, TrendingItems::getSnapshotsWritten)
+                .tag("result", "written")
+                .description("Number of snapshots of the trending items written")
+                .register(registry);
+        FunctionCounter.builder(
+                        "item.trending.snapshots", this, TrendingItems::getSnapshotFailures)
+                .tag("result", "failed")
+                .description("Number of snapshots of the trending items that could not be used")
+                .register(registry);
+        Gauge.builder("item.trending.size", this, TrendingItems::size)
+                .description("Number of restaurants whose trending items are held")
+                .register(registry);
+    }
+
+    private long currentBucket() {
+        return clock.getAsLong() / BUCKET_LENGTH_MILLIS;
+    }
+
+    private static int slot(final long bucket) {
+        return (int) (bucket % RING_SIZE);
+    }
+
+    /** Buckets of one restaurant and the counts of its windows. */
+    private static final class RestaurantTrend {
+
+        private final int itemsPerBucket;
+
+        private final BucketSummary[] buckets = new BucketSummary[RING_SIZE];
+
+        // indexed by TrendWindow ordinal
+        private final WindowCounts[] windows;
+
+        // newest bucket counted in, -1 before the first order
+        private volatile long currentBucket = -1;
+
+        RestaurantTrend(final int topItems, final int itemsPerBucket) {
+            this.itemsPerBucket = itemsPerBucket;
+            this.windows = new WindowCounts[TrendWindow.values().length];
+            for (TrendWindow window : TrendWindow.values()) {
+                windows[window.ordinal()] =
+                        new WindowCounts(
+                                (int) (window.getLengthMillis() / BUCKET_LENGTH_MILLIS), topItems);
+            }
+        }
+
+        List<Integer> getTopItemIds(final TrendWindow window, final long now) {
+            if (now > currentBucket) {
+                synchronized (this) {
+                    advance(now);
+                }
+            }
+            return windows[window.ordinal()].ranking.getItemIds();
+        }
+
+        synchronized void record(final int itemId, final long now) {
+            advance(now);
+            BucketSummary bucket = buckets[slot(currentBucket)];
+            if (bucket == null) {
+                bucket = new BucketSummary(currentBucket, itemsPerBucket);
+                buckets[slot(currentBucket)] = bucket;
+            }
+
+            int position = bucket.indexOf(itemId);
+            if (position >= 0 || bucket.size < itemsPerBucket) {
+                bucket.put(itemId, 1);
+                for (WindowCounts window : windows) {
+                    window.add(itemId, 1);
+                    window.ranking.countIncreased(itemId, window.counts);
+                }
+                return;
+            }
+
+            // Space-Saving: the least counted item makes room, the new item takes over its count
+            int least = bucket.indexOfLeastCounted();
+            int evictedItemId = bucket.itemIds[least];
+            long evictedCount = bucket.counts[least];
+            bucket.itemIds[least] = itemId;
+            bucket.counts[least] = evictedCount + 1;
+            for (WindowCounts window : windows) {
+                window.add(evictedItemId, -evictedCount);
+                window.add(itemId, evictedCount + 1);
+                window.ranking.rebuild(window.counts);
+            }
+        }
+
+        synchronized boolean isIdle(final long now) {
+            advance(now);
+            for (BucketSummary bucket : buckets) {
+                if (bucket != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized List<BucketSummary> copyBuckets(final long now) {
+            advance(now);
+            List<BucketSummary> copies = new ArrayList<>();
+            for (BucketSummary bucket : buckets) {
+                if (bucket != null) {
+                    copies.add(bucket.copy());
+                }
+            }
+            return copies;
+        }
+
+        synchronized void restore(final List<BucketSummary> restoredBuckets, final long now) {
+            advance(now);
+            for (BucketSummary bucket : restoredBuckets) {
+                long age = now - bucket.number;
+                if (age < 0 || age >= RING_SIZE) {
+                    continue;
+                }
+                buckets[slot(bucket.number)] = bucket;
+                for (WindowCounts window : windows) {
+                    if (age < window.bucketCount) {
+                        window.add(bucket);
+                    }
+                }
+            }
+            for (WindowCounts window : windows) {
+                window.ranking.rebuild(window.counts);
+            }
+        }
+
+        // Moves every window on to end with the given bucket.
+        private void advance(final long now) {
+            if (now <= currentBucket) {
+                return;
+            }
+            if (now - currentBucket >= RING_SIZE) {
+                Arrays.fill(buckets, null);
+                for (WindowCounts window : windows) {
+                    window.counts.clear();
+                    window.ranking.rebuild(window.counts);
+                }
+                currentBucket = now;
+                return;
+            }
+
+            boolean[] shrunk = new boolean[windows.length];
+            for (long next = currentBucket + 1; next <= now; next++) {
+                for (int w = 0; w < windows.length; w++) {
+                    BucketSummary leaving = bucketAt(next - windows[w].bucketCount);
+                    if (leaving != null) {
+                        windows[w].subtract(leaving);
+                        shrunk[w] = true;
+                    }
+                }
+                // the slot held the bucket that just left the longest window
+                buckets[slot(next)] = null;
+            }
+            currentBucket = now;
+            for (int w = 0; w < windows.length; w++) {
+                if (shrunk[w]) {
+                    windows[w].ranking.rebuild(windows[w].counts);
+                }
+            }
+        }
+
+        private BucketSummary bucketAt(final long number) {
+            if (number < 0) {
+                return null;
+            }
+            BucketSummary bucket = buckets[slot(number)];
+            return bucket != null && bucket.number == number ? bucket : null;
+        }
+    }
+
+    /** Counts of the items ordered within one window, i.e. the sum of its buckets. */
+    private static final class WindowCounts {
+
+        private final int bucketCount;
+
+        private final Map<Integer, Long> counts = new HashMap<>();
+
+        private final TopItemRanking ranking;
+
+        WindowCounts(final int bucketCount, final int topItems) {
+            this.bucketCount = bucketCount;
+            this.ranking = new TopItemRanking(topItems);
+        }
+
+        void add(final int itemId, final long delta) {
+            Long count = counts.merge(itemId, delta, Long::sum);
+            if (count <= 0) {
+                counts.remove(itemId);
+            }
+        }
+
+        void add(final BucketSummary bucket) {
+            for (int i = 0; i < bucket.size; i++) {
+                add(bucket.itemIds[i], bucket.counts[i]);
+            }
+        }
+
+        void subtract(final BucketSummary bucket) {
+            for (int i = 0; i < bucket.size; i++) {
+                add(bucket.itemIds[i], -bucket.counts[i]);
+            }
+        }
+    }
+
+    /** Space-Saving summary of the items ordered within one bucket. */
+    private static final class BucketSummary {
+
+        private final long number;
+
+        private final int[] itemIds;
+
+        private final long[] counts;
+
+        private int size;
+
+        BucketSummary(final long number, final int capacity) {
+            this.number = number;
+            this.itemIds = new int[capacity];
+            this.counts = new long[capacity];
+        }
+
+        // Adds to the count of an item, taking a free place if it has none. Never evicts.
+        void put(final int itemId, final long count) {
+            int position = indexOf(itemId);
+            if (position < 0) {
+                if (size == itemIds.length) {
+                    return;
+                }
+                position = size++;
+                itemIds[position] = itemId;
+            }
+            counts[position] += count;
+        }
+
+        int indexOf(final int itemId) {
+            for (int position = 0; position < size; position++) {
+                if (itemIds[position] == itemId) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        int indexOfLeastCounted() {
+            int least = 0;
+            for (int position = 1; position < size; position++) {
+                if (counts[position] < counts[least]) {
+                    least = position;
+                }
+            }
+            return least;
+        }
+
+        BucketSummary copy() {
+            BucketSummary copy = new BucketSummary(number, itemIds.length);
+            System.arraycopy(itemIds, 0, copy.itemIds, 0, size);
+            System.arraycopy(counts, 0, copy.counts, 0, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+}
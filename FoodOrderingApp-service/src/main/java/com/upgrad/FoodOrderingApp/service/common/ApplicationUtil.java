@@ -1,5 +1,6 @@
 package com.upgrad.FoodOrderingApp.service.common;
 
+import org.apache.commons.validator.routines.EmailValidator;
 import org.springframework.stereotype.Component;
 
 import java.util.regex.Matcher;
@@ -21,4 +22,28 @@ public class ApplicationUtil {
         Matcher m = p.matcher(cutomerRating);
         return (m.find() && m.group().equals(cutomerRating));
     }
+
+    // method checks for format of the email is correct or not using EmailValidator
+    public boolean isValidEmail(final String emailAddress) {
+        EmailValidator validator = EmailValidator.getInstance();
+        return validator.isValid(emailAddress);
+    }
+
+    // method checks for given contact number is valid or not
+    public boolean isValidContactNumber(final String contactNumber) {
+        if (contactNumber.length() != 10) {
+            return false;
+        }
+        for (int i = 0; i < contactNumber.length(); i++) {
+            if (!Character.isDigit(contactNumber.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // method checks for given password meets the requirements or not
+    public boolean isValidPassword(final String password) {
+        return password.matches("^(?=.*?[A-Z])(?=.*?[0-9])(?=.*?[#@$%&*!^]).{8,}$");
+    }
 }
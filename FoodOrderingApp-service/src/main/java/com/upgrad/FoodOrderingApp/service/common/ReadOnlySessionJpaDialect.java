@@ -0,0 +1,70 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+import java.sql.SQLException;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * Makes the Hibernate session of a read-only transaction read-only as well. Besides the manual
+ * flush mode and the read-only connection set up by {@link HibernateJpaDialect}, every entity the
+ * transaction loads is read-only: Hibernate keeps no snapshot of its state to check it for changes,
+ * so no copy of the state is allocated per row of a listing and the entities are skipped when the
+ * session is flushed later.
+ *
+ * <p>Entities stay read-only after the transaction for as long as the session is open, with open
+ * session in view until the end of the request. Changes made to them are never written, so an
+ * entity to be changed must not be loaded by a read-only service method.
+ */
+public class ReadOnlySessionJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(
+            final EntityManager entityManager, final TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = getSession(entityManager);
+        boolean previousDefaultReadOnly = session.isDefaultReadOnly();
+        session.setDefaultReadOnly(true);
+        return new ReadOnlyTransactionData(transactionData, session, previousDefaultReadOnly);
+    }
+
+    @Override
+    public void cleanupTransaction(final Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData) {
+            ReadOnlyTransactionData readOnlyTransactionData =
+                    (ReadOnlyTransactionData) transactionData;
+            if (readOnlyTransactionData.session.isOpen()) {
+                readOnlyTransactionData.session.setDefaultReadOnly(
+                        readOnlyTransactionData.previousDefaultReadOnly);
+            }
+            super.cleanupTransaction(readOnlyTransactionData.transactionData);
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private static final class ReadOnlyTransactionData {
+
+        private final Object transactionData;
+
+        private final Session session;
+
+        private final boolean previousDefaultReadOnly;
+
+        private ReadOnlyTransactionData(
+                final Object transactionData,
+                final Session session,
+                final boolean previousDefaultReadOnly) {
+            this.transactionData = transactionData;
+            this.session = session;
+            this.previousDefaultReadOnly = previousDefaultReadOnly;
+        }
+    }
+}
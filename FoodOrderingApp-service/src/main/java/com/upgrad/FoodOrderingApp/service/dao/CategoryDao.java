@@ -3,13 +3,20 @@ package com.upgrad.FoodOrderingApp.service.dao;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class CategoryDao {
 
+    // Restaurant UUIDs bound per category names query. The last chunk is padded to this size, so
+    // that every query has the same number of parameters and shares one statement and plan.
+    private static final int RESTAURANT_UUID_CHUNK_SIZE = 50;
+
     @PersistenceContext private EntityManager entityManager;
 
     /**
@@ -58,4 +65,56 @@ public class CategoryDao {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * This method fetches the category names of all the given restaurants, in one query for every
+     * RESTAURANT_UUID_CHUNK_SIZE restaurants.
+     *
+     * @param restaurantUuids UUIDs of the restaurants whose categories are to be fetched.
+     * @return Map of restaurant UUID to its category names ordered by name. Restaurants without any
+     *     category are not present in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, List<String>> getCategoryNamesByRestaurants(
+            final List<String> restaurantUuids) {
+        Map<String, List<String>> categoryNamesByRestaurant = new HashMap<>();
+        if (restaurantUuids == null || restaurantUuids.isEmpty()) {
+            return categoryNamesByRestaurant;
+        }
+        for (int from = 0; from < restaurantUuids.size(); from += RESTAURANT_UUID_CHUNK_SIZE) {
+            List<String> chunk =
+                    new ArrayList<>(
+                            restaurantUuids.subList(
+                                    from,
+                                    Math.min(
+                                            from + RESTAURANT_UUID_CHUNK_SIZE,
+                                            restaurantUuids.size())));
+            // Repeating the last UUID does not change the rows the query returns.
+            while (chunk.size() < RESTAURANT_UUID_CHUNK_SIZE) {
+                chunk.add(chunk.get(chunk.size() - 1));
+            }
+            List<Object[]> rows =
+                    entityManager
+                            .createNamedQuery("getCategoryNamesByRestaurants")
+                            .setParameter("restaurantUuids", chunk)
+                            .getResultList();
+            for (Object[] row : rows) {
+                categoryNamesByRestaurant
+                        .computeIfAbsent((String) row[0], uuid -> new ArrayList<>())
+                        .add((String) row[1]);
+            }
+        }
+        return categoryNamesByRestaurant;
+    }
+
+    /**
+     * This method fetches what the suggestions need of every category, without loading the
+     * categories themselves.
+     *
+     * @return List of (uuid, category name, number of restaurants) tuples.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getCategorySuggestions() {
+        return entityManager.createNamedQuery("categorySuggestions").getResultList();
+    }
+}
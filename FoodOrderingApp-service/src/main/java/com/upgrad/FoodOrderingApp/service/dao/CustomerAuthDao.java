@@ -6,6 +6,8 @@ import org.springframework.stereotype.Repository;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+import java.util.List;
 
 @Repository
 public class CustomerAuthDao {
@@ -44,6 +46,35 @@ public class CustomerAuthDao {
         }
     }
 
+    /**
+     * This method gets the logins that were logged out and have not expired yet.
+     *
+     * @param now Current time.
+     * @return List of CustomerAuthEntity
+     */
+    public List<CustomerAuthEntity> getLoggedOutCustomerAuths(final ZonedDateTime now) {
+        return entityManager
+                .createNamedQuery("loggedOutCustomerAuths", CustomerAuthEntity.class)
+                .setParameter("now", now)
+                .getResultList();
+    }
+
+    /**
+     * This method gets the access tokens logged out since the given time that have not expired yet.
+     *
+     * @param since Earliest logout time.
+     * @param now Current time.
+     * @return List of access tokens.
+     */
+    public List<String> getAccessTokensLoggedOutSince(
+            final ZonedDateTime since, final ZonedDateTime now) {
+        return entityManager
+                .createNamedQuery("accessTokensLoggedOutSince", String.class)
+                .setParameter("since", since)
+                .setParameter("now", now)
+                .getResultList();
+    }
+
     /**
      * This method updates the customers logout time in the database.
      *
@@ -42,13 +42,38 @@ public class CustomerDao {
     }
 
     /**
-     * This method updates the customer details in the database.
+     * This method finds the customer by uuid.
+     *
+     * @param uuid UUID of the customer.
+     * @return CustomerEntity or null if there is no customer with the given uuid.
+     */
+    public CustomerEntity getCustomerByUuid(final String uuid) {
+        try {
+            return entityManager
+                    .createNamedQuery("customerByUuid", CustomerEntity.class)
+                    .setParameter("uuid", uuid)
+                    .getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * This method updates the customer details in the database. The name, email and contact
+     * number are copied onto the managed customer instead of merging the given one, since a
+     * customer handed out by the session cache is a detached copy without its addresses or password
+     * and merging it would drop them.
      *
      * @param customerEntity CustomerEntity object to update.
      * @return Updated CustomerEntity object.
      */
     public CustomerEntity updateCustomer(final CustomerEntity customerEntity) {
-        entityManager.merge(customerEntity);
-        return customerEntity;
+        CustomerEntity managedCustomerEntity =
+                entityManager.find(CustomerEntity.class, customerEntity.getId());
+        managedCustomerEntity.setFirstName(customerEntity.getFirstName());
+        managedCustomerEntity.setLastName(customerEntity.getLastName());
+        managedCustomerEntity.setEmailAddress(customerEntity.getEmailAddress());
+        managedCustomerEntity.setContactNumber(customerEntity.getContactNumber());
+        return managedCustomerEntity;
     }
 }
\ No newline at end of file
@@ -3,10 +3,10 @@ package com.upgrad.FoodOrderingApp.service.dao;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
-import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -15,23 +15,67 @@ public class ItemDao {
     @PersistenceContext private EntityManager entityManager;
 
     /**
-     * This method gets top five popular items of a restaurant.
+     * This method counts, for every item ever ordered from a restaurant, the number of orders it is
+     * part of.
      *
-     * @param restaurant Restaurant whose top five items are to be queried.
-     * @return top five items
+     * @param restaurantId Id of the restaurant whose orders are to be counted.
+     * @return List of (item id, number of orders) tuples.
      */
-    public List<ItemEntity> getOrdersByRestaurant(RestaurantEntity restaurant) {
-        List<ItemEntity> items =
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getItemOrderCountsByRestaurant(final Integer restaurantId) {
+        List<Object[]> orderCounts =
                 entityManager
-                        .createNamedQuery("topFivePopularItemsByRestaurant", ItemEntity.class)
-                        .setParameter(0, restaurant.getId())
+                        .createNamedQuery("itemOrderCountsByRestaurant")
+                        .setParameter("restaurantId", restaurantId)
                         .getResultList();
-        if (items != null) {
-            return items;
+        if (orderCounts != null) {
+            return orderCounts;
         }
         return Collections.emptyList();
     }
 
+    /**
+     * This method counts, for every item ever ordered from any of the restaurants, the number of
+     * orders of the restaurant it is part of, in a single statement.
+     *
+     * @param restaurantIds Ids of the restaurants whose orders are to be counted.
+     * @return List of (restaurant id, item id, number of orders) tuples.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getItemOrderCountsByRestaurants(final Collection<Integer> restaurantIds) {
+        return entityManager
+                .createNamedQuery("itemOrderCountsByRestaurants")
+                .setParameter("restaurantIds", restaurantIds)
+                .getResultList();
+    }
+
+    /**
+     * This method fetches what the suggestions need of every item, without loading the items
+     * themselves.
+     *
+     * @return List of (uuid, item name, number of orders) tuples.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getItemSuggestions() {
+        return entityManager.createNamedQuery("itemSuggestions").getResultList();
+    }
+
+    /**
+     * Fetch the items with the given ids.
+     *
+     * @param itemIds Ids of the items to be fetched.
+     * @return List of ItemEntity in no particular order, ids not in the database have no item.
+     */
+    public List<ItemEntity> getItemsByIds(final Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return entityManager
+                .createNamedQuery("itemsByIds", ItemEntity.class)
+                .setParameter("itemIds", itemIds)
+                .getResultList();
+    }
+
     /**
      * Fetch the item based on UUID.
      *
@@ -52,20 +96,46 @@ public class ItemDao {
     }
 
     /**
-     * This method gets Items for a given category in a restaurant
+     * Fetch the items with the given UUIDs together with whether the restaurant serves them, in a
+     * single query.
+     *
+     * @param restaurantUuid Restaurant the items are ordered from.
+     * @param itemUuids UUIDs of the items to be fetched.
+     * @return List of (ItemEntity, restaurant_item id) tuples, the id being null if the restaurant
+     *     doesn't serve the item. UUIDs not in the database have no tuple.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getItemsByUuidsWithRestaurantItem(
+            final String restaurantUuid, final Collection<String> itemUuids) {
+        List<Object[]> items =
+                entityManager
+                        .createNamedQuery("itemsByUuidsWithRestaurantItem")
+                        .setParameter("restaurantUuid", restaurantUuid)
+                        .setParameter("itemUuids", itemUuids)
+                        .getResultList();
+        if (items != null) {
+            return items;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * This method gets the complete menu of a restaurant in a single query.
      *
-     * @param restaurantUuid Restaurant whose items are to be queried, categoryUuid Category to be
-     *     queried. * @return List of ItemEntity
-     * @return List of ItemEntity
+     * @param restaurantUuid Restaurant whose menu is to be queried.
+     * @return List of (CategoryEntity, ItemEntity) tuples ordered by category name and item name. The
+     *     item is null for a category that has no item in the restaurant.
      */
-    public List<ItemEntity> getAllItemsInCategoryInRestaurant(
-            final String restaurantUuid, final String categoryUuid) {
-        List<ItemEntity> items =
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getMenuItemsByRestaurant(final String restaurantUuid) {
+        List<Object[]> menuItems =
                 entityManager
-                        .createNamedQuery("getAllItemsInCategoryInRestaurant", ItemEntity.class)
+                        .createNamedQuery("getMenuItemsByRestaurant")
                         .setParameter("restaurantUuid", restaurantUuid)
-                        .setParameter("categoryUuid", categoryUuid)
                         .getResultList();
-        return items;
+        if (menuItems != null) {
+            return menuItems;
+        }
+        return Collections.emptyList();
     }
 }
\ No newline at end of file
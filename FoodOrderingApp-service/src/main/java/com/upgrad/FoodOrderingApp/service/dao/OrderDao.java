@@ -2,57 +2,134 @@ package com.upgrad.FoodOrderingApp.service.dao;
 
 import com.upgrad.FoodOrderingApp.service.entity.OrderEntity;
 import com.upgrad.FoodOrderingApp.service.entity.OrderItemEntity;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
 public class OrderDao {
+
+    private static final int EXPORT_FETCH_SIZE = 100;
+
     @PersistenceContext private EntityManager entityManager;
 
     /**
-     * Fetches the orders of the customer in a sorted manner with latest order being on the top. *
+     * Fetches a page of the orders of the customer, latest order first, together with everything
+     * the order history shows of them, in two queries.
      *
-     * @param customerUUID customer whose orders are to be fetched. * @return list of orders made by
-     *     customer
+     * @param customerUUID customer whose orders are to be fetched.
+     * @param afterDate date of the last order of the previous page, null for the first page.
+     * @param afterId id of the last order of the previous page, null for the first page.
+     * @param maxResults maximum number of orders to be fetched.
      * @return list of orders made by customer.
      */
-    public List<OrderEntity> getOrdersByCustomers(String customerUUID) {
+    public List<OrderEntity> getOrdersByCustomer(
+            final String customerUUID,
+            final ZonedDateTime afterDate,
+            final Integer afterId,
+            final int maxResults) {
+        TypedQuery<OrderEntity> query;
+        if (afterDate == null || afterId == null) {
+            query = entityManager.createNamedQuery("getOrdersByCustomer", OrderEntity.class);
+        } else {
+            query =
+                    entityManager
+                            .createNamedQuery("getOrdersByCustomerAfter", OrderEntity.class)
+                            .setParameter("date", afterDate)
+                            .setParameter("id", afterId);
+        }
         List<OrderEntity> ordersByCustomer =
-                entityManager
-                        .createNamedQuery("getOrdersByCustomer", OrderEntity.class)
+                query
                         .setParameter("customerUUID", customerUUID)
+                        .setMaxResults(maxResults)
                         .getResultList();
-        if (ordersByCustomer != null) {
-            return ordersByCustomer;
+        if (ordersByCustomer == null || ordersByCustomer.isEmpty()) {
+            return Collections.emptyList();
         }
-        return Collections.emptyList();
+        // initializes the items of all orders of the page at once
+        entityManager
+                .createNamedQuery("fetchOrderItemsOfOrders", OrderEntity.class)
+                .setParameter("orders", ordersByCustomer)
+                .getResultList();
+        return ordersByCustomer;
     }
 
     /**
-     * Order to be persisted in the database.
+     * Streams all orders of the customer, latest order first, with their items. The rows are read
+     * through a forward-only cursor in chunks of {@link #EXPORT_FETCH_SIZE}, and the persistence
+     * context is cleared before each order is handed over, so neither the rows nor the entities of
+     * the orders already handed over are held in memory. Must be called in a transaction.
      *
-     * @param order
-     * @return Persisted Order.
+     * @param customerUUID customer whose orders are to be streamed.
+     * @param orderConsumer receives each order, detached and with its items set.
      */
-    public OrderEntity saveOrder(OrderEntity order) {
-        entityManager.persist(order);
-        return order;
+    public void scrollOrdersByCustomer(
+            final String customerUUID, final Consumer<OrderEntity> orderConsumer) {
+        Query<?> query =
+                entityManager
+                        .createNamedQuery("exportOrdersByCustomer")
+                        .setParameter("customerUUID", customerUUID)
+                        .unwrap(Query.class);
+        try (ScrollableResults results =
+                     query.setFetchSize(EXPORT_FETCH_SIZE)
+                             .setReadOnly(true)
+                             .scroll(ScrollMode.FORWARD_ONLY)) {
+            OrderEntity order = null;
+            List<OrderItemEntity> orderItems = null;
+            while (results.next()) {
+                OrderEntity rowOrder = (OrderEntity) results.get(0);
+                OrderItemEntity rowOrderItem = (OrderItemEntity) results.get(1);
+                if (order == null || !order.getId().equals(rowOrder.getId())) {
+                    if (order != null) {
+                        handOver(order, orderItems, orderConsumer);
+                    }
+                    order = rowOrder;
+                    orderItems = new ArrayList<>();
+                }
+                if (rowOrderItem != null) {
+                    orderItems.add(rowOrderItem);
+                }
+            }
+            if (order != null) {
+                handOver(order, orderItems, orderConsumer);
+            }
+        }
+    }
+
+    private void handOver(
+            final OrderEntity order,
+            final List<OrderItemEntity> orderItems,
+            final Consumer<OrderEntity> orderConsumer) {
+        entityManager.clear();
+        order.setOrderItems(orderItems);
+        orderConsumer.accept(order);
     }
 
     /**
-     * Order item that is to be persisted in the database.
+     * Order and its items to be persisted in the database. Ids come from sequences allocated in
+     * blocks, so no row has to be inserted to learn its id and all rows go out in JDBC batches on the
+     * flush at the end, which also raises any constraint violation here rather than at commit.
      *
-     * @param orderItemEntity
-     * @return persisted order item.
+     * @param order
+     * @param orderItems
+     * @return Persisted Order.
      */
-    public OrderItemEntity saveOrderItem(OrderItemEntity orderItemEntity) {
-        entityManager.persist(orderItemEntity);
-        return orderItemEntity;
+    public OrderEntity saveOrderWithItems(OrderEntity order, List<OrderItemEntity> orderItems) {
+        entityManager.persist(order);
+        for (OrderItemEntity orderItemEntity : orderItems) {
+            entityManager.persist(orderItemEntity);
+        }
+        entityManager.flush();
+        return order;
     }
 }
\ No newline at end of file
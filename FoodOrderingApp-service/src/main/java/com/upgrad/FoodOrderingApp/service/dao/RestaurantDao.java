@@ -1,9 +1,12 @@
 package com.upgrad.FoodOrderingApp.service.dao;
 
 import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantListing;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import java.util.List;
@@ -32,52 +35,111 @@ public class RestaurantDao {
     }
 
     /**
-     * This method gets lists of all restaurants
+     * This method gets the listing of all restaurants, read with their address and state in one
+     * statement without loading the restaurants themselves.
      *
-     * @param
-     * @return List of RestaurantEntity
+     * @return List of RestaurantListing, highest rated first.
      */
-    public List<RestaurantEntity> restaurantsByRating() {
+    public List<RestaurantListing> restaurantsByRating() {
         return entityManager
-                .createNamedQuery("restaurantsByRating", RestaurantEntity.class)
+                .createNamedQuery("restaurantsByRating", RestaurantListing.class)
                 .getResultList();
     }
 
     /**
-     * This method gets lists of all restaurants by Search string
+     * This method fetches what the suggestions need of every restaurant, without loading the
+     * restaurants themselves.
      *
-     * @param searchString
-     * @return List of RestaurantEntity
+     * @return List of (uuid, restaurant name, customer rating) tuples.
      */
-    public List<RestaurantEntity> restaurantsByName(final String searchString) {
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getRestaurantSuggestions() {
+        return entityManager.createNamedQuery("restaurantSuggestions").getResultList();
+    }
+
+    /**
+     * This method searches restaurants by name through the trigram index on restaurant_name. A
+     * restaurant matches if its name contains the search string, or is similar to it or has a part
+     * similar to it, so a misspelt search still finds it.
+     *
+     * @param searchString Text typed in the search box.
+     * @param maxResults Maximum number of restaurants to be returned.
+     * @return List of RestaurantListing, names starting with the search string first and then the
+     *     most similar names.
+     */
+    @SuppressWarnings("unchecked")
+    public List<RestaurantListing> restaurantsByName(
+            final String searchString, final int maxResults) {
+        String escapedSearchString = escapeLikePattern(searchString);
         return entityManager
-                .createNamedQuery("getRestaurantByName", RestaurantEntity.class)
-                .setParameter("searchString", "%" + searchString + "%")
+                .createNamedQuery("searchRestaurantsByName")
+                .setParameter("searchString", searchString)
+                .setParameter("pattern", "%" + escapedSearchString + "%")
+                .setParameter("prefixPattern", escapedSearchString + "%")
+                .setMaxResults(maxResults)
                 .getResultList();
     }
 
     /**
-     * This method updates the rating for a restaurant
+     * This method changes the customer rating of a restaurant in a single update statement, so
+     * ratings submitted at the same time are all counted. Must be called in a transaction; the
+     * update bypasses the persistence context and its entity listeners.
+     *
+     * @param restaurantId Id of the rated restaurant.
+     * @param ratingSum Change of the sum of the ratings, negative if a customer lowered the rating.
+     * @param ratingCount Change of the number of raters.
+     * @return true if the restaurant was updated, false if there is no restaurant by that id or it
+     *     would be left without raters.
+     */
+    public boolean addRestaurantRatings(
+            final Integer restaurantId, final double ratingSum, final int ratingCount) {
+        return entityManager
+                .createNamedQuery("addRestaurantRatings")
+                .setParameter("ratingSum", ratingSum)
+                .setParameter("ratingCount", ratingCount)
+                .setParameter("restaurantId", restaurantId)
+                .executeUpdate()
+                > 0;
+    }
+
+    /**
+     * This method reads the restaurant from the database again with a single select, e.g. after an
+     * update statement.
      *
-     * @param restaurantEntity
-     * @return restaurantEntity
+     * @param restaurantId Id of the restaurant.
+     * @return RestaurantEntity with the values in the database, null if there is no restaurant by
+     *     that id.
      */
-    public RestaurantEntity updateRestaurantEntity(final RestaurantEntity restaurantEntity) {
-        RestaurantEntity updatedRestaurantEntity = entityManager.merge(restaurantEntity);
-        return updatedRestaurantEntity;
+    public RestaurantEntity refreshRestaurant(final Integer restaurantId) {
+        try {
+            // the restaurant held by the persistence context is refreshed, else a proxy is read
+            RestaurantEntity restaurantEntity =
+                    entityManager.getReference(RestaurantEntity.class, restaurantId);
+            entityManager.refresh(restaurantEntity);
+            Hibernate.initialize(restaurantEntity);
+            return restaurantEntity;
+        } catch (EntityNotFoundException enfe) {
+            return null;
+        }
     }
 
     /**
-     * This method gets restaurants by Category
+     * This method gets the listing of the restaurants of a category, read with their address and
+     * state in one statement without loading the restaurants themselves.
      *
      * @param categoryUuid
-     * @return List of restaurantEntity
+     * @return List of RestaurantListing ordered by name
      */
-    public List<RestaurantEntity> restaurantByCategory(final String categoryUuid) {
+    public List<RestaurantListing> restaurantByCategory(final String categoryUuid) {
 
         return entityManager
-                .createNamedQuery("restaurantByCategory", RestaurantEntity.class)
+                .createNamedQuery("restaurantByCategory", RestaurantListing.class)
                 .setParameter("categoryUuid", categoryUuid)
                 .getResultList();
     }
+
+    // % and _ typed in the search box are searched for, not used as wildcards.
+    private static String escapeLikePattern(final String searchString) {
+        return searchString.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
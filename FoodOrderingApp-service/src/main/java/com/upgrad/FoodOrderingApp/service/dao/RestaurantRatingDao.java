@@ -0,0 +1,61 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+@Repository
+public class RestaurantRatingDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method saves the rating of a customer for a restaurant, replacing the rating the customer
+     * gave before. Must be called in a transaction.
+     *
+     * @param customerId Id of the rating customer.
+     * @param restaurantId Id of the rated restaurant.
+     * @param rating Rating given by the customer.
+     * @return (previous rating, inserted) tuple. The previous rating is null if the row was inserted,
+     *     or if it was inserted by a concurrent transaction and only updated here.
+     */
+    public Object[] saveRestaurantRating(
+            final Integer customerId, final Integer restaurantId, final double rating) {
+        return (Object[])
+                entityManager
+                        .createNamedQuery("saveRestaurantRating")
+                        .setParameter("customerId", customerId)
+                        .setParameter("restaurantId", restaurantId)
+                        .setParameter("rating", rating)
+                        .getSingleResult();
+    }
+
+    /**
+     * This method sets the rating and the number of raters of every restaurant from its ledger rows,
+     * where they drifted. Must be called in a transaction.
+     *
+     * @return UUIDs of the restaurants updated.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> compactRestaurantRatings() {
+        return entityManager.createNamedQuery("compactRestaurantRatings").getResultList();
+    }
+
+    /**
+     * This method sets the rating and the number of raters of one restaurant from its ledger rows, if
+     * they drifted. Must be called in a transaction.
+     *
+     * @param restaurantId Id of the restaurant.
+     * @return UUID of the restaurant if it was updated.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> compactRestaurantRatings(final Integer restaurantId) {
+        return entityManager
+                .createNamedQuery("compactRestaurantRatingsOfRestaurant")
+                .setParameter("restaurantId", restaurantId)
+                .getResultList();
+    }
+}
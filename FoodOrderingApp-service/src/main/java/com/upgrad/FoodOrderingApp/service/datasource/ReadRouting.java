@@ -0,0 +1,121 @@
+package com.upgrad.FoodOrderingApp.service.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Decides which reads of a read-only transaction must go to the primary although a replica is
+ * available, see {@link ReplicaRoutingDataSource}:
+ *
+ * <ul>
+ *   <li>reads of a customer's own data within the sticky window after the customer wrote, so an
+ *       order or address the customer just saved is never missing from what is shown next,
+ *   <li>reads whose result is cached until the rows behind it are written again, as a cache filled
+ *       from a lagging replica would keep the old rows after the invalidation.
+ * </ul>
+ *
+ * <p>The sticky window is max-lag + lag-check-interval: a replica used for reads was at most
+ * max-lag behind when its lag was last checked. Writes are remembered by this instance only.
+ */
+@Component
+public class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final long stickyNanos;
+
+    // customer UUID to the System.nanoTime() until which their reads go to the primary
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadRouting(
+            @Value("${datasource.replicas.max-lag:1000}") final long maxLagMillis,
+            @Value("${datasource.replicas.lag-check-interval:500}") final long lagCheckMillis) {
+        this.stickyNanos = (maxLagMillis + lagCheckMillis) * 1_000_000L;
+    }
+
+    /**
+     * This method tells whether the current thread must read from the primary.
+     *
+     * @return true within {@link #readFromPrimary} and within a transaction in which {@link
+     *     #readOwnWrites} found the customer sticky.
+     */
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    /**
+     * This method runs the reader with every transaction it starts reading from the primary.
+     *
+     * @param reader Reads rows e.g. to be cached.
+     * @return result of the reader.
+     */
+    public <T> T readFromPrimary(final Supplier<T> reader) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return reader.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+
+    /**
+     * This method makes the customer's reads go to the primary for the sticky window once the
+     * current transaction commits, to be called by every write of data the customer reads back.
+     *
+     * @param customerUuid UUID of the customer who wrote.
+     */
+    public void recordWrite(final String customerUuid) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCommit() {
+                            stickyUntil.put(customerUuid, System.nanoTime() + stickyNanos);
+                        }
+                    });
+        } else {
+            stickyUntil.put(customerUuid, System.nanoTime() + stickyNanos);
+        }
+    }
+
+    /**
+     * This method makes the current transaction read from the primary if the customer wrote within
+     * the sticky window. It has to be called before the transaction runs its first statement.
+     *
+     * @param customerUuid UUID of the customer whose data is about to be read.
+     */
+    public void readOwnWrites(final String customerUuid) {
+        Long until = stickyUntil.get(customerUuid);
+        if (until == null
+                || until - System.nanoTime() <= 0
+                || isPrimaryRequired()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(final int status) {
+                        PRIMARY_REQUIRED.remove();
+                    }
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval:500}")
+    public void removeExpiredWrites() {
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> until - now <= 0);
+    }
+}
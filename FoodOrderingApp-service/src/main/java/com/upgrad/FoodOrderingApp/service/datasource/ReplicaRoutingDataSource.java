@@ -0,0 +1,255 @@
+package com.upgrad.FoodOrderingApp.service.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out connections of a read replica to read-only transactions and connections of the primary
+ * to everything else. Replicas take turns; a replica more than maxLagMillis behind the primary, or
+ * whose lag could not be checked, is skipped, and with no replica left the primary serves the read.
+ * {@link ReadRouting} sends some reads to the primary regardless.
+ *
+ * <p>The lag of each replica is queried on a thread of its own; a replica that does not answer
+ * within lagCheckTimeoutMillis, e.g. as it is down and its pool is waiting for a connection, is
+ * skipped until a later check gets an answer, so neither the startup nor the scheduler waits for
+ * it. The lag is read with the functions of PostgreSQL 10 and later, and with their earlier names
+ * from a replica running 9.x.
+ *
+ * <p>The transaction is only known to be read-only once it has begun, so this data source has to
+ * be wrapped in a {@link LazyConnectionDataSourceProxy}, which takes the connection on the first
+ * statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource
+        implements MeterBinder, AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+
+    private static final long UNAVAILABLE = Long.MAX_VALUE;
+
+    // Milliseconds the replica is behind, 0 for a replica that replayed everything it received
+    // while streaming, and for a database that is no replica at all, e.g. a second local instance.
+    // Null for a replica that never replayed a transaction.
+    private static final String LAG_QUERY =
+            "select case when not pg_is_in_recovery() then 0 "
+                    + "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+                    + "and exists (select 1 from pg_stat_wal_receiver where status = 'streaming') "
+                    + "then 0 "
+                    + "else (extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000)"
+                    + "::bigint end";
+
+    // The same for PostgreSQL 9.6, before the xlog functions were renamed to wal.
+    private static final String LAG_QUERY_BEFORE_10 =
+            "select case when not pg_is_in_recovery() then 0 "
+                    + "when pg_last_xlog_receive_location() = pg_last_xlog_replay_location() "
+                    + "and exists (select 1 from pg_stat_wal_receiver where status = 'streaming') "
+                    + "then 0 "
+                    + "else (extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000)"
+                    + "::bigint end";
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long maxLagMillis;
+
+    private final long lagCheckTimeoutMillis;
+
+    private final ExecutorService lagCheckExecutor;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final AtomicLong replicaReads = new AtomicLong();
+
+    private final AtomicLong primaryFallbacks = new AtomicLong();
+
+    /**
+     * @param primary Data source of the primary.
+     * @param replicas Data sources of the replicas by name.
+     * @param maxLagMillis Lag up to which a replica still serves reads.
+     * @param lagCheckTimeoutMillis Time a lag check waits for the replicas to answer.
+     */
+    public ReplicaRoutingDataSource(
+            final DataSource primary,
+            final Map<String, DataSource> replicas,
+            final long maxLagMillis,
+            final long lagCheckTimeoutMillis) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        this.lagCheckTimeoutMillis = lagCheckTimeoutMillis;
+        this.lagCheckExecutor =
+                Executors.newCachedThreadPool(
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "replica-lag-check");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(
+                (name, dataSource) -> {
+                    this.replicas.add(new Replica(name, dataSource));
+                    targets.put(name, dataSource);
+                });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicaLag();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReadRouting.isPrimaryRequired()
+                || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        int first = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((first + i) % replicas.size());
+            if (replica.lagMillis <= maxLagMillis) {
+                replicaReads.incrementAndGet();
+                return replica.name;
+            }
+        }
+        primaryFallbacks.incrementAndGet();
+        return PRIMARY;
+    }
+
+    /**
+     * This method checks how far each replica is behind the primary, waiting at most
+     * lagCheckTimeoutMillis for all of them.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval:500}")
+    public void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            // a check still waiting for the replica is waited for again rather than repeated
+            if (replica.lagCheck == null || replica.lagCheck.isDone()) {
+                replica.lagCheck = lagCheckExecutor.submit(() -> queryLag(replica.dataSource));
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lagCheckTimeoutMillis);
+        for (Replica replica : replicas) {
+            try {
+                replica.lagMillis =
+                        replica.lagCheck.get(
+                                Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                replica.lagMillis = UNAVAILABLE;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static long queryLag(final DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet =
+                        statement.executeQuery(
+                                connection.getMetaData().getDatabaseMajorVersion() < 10
+                                        ? LAG_QUERY_BEFORE_10
+                                        : LAG_QUERY)) {
+            resultSet.next();
+            long lagMillis = resultSet.getLong(1);
+            return resultSet.wasNull() ? UNAVAILABLE : Math.max(0, lagMillis);
+        } catch (SQLException e) {
+            return UNAVAILABLE;
+        }
+    }
+
+    public long getReplicaReadCount() {
+        return replicaReads.get();
+    }
+
+    public long getPrimaryFallbackCount() {
+        return primaryFallbacks.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder(
+                            "datasource.replica.lag",
+                            replica,
+                            r -> r.lagMillis == UNAVAILABLE ? Double.NaN : r.lagMillis)
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .description("Time the replica is behind the primary, NaN if unreachable")
+                    .register(registry);
+        }
+        FunctionCounter.builder(
+                        "datasource.replica.reads",
+                        this,
+                        ReplicaRoutingDataSource::getReplicaReadCount)
+                .tag("target", "replica")
+                .description("Number of read-only transactions served by a replica")
+                .register(registry);
+        FunctionCounter.builder(
+                        "datasource.replica.reads",
+                        this,
+                        ReplicaRoutingDataSource::getPrimaryFallbackCount)
+                .tag("target", "primary")
+                .description("Number of read-only transactions served by the primary as no "
+                        + "replica was within the lag")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws Exception {
+        lagCheckExecutor.shutdownNow();
+        for (Replica replica : replicas) {
+            closeDataSource(replica.dataSource);
+        }
+        closeDataSource(primary);
+    }
+
+    private static void closeDataSource(final DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable) {
+            ((AutoCloseable) dataSource).close();
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile long lagMillis = UNAVAILABLE;
+
+        private volatile Future<Long> lagCheck;
+
+        private Replica(final String name, final DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.upgrad.FoodOrderingApp.service.entity;
 
 import javax.persistence.CascadeType;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -12,6 +13,7 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -21,22 +23,47 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "category")
 @Entity
 @Table(name = "category")
 @NamedQueries({
         @NamedQuery(
                 name = "categoryByUuid",
-                query = "select c from CategoryEntity c where c.uuid=:uuid order by categoryName"),
+                query = "select c from CategoryEntity c where c.uuid=:uuid order by categoryName",
+                hints = {
+                        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                        @QueryHint(name = "org.hibernate.cacheRegion", value = "reference-queries")
+                }),
         @NamedQuery(
                 name = "getAllCategoriesOrderedByName",
-                query = "select c from CategoryEntity c order by categoryName asc"),
+                query = "select c from CategoryEntity c order by categoryName asc",
+                hints = {
+                        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                        @QueryHint(name = "org.hibernate.cacheRegion", value = "reference-queries")
+                }),
         @NamedQuery(
                 name = "getCategoriesByRestaurant",
                 query =
                         "Select c from CategoryEntity c where id in (select rc.categoryId from RestaurantCategoryEntity rc where rc.restaurantId = "
                                 + "(select r.id from RestaurantEntity r where "
-                                + " r.uuid=:restaurantUuid) )  order by c.categoryName")
+                                + " r.uuid=:restaurantUuid) )  order by c.categoryName"),
+        @NamedQuery(
+                name = "getCategoryNamesByRestaurants",
+                query =
+                        "select r.uuid, c.categoryName from RestaurantCategoryEntity rc, RestaurantEntity r, "
+                                + "CategoryEntity c where rc.restaurantId = r.id and rc.categoryId = c.id "
+                                + "and r.uuid in :restaurantUuids order by c.categoryName"),
+        // Number of restaurants serving each category, zero for a category no restaurant serves.
+        @NamedQuery(
+                name = "categorySuggestions",
+                query =
+                        "select c.uuid, c.categoryName, count(rc.id) from CategoryEntity c "
+                                + "left join RestaurantCategoryEntity rc on rc.categoryId = c.id "
+                                + "group by c.id, c.uuid, c.categoryName")
 })
 public class CategoryEntity implements Serializable {
     @Id
@@ -19,7 +19,17 @@ import java.time.ZonedDateTime;
 @NamedQueries({
         @NamedQuery(
                 name = "customerAuthByToken",
-                query = "select c from CustomerAuthEntity c where c.accessToken=:accessToken")
+                query = "select c from CustomerAuthEntity c where c.accessToken=:accessToken"),
+        @NamedQuery(
+                name = "loggedOutCustomerAuths",
+                query =
+                        "select c from CustomerAuthEntity c where c.logoutAt is not null "
+                                + "and c.expiresAt > :now"),
+        @NamedQuery(
+                name = "accessTokensLoggedOutSince",
+                query =
+                        "select c.accessToken from CustomerAuthEntity c "
+                                + "where c.logoutAt >= :since and c.expiresAt > :now")
 })
 public class CustomerAuthEntity implements Serializable {
 
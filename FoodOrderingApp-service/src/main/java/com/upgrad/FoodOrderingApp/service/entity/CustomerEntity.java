@@ -17,7 +17,8 @@ import java.util.List;
 @NamedQueries({
         @NamedQuery(
                 name = "customerByContactNumber",
-                query = "select c from CustomerEntity c where c.contactNumber=:contactNumber")
+                query = "select c from CustomerEntity c where c.contactNumber=:contactNumber"),
+        @NamedQuery(name = "customerByUuid", query = "select c from CustomerEntity c where c.uuid=:uuid")
 })
 public class CustomerEntity implements Serializable {
 
@@ -5,8 +5,6 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.NamedNativeQueries;
-import javax.persistence.NamedNativeQuery;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
@@ -21,30 +19,56 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 
 @Entity
 @Table(name = "item")
-@NamedNativeQueries({
-        // Using native query as named queries do not support LIMIT in nested statements.
-        @NamedNativeQuery(
-                name = "topFivePopularItemsByRestaurant",
-                query =
-                        "select * from item where id in "
-                                + "(select item_id from order_item where order_id in "
-                                + "(select id from orders where restaurant_id = ? ) "
-                                + "group by order_item.item_id "
-                                + "order by (count(order_item.order_id)) "
-                                + "desc LIMIT 5)",
-                resultClass = ItemEntity.class)
-})
 @NamedQueries({
         @NamedQuery(name = "itemByUUID", query = "select i from ItemEntity i where i.uuid=:itemUUID"),
+        @NamedQuery(name = "itemsByIds", query = "select i from ItemEntity i where i.id in :itemIds"),
+        // Number of orders of the restaurant each item is part of, the measure of its popularity.
+        @NamedQuery(
+                name = "itemOrderCountsByRestaurant",
+                query =
+                        "select oi.item.id, count(oi.id) from OrderItemEntity oi "
+                                + "where oi.order.restaurant.id = :restaurantId "
+                                + "group by oi.item.id"),
+        // The same for several restaurants at once, by restaurant.
+        @NamedQuery(
+                name = "itemOrderCountsByRestaurants",
+                query =
+                        "select oi.order.restaurant.id, oi.item.id, count(oi.id) "
+                                + "from OrderItemEntity oi "
+                                + "where oi.order.restaurant.id in :restaurantIds "
+                                + "group by oi.order.restaurant.id, oi.item.id"),
+        // Number of orders each item is part of over all restaurants, zero for an item never ordered.
+        @NamedQuery(
+                name = "itemSuggestions",
+                query =
+                        "select i.uuid, i.itemName, count(oi.id) from ItemEntity i "
+                                + "left join OrderItemEntity oi on oi.item.id = i.id "
+                                + "group by i.id, i.uuid, i.itemName"),
+        // The id of the restaurant_item row is null for an item the restaurant does not serve.
+        @NamedQuery(
+                name = "itemsByUuidsWithRestaurantItem",
+                query =
+                        "select i, ri.id from ItemEntity i "
+                                + "left join RestaurantItemEntity ri on ri.itemId = i.id "
+                                + "and ri.restaurantId = (select r.id from RestaurantEntity r where "
+                                + "r.uuid=:restaurantUuid) "
+                                + "where i.uuid in :itemUuids"),
+        // Categories without any item in the restaurant are returned once with a null item. Items
+        // of the category are restricted to the restaurant within the outer join, so items the
+        // category has in other restaurants add no rows.
         @NamedQuery(
-                name = "getAllItemsInCategoryInRestaurant",
+                name = "getMenuItemsByRestaurant",
                 query =
-                        "select i from ItemEntity i  where id in (select ri.itemId from RestaurantItemEntity ri "
-                                + "inner join CategoryItemEntity ci on ri.itemId = ci.itemId "
-                                + "where ri.restaurantId = (select r.id from RestaurantEntity r where "
-                                + "r.uuid=:restaurantUuid) and ci.categoryId = "
-                                + "(select c.id from CategoryEntity c where c.uuid=:categoryUuid ) )"
-                                + "order by lower(i.itemName) asc")
+                        "select c, i from RestaurantCategoryEntity rc "
+                                + "inner join CategoryEntity c on c.id = rc.categoryId "
+                                + "left join CategoryItemEntity ci on ci.categoryId = c.id "
+                                + "and exists (select ri.id from RestaurantItemEntity ri "
+                                + "where ri.itemId = ci.itemId "
+                                + "and ri.restaurantId = rc.restaurantId) "
+                                + "left join ItemEntity i on i.id = ci.itemId "
+                                + "where rc.restaurantId = (select r.id from RestaurantEntity r where "
+                                + "r.uuid=:restaurantUuid) "
+                                + "order by c.categoryName asc, lower(i.itemName) asc")
 })
 public class ItemEntity implements Serializable {
     @Id
@@ -19,6 +19,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -35,16 +36,49 @@ import java.util.List;
         @NamedQuery(
                 name = "allOrdersByAddress",
                 query = "select o from OrderEntity o where o.address=:address"),
+        // Pages of the order history are read newest first, keyed on (date, id) so that a page
+        // starts right after the last order of the previous one however deep the history is.
         @NamedQuery(
                 name = "getOrdersByCustomer",
+                query = "select o " + OrderEntity.ORDER_HISTORY_FROM
+                        + "where o.customer.uuid=:customerUUID "
+                        + "order by o.date desc, o.id desc"),
+        @NamedQuery(
+                name = "getOrdersByCustomerAfter",
+                query = "select o " + OrderEntity.ORDER_HISTORY_FROM
+                        + "where o.customer.uuid=:customerUUID "
+                        + "and (o.date < :date or (o.date = :date and o.id < :id)) "
+                        + "order by o.date desc, o.id desc"),
+        @NamedQuery(
+                name = "fetchOrderItemsOfOrders",
                 query =
-                        "select o from OrderEntity o where o.customer.uuid=:customerUUID order by o.date desc")
+                        "select distinct o from OrderEntity o "
+                                + "left join fetch o.orderItems oi left join fetch oi.item "
+                                + "where o in :orders"),
+        // One row per item of each order, the rows of an order being next to each other.
+        @NamedQuery(
+                name = "exportOrdersByCustomer",
+                query = "select o, oi " + OrderEntity.ORDER_HISTORY_FROM
+                        + "left join o.orderItems oi left join fetch oi.item "
+                        + "where o.customer.uuid=:customerUUID "
+                        + "order by o.date desc, o.id desc, oi.id")
 })
 public class OrderEntity implements Serializable {
 
+    // Every reference shown in the order history is fetched along with the orders.
+    static final String ORDER_HISTORY_FROM =
+            "from OrderEntity o "
+                    + "join fetch o.customer "
+                    + "join fetch o.address a join fetch a.state "
+                    + "left join fetch o.coupon "
+                    + "left join fetch o.payment "
+                    + "join fetch o.restaurant r join fetch r.address ra join fetch ra.state ";
+
+    // orders_id_seq is incremented by 50 so that ids are handed out in blocks without a round trip
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_generator")
+    @SequenceGenerator(name = "orders_id_generator", sequenceName = "orders_id_seq", allocationSize = 50)
     private Integer id;
 
     @NotNull
@@ -4,7 +4,10 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -12,18 +15,31 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "payment")
 @Entity
 @Table(name = "payment")
 @NamedQueries({
-        @NamedQuery(name = "getAllPaymentMethods", query = "select p from PaymentEntity p"),
+        @NamedQuery(
+                name = "getAllPaymentMethods",
+                query = "select p from PaymentEntity p",
+                hints = {
+                        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                        @QueryHint(name = "org.hibernate.cacheRegion", value = "reference-queries")
+                }),
         @NamedQuery(
                 name = "getPaymentByUUID",
-                query = "select p from PaymentEntity p where p.uuid=:paymentUUID")
+                query = "select p from PaymentEntity p where p.uuid=:paymentUUID",
+                hints = {
+                        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                        @QueryHint(name = "org.hibernate.cacheRegion", value = "reference-queries")
+                })
 })
 public class PaymentEntity implements Serializable {
 
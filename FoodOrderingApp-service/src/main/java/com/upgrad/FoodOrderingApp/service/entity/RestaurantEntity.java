@@ -1,14 +1,19 @@
 package com.upgrad.FoodOrderingApp.service.entity;
 
 import javax.persistence.Column;
+import javax.persistence.ColumnResult;
+import javax.persistence.ConstructorResult;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedNativeQueries;
+import javax.persistence.NamedNativeQuery;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.SqlResultSetMapping;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -20,27 +25,98 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 
 @Entity
 @Table(name = "restaurant")
+// Columns of a restaurant listing, in the order of the constructor of RestaurantListing.
+@SqlResultSetMapping(
+        name = "restaurantListing",
+        classes = @ConstructorResult(
+                targetClass = RestaurantListing.class,
+                columns = {
+                        @ColumnResult(name = "uuid", type = String.class),
+                        @ColumnResult(name = "restaurant_name", type = String.class),
+                        @ColumnResult(name = "photo_url", type = String.class),
+                        @ColumnResult(name = "customer_rating", type = Double.class),
+                        @ColumnResult(name = "average_price_for_two", type = Integer.class),
+                        @ColumnResult(name = "number_of_customers_rated", type = Integer.class),
+                        @ColumnResult(name = "address_uuid", type = String.class),
+                        @ColumnResult(name = "flat_buil_number", type = String.class),
+                        @ColumnResult(name = "locality", type = String.class),
+                        @ColumnResult(name = "city", type = String.class),
+                        @ColumnResult(name = "pincode", type = String.class),
+                        @ColumnResult(name = "state_uuid", type = String.class),
+                        @ColumnResult(name = "state_name", type = String.class)
+                }))
+@NamedNativeQueries({
+        // Every condition can be answered from the trigram index on restaurant_name: the pattern
+        // matches the search string anywhere in the name, % tolerates typos in the whole name and <%
+        // in a part of it. Names starting with the search string come first, then the most similar.
+        @NamedNativeQuery(
+                name = "searchRestaurantsByName",
+                query =
+                        "select r.uuid, r.restaurant_name, r.photo_url, r.customer_rating, "
+                                + "r.average_price_for_two, r.number_of_customers_rated, "
+                                + "a.uuid as address_uuid, a.flat_buil_number, a.locality, "
+                                + "a.city, a.pincode, s.uuid as state_uuid, s.state_name "
+                                + "from restaurant r "
+                                + "join address a on a.id = r.address_id "
+                                + "join state s on s.id = a.state_id "
+                                + "where r.restaurant_name ilike :pattern "
+                                + "or r.restaurant_name % :searchString "
+                                + "or :searchString <% r.restaurant_name "
+                                + "order by r.restaurant_name ilike :prefixPattern desc, "
+                                + "greatest(similarity(r.restaurant_name, :searchString), "
+                                + "word_similarity(:searchString, r.restaurant_name)) desc, "
+                                + "r.restaurant_name asc",
+                resultSetMapping = "restaurantListing")
+})
 @NamedQueries({
         @NamedQuery(
                 name = "restaurantByUUID",
                 query = "select r from RestaurantEntity r where r.uuid=:uuid"),
+        // Listings are read with their address and state in one statement, straight into rows of
+        // RestaurantListing instead of entities.
         @NamedQuery(
                 name = "restaurantsByRating",
-                query = "select r from RestaurantEntity r order  by customerRating desc"),
+                query =
+                        "select " + RestaurantEntity.LISTING
+                                + "order by r.customerRating desc, r.id asc"),
+        // A single statement, so concurrent ratings of a restaurant queue on its row instead of
+        // overwriting each other; every assignment reads the values from before the update. A change
+        // leaving no raters means the row drifted from the rating ledger and is not applied.
         @NamedQuery(
-                name = "getRestaurantByName",
+                name = "addRestaurantRatings",
                 query =
-                        "select r from RestaurantEntity r where lower(restaurantName) like lower(:searchString) "
-                                + "order by r.restaurantName asc"),
+                        "update RestaurantEntity r set r.customerRating = "
+                                + "(r.customerRating * r.numberCustomersRated + :ratingSum) "
+                                + "/ (r.numberCustomersRated + :ratingCount), "
+                                + "r.numberCustomersRated = r.numberCustomersRated + :ratingCount "
+                                + "where r.id = :restaurantId "
+                                + "and r.numberCustomersRated + :ratingCount > 0"),
+        @NamedQuery(
+                name = "restaurantAddressIds",
+                query = "select r.address.id from RestaurantEntity r"),
+        @NamedQuery(
+                name = "restaurantSuggestions",
+                query =
+                        "select r.uuid, r.restaurantName, r.customerRating from RestaurantEntity r"),
         @NamedQuery(
                 name = "restaurantByCategory",
                 query =
-                        "Select r from RestaurantEntity r where id in (select rc.restaurantId from RestaurantCategoryEntity rc where rc.categoryId = "
+                        "select " + RestaurantEntity.LISTING
+                                + "where r.id in (select rc.restaurantId "
+                                + "from RestaurantCategoryEntity rc where rc.categoryId = "
                                 + "(select c.id from CategoryEntity c where "
-                                + "c.uuid=:categoryUuid) ) order by restaurant_name")
+                                + "c.uuid=:categoryUuid) ) order by r.restaurantName")
 })
 public class RestaurantEntity implements Serializable {
 
+    // Constructor expression and joins of the listing queries.
+    static final String LISTING =
+            "new com.upgrad.FoodOrderingApp.service.entity.RestaurantListing("
+                    + "r.uuid, r.restaurantName, r.photoUrl, r.customerRating, r.avgPrice, "
+                    + "r.numberCustomersRated, a.uuid, a.flatBuilNo, a.locality, a.city, "
+                    + "a.pincode, s.uuid, s.stateName) "
+                    + "from RestaurantEntity r join r.address a join a.state s ";
+
     @Id
     @Column(name = "id")
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,116 @@
+package com.upgrad.FoodOrderingApp.service.entity;
+
+/**
+ * Restaurant as shown in a restaurant listing, along with its address and state. Read by the
+ * listing queries of {@link RestaurantEntity} in a single statement straight into this row, so no
+ * entity is loaded or tracked by the persistence context for a listing.
+ */
+public final class RestaurantListing {
+
+    private final String uuid;
+
+    private final String restaurantName;
+
+    private final String photoUrl;
+
+    private final Double customerRating;
+
+    private final Integer avgPrice;
+
+    private final Integer numberCustomersRated;
+
+    private final String addressUuid;
+
+    private final String flatBuilNo;
+
+    private final String locality;
+
+    private final String city;
+
+    private final String pincode;
+
+    private final String stateUuid;
+
+    private final String stateName;
+
+    public RestaurantListing(
+            final String uuid,
+            final String restaurantName,
+            final String photoUrl,
+            final Double customerRating,
+            final Integer avgPrice,
+            final Integer numberCustomersRated,
+            final String addressUuid,
+            final String flatBuilNo,
+            final String locality,
+            final String city,
+            final String pincode,
+            final String stateUuid,
+            final String stateName) {
+        this.uuid = uuid;
+        this.restaurantName = restaurantName;
+        this.photoUrl = photoUrl;
+        this.customerRating = customerRating;
+        this.avgPrice = avgPrice;
+        this.numberCustomersRated = numberCustomersRated;
+        this.addressUuid = addressUuid;
+        this.flatBuilNo = flatBuilNo;
+        this.locality = locality;
+        this.city = city;
+        this.pincode = pincode;
+        this.stateUuid = stateUuid;
+        this.stateName = stateName;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getRestaurantName() {
+        return restaurantName;
+    }
+
+    public String getPhotoUrl() {
+        return photoUrl;
+    }
+
+    public Double getCustomerRating() {
+        return customerRating;
+    }
+
+    public Integer getAvgPrice() {
+        return avgPrice;
+    }
+
+    public Integer getNumberCustomersRated() {
+        return numberCustomersRated;
+    }
+
+    public String getAddressUuid() {
+        return addressUuid;
+    }
+
+    public String getFlatBuilNo() {
+        return flatBuilNo;
+    }
+
+    public String getLocality() {
+        return locality;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getPincode() {
+        return pincode;
+    }
+
+    public String getStateUuid() {
+        return stateUuid;
+    }
+
+    public String getStateName() {
+        return stateName;
+    }
+}
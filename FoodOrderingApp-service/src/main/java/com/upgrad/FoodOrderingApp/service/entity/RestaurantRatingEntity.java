@@ -0,0 +1,128 @@
+package com.upgrad.FoodOrderingApp.service.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.NamedNativeQueries;
+import javax.persistence.NamedNativeQuery;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+@Entity
+@Table(name = "restaurant_rating")
+@NamedNativeQueries({
+        // The rating before the statement is read in the same statement; it is null both for a first
+        // rating and for a row inserted by a concurrent transaction, which xmax = 0 tells apart.
+        @NamedNativeQuery(
+                name = "saveRestaurantRating",
+                query =
+                        "with previous as (select rating from restaurant_rating "
+                                + "where customer_id = :customerId and restaurant_id = :restaurantId) "
+                                + "insert into restaurant_rating (customer_id, restaurant_id, rating, weight) "
+                                + "values (:customerId, :restaurantId, :rating, 1) "
+                                + "on conflict (customer_id, restaurant_id) do update set rating = excluded.rating "
+                                + "returning (select rating from previous), xmax = 0"),
+        @NamedNativeQuery(
+                name = "compactRestaurantRatings",
+                query = RestaurantRatingEntity.COMPACT_RATINGS + "returning r.uuid"),
+        @NamedNativeQuery(
+                name = "compactRestaurantRatingsOfRestaurant",
+                query = RestaurantRatingEntity.COMPACT_RATINGS + "and r.id = :restaurantId returning r.uuid")
+})
+public class RestaurantRatingEntity implements Serializable {
+
+    // Sets the rating and the number of raters of every restaurant whose values drifted from its
+    // ledger rows; a restaurant without rows has neither rating nor raters.
+    static final String COMPACT_RATINGS =
+            "update restaurant r set customer_rating = coalesce(l.rating_sum / l.rating_count, 0), "
+                    + "number_of_customers_rated = coalesce(l.rating_count, 0) "
+                    + "from restaurant rl left join (select restaurant_id, "
+                    + "sum(rating * weight) as rating_sum, sum(weight) as rating_count "
+                    + "from restaurant_rating group by restaurant_id) l on l.restaurant_id = rl.id "
+                    + "where rl.id = r.id "
+                    + "and (r.number_of_customers_rated <> coalesce(l.rating_count, 0) "
+                    + "or abs(r.customer_rating - coalesce(l.rating_sum / l.rating_count, 0)) > 0.000001) ";
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // null for the row carrying over the ratings from before the ledger existed
+    @Column(name = "customer_id")
+    private Integer customerId;
+
+    @Column(name = "restaurant_id")
+    @NotNull
+    private Integer restaurantId;
+
+    @Column(name = "rating")
+    @NotNull
+    private Double rating;
+
+    @Column(name = "weight")
+    @NotNull
+    private Integer weight;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Integer customerId) {
+        this.customerId = customerId;
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(Integer restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public Double getRating() {
+        return rating;
+    }
+
+    public void setRating(Double rating) {
+        this.rating = rating;
+    }
+
+    public Integer getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Integer weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return new EqualsBuilder().append(this, obj).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(this).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
+    }
+}
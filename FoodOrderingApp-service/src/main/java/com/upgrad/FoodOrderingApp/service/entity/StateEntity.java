@@ -4,6 +4,8 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -11,13 +13,27 @@ import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
+// States, payment methods, coupons and categories are seed data the application never writes;
+// they and their lookup queries are kept in the second-level cache, see application.conf.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "state")
 @Entity
 @Table(name = "state")
 @NamedQueries({
         @NamedQuery(
                 name = "getStateByUuid",
-                query = "select s from StateEntity s where s.uuid=:stateUuid"),
-        @NamedQuery(name = "getAllStates", query = "select s from StateEntity s")
+                query = "select s from StateEntity s where s.uuid=:stateUuid",
+                hints = {
+                        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                        @QueryHint(name = "org.hibernate.cacheRegion", value = "reference-queries")
+                }),
+        @NamedQuery(
+                name = "getAllStates",
+                query = "select s from StateEntity s",
+                hints = {
+                        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                        @QueryHint(name = "org.hibernate.cacheRegion", value = "reference-queries")
+                })
 })
 public class StateEntity implements Serializable {
 